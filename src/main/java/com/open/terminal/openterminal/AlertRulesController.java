@@ -0,0 +1,163 @@
+package com.open.terminal.openterminal;
+
+import com.open.terminal.openterminal.manage.AlertManager;
+import com.open.terminal.openterminal.model.AlertRule;
+import com.open.terminal.openterminal.model.MetricType;
+import com.open.terminal.openterminal.util.AlertUtil;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.stage.Stage;
+
+import java.util.Arrays;
+
+/**
+ * @description: 告警规则配置：上方列表，下方表单，选中规则后可修改或删除
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class AlertRulesController {
+    private static final String[] SCOPE_TYPES = {AlertRule.SCOPE_ALL, AlertRule.SCOPE_GROUP, AlertRule.SCOPE_HOST};
+
+    @FXML private TableView<AlertRule> ruleTable;
+    @FXML private TableColumn<AlertRule, String> colEnabled;
+    @FXML private TableColumn<AlertRule, String> colName;
+    @FXML private TableColumn<AlertRule, String> colScope;
+    @FXML private TableColumn<AlertRule, String> colCondition;
+
+    @FXML private TextField nameField;
+    @FXML private ComboBox<String> scopeTypeBox;
+    @FXML private TextField scopeField;
+    @FXML private ComboBox<MetricType> metricBox;
+    @FXML private ComboBox<String> operatorBox;
+    @FXML private TextField thresholdField;
+    @FXML private Label unitLabel;
+    @FXML private TextField samplesField;
+    @FXML private TextField durationField;
+    @FXML private CheckBox enabledCheck;
+
+    private Stage dialogStage;
+    // 正在编辑的规则，为空表示新建
+    private AlertRule editing;
+
+    public void setDialogStage(Stage dialogStage) {
+        this.dialogStage = dialogStage;
+    }
+
+    @FXML
+    public void initialize() {
+        colEnabled.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().isEnabled() ? "启用" : "停用"));
+        colName.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getName()));
+        colScope.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().describeScope()));
+        colCondition.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().describe()));
+
+        scopeTypeBox.setItems(FXCollections.observableArrayList("全部主机", "分组", "主机"));
+        scopeTypeBox.getSelectionModel().selectedIndexProperty().addListener((obs, oldVal, newVal) -> {
+            scopeField.setDisable(newVal.intValue() <= 0);
+            scopeField.setPromptText(newVal.intValue() == 2 ? "host 或 user@host:port" : "分组名");
+        });
+        metricBox.setItems(FXCollections.observableArrayList(MetricType.values()));
+        metricBox.valueProperty().addListener((obs, oldVal, newVal) -> unitLabel.setText(newVal == null ? "" : newVal.unit()));
+        operatorBox.setItems(FXCollections.observableArrayList(">", "<"));
+
+        ruleTable.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal != null) {
+                fillForm(newVal);
+            }
+        });
+
+        loadData();
+        handleNew();
+    }
+
+    private void loadData() {
+        ruleTable.setItems(FXCollections.observableArrayList(AlertManager.getInstance().getRules()));
+    }
+
+    private void fillForm(AlertRule rule) {
+        editing = rule;
+        nameField.setText(rule.getName());
+        int scopeIndex = Arrays.asList(SCOPE_TYPES).indexOf(rule.getScopeType());
+        scopeTypeBox.getSelectionModel().select(Math.max(scopeIndex, 0));
+        scopeField.setText(rule.getScope());
+        metricBox.setValue(rule.getMetric());
+        operatorBox.setValue(rule.isAbove() ? ">" : "<");
+        thresholdField.setText(String.valueOf(rule.getThreshold()));
+        samplesField.setText(String.valueOf(rule.getSamples()));
+        durationField.setText(String.valueOf(rule.getDurationSeconds()));
+        enabledCheck.setSelected(rule.isEnabled());
+    }
+
+    @FXML
+    private void handleNew() {
+        ruleTable.getSelectionModel().clearSelection();
+        editing = null;
+        nameField.clear();
+        scopeTypeBox.getSelectionModel().selectFirst();
+        scopeField.clear();
+        metricBox.setValue(MetricType.CPU);
+        operatorBox.setValue(">");
+        thresholdField.setText("90");
+        samplesField.setText("2");
+        durationField.setText("0");
+        enabledCheck.setSelected(true);
+    }
+
+    @FXML
+    private void handleSave() {
+        int scopeIndex = Math.max(scopeTypeBox.getSelectionModel().getSelectedIndex(), 0);
+        String scope = scopeField.getText() == null ? "" : scopeField.getText().trim();
+        if (scopeIndex > 0 && scope.isEmpty()) {
+            AlertUtil.showAlert("错误", "请填写分组名或主机");
+            return;
+        }
+        double threshold;
+        int samples;
+        int duration;
+        try {
+            threshold = Double.parseDouble(thresholdField.getText().trim());
+            samples = Math.max(Integer.parseInt(samplesField.getText().trim()), 1);
+            duration = Math.max(Integer.parseInt(durationField.getText().trim()), 0);
+        } catch (NumberFormatException e) {
+            AlertUtil.showAlert("错误", "阈值、连续次数和持续时间必须是数字");
+            return;
+        }
+
+        // 评估线程可能正在读取旧规则，修改时总是换成新对象
+        AlertRule rule = new AlertRule();
+        if (editing != null) {
+            rule.setId(editing.getId());
+        }
+        rule.setName(nameField.getText().trim());
+        rule.setScopeType(SCOPE_TYPES[scopeIndex]);
+        rule.setScope(scopeIndex > 0 ? scope : null);
+        rule.setMetric(metricBox.getValue());
+        rule.setAbove(">".equals(operatorBox.getValue()));
+        rule.setThreshold(threshold);
+        rule.setSamples(samples);
+        rule.setDurationSeconds(duration);
+        rule.setEnabled(enabledCheck.isSelected());
+        AlertManager.getInstance().addOrUpdate(rule);
+
+        loadData();
+        ruleTable.getSelectionModel().select(rule);
+    }
+
+    @FXML
+    private void handleDelete() {
+        AlertRule rule = ruleTable.getSelectionModel().getSelectedItem();
+        if (rule == null) {
+            return;
+        }
+        AlertManager.getInstance().remove(rule.getId());
+        loadData();
+        handleNew();
+    }
+
+    @FXML
+    private void handleClose() {
+        dialogStage.close();
+    }
+}
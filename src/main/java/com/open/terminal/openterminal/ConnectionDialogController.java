@@ -23,6 +23,7 @@ public class ConnectionDialogController {
     @FXML private TextField portField;
     @FXML private TextField userField;
     @FXML private PasswordField passField;
+    @FXML private TextField groupField;
 
     private Stage dialogStage;
     private MainController mainController;
@@ -52,6 +53,7 @@ public class ConnectionDialogController {
         String port = portField.getText().trim();
         String user = userField.getText().trim();
         String pass = passField.getText();
+        String group = groupField.getText().trim();
 
         // 如果存在已有的连接信息，即更新连接信息配置情况，则将用户最新输入的连接信息更新到里面
         if (savedConnection != null && StringUtils.isNotBlank(savedConnection.getId())) {
@@ -60,6 +62,7 @@ public class ConnectionDialogController {
             savedConnection.setPort(Integer.parseInt(port));
             savedConnection.setUser(user);
             savedConnection.setPassword(pass);
+            savedConnection.setGroup(group.isEmpty() ? null : group);
         }
 
         if (name.isEmpty() || host.isEmpty() || user.isEmpty()) {
@@ -82,6 +85,7 @@ public class ConnectionDialogController {
         portField.setText(String.valueOf(savedConnection.getPort()));
         userField.setText(savedConnection.getUser());
         passField.setText(savedConnection.getPassword());
+        groupField.setText(savedConnection.getGroup());
     }
 
     @FXML
@@ -1,30 +1,79 @@
 package com.open.terminal.openterminal;
 
+import com.open.terminal.openterminal.component.inventory.ConnectionSearchIndex;
+import com.open.terminal.openterminal.component.inventory.CsvInventoryParser;
+import com.open.terminal.openterminal.component.inventory.SshConfigParser;
+import com.open.terminal.openterminal.component.probe.ReachabilityProber;
+import com.open.terminal.openterminal.fun.ProbeListener;
 import com.open.terminal.openterminal.manage.ConnectionManager;
+import com.open.terminal.openterminal.model.ProbeResult;
 import com.open.terminal.openterminal.model.SavedConnection;
+import com.open.terminal.openterminal.util.AlertUtil;
+import com.open.terminal.openterminal.util.ThreadUtil;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
+import javafx.stage.FileChooser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Comparator;
 import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 public class ConnectionManagerController {
+    private static final Logger log = LoggerFactory.getLogger(ConnectionManagerController.class);
+    /**
+     * 导入时每解析这么多条刷新一次进度
+     */
+    private static final int PROGRESS_STEP = 5000;
+    /**
+     * 连通性探测周期，缓存未过期（或仍在退避中）的主机会被跳过
+     */
+    private static final long PROBE_PERIOD_SECONDS = 30;
 
     @FXML private TableView<SavedConnection> connectionTable;
     @FXML private TableColumn<SavedConnection, String> colName;
     @FXML private TableColumn<SavedConnection, String> colHost;
+    @FXML private TableColumn<SavedConnection, String> colGroup;
     @FXML private TableColumn<SavedConnection, String> colUser;
+    @FXML private TableColumn<SavedConnection, String> colTags;
     @FXML private TableColumn<SavedConnection, Integer> colPort;
     @FXML private TableColumn<SavedConnection, String> colLastConnected;
+    @FXML private TableColumn<SavedConnection, ProbeResult> colStatus;
+    @FXML private TableColumn<SavedConnection, Long> colRtt;
     @FXML private TableColumn<SavedConnection, SavedConnection> colAction;
     @FXML private TextField searchField;
+    @FXML private Label statusLabel;
 
     private MainController mainController; // 用于回调打开Tab
+    // 当前连接列表的搜索索引，数据变化后在后台重建
+    private ConnectionSearchIndex searchIndex = ConnectionSearchIndex.EMPTY;
+    // 丢弃过期的索引构建结果
+    private long indexGeneration = 0;
+    private boolean importing = false;
+    // 探测结果在虚拟线程上陆续返回，合并后定时刷新表格
+    private final AtomicBoolean probeDirty = new AtomicBoolean(false);
+    private final ProbeListener probeListener = (host, port, result) -> probeDirty.set(true);
+    private ScheduledFuture<?> probeTask;
+    private ScheduledFuture<?> probeRefreshTask;
 
     public void setMainController(MainController mainController) {
         this.mainController = mainController;
@@ -35,8 +84,13 @@ public class ConnectionManagerController {
         // 绑定列
         colName.setCellValueFactory(new PropertyValueFactory<>("name"));
         colHost.setCellValueFactory(new PropertyValueFactory<>("host"));
+        colGroup.setCellValueFactory(new PropertyValueFactory<>("group"));
         colUser.setCellValueFactory(new PropertyValueFactory<>("user"));
         colPort.setCellValueFactory(new PropertyValueFactory<>("port"));
+        colTags.setCellValueFactory(cellData -> {
+            List<String> tags = cellData.getValue().getTags();
+            return new SimpleObjectProperty<>(tags == null ? "" : String.join(", ", tags));
+        });
 
         colLastConnected.setCellValueFactory(cellData -> {
             long ts = cellData.getValue().getLastConnected();
@@ -44,6 +98,50 @@ public class ConnectionManagerController {
             return new SimpleObjectProperty<>(time);
         });
 
+        // 连通性和延迟
+        ReachabilityProber prober = ReachabilityProber.getInstance();
+        colStatus.setCellValueFactory(cellData ->
+                new SimpleObjectProperty<>(prober.get(cellData.getValue().getHost(), cellData.getValue().getPort())));
+        colStatus.setComparator(Comparator.nullsLast(Comparator.comparing(ProbeResult::getStatus)));
+        colStatus.setCellFactory(param -> new TableCell<>() {
+            @Override
+            protected void updateItem(ProbeResult item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty) {
+                    setText(null);
+                    setTooltip(null);
+                } else if (item == null) {
+                    setText("检测中");
+                    setStyle("-fx-text-fill: gray;");
+                    setTooltip(null);
+                } else {
+                    setText("● " + item.getStatus());
+                    setStyle("-fx-text-fill: " + item.getStatus().getColor() + ";");
+                    setTooltip(new Tooltip(item.getDetail() + "\n检测于 "
+                            + new SimpleDateFormat("HH:mm:ss").format(new Date(item.getCheckedAt()))));
+                }
+            }
+        });
+        colRtt.setCellValueFactory(cellData -> {
+            ProbeResult result = prober.get(cellData.getValue().getHost(), cellData.getValue().getPort());
+            return new SimpleObjectProperty<>(result == null || result.getRttMillis() < 0 ? null : result.getRttMillis());
+        });
+        colRtt.setCellFactory(param -> new TableCell<>() {
+            @Override
+            protected void updateItem(Long item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty ? null : item == null ? "-" : item + " ms");
+            }
+        });
+        // 连接管理器 Tab 显示期间才定时探测
+        connectionTable.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) {
+                stopProbing();
+            } else {
+                startProbing();
+            }
+        });
+
         // 操作列 (连接、编辑、删除)
         colAction.setCellValueFactory(param -> new SimpleObjectProperty<>(param.getValue()));
         colAction.setCellFactory(param -> new TableCell<>() {
@@ -69,8 +167,8 @@ public class ConnectionManagerController {
             }
         });
 
-        // 搜索过滤
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> loadData(newVal));
+        // 搜索过滤：查索引，不再逐条比较
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> applyFilter());
 
         // 双击行直接连接
         connectionTable.setRowFactory(tv -> {
@@ -83,16 +181,148 @@ public class ConnectionManagerController {
             return row;
         });
 
+        loadData();
+    }
+
+    /**
+     * 重新读取连接列表，在后台建好索引后按当前搜索词刷新表格
+     */
+    private void loadData() {
         loadData(null);
     }
 
-    private void loadData(String filter) {
-        var all = ConnectionManager.getInstance().getAll();
-        if (filter != null && !filter.isEmpty()) {
-            String f = filter.toLowerCase();
-            all.removeIf(c -> !c.getName().toLowerCase().contains(f) && !c.getHost().contains(f));
+    /**
+     * @param onLoaded 表格刷新后在界面线程执行，可为 null
+     */
+    private void loadData(Runnable onLoaded) {
+        long generation = ++indexGeneration;
+        ThreadUtil.submitTask(() -> {
+            List<SavedConnection> all = ConnectionManager.getInstance().getAll();
+            ConnectionSearchIndex index = new ConnectionSearchIndex(all);
+            ReachabilityProber.getInstance().probeAll(all, false);
+            Platform.runLater(() -> {
+                if (generation == indexGeneration) {
+                    searchIndex = index;
+                    applyFilter();
+                    if (onLoaded != null) {
+                        onLoaded.run();
+                    }
+                }
+            });
+        });
+    }
+
+    private void applyFilter() {
+        List<SavedConnection> result = searchIndex.search(searchField.getText());
+        connectionTable.setItems(FXCollections.observableArrayList(result));
+        if (!importing) {
+            statusLabel.setText(result.size() == searchIndex.size()
+                    ? "共 " + searchIndex.size() + " 个连接"
+                    : "匹配 " + result.size() + " / " + searchIndex.size() + " 个连接");
+        }
+    }
+
+    private void startProbing() {
+        if (probeTask != null) {
+            return;
+        }
+        ReachabilityProber prober = ReachabilityProber.getInstance();
+        prober.addListener(probeListener);
+        probeTask = ThreadUtil.scheduleAtFixedRate(
+                () -> prober.probeAll(ConnectionManager.getInstance().getAll(), false), PROBE_PERIOD_SECONDS, TimeUnit.SECONDS);
+        probeRefreshTask = ThreadUtil.scheduleAtFixedRate(() -> {
+            if (probeDirty.getAndSet(false)) {
+                Platform.runLater(connectionTable::refresh);
+            }
+        }, 500, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopProbing() {
+        if (probeTask == null) {
+            return;
+        }
+        ReachabilityProber.getInstance().removeListener(probeListener);
+        probeTask.cancel(false);
+        probeRefreshTask.cancel(false);
+        probeTask = null;
+        probeRefreshTask = null;
+    }
+
+    /**
+     * 忽略缓存，立即重新检测当前列表中的连接
+     */
+    @FXML
+    private void handleProbe() {
+        ReachabilityProber.getInstance().probeAll(new ArrayList<>(connectionTable.getItems()), true);
+        statusLabel.setText("正在检测 " + connectionTable.getItems().size() + " 个连接的连通性...");
+    }
+
+    /**
+     * 从 ssh_config 或 CSV 清单批量导入，.csv / .tsv 按清单解析，其余按 ssh_config 解析
+     */
+    @FXML
+    private void handleImport() {
+        if (importing) {
+            return;
+        }
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("导入连接（ssh_config 或 CSV）");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("所有文件", "*"),
+                new FileChooser.ExtensionFilter("CSV 清单", "*.csv", "*.tsv"));
+        Path sshDir = Paths.get(System.getProperty("user.home"), ".ssh");
+        if (Files.isDirectory(sshDir)) {
+            chooser.setInitialDirectory(sshDir.toFile());
+            chooser.setInitialFileName("config");
+        }
+        File file = chooser.showOpenDialog(connectionTable.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        importing = true;
+        statusLabel.setText("正在导入 " + file.getName() + " ...");
+        ThreadUtil.submitTask(() -> importFile(file.toPath()));
+    }
+
+    private void importFile(Path file) {
+        List<SavedConnection> parsed = new ArrayList<>();
+        Consumer<SavedConnection> sink = conn -> {
+            parsed.add(conn);
+            if (parsed.size() % PROGRESS_STEP == 0) {
+                int n = parsed.size();
+                Platform.runLater(() -> statusLabel.setText("正在导入 " + file.getFileName() + "，已解析 " + n + " 条..."));
+            }
+        };
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        try {
+            int skipped;
+            if (name.endsWith(".csv") || name.endsWith(".tsv")) {
+                CsvInventoryParser parser = new CsvInventoryParser();
+                parser.parse(file, sink);
+                skipped = parser.getSkipped();
+            } else {
+                SshConfigParser parser = new SshConfigParser();
+                parser.parse(file, sink);
+                skipped = parser.getSkipped();
+            }
+            int added = ConnectionManager.getInstance().importAll(parsed);
+            int duplicated = parsed.size() - added;
+            log.info("从 {} 导入 {} 个连接，重复 {}，无效 {}", file, added, duplicated, skipped);
+            Platform.runLater(() -> {
+                importing = false;
+                loadData(() -> statusLabel.setText("导入完成：新增 " + added + " 个，重复跳过 " + duplicated + " 个"
+                        + (skipped > 0 ? "，无效 " + skipped + " 条" : "") + "，共 " + searchIndex.size() + " 个连接"));
+            });
+        } catch (IOException | RuntimeException e) {
+            // 路径无效、解析中的运行时异常也要复位 importing，否则之后无法再导入
+            log.error("导入连接失败: {}", file, e);
+            String message = e.getMessage() != null ? e.getMessage() : e.toString();
+            Platform.runLater(() -> {
+                importing = false;
+                statusLabel.setText("导入失败");
+                AlertUtil.showAlert("导入失败", message);
+            });
         }
-        connectionTable.setItems(FXCollections.observableArrayList(all));
     }
 
     @FXML
@@ -100,12 +330,21 @@ public class ConnectionManagerController {
         mainController.handleNewConnection();
     }
 
+    @FXML
+    private void handleAlertRules() {
+        mainController.showAlertRulesDialog();
+    }
+
+    @FXML
+    private void handleFleetDashboard() {
+        mainController.openFleetDashboard();
+    }
+
     private void handleConnect(SavedConnection conn) {
         if (mainController != null) {
-            // 更新最后连接时间
-            conn.setLastConnected(System.currentTimeMillis());
-            ConnectionManager.getInstance().save();
-            loadData(null); // 刷新界面
+            // 更新最后连接时间（只追加一条变更，后台写盘）
+            ConnectionManager.getInstance().markConnected(conn.getId());
+            connectionTable.refresh();
 
             // 调用主控制器打开 Tab
             mainController.createTab(conn);
@@ -125,7 +364,7 @@ public class ConnectionManagerController {
         alert.showAndWait().ifPresent(r -> {
             if (r == ButtonType.OK) {
                 ConnectionManager.getInstance().remove(conn.getId());
-                loadData(null);
+                loadData();
             }
         });
     }
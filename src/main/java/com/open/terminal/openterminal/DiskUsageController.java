@@ -0,0 +1,213 @@
+package com.open.terminal.openterminal;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+import com.open.terminal.openterminal.component.diskusage.DiskUsageScanner;
+import com.open.terminal.openterminal.fun.DiskUsageListener;
+import com.open.terminal.openterminal.model.DiskUsageEntry;
+import com.open.terminal.openterminal.util.FileUtil;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.stage.Stage;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * @description: 远程磁盘占用分析窗口，展示当前目录下各子项的大小并按大小排序，双击目录下钻
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class DiskUsageController {
+    @FXML private Label pathLabel;
+    @FXML private TableView<DiskUsageEntry> usageTable;
+    @FXML private TableColumn<DiskUsageEntry, String> nameCol;
+    @FXML private TableColumn<DiskUsageEntry, Number> sizeCol;
+    @FXML private TableColumn<DiskUsageEntry, Number> percentCol;
+    @FXML private TableColumn<DiskUsageEntry, String> statusCol;
+    @FXML private Label statusLabel;
+    @FXML private Label filesystemLabel;
+
+    private final ObservableList<DiskUsageEntry> entries = FXCollections.observableArrayList();
+    private Session session;
+    private Callable<ChannelSftp> channelFactory;
+    private String host;
+    private String currentDir;
+    private DiskUsageScanner scanner;
+    // 当前目录所有子项大小之和，百分比列以此为分母
+    private long totalBytes = 0;
+    // 大量结果同时到达时合并排序，每个脉冲最多一次
+    private boolean resortScheduled = false;
+
+    @FXML
+    public void initialize() {
+        nameCol.setCellValueFactory(cell -> cell.getValue().nameProperty());
+        sizeCol.setCellValueFactory(cell -> cell.getValue().sizeProperty());
+        percentCol.setCellValueFactory(cell -> cell.getValue().sizeProperty());
+        statusCol.setCellValueFactory(cell -> cell.getValue().statusProperty());
+
+        sizeCol.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(Number size, boolean empty) {
+                super.updateItem(size, empty);
+                setText(empty || size == null ? null : FileUtil.humanReadableByteCountBin(size.longValue()));
+            }
+        });
+        percentCol.setCellFactory(column -> new TableCell<>() {
+            private final ProgressBar bar = new ProgressBar();
+            { bar.setMaxWidth(Double.MAX_VALUE); }
+
+            @Override
+            protected void updateItem(Number size, boolean empty) {
+                super.updateItem(size, empty);
+                if (empty || size == null) {
+                    setGraphic(null);
+                } else {
+                    bar.setProgress(totalBytes > 0 ? (double) size.longValue() / totalBytes : 0);
+                    setGraphic(bar);
+                }
+            }
+        });
+
+        usageTable.setItems(entries);
+        sizeCol.setSortType(TableColumn.SortType.DESCENDING);
+        usageTable.getSortOrder().add(sizeCol);
+
+        usageTable.setRowFactory(tv -> {
+            TableRow<DiskUsageEntry> row = new TableRow<>();
+            row.setOnMouseClicked(event -> {
+                if (event.getClickCount() == 2 && !row.isEmpty() && row.getItem().isDirectory()) {
+                    scan(row.getItem().getPath(), false);
+                }
+            });
+            return row;
+        });
+    }
+
+    public void init(Session session, Callable<ChannelSftp> channelFactory, String host, String dir, Stage stage) {
+        this.session = session;
+        this.channelFactory = channelFactory;
+        this.host = host;
+        stage.setOnHidden(e -> cancelScan());
+        scan(dir, false);
+    }
+
+    @FXML
+    private void handleUp() {
+        if (currentDir == null || "/".equals(currentDir)) {
+            return;
+        }
+        int slash = currentDir.lastIndexOf('/');
+        scan(slash > 0 ? currentDir.substring(0, slash) : "/", false);
+    }
+
+    @FXML
+    private void handleRefresh() {
+        scan(currentDir, true);
+    }
+
+    @FXML
+    private void handleCancel() {
+        cancelScan();
+    }
+
+    private void cancelScan() {
+        if (scanner != null) {
+            scanner.cancel();
+            scanner = null;
+        }
+    }
+
+    private void scan(String dir, boolean force) {
+        cancelScan();
+        currentDir = dir;
+        pathLabel.setText(dir);
+        entries.clear();
+        totalBytes = 0;
+        statusLabel.setText("正在列出目录...");
+        filesystemLabel.setText("");
+
+        DiskUsageScanner[] self = new DiskUsageScanner[1];
+        self[0] = new DiskUsageScanner(session, channelFactory, host, dir, force, new DiskUsageListener() {
+            @Override
+            public void onListed(List<DiskUsageEntry> listed) {
+                Platform.runLater(() -> {
+                    if (scanner == self[0]) {
+                        entries.setAll(listed);
+                        recalculateTotal();
+                    }
+                });
+            }
+
+            @Override
+            public void onSize(DiskUsageEntry entry, long bytes, String status) {
+                Platform.runLater(() -> {
+                    if (scanner != self[0]) {
+                        return;
+                    }
+                    // 失败或刚开始计算时保留已有的数值
+                    if (bytes > 0 || DiskUsageEntry.Status.DONE.equals(status)) {
+                        entry.sizeProperty().set(bytes);
+                    }
+                    entry.statusProperty().set(status);
+                    scheduleResort();
+                });
+            }
+
+            @Override
+            public void onStatus(String message) {
+                Platform.runLater(() -> {
+                    if (scanner == self[0]) {
+                        statusLabel.setText(message);
+                    }
+                });
+            }
+
+            @Override
+            public void onFilesystem(String summary) {
+                Platform.runLater(() -> {
+                    if (scanner == self[0]) {
+                        filesystemLabel.setText(summary);
+                    }
+                });
+            }
+
+            @Override
+            public void onFinished(boolean cancelled) {
+                Platform.runLater(() -> {
+                    if (scanner == self[0] && cancelled) {
+                        statusLabel.setText("已取消");
+                    }
+                });
+            }
+        });
+        scanner = self[0];
+        scanner.start();
+    }
+
+    private void scheduleResort() {
+        if (resortScheduled) {
+            return;
+        }
+        resortScheduled = true;
+        Platform.runLater(() -> {
+            resortScheduled = false;
+            recalculateTotal();
+        });
+    }
+
+    private void recalculateTotal() {
+        long sum = 0;
+        for (DiskUsageEntry entry : entries) {
+            sum += entry.sizeProperty().get();
+        }
+        totalBytes = sum;
+        usageTable.sort();
+        usageTable.refresh();
+        pathLabel.setText(currentDir + "  (" + FileUtil.humanReadableByteCountBin(totalBytes) + ")");
+    }
+}
@@ -1,6 +1,12 @@
 package com.open.terminal.openterminal;
 
+import com.open.terminal.openterminal.manage.DownloadCache;
+import com.open.terminal.openterminal.manage.TransferManager;
 import com.open.terminal.openterminal.model.DownloadTask;
+import com.open.terminal.openterminal.model.DownloadTask.TaskStatus;
+import com.open.terminal.openterminal.model.DownloadTask.VerifyStatus;
+import com.open.terminal.openterminal.model.TransferPriority;
+import com.open.terminal.openterminal.util.AlertUtil;
 import com.open.terminal.openterminal.util.FileUtil;
 import com.open.terminal.openterminal.util.ThreadUtil;
 import javafx.application.Platform;
@@ -8,10 +14,17 @@ import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.scene.chart.AreaChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
+import javafx.scene.control.cell.ComboBoxTableCell;
+import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -24,6 +37,10 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * @description:
@@ -38,24 +55,50 @@ public class DownloadFileListController {
     private TableView<DownloadTask> downloadTable;
 
     @FXML private TableColumn<DownloadTask, String> fileNameCol;
+    @FXML private TableColumn<DownloadTask, String> typeCol;
     @FXML private TableColumn<DownloadTask, String> sizeCol;
     @FXML private TableColumn<DownloadTask, Double> progressCol;
+    @FXML private TableColumn<DownloadTask, String> speedCol;
+    @FXML private TableColumn<DownloadTask, String> avgSpeedCol;
+    @FXML private TableColumn<DownloadTask, String> etaCol;
     @FXML private TableColumn<DownloadTask, String> statusCol;
+    @FXML private TableColumn<DownloadTask, String> verifyCol;
+    @FXML private TableColumn<DownloadTask, TransferPriority> priorityCol;
     @FXML private TableColumn<DownloadTask, String> actionCol;
 
+    // 限速与并发设置
+    @FXML private TextField bandwidthField;
+    @FXML private TextField cacheLimitField;
+    @FXML private Spinner<Integer> globalConcurrencySpinner;
+    @FXML private Spinner<Integer> sessionConcurrencySpinner;
+    @FXML private CheckBox verifyCheck;
+
     @FXML private Label statusLabel;
+    @FXML private Label globalSpeedLabel;
     @FXML private ProgressIndicator globalProgress;
 
+    // 全局带宽曲线
+    @FXML private AreaChart<Number, Number> bandwidthChart;
+    @FXML private NumberAxis bandwidthTimeAxis;
+    private final XYChart.Series<Number, Number> bandwidthSeries = new XYChart.Series<>();
+    private final ListChangeListener<Double> historyListener = change -> refreshBandwidthChart();
+    private final ChangeListener<Number> speedListener = (obs, oldVal, newVal) -> refreshGlobalSpeed(newVal.doubleValue());
+
     private Stage dialogStage;
 
     public void setDialogStage(Stage dialogStage) {
         this.dialogStage = dialogStage;
+        // 弹窗关闭后解除对全局调度器的监听，避免泄漏
+        dialogStage.setOnHidden(e -> {
+            TransferManager.getInstance().getThroughputHistory().removeListener(historyListener);
+            TransferManager.getInstance().globalSpeedProperty().removeListener(speedListener);
+        });
     }
 
     // 接收 TerminalController 传来的列表
     public void setDownloadTasks(ObservableList<DownloadTask> tasks) {
         downloadTable.setItems(tasks);
-        statusLabel.setText("共 " + tasks.size() + " 个任务");
+        refreshStatus();
     }
 
     @FXML
@@ -78,15 +121,37 @@ public class DownloadFileListController {
             }
         });
 
-        // 2. 操作按钮
+        // 2. 优先级：双击单元格下拉选择，修改后立即重新调度
+        priorityCol.setCellFactory(ComboBoxTableCell.forTableColumn(TransferPriority.values()));
+        priorityCol.setOnEditCommit(e -> TransferManager.getInstance().setPriority(e.getRowValue(), e.getNewValue()));
+
+        // 3. 操作按钮：暂停/继续、取消、打开，根据任务状态显示
         actionCol.setCellFactory(column -> new TableCell<DownloadTask, String>() {
-            private final Button btn = new Button("打开");
+            private final Button btnPause = new Button();
+            private final Button btnCancel = new Button("取消");
+            private final Button btnOpen = new Button("打开");
+            private final HBox pane = new HBox(5);
             {
-                btn.setStyle("-fx-background-color: #3c3f41; -fx-text-fill: white; -fx-font-size: 10px;-fx-cursor: hand;");
-                btn.setOnAction(e -> {
+                String style = "-fx-background-color: #3c3f41; -fx-text-fill: white; -fx-font-size: 10px;-fx-cursor: hand;";
+                btnPause.setStyle(style);
+                btnCancel.setStyle(style);
+                btnOpen.setStyle(style);
+                btnPause.setOnAction(e -> {
+                    DownloadTask task = getTableView().getItems().get(getIndex());
+                    String status = task.statusProperty().get();
+                    if (TaskStatus.PAUSED.equals(status) || TaskStatus.FAILED.equals(status)) {
+                        TransferManager.getInstance().resume(task);
+                    } else {
+                        TransferManager.getInstance().pause(task);
+                    }
+                });
+                btnCancel.setOnAction(e -> TransferManager.getInstance().cancel(getTableView().getItems().get(getIndex())));
+                btnOpen.setOnAction(e -> {
                     // 打开文件
                     DownloadTask downloadTask = getTableView().getItems().get(getIndex());
-                    Path localFile = FileUtil.localDownloadDir.resolve(downloadTask.getFileName());
+                    Path localFile = downloadTask.getLocalPath() != null
+                            ? downloadTask.getLocalPath()
+                            : FileUtil.localDownloadDir.resolve(downloadTask.getFileName());
                     try {
                         FileUtil.openWithSystemChooser(localFile.toFile());
                     } catch (IOException ex) {
@@ -95,15 +160,146 @@ public class DownloadFileListController {
                 });
             }
             @Override
-            protected void updateItem(String item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty) {
+            protected void updateItem(String status, boolean empty) {
+                super.updateItem(status, empty);
+                if (empty || status == null) {
                     setGraphic(null);
+                    return;
+                }
+                pane.getChildren().clear();
+                if (TaskStatus.COMPLETED.equals(status)) {
+                    // 中转任务没有本地文件
+                    DownloadTask task = getTableView().getItems().get(getIndex());
+                    if (!DownloadTask.TransferType.RELAY.equals(task.getType())) {
+                        pane.getChildren().add(btnOpen);
+                    }
+                } else if (!TaskStatus.CANCELLED.equals(status)) {
+                    boolean stopped = TaskStatus.PAUSED.equals(status) || TaskStatus.FAILED.equals(status);
+                    btnPause.setText(stopped ? (TaskStatus.FAILED.equals(status) ? "重试" : "继续") : "暂停");
+                    // 不可暂停的任务（编辑回写）失败后也不能重试，编辑器再次保存时会重新回写
+                    if (getTableView().getItems().get(getIndex()).isPausable()) {
+                        pane.getChildren().add(btnPause);
+                    }
+                    pane.getChildren().add(btnCancel);
+                }
+                setGraphic(pane);
+            }
+        });
+
+        // 4. 校验结果：一致为绿色、不一致为红色，悬停显示算法和两端摘要
+        verifyCol.setCellFactory(column -> new TableCell<DownloadTask, String>() {
+            private final Tooltip tooltip = new Tooltip();
+
+            @Override
+            protected void updateItem(String status, boolean empty) {
+                super.updateItem(status, empty);
+                if (empty || status == null) {
+                    setText(null);
+                    setTooltip(null);
+                    setStyle("");
+                    return;
+                }
+                setText(status);
+                String detail = getTableView().getItems().get(getIndex()).verifyDetailProperty().get();
+                if (detail != null) {
+                    tooltip.setText(detail);
+                    setTooltip(tooltip);
+                } else {
+                    setTooltip(null);
+                }
+                if (VerifyStatus.MATCH.equals(status)) {
+                    setStyle("-fx-text-fill: #2ecc71;");
+                } else if (VerifyStatus.MISMATCH.equals(status) || VerifyStatus.ERROR.equals(status)) {
+                    setStyle("-fx-text-fill: #e74c3c;");
                 } else {
-                    setGraphic(btn);
+                    setStyle("");
                 }
             }
         });
+
+        // 5. 限速、并发与校验设置，直接作用于全局调度器
+        TransferManager manager = TransferManager.getInstance();
+        verifyCheck.setSelected(manager.isVerifyEnabled());
+        verifyCheck.selectedProperty().addListener((obs, oldVal, selected) -> manager.setVerifyEnabled(selected));
+        long limit = manager.getBandwidthLimit();
+        bandwidthField.setText(limit > 0 ? String.valueOf(limit / 1024) : "0");
+        bandwidthField.setOnAction(e -> applyBandwidthLimit());
+        bandwidthField.focusedProperty().addListener((obs, oldVal, focused) -> {
+            if (!focused) {
+                applyBandwidthLimit();
+            }
+        });
+        cacheLimitField.setText(String.valueOf(DownloadCache.getInstance().getMaxSizeBytes() / 1024 / 1024));
+        cacheLimitField.setOnAction(e -> applyCacheLimit());
+        cacheLimitField.focusedProperty().addListener((obs, oldVal, focused) -> {
+            if (!focused) {
+                applyCacheLimit();
+            }
+        });
+        globalConcurrencySpinner.setValueFactory(
+                new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 16, manager.getMaxGlobalConcurrency()));
+        sessionConcurrencySpinner.setValueFactory(
+                new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 8, manager.getMaxSessionConcurrency()));
+        globalConcurrencySpinner.valueProperty().addListener((obs, oldVal, newVal) ->
+                manager.setConcurrency(newVal, sessionConcurrencySpinner.getValue()));
+        sessionConcurrencySpinner.valueProperty().addListener((obs, oldVal, newVal) ->
+                manager.setConcurrency(globalConcurrencySpinner.getValue(), newVal));
+
+        // 6. 全局带宽曲线与速度
+        bandwidthChart.getData().add(bandwidthSeries);
+        manager.getThroughputHistory().addListener(historyListener);
+        manager.globalSpeedProperty().addListener(speedListener);
+        refreshBandwidthChart();
+        refreshGlobalSpeed(manager.globalSpeedProperty().get());
+    }
+
+    /**
+     * 历史曲线每秒只增加一个点，直接重建 120 个点的数据即可
+     */
+    private void refreshBandwidthChart() {
+        var history = TransferManager.getInstance().getThroughputHistory();
+        int size = history.size();
+        java.util.List<XYChart.Data<Number, Number>> points = new java.util.ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // x 轴为距离现在的秒数，最新的点在 0
+            points.add(new XYChart.Data<>(i - size + 1, history.get(i) / 1024.0));
+        }
+        bandwidthSeries.getData().setAll(points);
+    }
+
+    private void refreshGlobalSpeed(double bytesPerSecond) {
+        globalSpeedLabel.setText("总速度 " + FileUtil.humanReadableByteCountBin((long) bytesPerSecond) + "/s");
+    }
+
+    private void refreshStatus() {
+        DownloadCache cache = DownloadCache.getInstance();
+        statusLabel.setText("共 " + downloadTable.getItems().size() + " 个任务，缓存 "
+                + FileUtil.humanReadableByteCountBin(cache.getTotalSize()) + " / "
+                + FileUtil.humanReadableByteCountBin(cache.getMaxSizeBytes()));
+    }
+
+    private void applyCacheLimit() {
+        String text = cacheLimitField.getText().trim();
+        try {
+            long mb = Long.parseLong(text);
+            // 调低上限时会立即按 LRU 淘汰，放到后台执行
+            ThreadUtil.submitTask(() -> {
+                DownloadCache.getInstance().setMaxSizeBytes(mb * 1024 * 1024);
+                Platform.runLater(this::refreshStatus);
+            });
+        } catch (NumberFormatException e) {
+            AlertUtil.showErrorAlert("缓存上限必须是数字 (MB)");
+        }
+    }
+
+    private void applyBandwidthLimit() {
+        String text = bandwidthField.getText().trim();
+        try {
+            long kb = text.isEmpty() ? 0 : Long.parseLong(text);
+            TransferManager.getInstance().setBandwidthLimit(kb * 1024);
+        } catch (NumberFormatException e) {
+            AlertUtil.showErrorAlert("限速必须是数字 (KB/s)");
+        }
     }
 
     @FXML
@@ -121,11 +317,19 @@ public class DownloadFileListController {
                 if (Files.notExists(rootDir) || !Files.isDirectory(rootDir)) {
                     return;
                 }
-                // 2. 清空 UI (只清空非进行中的)
-                downloadTable.getItems().removeIf(task -> !DownloadTask.TaskStatus.IN_PROGRESS.equals(task.statusProperty().get()));
+                // 2. 清空 UI (只清空已结束的，排队、暂停中的任务保留)
+                downloadTable.getItems().removeIf(DownloadTask::isFinished);
+                // 未结束的下载任务对应的本地文件不能删除，否则无法断点续传
+                Set<Path> keep = downloadTable.getItems().stream()
+                        .map(DownloadTask::getLocalPath)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toCollection(HashSet::new));
+                DownloadCache cache = DownloadCache.getInstance();
+                keep.add(cache.getIndexFile());
 
-                // 3. 后台线程执行物理删除
+                // 3. 后台线程清空缓存索引并执行物理删除
                 ThreadUtil.submitTask(() -> {
+                    cache.clear();
                     try {
                         Files.walkFileTree(rootDir, new SimpleFileVisitor<>() {
 
@@ -133,6 +337,9 @@ public class DownloadFileListController {
                             @NotNull
                             @Override
                             public FileVisitResult visitFile(@NotNull Path file, @NotNull BasicFileAttributes attrs) throws IOException {
+                                if (keep.contains(file)) {
+                                    return FileVisitResult.CONTINUE;
+                                }
                                 try {
                                     Files.delete(file);
                                     log.info("已删除文件: {}", file);
@@ -172,6 +379,7 @@ public class DownloadFileListController {
                     } catch (IOException e) {
                         log.error("清理下载目录失败", e);
                     }
+                    Platform.runLater(this::refreshStatus);
                 });
             }
         });
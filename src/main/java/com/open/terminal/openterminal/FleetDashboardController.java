@@ -0,0 +1,269 @@
+package com.open.terminal.openterminal;
+
+import com.open.terminal.openterminal.component.monitor.FleetMonitor;
+import com.open.terminal.openterminal.fun.FleetListener;
+import com.open.terminal.openterminal.manage.AlertManager;
+import com.open.terminal.openterminal.manage.ConnectionManager;
+import com.open.terminal.openterminal.model.HostMetrics;
+import com.open.terminal.openterminal.model.SavedConnection;
+import com.open.terminal.openterminal.util.ThreadUtil;
+import eu.hansolo.tilesfx.Tile;
+import eu.hansolo.tilesfx.TileBuilder;
+import eu.hansolo.tilesfx.chart.ChartData;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * @description: 监控大盘：对全部或某个分组的已保存连接批量巡检，每台主机一个磁贴显示 CPU / 内存 / 磁盘。
+ * 巡检结果先按主机合并到待刷新表，每秒统一提交一次 FX 线程，几百台主机同时返回也不会堆积界面事件
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class FleetDashboardController {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(FleetDashboardController.class);
+
+    private static final String ALL_GROUPS = "全部";
+    private static final String UNGROUPED = "未分组";
+    private static final double TILE_WIDTH = 200;
+    private static final double TILE_HEIGHT = 150;
+    private static final Color FAILED_BACKGROUND = Color.web("#4a2323");
+
+    @FXML private ComboBox<String> groupBox;
+    @FXML private ComboBox<Integer> intervalBox;
+    @FXML private Button toggleButton;
+    @FXML private Label summaryLabel;
+    @FXML private FlowPane tilePane;
+
+    private MainController mainController;
+    // 巡检的告警状态与终端标签页分开，同一主机两边的采样节奏不同
+    private final String alertSource = AlertManager.getInstance().newSource("fleet");
+    private FleetMonitor monitor;
+    private ScheduledFuture<?> flushTask;
+    // 以下只在 FX 线程访问
+    private final Map<String, HostTile> tiles = new HashMap<>();
+    // 巡检线程写入，每台主机只保留最新一次结果
+    private final Map<String, Runnable> pending = new ConcurrentHashMap<>();
+
+    public void setMainController(MainController mainController) {
+        this.mainController = mainController;
+    }
+
+    @FXML
+    public void initialize() {
+        List<String> groups = new ArrayList<>();
+        groups.add(ALL_GROUPS);
+        groups.addAll(ConnectionManager.getInstance().getGroups());
+        groups.add(UNGROUPED);
+        groupBox.setItems(FXCollections.observableArrayList(groups));
+        groupBox.getSelectionModel().selectFirst();
+
+        intervalBox.setItems(FXCollections.observableArrayList(10, 30, 60, 300));
+        intervalBox.getSelectionModel().select(Integer.valueOf(30));
+        summaryLabel.setText("选择分组后点击开始");
+    }
+
+    @FXML
+    private void handleToggle() {
+        if (monitor != null) {
+            stop();
+            return;
+        }
+        start();
+    }
+
+    private void start() {
+        String group = groupBox.getValue();
+        List<SavedConnection> connections = ConnectionManager.getInstance().getAll();
+        if (UNGROUPED.equals(group)) {
+            connections.removeIf(c -> c.getGroup() != null && !c.getGroup().isBlank());
+        } else if (!ALL_GROUPS.equals(group)) {
+            connections.removeIf(c -> !group.equals(c.getGroup()));
+        }
+        if (connections.isEmpty()) {
+            summaryLabel.setText("该分组下没有连接");
+            return;
+        }
+
+        tiles.clear();
+        pending.clear();
+        List<Tile> nodes = new ArrayList<>(connections.size());
+        for (SavedConnection conn : connections) {
+            HostTile hostTile = new HostTile(conn);
+            tiles.put(conn.getId(), hostTile);
+            nodes.add(hostTile.tile);
+        }
+        tilePane.getChildren().setAll(nodes);
+
+        monitor = new FleetMonitor(connections, intervalBox.getValue(), new FleetListener() {
+            @Override
+            public void onSample(SavedConnection connection, HostMetrics metrics) {
+                String hostKey = connection.getUser() + "@" + connection.getHost() + ":" + connection.getPort();
+                int alerts = AlertManager.getInstance().evaluate(alertSource, hostKey, connection.getGroup(), metrics);
+                post(connection, tile -> tile.showMetrics(metrics, alerts));
+            }
+
+            @Override
+            public void onFailure(SavedConnection connection, String reason, int failures, long retryDelayMs) {
+                post(connection, tile -> tile.showFailure(reason, failures, retryDelayMs));
+            }
+        });
+        monitor.start();
+        flushTask = ThreadUtil.scheduleAtFixedRate(() -> Platform.runLater(this::flush), 1, TimeUnit.SECONDS);
+
+        groupBox.setDisable(true);
+        intervalBox.setDisable(true);
+        toggleButton.setText("■ 停止");
+        updateSummary();
+    }
+
+    /**
+     * 停止巡检，标签页关闭时也会调用
+     */
+    public void stop() {
+        if (monitor == null) {
+            return;
+        }
+        monitor.close();
+        monitor = null;
+        // 停止后不再采样，触发中的告警随之恢复
+        AlertManager.getInstance().forgetSource(alertSource);
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        pending.clear();
+        groupBox.setDisable(false);
+        intervalBox.setDisable(false);
+        toggleButton.setText("▶ 开始");
+        summaryLabel.setText(summaryLabel.getText() + "（已停止）");
+    }
+
+    private void flush() {
+        if (monitor == null || pending.isEmpty()) {
+            return;
+        }
+        for (String id : new ArrayList<>(pending.keySet())) {
+            Runnable update = pending.remove(id);
+            if (update != null) {
+                update.run();
+            }
+        }
+        updateSummary();
+    }
+
+    private void updateSummary() {
+        int online = 0, failed = 0;
+        for (HostTile tile : tiles.values()) {
+            if (tile.state == HostTile.ONLINE) {
+                online++;
+            } else if (tile.state == HostTile.FAILED) {
+                failed++;
+            }
+        }
+        summaryLabel.setText(String.format("共 %d 台，在线 %d，失败 %d，等待 %d",
+                tiles.size(), online, failed, tiles.size() - online - failed));
+    }
+
+    /**
+     * 巡检线程调用，同一主机未刷新的旧结果直接被覆盖
+     */
+    private void post(SavedConnection connection, Consumer<HostTile> update) {
+        pending.put(connection.getId(), () -> {
+            HostTile tile = tiles.get(connection.getId());
+            // 重新开始巡检后，上一轮迟到的结果可能对应已经不存在的磁贴
+            if (tile != null) {
+                update.accept(tile);
+            }
+        });
+    }
+
+    /**
+     * 一台主机的磁贴，只在 FX 线程访问
+     */
+    private class HostTile {
+        private static final int WAITING = 0;
+        private static final int ONLINE = 1;
+        private static final int FAILED = 2;
+
+        private final Tile tile;
+        private final ChartData cpu = chartData("CPU");
+        private final ChartData mem = chartData("内存");
+        private final ChartData disk = chartData("磁盘");
+        private final Tooltip tooltip = new Tooltip();
+        private final String address;
+        private int state = WAITING;
+
+        private HostTile(SavedConnection conn) {
+            tile = TileBuilder.create()
+                    .skinType(Tile.SkinType.CLUSTER_MONITOR)
+                    .prefSize(TILE_WIDTH, TILE_HEIGHT)
+                    .title(conn.getName())
+                    .text(conn.getUser() + "@" + conn.getHost())
+                    .description("等待采样")
+                    .chartData(cpu, mem, disk)
+                    .animated(false)
+                    .build();
+            address = conn.getUser() + "@" + conn.getHost() + ":" + conn.getPort();
+            tooltip.setText(address + "\n双击打开终端");
+            Tooltip.install(tile, tooltip);
+            tile.setOnMouseClicked(e -> {
+                if (e.getClickCount() == 2 && mainController != null) {
+                    mainController.createTab(conn);
+                }
+            });
+        }
+
+        private ChartData chartData(String name) {
+            ChartData data = new ChartData(name, 0, Tile.GREEN);
+            data.setMaxValue(100);
+            data.setFormatString("%.0f%%");
+            return data;
+        }
+
+        private void showMetrics(HostMetrics metrics, int alerts) {
+            state = ONLINE;
+            tile.setBackgroundColor(Tile.BACKGROUND);
+            tooltip.setText(address + "\n双击打开终端");
+            set(cpu, metrics.getCpuUsage());
+            set(mem, metrics.getMemUsage());
+            set(disk, metrics.getDiskUsage());
+            if (alerts > 0) {
+                tile.setDescription("⚠ " + alerts + " 项告警");
+            } else {
+                tile.setDescription(Double.isNaN(metrics.getLoad1()) ? "在线" : String.format("负载 %.2f", metrics.getLoad1()));
+            }
+        }
+
+        private void showFailure(String reason, int failures, long retryDelayMs) {
+            state = FAILED;
+            tile.setBackgroundColor(FAILED_BACKGROUND);
+            tile.setDescription("离线，" + TimeUnit.MILLISECONDS.toSeconds(retryDelayMs) + " 秒后重试");
+            tooltip.setText(address + "\n连续失败 " + failures + " 次: " + reason + "\n双击打开终端");
+            log.debug("大盘主机离线: {}, {}", tile.getTitle(), reason);
+        }
+
+        private void set(ChartData data, double ratio) {
+            double value = Double.isNaN(ratio) ? 0 : ratio * 100;
+            data.setValue(value);
+            data.setFillColor(value >= 90 ? Tile.RED : value >= 70 ? Tile.ORANGE : Tile.GREEN);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.open.terminal.openterminal;
+
+import com.open.terminal.openterminal.model.HostMetrics;
+import com.open.terminal.openterminal.util.FileUtil;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * @description: 主机监控详情窗口：各核心 CPU、负载、内存明细、进程、文件系统、网卡和磁盘读写。
+ * 数据来自所在 Tab 的监控代理，不额外发起远程请求。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class HostMetricsController {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    @FXML private Label hostLabel;
+    @FXML private Label loadLabel;
+    @FXML private Label memLabel;
+    @FXML private Label swapLabel;
+    @FXML private FlowPane coreBox;
+    @FXML private Label statusLabel;
+
+    @FXML private TableView<HostMetrics.ProcessInfo> processTable;
+    @FXML private TableColumn<HostMetrics.ProcessInfo, Number> pidCol;
+    @FXML private TableColumn<HostMetrics.ProcessInfo, String> processNameCol;
+    @FXML private TableColumn<HostMetrics.ProcessInfo, String> processCpuCol;
+    @FXML private TableColumn<HostMetrics.ProcessInfo, String> processRssCol;
+
+    @FXML private TableView<HostMetrics.Mount> mountTable;
+    @FXML private TableColumn<HostMetrics.Mount, String> mountPointCol;
+    @FXML private TableColumn<HostMetrics.Mount, String> mountDeviceCol;
+    @FXML private TableColumn<HostMetrics.Mount, String> mountSizeCol;
+    @FXML private TableColumn<HostMetrics.Mount, Number> mountUsageCol;
+
+    @FXML private TableView<HostMetrics.NetInterface> interfaceTable;
+    @FXML private TableColumn<HostMetrics.NetInterface, String> interfaceNameCol;
+    @FXML private TableColumn<HostMetrics.NetInterface, String> interfaceRxCol;
+    @FXML private TableColumn<HostMetrics.NetInterface, String> interfaceTxCol;
+
+    @FXML private TableView<HostMetrics.DiskIo> diskIoTable;
+    @FXML private TableColumn<HostMetrics.DiskIo, String> diskDeviceCol;
+    @FXML private TableColumn<HostMetrics.DiskIo, String> diskReadCol;
+    @FXML private TableColumn<HostMetrics.DiskIo, String> diskWriteCol;
+
+    private final ChangeListener<HostMetrics> metricsListener = (obs, oldVal, metrics) -> {
+        if (metrics != null) {
+            update(metrics);
+        }
+    };
+
+    @FXML
+    public void initialize() {
+        pidCol.setCellValueFactory(cell -> new SimpleObjectProperty<>(cell.getValue().getPid()));
+        processNameCol.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getName()));
+        processCpuCol.setCellValueFactory(cell -> new SimpleStringProperty(String.format("%.1f%%", cell.getValue().getCpu() * 100)));
+        processRssCol.setCellValueFactory(cell -> new SimpleStringProperty(FileUtil.humanReadableByteCountBin(cell.getValue().getRss())));
+
+        mountPointCol.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getMountPoint()));
+        mountDeviceCol.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getDevice()));
+        mountSizeCol.setCellValueFactory(cell -> new SimpleStringProperty(
+                FileUtil.humanReadableByteCountBin(cell.getValue().getUsed()) + " / "
+                        + FileUtil.humanReadableByteCountBin(cell.getValue().getTotal())));
+        mountUsageCol.setCellValueFactory(cell -> new SimpleObjectProperty<>(cell.getValue().getUsage()));
+        mountUsageCol.setCellFactory(column -> new TableCell<>() {
+            private final ProgressBar bar = new ProgressBar();
+            { bar.setMaxWidth(Double.MAX_VALUE); }
+
+            @Override
+            protected void updateItem(Number usage, boolean empty) {
+                super.updateItem(usage, empty);
+                if (empty || usage == null) {
+                    setGraphic(null);
+                    setText(null);
+                } else {
+                    bar.setProgress(usage.doubleValue());
+                    // 超过 90% 用红色提示
+                    bar.setStyle(usage.doubleValue() >= 0.9 ? "-fx-accent: #e74c3c;" : "-fx-accent: #2ecc71;");
+                    setGraphic(bar);
+                }
+            }
+        });
+
+        interfaceNameCol.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getName()));
+        interfaceRxCol.setCellValueFactory(cell -> new SimpleStringProperty(rate(cell.getValue().getRxRate())));
+        interfaceTxCol.setCellValueFactory(cell -> new SimpleStringProperty(rate(cell.getValue().getTxRate())));
+
+        diskDeviceCol.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getDevice()));
+        diskReadCol.setCellValueFactory(cell -> new SimpleStringProperty(rate(cell.getValue().getReadRate())));
+        diskWriteCol.setCellValueFactory(cell -> new SimpleStringProperty(rate(cell.getValue().getWriteRate())));
+    }
+
+    /**
+     * @param latest 所在 Tab 最新一次采样，窗口关闭时解除监听
+     */
+    public void init(String host, ReadOnlyObjectProperty<HostMetrics> latest, Stage stage) {
+        hostLabel.setText(host);
+        latest.addListener(metricsListener);
+        stage.setOnHidden(e -> latest.removeListener(metricsListener));
+        if (latest.get() != null) {
+            update(latest.get());
+        }
+    }
+
+    private void update(HostMetrics metrics) {
+        if (!Double.isNaN(metrics.getLoad1())) {
+            loadLabel.setText(String.format("负载 %.2f  %.2f  %.2f", metrics.getLoad1(), metrics.getLoad5(), metrics.getLoad15()));
+        }
+        if (metrics.getMemTotal() > 0) {
+            memLabel.setText(String.format("内存 已用 %s / %s，缓冲 %s，缓存 %s",
+                    FileUtil.humanReadableByteCountBin(metrics.getMemUsed()),
+                    FileUtil.humanReadableByteCountBin(metrics.getMemTotal()),
+                    FileUtil.humanReadableByteCountBin(metrics.getMemBuffers()),
+                    FileUtil.humanReadableByteCountBin(metrics.getMemCached())));
+        }
+        swapLabel.setText(metrics.getSwapTotal() > 0
+                ? "交换 " + FileUtil.humanReadableByteCountBin(metrics.getSwapUsed()) + " / "
+                + FileUtil.humanReadableByteCountBin(metrics.getSwapTotal())
+                : "交换 未启用");
+        updateCores(metrics.getCoreUsage());
+        processTable.getItems().setAll(metrics.getTopProcesses());
+        mountTable.getItems().setAll(metrics.getMounts());
+        interfaceTable.getItems().setAll(metrics.getInterfaces());
+        diskIoTable.getItems().setAll(metrics.getDiskIo());
+        statusLabel.setText("更新于 " + LocalTime.now().format(TIME_FORMAT));
+    }
+
+    /**
+     * 核心数不变时只更新进度条，避免每次采样重建节点
+     */
+    private void updateCores(double[] usage) {
+        if (coreBox.getChildren().size() != usage.length) {
+            coreBox.getChildren().clear();
+            for (int i = 0; i < usage.length; i++) {
+                Label label = new Label("CPU" + i);
+                label.setStyle("-fx-font-size: 10px; -fx-text-fill: gray;");
+                ProgressBar bar = new ProgressBar(0);
+                bar.setPrefWidth(70);
+                bar.setPrefHeight(8);
+                coreBox.getChildren().add(new VBox(2, label, bar));
+            }
+        }
+        for (int i = 0; i < usage.length; i++) {
+            VBox cell = (VBox) coreBox.getChildren().get(i);
+            Label label = (Label) cell.getChildren().get(0);
+            ProgressBar bar = (ProgressBar) cell.getChildren().get(1);
+            double value = Double.isNaN(usage[i]) ? 0 : usage[i];
+            label.setText(String.format("CPU%d %.0f%%", i, value * 100));
+            bar.setProgress(value);
+            bar.setStyle(value >= 0.9 ? "-fx-accent: #e74c3c;" : "-fx-accent: #4a90e2;");
+        }
+    }
+
+    private static String rate(long bytesPerSecond) {
+        return FileUtil.humanReadableByteCountBin(bytesPerSecond) + "/s";
+    }
+}
@@ -0,0 +1,395 @@
+package com.open.terminal.openterminal;
+
+import com.open.terminal.openterminal.component.logtail.LogMultiplexer;
+import com.open.terminal.openterminal.component.logtail.LogTailSource;
+import com.open.terminal.openterminal.fun.LogTailListener;
+import com.open.terminal.openterminal.manage.SessionRegistry;
+import com.open.terminal.openterminal.model.LogLine;
+import com.open.terminal.openterminal.model.SessionEndpoint;
+import com.open.terminal.openterminal.util.FileUtil;
+import com.open.terminal.openterminal.util.ThreadUtil;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextFlow;
+import javafx.stage.Stage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * @description: 多文件、多主机日志跟踪窗口。每个来源在所属会话上 tail -F，合并后显示在同一个列表里。
+ * 过滤条件变化时在后台重新扫描压缩缓存，界面只保留最近 MAX_VISIBLE 行；
+ * 实时到达的行在合并线程上完成匹配，FX 线程只负责追加
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class LogViewerController implements LogTailListener {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(LogViewerController.class);
+
+    private static final int MAX_VISIBLE = 20_000;
+    private static final String[] SOURCE_COLORS = {
+            "#4a90e2", "#2ecc71", "#f39c12", "#9b59b6", "#1abc9c", "#e67e22", "#e84393", "#00cec9"};
+    private static final Font MONO = Font.font("Monospaced", 12);
+    private static final Font MONO_BOLD = Font.font("Monospaced", FontWeight.BOLD, 12);
+
+    @FXML private ComboBox<SessionEndpoint> sessionBox;
+    @FXML private TextField pathField;
+    @FXML private ListView<LogTailSource> sourceList;
+    @FXML private ComboBox<String> modeBox;
+    @FXML private TextField filterField;
+    @FXML private CheckBox onlyMatchCheck;
+    @FXML private CheckBox followCheck;
+    @FXML private ListView<LogLine> lineList;
+    @FXML private Label statsLabel;
+
+    private final ObservableList<LogLine> lines = FXCollections.observableArrayList();
+    private final Map<Integer, String> sourceStatus = new HashMap<>();
+    private final Map<Integer, LogTailSource> sourceByIndex = new HashMap<>();
+
+    private LogMultiplexer multiplexer;
+    private ScheduledFuture<?> statsTask;
+
+    // 当前过滤条件，合并线程读取
+    private volatile FilterState filter = new FilterState(null, false);
+    // 以下只在 FX 线程访问
+    // 列表中最后一行在缓存中的下标，用于和实时追加的行去重
+    private long lastShownIndex = -1;
+    // 正在重新扫描缓存时到达的行先暂存，扫描结果显示后再补上
+    private boolean rescanning = false;
+    private final ArrayDeque<IndexedLine> heldDuringRescan = new ArrayDeque<>();
+
+    @FXML
+    public void initialize() {
+        sessionBox.setItems(FXCollections.observableArrayList(SessionRegistry.getInstance().getAll()));
+        modeBox.setItems(FXCollections.observableArrayList("按到达顺序", "按时间戳"));
+        modeBox.getSelectionModel().selectFirst();
+        modeBox.getSelectionModel().selectedIndexProperty().addListener((obs, oldVal, newVal) -> {
+            if (multiplexer != null) {
+                multiplexer.setOrderByTimestamp(newVal.intValue() == 1);
+            }
+        });
+
+        sourceList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(LogTailSource item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                    setTooltip(null);
+                    return;
+                }
+                String status = sourceStatus.getOrDefault(item.getIndex(), "连接中...");
+                setText(item.getLabel() + "  " + status);
+                setTextFill(Color.web(colorOf(item.getIndex())));
+                setTooltip(new Tooltip(item.getDescription()));
+            }
+        });
+
+        lineList.setItems(lines);
+        lineList.setFixedCellSize(20);
+        lineList.setCellFactory(list -> new LogLineCell());
+
+        filterField.textProperty().addListener((obs, oldVal, newVal) -> applyFilter());
+        onlyMatchCheck.selectedProperty().addListener((obs, oldVal, newVal) -> applyFilter());
+        followCheck.setSelected(true);
+        statsLabel.setText("");
+    }
+
+    /**
+     * @param preferred 默认选中的会话（打开窗口的 Tab）
+     */
+    public void init(SessionEndpoint preferred, Stage stage) {
+        multiplexer = new LogMultiplexer(this);
+        if (preferred != null && sessionBox.getItems().contains(preferred)) {
+            sessionBox.setValue(preferred);
+        } else {
+            sessionBox.getSelectionModel().selectFirst();
+        }
+        statsTask = ThreadUtil.scheduleAtFixedRate(() -> Platform.runLater(this::updateStats), 1, TimeUnit.SECONDS);
+        stage.setOnHidden(e -> close());
+    }
+
+    private void close() {
+        if (statsTask != null) {
+            statsTask.cancel(false);
+        }
+        if (multiplexer != null) {
+            multiplexer.close();
+            multiplexer = null;
+        }
+    }
+
+    @FXML
+    private void handleAddSource() {
+        SessionEndpoint endpoint = sessionBox.getValue();
+        String path = pathField.getText() == null ? "" : pathField.getText().trim();
+        if (endpoint == null || path.isEmpty() || multiplexer == null) {
+            return;
+        }
+        LogTailSource source = multiplexer.addSource(endpoint, path);
+        sourceByIndex.put(source.getIndex(), source);
+        sourceList.getItems().add(source);
+        pathField.clear();
+    }
+
+    @FXML
+    private void handleRemoveSource() {
+        LogTailSource source = sourceList.getSelectionModel().getSelectedItem();
+        if (source == null || multiplexer == null) {
+            return;
+        }
+        multiplexer.removeSource(source.getIndex());
+        sourceList.getItems().remove(source);
+        sourceStatus.remove(source.getIndex());
+    }
+
+    @FXML
+    private void handleClear() {
+        if (multiplexer != null) {
+            multiplexer.getBacklog().clear();
+        }
+        lines.clear();
+        heldDuringRescan.clear();
+    }
+
+    // ================= 合并线程回调 =================
+
+    @Override
+    public void onLines(List<LogLine> batch, long firstIndex) {
+        FilterState state = filter;
+        List<IndexedLine> visible = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            LogLine line = batch.get(i);
+            if (state.accepts(line)) {
+                visible.add(new IndexedLine(firstIndex + i, line));
+            }
+        }
+        if (!visible.isEmpty()) {
+            Platform.runLater(() -> appendLive(visible, state));
+        }
+    }
+
+    @Override
+    public void onSourceStatus(int source, String status) {
+        Platform.runLater(() -> {
+            if (sourceByIndex.containsKey(source)) {
+                sourceStatus.put(source, status);
+                sourceList.refresh();
+            }
+        });
+    }
+
+    // ================= FX 线程 =================
+
+    private void appendLive(List<IndexedLine> batch, FilterState state) {
+        if (state != filter) {
+            // 匹配之后过滤条件又变了，这批行会由重新扫描覆盖
+            return;
+        }
+        if (rescanning) {
+            heldDuringRescan.addAll(batch);
+            while (heldDuringRescan.size() > MAX_VISIBLE) {
+                heldDuringRescan.removeFirst();
+            }
+            return;
+        }
+        List<LogLine> fresh = new ArrayList<>(batch.size());
+        for (IndexedLine entry : batch) {
+            if (entry.index > lastShownIndex) {
+                fresh.add(entry.line);
+                lastShownIndex = entry.index;
+            }
+        }
+        append(fresh);
+    }
+
+    private void append(List<LogLine> fresh) {
+        if (fresh.isEmpty()) {
+            return;
+        }
+        if (fresh.size() >= MAX_VISIBLE) {
+            lines.setAll(fresh.subList(fresh.size() - MAX_VISIBLE, fresh.size()));
+        } else {
+            int overflow = lines.size() + fresh.size() - MAX_VISIBLE;
+            if (overflow > 0) {
+                lines.remove(0, overflow);
+            }
+            lines.addAll(fresh);
+        }
+        if (followCheck.isSelected()) {
+            lineList.scrollTo(lines.size() - 1);
+        }
+    }
+
+    /**
+     * 过滤条件变化：后台扫描整个缓存，取最后 MAX_VISIBLE 个匹配行替换列表
+     */
+    private void applyFilter() {
+        String text = filterField.getText() == null ? "" : filterField.getText().trim();
+        Pattern pattern = null;
+        if (!text.isEmpty()) {
+            try {
+                pattern = Pattern.compile(text, Pattern.CASE_INSENSITIVE);
+            } catch (PatternSyntaxException e) {
+                // 不是合法正则时按普通文本匹配
+                pattern = Pattern.compile(Pattern.quote(text), Pattern.CASE_INSENSITIVE);
+            }
+        }
+        FilterState state = new FilterState(pattern, onlyMatchCheck.isSelected());
+        filter = state;
+        lineList.refresh();
+        if (multiplexer == null) {
+            return;
+        }
+
+        rescanning = true;
+        heldDuringRescan.clear();
+        LogMultiplexer current = multiplexer;
+        ThreadUtil.submitTask(() -> {
+            ArrayDeque<LogLine> result = new ArrayDeque<>();
+            long[] lastIndex = {-1};
+            try {
+                current.getBacklog().scan((index, line) -> {
+                    if (filter != state) {
+                        return false;
+                    }
+                    lastIndex[0] = index;
+                    if (state.accepts(line)) {
+                        result.addLast(line);
+                        if (result.size() > MAX_VISIBLE) {
+                            result.removeFirst();
+                        }
+                    }
+                    return true;
+                });
+            } catch (RuntimeException e) {
+                log.warn("日志缓存扫描失败: {}", e.getMessage());
+            }
+            Platform.runLater(() -> finishRescan(state, new ArrayList<>(result), lastIndex[0]));
+        });
+    }
+
+    private void finishRescan(FilterState state, List<LogLine> result, long lastIndex) {
+        if (state != filter) {
+            return;
+        }
+        rescanning = false;
+        lines.setAll(result);
+        lastShownIndex = lastIndex;
+        List<IndexedLine> held = new ArrayList<>(heldDuringRescan);
+        heldDuringRescan.clear();
+        appendLive(held, state);
+        if (followCheck.isSelected() && !lines.isEmpty()) {
+            lineList.scrollTo(lines.size() - 1);
+        }
+    }
+
+    private void updateStats() {
+        LogMultiplexer current = multiplexer;
+        if (current == null) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%.0f 行/秒", current.getLinesPerSecond()));
+        sb.append("  缓存 ").append(current.getBacklog().getLineCount()).append(" 行 (")
+                .append(FileUtil.humanReadableByteCountBin(current.getBacklog().getCompressedBytes())).append(" 压缩)");
+        sb.append("  显示 ").append(lines.size()).append(" 行");
+        long dropped = current.getDroppedLines();
+        if (dropped > 0) {
+            sb.append("  已丢弃 ").append(dropped).append(" 行");
+        }
+        statsLabel.setText(sb.toString());
+    }
+
+    private static String colorOf(int source) {
+        return SOURCE_COLORS[source % SOURCE_COLORS.length];
+    }
+
+    /**
+     * 前缀显示来源，匹配部分加粗高亮
+     */
+    private class LogLineCell extends ListCell<LogLine> {
+        @Override
+        protected void updateItem(LogLine item, boolean empty) {
+            super.updateItem(item, empty);
+            setText(null);
+            if (empty || item == null) {
+                setGraphic(null);
+                return;
+            }
+            LogTailSource source = sourceByIndex.get(item.getSource());
+            Text tag = new Text("[" + (source != null ? source.getLabel() : "#" + item.getSource()) + "] ");
+            tag.setFill(Color.web(colorOf(item.getSource())));
+            tag.setFont(MONO);
+
+            TextFlow flow = new TextFlow(tag);
+            String text = item.getText();
+            Pattern pattern = filter.pattern;
+            int pos = 0;
+            if (pattern != null) {
+                Matcher matcher = pattern.matcher(text);
+                while (matcher.find()) {
+                    if (matcher.end() == matcher.start()) {
+                        continue;
+                    }
+                    flow.getChildren().add(plain(text.substring(pos, matcher.start())));
+                    Text hit = new Text(matcher.group());
+                    hit.setFill(Color.web("#f1c40f"));
+                    hit.setFont(MONO_BOLD);
+                    flow.getChildren().add(hit);
+                    pos = matcher.end();
+                }
+            }
+            flow.getChildren().add(plain(text.substring(pos)));
+            setGraphic(flow);
+        }
+
+        private Text plain(String s) {
+            Text t = new Text(s);
+            t.setFill(Color.web("#cccccc"));
+            t.setFont(MONO);
+            return t;
+        }
+    }
+
+    private static class FilterState {
+        private final Pattern pattern;
+        private final boolean onlyMatch;
+
+        private FilterState(Pattern pattern, boolean onlyMatch) {
+            this.pattern = pattern;
+            this.onlyMatch = onlyMatch;
+        }
+
+        private boolean accepts(LogLine line) {
+            return pattern == null || !onlyMatch || pattern.matcher(line.getText()).find();
+        }
+    }
+
+    private static class IndexedLine {
+        private final long index;
+        private final LogLine line;
+
+        private IndexedLine(long index, LogLine line) {
+            this.index = index;
+            this.line = line;
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package com.open.terminal.openterminal;
 
 
+import com.open.terminal.openterminal.component.alert.AlertNotifier;
+import com.open.terminal.openterminal.manage.AlertManager;
 import com.open.terminal.openterminal.manage.ConnectionManager;
+import com.open.terminal.openterminal.manage.WorkspaceManager;
 import com.open.terminal.openterminal.model.SavedConnection;
+import com.open.terminal.openterminal.model.Workspace;
+import com.open.terminal.openterminal.model.WorkspaceTab;
+import com.open.terminal.openterminal.util.ThreadUtil;
 import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
@@ -16,9 +23,14 @@ import javafx.stage.Stage;
 import org.apache.commons.lang.StringUtils;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @description:
@@ -37,6 +49,16 @@ public class MainController {
 
     @FXML private Tab newConnectionTab; // 对应 FXML 中的 + 号 Tab
 
+    /**
+     * 标签页变化后等待这么久再保存工作区，连续变化只写一次
+     */
+    private static final long WORKSPACE_SAVE_DELAY_MS = 500;
+    // 终端标签页及其控制器，用于保存工作区
+    private final Map<Tab, TerminalController> terminalTabs = new HashMap<>();
+    private ScheduledFuture<?> workspaceSaveTask;
+    // 恢复工作区期间不保存
+    private boolean restoring = false;
+
     @FXML
     public void initialize() {
         // 1. 监听 + 号点击
@@ -56,8 +78,21 @@ public class MainController {
             }
         });
 
-        // 2. 初始状态：打开一个连接管理页
-        openConnectionManagerTab();
+        // 2. 初始状态：恢复上次的工作区，没有时打开一个连接管理页
+        Workspace workspace = WorkspaceManager.getInstance().load();
+        if (workspace.getTabs().isEmpty()) {
+            openConnectionManagerTab();
+        } else {
+            // 终端标签页需要窗口（最小化状态），等场景建好后再恢复
+            Platform.runLater(() -> restoreWorkspace(workspace));
+        }
+
+        // 标签页增减、切换时保存工作区
+        tabPane.getTabs().addListener((ListChangeListener<Tab>) change -> scheduleWorkspaceSave());
+        tabPane.getSelectionModel().selectedItemProperty().addListener((obs, oldTab, newTab) -> scheduleWorkspaceSave());
+
+        // 3. 告警触发时弹出桌面通知
+        AlertManager.getInstance().addListener(new AlertNotifier());
     }
 
     /**
@@ -83,6 +118,28 @@ public class MainController {
         }
     }
 
+    /**
+     * 打开监控大盘 Tab，关闭 Tab 时停止巡检
+     */
+    public void openFleetDashboard() {
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("fleet-dashboard.fxml"));
+            Node content = loader.load();
+
+            FleetDashboardController controller = loader.getController();
+            controller.setMainController(this);
+
+            Tab tab = new Tab("监控大盘");
+            tab.setContent(content);
+            tab.setOnClosed(e -> controller.stop());
+
+            addTabBeforePlus(tab);
+        } catch (IOException e) {
+            log.error("无法打开监控大盘: {}", e.getMessage());
+            showAlert("错误", "无法打开监控大盘: " + e.getMessage());
+        }
+    }
+
     /**
      * 通用方法：将 Tab 插入到 + 号前面并选中
      */
@@ -108,25 +165,11 @@ public class MainController {
     // 公开给管理页调用，不弹保存提示（因为是已保存的）
     public void createTab(SavedConnection savedConnection) {
         try {
-            String name = savedConnection.getName();
-            String host = savedConnection.getHost();
-            int port = savedConnection.getPort();
-            String user = savedConnection.getUser();
-            String password = savedConnection.getPassword();
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("terminal-tab.fxml"));
-            Node terminalContent = loader.load();
-            TerminalController terminalController = loader.getController();
-            // 初始化连接...
-            terminalController.connectSSH(host, port, user, password);
-
-            Tab newTerminalTab = new Tab(name);
-            newTerminalTab.setContent(terminalContent);
-
             // A. 获取当前正在操作的 Tab (也就是那个连接管理器 Tab)
             Tab oldManagerTab = tabPane.getSelectionModel().getSelectedItem();
 
             // B. 插入新 Tab 并选中
-            addTabBeforePlus(newTerminalTab);
+            openTerminalTab(savedConnection, null, true);
 
             // C. 检查旧 Tab 是否是连接管理器，是则删除
             if (oldManagerTab != null && SavedConnection.CONN_MANAGER.equals(oldManagerTab.getUserData())) {
@@ -134,16 +177,144 @@ public class MainController {
                 tabPane.getTabs().remove(oldManagerTab);
                 log.info("连接管理器 Tab 已关闭");
             }
-
-            // 当tab关闭时断开连接
-            newTerminalTab.setOnClosed(e -> terminalController.disconnect());
-
         } catch (IOException e) {
             log.error("无法创建终端标签页: {}", e.getMessage());
             showAlert("错误", "无法创建终端标签页: " + e.getMessage());
         }
     }
 
+    /**
+     * 创建终端标签页并开始连接（连接在虚拟线程上进行）。终端组件在标签页第一次被选中时才创建
+     *
+     * @param remotePath 文件面板打开的目录，为 null 时打开家目录
+     */
+    private Tab openTerminalTab(SavedConnection savedConnection, String remotePath, boolean select) throws IOException {
+        String name = savedConnection.getName();
+        FXMLLoader loader = new FXMLLoader(getClass().getResource("terminal-tab.fxml"));
+        Node terminalContent = loader.load();
+        TerminalController terminalController = loader.getController();
+
+        Tab newTerminalTab = new Tab(name);
+        newTerminalTab.setContent(terminalContent);
+        newTerminalTab.setUserData(savedConnection.getId());
+        // 标签页上的告警角标，没有告警时不占位置
+        Label alertBadge = new Label();
+        alertBadge.setStyle("-fx-text-fill: #e74c3c; -fx-font-weight: bold;");
+        alertBadge.textProperty().bind(terminalController.alertCountProperty().asString("⚠%d"));
+        alertBadge.visibleProperty().bind(terminalController.alertCountProperty().greaterThan(0));
+        alertBadge.managedProperty().bind(alertBadge.visibleProperty());
+        newTerminalTab.setGraphic(alertBadge);
+
+        // 初始化连接...
+        terminalController.setTabName(name);
+        terminalController.setGroup(savedConnection.getGroup());
+        if (remotePath != null) {
+            terminalController.setInitialPath(remotePath);
+        }
+        terminalController.deferTerminalUntil(newTerminalTab.selectedProperty());
+        terminalController.connectSSH(savedConnection.getHost(), savedConnection.getPort(),
+                savedConnection.getUser(), savedConnection.getPassword());
+
+        // 插入到 + 号前面
+        int size = tabPane.getTabs().size();
+        tabPane.getTabs().add(size > 0 ? size - 1 : 0, newTerminalTab);
+        if (select) {
+            tabPane.getSelectionModel().select(newTerminalTab);
+        }
+
+        // 只有选中且窗口未最小化时监控才高频采样
+        Stage stage = (Stage) tabPane.getScene().getWindow();
+        terminalController.bindMonitorVisibility(
+                newTerminalTab.selectedProperty().and(stage.iconifiedProperty().not()));
+
+        terminalTabs.put(newTerminalTab, terminalController);
+        // 当tab关闭时断开连接
+        newTerminalTab.setOnClosed(e -> {
+            terminalTabs.remove(newTerminalTab);
+            terminalController.disconnect();
+        });
+        return newTerminalTab;
+    }
+
+    /**
+     * 按保存的顺序重建终端标签页。各会话的连接同时在虚拟线程上进行，
+     * 只有选中的标签页立即创建终端组件，总耗时约等于最慢的一台主机
+     */
+    private void restoreWorkspace(Workspace workspace) {
+        restoring = true;
+        List<Tab> restored = new ArrayList<>();
+        Tab selected = null;
+        try {
+            List<WorkspaceTab> tabs = workspace.getTabs();
+            for (int i = 0; i < tabs.size(); i++) {
+                WorkspaceTab item = tabs.get(i);
+                SavedConnection conn = ConnectionManager.getInstance().get(item.getConnectionId());
+                if (conn == null) {
+                    log.warn("工作区中的连接已被删除，跳过: {}", item.getTitle());
+                    continue;
+                }
+                try {
+                    Tab tab = openTerminalTab(conn, item.getRemotePath(), false);
+                    restored.add(tab);
+                    if (i == workspace.getSelectedIndex()) {
+                        selected = tab;
+                    }
+                } catch (IOException e) {
+                    log.error("无法恢复终端标签页 {}: {}", item.getTitle(), e.getMessage());
+                }
+            }
+        } finally {
+            restoring = false;
+        }
+        log.info("已恢复工作区中的 {} 个标签页", restored.size());
+        if (restored.isEmpty()) {
+            openConnectionManagerTab();
+            return;
+        }
+        tabPane.getSelectionModel().select(selected != null ? selected : restored.get(0));
+    }
+
+    /**
+     * 标签页变化后延迟保存工作区，快照在界面线程上生成，写盘在虚拟线程上
+     */
+    private void scheduleWorkspaceSave() {
+        if (restoring) {
+            return;
+        }
+        if (workspaceSaveTask != null) {
+            workspaceSaveTask.cancel(false);
+        }
+        workspaceSaveTask = ThreadUtil.schedule(() -> Platform.runLater(() -> {
+            Workspace workspace = snapshotWorkspace();
+            ThreadUtil.submitTask(() -> WorkspaceManager.getInstance().save(workspace));
+        }), WORKSPACE_SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 立即保存工作区（含各标签页当前的远程目录），应用退出时在界面线程上调用
+     */
+    public void saveWorkspace() {
+        if (workspaceSaveTask != null) {
+            workspaceSaveTask.cancel(false);
+        }
+        WorkspaceManager.getInstance().save(snapshotWorkspace());
+    }
+
+    private Workspace snapshotWorkspace() {
+        Workspace workspace = new Workspace();
+        for (Tab tab : tabPane.getTabs()) {
+            TerminalController controller = terminalTabs.get(tab);
+            if (controller == null) {
+                continue;
+            }
+            if (tab.isSelected()) {
+                workspace.setSelectedIndex(workspace.getTabs().size());
+            }
+            workspace.getTabs().add(new WorkspaceTab((String) tab.getUserData(), tab.getText(), controller.getCurrentPath()));
+        }
+        return workspace;
+    }
+
     /**
      * 【核心需求】询问是否保存凭证
      */
@@ -180,6 +351,7 @@ public class MainController {
                 // 如果用户没填名字，默认用 host
                 String finalName = (name == null || name.isEmpty()) ? host : name;
                 SavedConnection conn = new SavedConnection(finalName, host, port, user, password);
+                conn.setGroup(savedConnection.getGroup());
                 ConnectionManager.getInstance().addOrUpdate(conn);
             }
         });
@@ -218,6 +390,25 @@ public class MainController {
         }
     }
 
+    public void showAlertRulesDialog() {
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("alert-rules.fxml"));
+            BorderPane dialogContent = loader.load();
+
+            AlertRulesController controller = loader.getController();
+
+            Stage dialog = new Stage();
+            dialog.initModality(Modality.APPLICATION_MODAL);
+            dialog.setTitle("告警规则");
+            dialog.setScene(new Scene(dialogContent));
+
+            controller.setDialogStage(dialog);
+            dialog.showAndWait();
+        } catch (IOException e) {
+            log.error("无法打开告警规则窗口: {}", e.getMessage());
+        }
+    }
+
     private void showConnectionDialog() {
         this.showConnectionDialog(null);
     }
@@ -1,5 +1,6 @@
 package com.open.terminal.openterminal;
 
+import com.open.terminal.openterminal.manage.ConnectionManager;
 import com.open.terminal.openterminal.util.ThreadUtil;
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -14,6 +15,7 @@ public class OpenTerminalStarter extends Application {
     private static final org.slf4j.Logger log =
             org.slf4j.LoggerFactory.getLogger(OpenTerminalStarter.class);
 
+    private MainController mainController;
 
     @Override
     public void start(Stage primaryStage) throws Exception {
@@ -25,6 +27,7 @@ public class OpenTerminalStarter extends Application {
                 throw new IOException("找不到FXML文件");
             }
             Scene scene = new Scene(loader.load(), 1200, 800);
+            mainController = loader.getController();
 
             primaryStage.setTitle("Open Terminal 终端管理器");
             primaryStage.setScene(scene);
@@ -47,6 +50,12 @@ public class OpenTerminalStarter extends Application {
     public void stop() throws Exception {
         // 程序退出时，关闭虚拟线程池
         log.info("应用程序正在关闭，停止虚拟线程池...");
+        // 记下打开的标签页和所在目录，下次启动时恢复
+        if (mainController != null) {
+            mainController.saveWorkspace();
+        }
+        // 写入尚在合并等待中的连接变更
+        ConnectionManager.getInstance().flush();
         ThreadUtil.stopVirtualExecutorService();
         Platform.exit();
         System.exit(0);
@@ -0,0 +1,287 @@
+package com.open.terminal.openterminal;
+
+import com.jcraft.jsch.Session;
+import com.open.terminal.openterminal.model.HostMetrics;
+import com.open.terminal.openterminal.model.HostMetrics.ProcessInfo;
+import com.open.terminal.openterminal.util.FileUtil;
+import com.open.terminal.openterminal.util.SshExecUtil;
+import com.open.terminal.openterminal.util.ThreadUtil;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.stage.Stage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * @description: 进程浏览器。完整进程表来自所在 Tab 的监控代理（打开窗口期间代理每帧附带全部进程），
+ * CPU 由相邻两帧的 CPU 时间差在本地计算。几千行的过滤和排序在虚拟线程上完成，FX 线程只替换列表内容；
+ * 表头点击排序也由这里接管，不走 TableView 自带的排序。选中进程后可以发送信号。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class ProcessExplorerController {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(ProcessExplorerController.class);
+
+    private static final List<String> SIGNALS = List.of("TERM", "KILL", "HUP", "INT", "STOP", "CONT", "USR1", "USR2");
+
+    @FXML private TextField filterField;
+    @FXML private Label countLabel;
+    @FXML private ComboBox<String> signalBox;
+    @FXML private Label statusLabel;
+
+    @FXML private TableView<ProcessInfo> processTable;
+    @FXML private TableColumn<ProcessInfo, Number> pidCol;
+    @FXML private TableColumn<ProcessInfo, Number> ppidCol;
+    @FXML private TableColumn<ProcessInfo, String> nameCol;
+    @FXML private TableColumn<ProcessInfo, String> stateCol;
+    @FXML private TableColumn<ProcessInfo, Number> threadsCol;
+    @FXML private TableColumn<ProcessInfo, String> cpuCol;
+    @FXML private TableColumn<ProcessInfo, String> rssCol;
+    @FXML private TableColumn<ProcessInfo, String> memCol;
+
+    private final ObservableList<ProcessInfo> rows = FXCollections.observableArrayList();
+    private final Map<TableColumn<ProcessInfo, ?>, Comparator<ProcessInfo>> columnComparators = new HashMap<>();
+
+    // 由 FX 线程写入，后台线程读取
+    private volatile HostMetrics latest;
+    private volatile Predicate<ProcessInfo> filter = p -> true;
+    private volatile Comparator<ProcessInfo> comparator;
+    // 未处理的刷新请求数，保证同一时间只有一个后台任务，且不丢最后一次请求
+    private final AtomicInteger refreshRequests = new AtomicInteger();
+
+    private Session session;
+    private final ChangeListener<HostMetrics> metricsListener = (obs, oldVal, metrics) -> {
+        if (metrics != null && metrics.getProcesses() != null) {
+            latest = metrics;
+            requestRefresh();
+        }
+    };
+
+    @FXML
+    public void initialize() {
+        pidCol.setCellValueFactory(cell -> new SimpleObjectProperty<>(cell.getValue().getPid()));
+        ppidCol.setCellValueFactory(cell -> new SimpleObjectProperty<>(cell.getValue().getPpid()));
+        nameCol.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getName()));
+        stateCol.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getState()));
+        threadsCol.setCellValueFactory(cell -> new SimpleObjectProperty<>(cell.getValue().getThreads()));
+        cpuCol.setCellValueFactory(cell -> new SimpleStringProperty(Double.isNaN(cell.getValue().getCpu())
+                ? "-" : String.format("%.1f%%", cell.getValue().getCpu() * 100)));
+        rssCol.setCellValueFactory(cell -> new SimpleStringProperty(FileUtil.humanReadableByteCountBin(cell.getValue().getRss())));
+        memCol.setCellValueFactory(cell -> new SimpleStringProperty(memPercent(cell.getValue())));
+
+        // 新出现的进程 CPU 为 NaN，排在最后
+        Comparator<ProcessInfo> byCpu = Comparator.comparingDouble(p -> Double.isNaN(p.getCpu()) ? -1 : p.getCpu());
+        columnComparators.put(pidCol, Comparator.comparingInt(ProcessInfo::getPid));
+        columnComparators.put(ppidCol, Comparator.comparingInt(ProcessInfo::getPpid));
+        columnComparators.put(nameCol, Comparator.comparing(ProcessInfo::getName, String.CASE_INSENSITIVE_ORDER));
+        columnComparators.put(stateCol, Comparator.comparing(ProcessInfo::getState));
+        columnComparators.put(threadsCol, Comparator.comparingInt(ProcessInfo::getThreads));
+        columnComparators.put(cpuCol, byCpu);
+        columnComparators.put(rssCol, Comparator.comparingLong(ProcessInfo::getRss));
+        columnComparators.put(memCol, Comparator.comparingLong(ProcessInfo::getRss));
+
+        processTable.setItems(rows);
+        processTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        // 默认按 CPU 降序，表头点击时只记录排序条件，真正的排序放到后台
+        cpuCol.setSortType(TableColumn.SortType.DESCENDING);
+        processTable.getSortOrder().add(cpuCol);
+        comparator = buildComparator();
+        processTable.setSortPolicy(table -> {
+            comparator = buildComparator();
+            requestRefresh();
+            return true;
+        });
+
+        filterField.textProperty().addListener((obs, oldVal, newVal) -> {
+            filter = buildFilter(newVal);
+            requestRefresh();
+        });
+
+        signalBox.setItems(FXCollections.observableArrayList(SIGNALS));
+        signalBox.getSelectionModel().selectFirst();
+        countLabel.setText("等待采样...");
+    }
+
+    /**
+     * @param latestMetrics 所在 Tab 最新一次采样，窗口关闭时解除监听
+     */
+    public void init(Session session, ReadOnlyObjectProperty<HostMetrics> latestMetrics, Stage stage) {
+        this.session = session;
+        latestMetrics.addListener(metricsListener);
+        stage.setOnHidden(e -> latestMetrics.removeListener(metricsListener));
+        metricsListener.changed(latestMetrics, null, latestMetrics.get());
+    }
+
+    private Comparator<ProcessInfo> buildComparator() {
+        Comparator<ProcessInfo> result = null;
+        for (TableColumn<ProcessInfo, ?> column : processTable.getSortOrder()) {
+            Comparator<ProcessInfo> c = columnComparators.get(column);
+            if (c == null) {
+                continue;
+            }
+            if (column.getSortType() == TableColumn.SortType.DESCENDING) {
+                c = c.reversed();
+            }
+            result = result == null ? c : result.thenComparing(c);
+        }
+        return result;
+    }
+
+    /**
+     * 纯数字匹配 PID 或父进程 PID（便于查看子进程）；否则先当作正则匹配进程名，不是合法正则时按不区分大小写的子串匹配
+     */
+    private static Predicate<ProcessInfo> buildFilter(String text) {
+        String query = text == null ? "" : text.trim();
+        if (query.isEmpty()) {
+            return p -> true;
+        }
+        if (query.length() <= 9 && query.chars().allMatch(Character::isDigit)) {
+            int pid = Integer.parseInt(query);
+            return p -> p.getPid() == pid || p.getPpid() == pid;
+        }
+        try {
+            Pattern pattern = Pattern.compile(query, Pattern.CASE_INSENSITIVE);
+            return p -> pattern.matcher(p.getName()).find();
+        } catch (PatternSyntaxException e) {
+            String lower = query.toLowerCase(Locale.ROOT);
+            return p -> p.getName().toLowerCase(Locale.ROOT).contains(lower);
+        }
+    }
+
+    private void requestRefresh() {
+        if (refreshRequests.getAndIncrement() == 0) {
+            ThreadUtil.submitTask(this::refresh);
+        }
+    }
+
+    /**
+     * 后台过滤 + 排序，处理期间又有新请求时再跑一轮（只用最新的数据和条件）
+     */
+    private void refresh() {
+        int handled;
+        do {
+            handled = refreshRequests.get();
+            HostMetrics metrics = latest;
+            if (metrics == null) {
+                continue;
+            }
+            try {
+                Predicate<ProcessInfo> currentFilter = filter;
+                Comparator<ProcessInfo> currentComparator = comparator;
+                List<ProcessInfo> result = new ArrayList<>();
+                for (ProcessInfo p : metrics.getProcesses()) {
+                    if (currentFilter.test(p)) {
+                        result.add(p);
+                    }
+                }
+                if (currentComparator != null) {
+                    result.sort(currentComparator);
+                }
+                int total = metrics.getProcesses().size();
+                Platform.runLater(() -> apply(result, total));
+            } catch (RuntimeException e) {
+                log.warn("进程列表处理失败: {}", e.getMessage());
+            }
+        } while (refreshRequests.addAndGet(-handled) != 0);
+    }
+
+    /**
+     * 替换表格内容并按 PID 恢复选中行，必须在 FX 线程调用
+     */
+    private void apply(List<ProcessInfo> result, int total) {
+        List<Integer> selected = selectedPids();
+        rows.setAll(result);
+        if (!selected.isEmpty()) {
+            for (int i = 0; i < result.size(); i++) {
+                if (selected.contains(result.get(i).getPid())) {
+                    processTable.getSelectionModel().select(i);
+                }
+            }
+        }
+        countLabel.setText(result.size() == total ? total + " 个进程" : result.size() + " / " + total + " 个进程");
+    }
+
+    private List<Integer> selectedPids() {
+        List<Integer> pids = new ArrayList<>();
+        for (ProcessInfo p : processTable.getSelectionModel().getSelectedItems()) {
+            pids.add(p.getPid());
+        }
+        return pids;
+    }
+
+    private String memPercent(ProcessInfo p) {
+        HostMetrics metrics = latest;
+        if (metrics == null || metrics.getMemTotal() <= 0) {
+            return "-";
+        }
+        return String.format("%.1f%%", p.getRss() * 100.0 / metrics.getMemTotal());
+    }
+
+    @FXML
+    private void handleSendSignal() {
+        sendSignal(signalBox.getValue());
+    }
+
+    @FXML
+    private void handleTerminate() {
+        sendSignal("TERM");
+    }
+
+    @FXML
+    private void handleKill() {
+        sendSignal("KILL");
+    }
+
+    private void sendSignal(String signal) {
+        List<ProcessInfo> targets = new ArrayList<>(processTable.getSelectionModel().getSelectedItems());
+        if (targets.isEmpty() || signal == null) {
+            statusLabel.setText("请先选择进程");
+            return;
+        }
+        StringBuilder names = new StringBuilder();
+        StringBuilder pids = new StringBuilder();
+        for (ProcessInfo p : targets) {
+            names.append(p.getPid()).append(' ').append(p.getName()).append('\n');
+            pids.append(' ').append(p.getPid());
+        }
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("发送信号");
+        alert.setHeaderText("向 " + targets.size() + " 个进程发送 SIG" + signal + "？");
+        alert.setContentText(names.toString());
+        if (alert.showAndWait().orElse(ButtonType.CANCEL) != ButtonType.OK) {
+            return;
+        }
+
+        String command = "kill -s " + signal + pids;
+        statusLabel.setText("正在发送 SIG" + signal + "...");
+        ThreadUtil.submitTask(() -> {
+            try {
+                SshExecUtil.ExecResult result = SshExecUtil.exec(session, command);
+                String message = result.isSuccess() ? "已发送 SIG" + signal + " 到" + pids
+                        : "发送失败: " + result.getStderr().trim();
+                Platform.runLater(() -> statusLabel.setText(message));
+            } catch (Exception e) {
+                log.warn("发送信号失败: {}, {}", command, e.getMessage());
+                Platform.runLater(() -> statusLabel.setText("发送失败: " + e.getMessage()));
+            }
+        });
+    }
+}
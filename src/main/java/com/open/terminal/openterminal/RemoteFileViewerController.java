@@ -0,0 +1,299 @@
+package com.open.terminal.openterminal;
+
+import com.open.terminal.openterminal.component.viewer.RemotePagedFile;
+import com.open.terminal.openterminal.util.FileUtil;
+import com.open.terminal.openterminal.util.ThreadUtil;
+import javafx.application.Platform;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.stage.Stage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 远程大文件分页查看器，只按需读取当前窗口附近的页，支持跳转、搜索、行索引和跟随尾部
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class RemoteFileViewerController {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(RemoteFileViewerController.class);
+
+    /**
+     * 一屏展示的页数（每页 64KB）
+     */
+    private static final int WINDOW_PAGES = 4;
+
+    @FXML private Label pathLabel;
+    @FXML private Label positionLabel;
+    @FXML private TextArea contentArea;
+    @FXML private TextField lineField;
+    @FXML private TextField searchField;
+    @FXML private CheckBox ignoreCaseCheck;
+    @FXML private CheckBox followCheck;
+    @FXML private ProgressBar taskProgress;
+    @FXML private Label statusLabel;
+
+    private RemotePagedFile file;
+    // 当前窗口的起始页
+    private volatile int viewPage = 0;
+    // 上一次搜索命中的位置，用于“查找下一个”
+    private volatile long lastMatch = -1;
+    private volatile boolean searchCancelled = false;
+    private volatile boolean indexCancelled = false;
+    private ScheduledFuture<?> followTask;
+    // 上一次轮询未结束时跳过本次，避免慢连接上请求堆积
+    private final AtomicBoolean polling = new AtomicBoolean(false);
+    // 渲染代数，丢弃过期的后台渲染结果
+    private final AtomicLong renderGeneration = new AtomicLong();
+
+    public void init(RemotePagedFile file, Stage stage) {
+        this.file = file;
+        pathLabel.setText(file.getRemotePath());
+        stage.setOnHidden(e -> close());
+        followCheck.selectedProperty().addListener((obs, oldVal, follow) -> setFollow(follow));
+        showPage(0, -1, 0);
+    }
+
+    @FXML
+    private void handleTop() {
+        showPage(0, -1, 0);
+    }
+
+    @FXML
+    private void handlePrevPage() {
+        showPage(Math.max(0, viewPage - (WINDOW_PAGES - 1)), -1, 0);
+    }
+
+    @FXML
+    private void handleNextPage() {
+        int next = viewPage + (WINDOW_PAGES - 1);
+        if (next < file.pageCount()) {
+            showPage(next, -1, 0);
+        }
+    }
+
+    @FXML
+    private void handleEnd() {
+        showPage(Math.max(0, file.pageCount() - WINDOW_PAGES), -1, 0);
+    }
+
+    @FXML
+    private void handleGotoLine() {
+        long line;
+        try {
+            line = Long.parseLong(lineField.getText().trim());
+        } catch (NumberFormatException e) {
+            statusLabel.setText("行号必须是数字");
+            return;
+        }
+        ThreadUtil.submitTask(() -> {
+            try {
+                long offset = file.lineToOffset(line);
+                if (offset < 0) {
+                    Platform.runLater(() -> statusLabel.setText("行索引尚未覆盖第 " + line + " 行，请先建立行索引"));
+                    return;
+                }
+                showPage((int) (offset / RemotePagedFile.PAGE_SIZE), offset, 0);
+            } catch (Exception e) {
+                showError("跳转失败", e);
+            }
+        });
+    }
+
+    @FXML
+    private void handleBuildIndex() {
+        indexCancelled = false;
+        setBusy(true, "正在后台建立行索引...");
+        ThreadUtil.submitTask(() -> {
+            try {
+                file.buildLineIndex(() -> indexCancelled,
+                        p -> Platform.runLater(() -> taskProgress.setProgress(p)));
+                Platform.runLater(() -> {
+                    setBusy(false, indexCancelled ? "已停止建立行索引" : "行索引已建立");
+                    updatePosition();
+                });
+            } catch (Exception e) {
+                showError("建立行索引失败", e);
+            }
+        });
+    }
+
+    @FXML
+    private void handleSearch() {
+        String query = searchField.getText();
+        if (query == null || query.isEmpty()) {
+            return;
+        }
+        byte[] pattern = query.getBytes(StandardCharsets.UTF_8);
+        boolean ignoreCase = ignoreCaseCheck.isSelected();
+        long from = lastMatch >= 0 ? lastMatch + 1 : (long) viewPage * RemotePagedFile.PAGE_SIZE;
+        searchCancelled = false;
+        setBusy(true, "正在搜索: " + query);
+        ThreadUtil.submitTask(() -> {
+            try {
+                long match = file.search(pattern, ignoreCase, from, () -> searchCancelled,
+                        p -> Platform.runLater(() -> taskProgress.setProgress(p)));
+                if (match >= 0) {
+                    lastMatch = match;
+                    Platform.runLater(() -> setBusy(false, "找到匹配，偏移 " + match));
+                    showPage((int) (match / RemotePagedFile.PAGE_SIZE), match, pattern.length);
+                } else {
+                    lastMatch = -1;
+                    Platform.runLater(() -> setBusy(false, searchCancelled ? "搜索已取消" : "已到文件末尾，未找到"));
+                }
+            } catch (Exception e) {
+                showError("搜索失败", e);
+            }
+        });
+    }
+
+    @FXML
+    private void handleCancelTask() {
+        searchCancelled = true;
+        indexCancelled = true;
+    }
+
+    /**
+     * 跟随模式：每秒只检查一次文件大小，有增长时只拉取新增的尾部并停在末尾
+     */
+    private void setFollow(boolean follow) {
+        if (followTask != null) {
+            followTask.cancel(false);
+            followTask = null;
+        }
+        if (!follow) {
+            return;
+        }
+        handleEnd();
+        followTask = ThreadUtil.scheduleAtFixedRate(() -> {
+            if (!polling.compareAndSet(false, true)) {
+                return;
+            }
+            ThreadUtil.submitTask(() -> {
+                try {
+                    long delta = file.refreshSize();
+                    if (delta != 0) {
+                        int page = Math.max(0, file.pageCount() - WINDOW_PAGES);
+                        showPage(page, -1, 0);
+                    }
+                } catch (Exception e) {
+                    log.warn("跟随文件失败: {}", e.getMessage());
+                } finally {
+                    polling.set(false);
+                }
+            });
+        }, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 在后台读取窗口内容，按整行截断后展示；highlightOffset >= 0 时选中该位置
+     */
+    private void showPage(int page, long highlightOffset, int highlightLength) {
+        long generation = renderGeneration.incrementAndGet();
+        ThreadUtil.submitTask(() -> {
+            try {
+                long start = (long) page * RemotePagedFile.PAGE_SIZE;
+                byte[] data = file.read(start, WINDOW_PAGES * RemotePagedFile.PAGE_SIZE);
+                int from = 0;
+                int to = data.length;
+                // 去掉窗口首尾不完整的行，同时避免截断多字节字符
+                if (page > 0) {
+                    int nl = indexOfNewline(data, 0);
+                    // 要高亮的位置恰好落在第一行残片里时保留残片
+                    if (nl >= 0 && nl + 1 < to && (highlightOffset < 0 || highlightOffset > start + nl)) {
+                        from = nl + 1;
+                    }
+                }
+                if (start + data.length < file.size()) {
+                    int nl = lastIndexOfNewline(data);
+                    if (nl >= from) {
+                        to = nl + 1;
+                    }
+                }
+                String text = new String(data, from, to - from, StandardCharsets.UTF_8);
+                int caret = -1;
+                int caretEnd = -1;
+                long relative = highlightOffset - start - from;
+                if (highlightOffset >= 0 && relative >= 0 && relative <= to - from) {
+                    caret = new String(data, from, (int) relative, StandardCharsets.UTF_8).length();
+                    caretEnd = caret + new String(data, from + (int) relative,
+                            Math.min(highlightLength, to - from - (int) relative), StandardCharsets.UTF_8).length();
+                }
+                final int selStart = caret;
+                final int selEnd = caretEnd;
+                Platform.runLater(() -> {
+                    if (generation != renderGeneration.get()) {
+                        return; // 已有更新的渲染请求
+                    }
+                    viewPage = page;
+                    contentArea.setText(text);
+                    if (selStart >= 0) {
+                        contentArea.selectRange(selStart, selEnd);
+                    } else if (followCheck.isSelected()) {
+                        contentArea.positionCaret(text.length());
+                        contentArea.setScrollTop(Double.MAX_VALUE);
+                    } else {
+                        contentArea.positionCaret(0);
+                        contentArea.setScrollTop(0);
+                    }
+                    updatePosition();
+                });
+            } catch (Exception e) {
+                showError("读取文件失败", e);
+            }
+        });
+    }
+
+    private void updatePosition() {
+        long size = file.size();
+        int pages = Math.max(file.pageCount(), 1);
+        long offset = (long) viewPage * RemotePagedFile.PAGE_SIZE;
+        String index = file.isLineIndexComplete() ? "，行索引完整" : "";
+        positionLabel.setText(String.format("第 %d/%d 页 (%.1f%%)，共 %s%s", viewPage + 1, pages,
+                size > 0 ? offset * 100.0 / size : 100.0, FileUtil.humanReadableByteCountBin(size), index));
+    }
+
+    private void setBusy(boolean busy, String message) {
+        taskProgress.setVisible(busy);
+        taskProgress.setProgress(busy ? 0 : 1);
+        statusLabel.setText(message);
+    }
+
+    private void showError(String title, Exception e) {
+        log.error("{}: {}", title, e.getMessage());
+        Platform.runLater(() -> setBusy(false, title + ": " + e.getMessage()));
+    }
+
+    private static int indexOfNewline(byte[] data, int from) {
+        for (int i = from; i < data.length; i++) {
+            if (data[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOfNewline(byte[] data) {
+        for (int i = data.length - 1; i >= 0; i--) {
+            if (data[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void close() {
+        searchCancelled = true;
+        indexCancelled = true;
+        if (followTask != null) {
+            followTask.cancel(false);
+        }
+        ThreadUtil.submitTask(file::close);
+    }
+}
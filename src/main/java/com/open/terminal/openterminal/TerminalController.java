@@ -2,20 +2,61 @@ package com.open.terminal.openterminal;
 
 import com.jcraft.jsch.*;
 import com.jediterm.terminal.ui.JediTermWidget;
+import com.open.terminal.openterminal.component.editor.RemoteEditSession;
+import com.open.terminal.openterminal.component.history.FuzzyMatcher;
+import com.open.terminal.openterminal.component.history.HistorySearch;
+import com.open.terminal.openterminal.component.history.PrefixIndex;
+import com.open.terminal.openterminal.component.monitor.MetricsAgent;
+import com.open.terminal.openterminal.component.monitor.MonitorCadence;
+import com.open.terminal.openterminal.component.monitor.Sparkline;
+import com.open.terminal.openterminal.component.probe.ReachabilityProber;
+import com.open.terminal.openterminal.component.search.RemoteFileSearch;
 import com.open.terminal.openterminal.component.terminal.DefaultTerminalSettings;
+import com.open.terminal.openterminal.component.terminal.GhostSuggestion;
 import com.open.terminal.openterminal.component.terminal.SshTtyConnector;
+import com.open.terminal.openterminal.component.transfer.RemoteRelay;
+import com.open.terminal.openterminal.component.verify.IntegrityVerifier;
+import com.open.terminal.openterminal.component.viewer.RemotePagedFile;
+import com.open.terminal.openterminal.component.watcher.RemoteDirectoryWatcher;
+import com.open.terminal.openterminal.fun.DirectoryChangeListener;
 import com.open.terminal.openterminal.fun.FileProcessInterface;
+import com.open.terminal.openterminal.fun.MetricsListener;
+import com.open.terminal.openterminal.fun.RemoteEditCallback;
+import com.open.terminal.openterminal.fun.RemoteSearchListener;
+import com.open.terminal.openterminal.manage.AlertManager;
+import com.open.terminal.openterminal.manage.DownloadCache;
+import com.open.terminal.openterminal.manage.HistoryStore;
+import com.open.terminal.openterminal.manage.MetricsStore;
+import com.open.terminal.openterminal.manage.PathIndexStore;
+import com.open.terminal.openterminal.manage.SessionRegistry;
+import com.open.terminal.openterminal.manage.TransferManager;
+import com.open.terminal.openterminal.model.CacheEntry;
 import com.open.terminal.openterminal.model.DownloadTask;
+import com.open.terminal.openterminal.model.HistoryEntry;
+import com.open.terminal.openterminal.model.HostMetrics;
+import com.open.terminal.openterminal.model.HostTimeSeries;
+import com.open.terminal.openterminal.model.MetricType;
+import com.open.terminal.openterminal.model.PathIndex;
+import com.open.terminal.openterminal.model.ProbeResult;
 import com.open.terminal.openterminal.model.RemoteFile;
+import com.open.terminal.openterminal.model.SessionEndpoint;
+import com.open.terminal.openterminal.model.VerifyResult;
 import com.open.terminal.openterminal.util.FileUtil;
 import com.open.terminal.openterminal.util.ThreadUtil;
 import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableBooleanValue;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.embed.swing.SwingNode;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.Dialog;
@@ -23,11 +64,19 @@ import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextFlow;
 import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
@@ -37,6 +86,9 @@ import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class TerminalController implements FileProcessInterface {
@@ -65,6 +117,31 @@ public class TerminalController implements FileProcessInterface {
     private Label currentPathLabel;
     @FXML
     private TableView<RemoteFile> fileTableView;
+    @FXML
+    private CheckBox watchDirCheck;
+
+    /*********远程文件搜索***********/
+    @FXML
+    private VBox searchPanel;
+    @FXML
+    private TextField searchRootField;
+    @FXML
+    private TextField searchQueryField;
+    @FXML
+    private ListView<String> searchResultList;
+    @FXML
+    private Label searchStatusLabel;
+
+    // 列表中最多展示的结果数，超过后只计数
+    private static final int MAX_SEARCH_RESULTS = 5000;
+    private RemoteFileSearch activeSearch;
+    // 搜索代数，丢弃已被取代的搜索发来的结果
+    private long searchGeneration = 0;
+    // 目录加载完成后需要选中的文件名（从搜索结果跳转过来）
+    private String pendingSelection;
+
+    // 当前目录的变化监听，未开启自动刷新时为 null
+    private RemoteDirectoryWatcher directoryWatcher;
 
     // SSH 相关对象
     private Session session;
@@ -72,11 +149,43 @@ public class TerminalController implements FileProcessInterface {
     private ChannelSftp sftpChannel;
     private JediTermWidget terminalWidget;
 
+    // 排序：目录在前，文件在后，同类按名称
+    private static final Comparator<RemoteFile> FILE_ORDER = (f1, f2) -> {
+        if (f1.isDirectory() && !f2.isDirectory()) {
+            return -1;
+        }
+        if (!f1.isDirectory() && f2.isDirectory()) {
+            return 1;
+        }
+        return f1.getFileName().compareToIgnoreCase(f2.getFileName());
+    };
+
+    // 超过该大小的文件双击时用分页查看器打开，不再整体下载
+    private static final long LARGE_FILE_THRESHOLD = 100L * 1024 * 1024;
+
     // 当前所在远程目录
     private String currentPath = ".";
+    // 连接成功后文件面板打开的目录，恢复工作区时为上次所在目录
+    private String initialPath = ".";
+    // 终端组件在该条件第一次为 true 时才创建，为 null 时连接后立即创建
+    private ObservableBooleanValue terminalShown;
+
+    // 全局传输任务列表 (所有 Tab 共享，由 TransferManager 统一调度)
+    private final ObservableList<DownloadTask> downloadList = TransferManager.getInstance().getTasks();
 
-    // 全局下载任务列表
-    private final ObservableList<DownloadTask> downloadList = FXCollections.observableArrayList();
+    // 当前会话标识 user@host:port，用于单会话并发限制
+    private String sessionKey;
+
+    // Tab 标题及本会话在 SessionRegistry 中的登记
+    private String tabName;
+    // 连接所属分组，用于匹配告警规则
+    private String group;
+    // 本标签页的告警状态与巡检大盘、其他标签页分开
+    private final String alertSource = AlertManager.getInstance().newSource("terminal");
+    private SessionEndpoint endpoint;
+
+    // 编辑模式中的文件，key 为远程绝对路径
+    private final Map<String, RemoteEditSession> editSessions = new ConcurrentHashMap<>();
 
     // 监控 UI 控件
     @FXML
@@ -96,18 +205,45 @@ public class TerminalController implements FileProcessInterface {
     @FXML
     private Label netUpLabel;
 
-    // 定时任务标志
-    private volatile boolean isMonitoring = false;
+    // 系统监控：常驻的远程采样代理，周期随标签页可见性和采样耗时调整
+    private final MonitorCadence monitorCadence = new MonitorCadence();
+    private MetricsAgent metricsAgent;
+    // 进程浏览器窗口，每个 Tab 只开一个
+    private Stage processStage;
+    // 持有引用，避免组合出来的绑定被回收
+    private ObservableBooleanValue monitorVisibility;
 
-    // 监控状态记录
-    private long prevIdleTime = 0;
-    private long prevTotalTime = 0;
-    private long prevRxBytes = 0;
-    private long prevTxBytes = 0;
-    private long lastCheckTime = 0;
+    // 趋势图：数据来自 MetricsStore，按所选时间范围读取
+    @FXML
+    private ComboBox<String> trendRangeBox;
+    @FXML
+    private StackPane cpuTrendPane;
+    @FXML
+    private StackPane ramTrendPane;
+    @FXML
+    private StackPane diskTrendPane;
+    @FXML
+    private StackPane netTrendPane;
+    @FXML
+    private Label loadLabel;
+    // 最新一次采样，供主机详情窗口监听，只在 FX 线程修改
+    private final ReadOnlyObjectWrapper<HostMetrics> latestMetrics = new ReadOnlyObjectWrapper<>();
+    // 当前处于触发状态的告警数，标签页角标绑定它
+    private final ReadOnlyIntegerWrapper alertCount = new ReadOnlyIntegerWrapper();
+    private static final String[] TREND_RANGES = {"15 分钟", "1 小时", "24 小时", "7 天"};
+    private static final long[] TREND_SPANS = {
+            TimeUnit.MINUTES.toMillis(15), TimeUnit.HOURS.toMillis(1), TimeUnit.DAYS.toMillis(1), TimeUnit.DAYS.toMillis(7)};
+    // 侧边栏宽度有限，每条趋势图最多 120 个点
+    private static final int TREND_POINTS = 120;
+    private final Sparkline cpuTrend = new Sparkline(1, Color.web("#4a90e2"));
+    private final Sparkline ramTrend = new Sparkline(1, Color.web("#9b59b6"));
+    private final Sparkline diskTrend = new Sparkline(1, Color.web("#2ecc71"));
+    private final Sparkline netTrend = new Sparkline(0, Color.web("#2ecc71"), Color.web("#e67e22"));
 
 
     private SshTtyConnector ttyConnector;
+    // 终端内联补全提示
+    private GhostSuggestion ghostSuggestion;
 
     @FXML
     public void initialize() {
@@ -121,6 +257,20 @@ public class TerminalController implements FileProcessInterface {
             fileTableView.getColumns().get(3).setCellValueFactory(new PropertyValueFactory<>("modificationTime"));
         }
 
+        cpuTrendPane.getChildren().add(cpuTrend);
+        ramTrendPane.getChildren().add(ramTrend);
+        diskTrendPane.getChildren().add(diskTrend);
+        netTrendPane.getChildren().add(netTrend);
+        trendRangeBox.getItems().setAll(TREND_RANGES);
+        trendRangeBox.getSelectionModel().select(0);
+        trendRangeBox.valueProperty().addListener((obs, oldVal, newVal) -> refreshTrends());
+
+        searchResultList.setOnMouseClicked(event -> {
+            if (event.getClickCount() == 2) {
+                openSearchResult(searchResultList.getSelectionModel().getSelectedItem());
+            }
+        });
+
         // TableView 每一行（TableRow）的创建方式
         fileTableView.setRowFactory(tv -> {
             TableRow<RemoteFile> row = new TableRow<>();
@@ -130,11 +280,30 @@ public class TerminalController implements FileProcessInterface {
                     RemoteFile rowData = row.getItem();
                     if (rowData.isDirectory()) {
                         loadRemoteFiles(currentPath + "/" + rowData.getFileName());
+                    } else if (rowData.getSizeBytes() >= LARGE_FILE_THRESHOLD) {
+                        // 大文件整体下载不现实，直接用分页查看器打开
+                        openRemoteViewer(rowData);
                     } else {
                         openRemoteFileWithChooser(rowData);
                     }
                 }
             });
+
+            // 右键菜单
+            MenuItem openItem = new MenuItem("打开");
+            openItem.setOnAction(e -> openRemoteFileWithChooser(row.getItem()));
+            MenuItem editItem = new MenuItem("编辑 (保存后自动回写)");
+            editItem.setOnAction(e -> editRemoteFile(row.getItem()));
+            MenuItem viewItem = new MenuItem("分页查看");
+            viewItem.setOnAction(e -> openRemoteViewer(row.getItem()));
+            MenuItem relayItem = new MenuItem("发送到其他会话...");
+            relayItem.setOnAction(e -> relayToOtherSession(row.getItem()));
+            ContextMenu fileMenu = new ContextMenu(openItem, editItem, viewItem, relayItem);
+            row.contextMenuProperty().bind(javafx.beans.binding.Bindings
+                    .when(row.emptyProperty().or(javafx.beans.binding.Bindings.createBooleanBinding(
+                            () -> row.getItem() != null && row.getItem().isDirectory(), row.itemProperty())))
+                    .then((ContextMenu) null)
+                    .otherwise(fileMenu));
             return row;
         });
     }
@@ -145,28 +314,27 @@ public class TerminalController implements FileProcessInterface {
             return;
         }
         ThreadUtil.submitTask(() -> {
-            Path localDownloadDir = FileUtil.localDownloadDir;
             try {
-                if (!Files.exists(localDownloadDir)) {
-                    Files.createDirectories(localDownloadDir);
-                }
-
-                Path localFile = localDownloadDir.resolve(file.getFileName());
-
-                // 即使文件存在，如果用户点击的是下载/打开，我们通常检查是否需要覆盖
-                // 这里为了简单，假设每次都重新下载，或者你可以加判断
-                // 如果需要覆盖，则执行下载：
-
-                // 获取文件大小 (RemoteFile 对象里是字符串，这里最好解析一下，或者重新lstat)
-                // 简单起见，假设 file.getSize() 能转回 long，或者重新获取属性
-                SftpATTRS attrs = sftpChannel.lstat(currentPath + "/" + file.getFileName());
+                String remotePath = currentPath + "/" + file.getRawName();
+                SftpATTRS attrs = sftpChannel.lstat(remotePath);
                 long fileSize = attrs.getSize();
-
-                downloadRemoteFileWithProgress(
-                        currentPath + "/" + file.getFileName(),
-                        localFile,
-                        fileSize
-                );
+                long mtime = attrs.getMTime();
+
+                // 1. 远程文件未变化（大小、修改时间一致）时直接打开本地缓存，跳过下载
+                DownloadCache cache = DownloadCache.getInstance();
+                String cacheKey = DownloadCache.buildKey(sessionKey, remotePath, fileSize, mtime);
+                Optional<Path> cached = cache.lookup(cacheKey);
+                Path localFile;
+                if (cached.isPresent()) {
+                    localFile = cached.get();
+                    log.info("命中下载缓存: {}", remotePath);
+                } else {
+                    // 2. 未命中则下载到该版本专属的缓存路径，完成后登记
+                    localFile = cache.pathFor(cacheKey, file.getRawName());
+                    Files.createDirectories(localFile.getParent());
+                    downloadRemoteFileWithProgress(remotePath, localFile, fileSize);
+                    cache.put(cacheKey, sessionKey, remotePath, fileSize, mtime, localFile);
+                }
 
                 // 下载完成后打开
                 Platform.runLater(() -> {
@@ -184,40 +352,206 @@ public class TerminalController implements FileProcessInterface {
         });
     }
 
-    @Override
-    // 带进度的下载方法
-    public void downloadRemoteFileWithProgress(String remotePath, Path localPath, long totalSize) throws Exception {
-        String fileName = localPath.getFileName().toString();
+    /**
+     * 编辑模式：下载工作副本并用系统程序打开，之后每次保存都会增量回写到远程
+     */
+    private void editRemoteFile(RemoteFile file) {
+        if (sftpChannel == null || !sftpChannel.isConnected()) {
+            return;
+        }
+        ThreadUtil.submitTask(() -> {
+            try {
+                String remotePath = sftpChannel.realpath(currentPath + "/" + file.getRawName());
+                RemoteEditSession existing = editSessions.get(remotePath);
+                Path localFile;
+                if (existing != null && !existing.isClosed()) {
+                    // 已在编辑中，直接再次打开工作副本
+                    localFile = existing.getLocalFile();
+                } else {
+                    SftpATTRS attrs = sftpChannel.stat(remotePath);
+                    localFile = RemoteEditSession.workFileFor(sessionKey, remotePath);
+                    Files.createDirectories(localFile.getParent());
+                    downloadRemoteFileWithProgress(remotePath, localFile, attrs.getSize());
+
+                    RemoteEditSession editSession = new RemoteEditSession(session, this::openTransferChannel,
+                            sessionKey, remotePath, localFile, attrs, editCallback);
+                    editSession.start();
+                    editSessions.put(remotePath, editSession);
+                }
+                Platform.runLater(() -> {
+                    try {
+                        FileUtil.openWithSystemChooser(localFile.toFile());
+                    } catch (IOException e) {
+                        printErrorToTerminal("打开文件失败: " + e.getMessage());
+                    }
+                });
+            } catch (Exception e) {
+                log.error("进入编辑模式失败: {}", e.getMessage());
+                printErrorToTerminal("进入编辑模式失败：" + e.getMessage() + "\n");
+            }
+        });
+    }
+
+    /**
+     * 编辑模式回写时的界面交互
+     */
+    private final RemoteEditCallback editCallback = new RemoteEditCallback() {
+        @Override
+        public boolean confirmOverwrite(String remotePath) {
+            CompletableFuture<Boolean> answer = new CompletableFuture<>();
+            Platform.runLater(() -> {
+                ButtonType overwrite = new ButtonType("覆盖远程", ButtonBar.ButtonData.OK_DONE);
+                ButtonType skip = new ButtonType("放弃本次保存", ButtonBar.ButtonData.CANCEL_CLOSE);
+                Alert alert = new Alert(Alert.AlertType.WARNING,
+                        "远程文件 " + remotePath + " 在你编辑期间已被修改。\n覆盖将丢失远程的改动。", overwrite, skip);
+                alert.setTitle("保存冲突");
+                alert.setHeaderText(null);
+                answer.complete(alert.showAndWait().orElse(skip) == overwrite);
+            });
+            try {
+                return answer.get();
+            } catch (Exception e) {
+                return false;
+            }
+        }
 
-        // 1. 创建任务并加入列表 (必须在 UI 线程添加，或者用 Platform.runLater)
-        DownloadTask task = new DownloadTask(fileName, totalSize, false);
-        Platform.runLater(() -> downloadList.addFirst(task)); // 加到最前面
+        @Override
+        public void onSaved(String remotePath, long sentBytes, long totalBytes) {
+            log.info("编辑已同步到远程: {}", remotePath);
+        }
 
-        // 2. 创建 JSch 进度监听器
-        SftpProgressMonitor monitor = new SftpProgressMonitor() {
-            @Override
-            public void init(int op, String src, String dest, long max) {
-                // 开始下载
-                log.info("开始下载文件: {}", fileName);
+        @Override
+        public void onError(String remotePath, Exception e) {
+            printErrorToTerminal("回写 " + remotePath + " 失败: " + e.getMessage() + "\n");
+        }
+    };
+
+    /**
+     * 把文件直接发送到另一个已连接的 Tab，数据经内存中转，不落本地磁盘
+     */
+    private void relayToOtherSession(RemoteFile file) {
+        List<SessionEndpoint> others = SessionRegistry.getInstance().getOthers(endpoint);
+        if (others.isEmpty()) {
+            Alert alert = new Alert(Alert.AlertType.INFORMATION, "没有其他已连接的会话，请先打开目标主机的终端。");
+            alert.setHeaderText(null);
+            alert.showAndWait();
+            return;
+        }
+        ChoiceDialog<SessionEndpoint> targetDialog = new ChoiceDialog<>(others.getFirst(), others);
+        targetDialog.setTitle("发送到其他会话");
+        targetDialog.setHeaderText("将 " + file.getRawName() + " 发送到：");
+        targetDialog.showAndWait().ifPresent(target -> {
+            String targetDir = target.getCurrentDir();
+            TextInputDialog pathDialog = new TextInputDialog(
+                    (targetDir.endsWith("/") ? targetDir : targetDir + "/") + file.getRawName());
+            pathDialog.setTitle("发送到其他会话");
+            pathDialog.setHeaderText("目标路径（" + target + "）");
+            pathDialog.showAndWait()
+                    .filter(path -> !path.isBlank())
+                    .ifPresent(targetPath -> RemoteRelay.submit(endpoint, currentPath + "/" + file.getRawName(),
+                            file.getSizeBytes(), target, targetPath.trim()));
+        });
+    }
+
+    /**
+     * 用分页查看器打开远程文件：只读取需要的部分，适合超大日志
+     */
+    private void openRemoteViewer(RemoteFile file) {
+        if (session == null || !session.isConnected()) {
+            return;
+        }
+        String remotePath = currentPath + "/" + file.getRawName();
+        ThreadUtil.submitTask(() -> {
+            try {
+                RemotePagedFile pagedFile = new RemotePagedFile(this::openTransferChannel, session, remotePath);
+                Platform.runLater(() -> {
+                    try {
+                        FXMLLoader loader = new FXMLLoader(getClass().getResource("remote-file-viewer.fxml"));
+                        BorderPane content = loader.load();
+                        RemoteFileViewerController controller = loader.getController();
+
+                        Stage stage = new Stage();
+                        stage.setTitle("查看: " + file.getRawName());
+                        stage.setScene(new Scene(content));
+                        controller.init(pagedFile, stage);
+                        stage.show();
+                    } catch (IOException e) {
+                        pagedFile.close();
+                        log.error("无法打开文件查看器: {}", e.getMessage());
+                        printErrorToTerminal("无法打开文件查看器: " + e.getMessage() + "\n");
+                    }
+                });
+            } catch (Exception e) {
+                log.error("打开远程文件失败: {}", e.getMessage());
+                printErrorToTerminal("打开远程文件失败: " + e.getMessage() + "\n");
             }
+        });
+    }
 
-            @Override
-            public boolean count(long count) {
-                // count 是本次传输的字节增量
-                task.updateProgress(count);
-                return true; // 返回 false 会取消传输
+    @Override
+    // 带进度的下载方法：提交到全局传输队列，阻塞直到下载结束
+    public void downloadRemoteFileWithProgress(String remotePath, Path localPath, long totalSize) throws Exception {
+        submitDownload(remotePath, localPath, totalSize).getCompletion().get();
+    }
+
+    /**
+     * 提交下载任务，每个任务在执行时使用独立的 SFTP 通道，互不阻塞
+     */
+    private DownloadTask submitDownload(String remotePath, Path localPath, long totalSize) {
+        String fileName = localPath.getFileName().toString();
+        DownloadTask task = new DownloadTask(fileName, totalSize, DownloadTask.TransferType.DOWNLOAD,
+                sessionKey, remotePath, localPath, (t, monitor, resume) -> {
+            ChannelSftp transferChannel = openTransferChannel();
+            try {
+                // mode: OVERWRITE 完全覆盖；RESUME 从本地已有长度继续
+                transferChannel.get(remotePath, localPath.toString(), monitor,
+                        resume ? ChannelSftp.RESUME : ChannelSftp.OVERWRITE);
+            } finally {
+                transferChannel.disconnect();
             }
+        });
+        task.setVerifier(this::verifyTransfer);
+        return TransferManager.getInstance().submit(task);
+    }
 
-            @Override
-            public void end() {
-                // 结束
-                log.info("文件下载完成: {}", fileName);
+    /**
+     * 提交上传任务
+     */
+    private DownloadTask submitUpload(File localFile, String remotePath) {
+        DownloadTask task = new DownloadTask(localFile.getName(), localFile.length(), DownloadTask.TransferType.UPLOAD,
+                sessionKey, remotePath, localFile.toPath(), (t, monitor, resume) -> {
+            ChannelSftp transferChannel = openTransferChannel();
+            try {
+                transferChannel.put(localFile.getAbsolutePath(), remotePath, monitor,
+                        resume ? ChannelSftp.RESUME : ChannelSftp.OVERWRITE);
+            } finally {
+                transferChannel.disconnect();
             }
-        };
+        });
+        task.setVerifier(this::verifyTransfer);
+        return TransferManager.getInstance().submit(task);
+    }
 
-        // 3. 执行下载
-        // mode: ChannelSftp.OVERWRITE 完全覆盖
-        sftpChannel.get(remotePath, localPath.toString(), monitor, ChannelSftp.OVERWRITE);
+    /**
+     * 传输完成后比较远程文件和本地文件的摘要
+     */
+    private VerifyResult verifyTransfer(DownloadTask task) throws Exception {
+        if (session == null || !session.isConnected()) {
+            throw new JSchException("SSH 会话未连接");
+        }
+        return IntegrityVerifier.verify(session, task.getRemotePath(), task.getLocalPath());
+    }
+
+    /**
+     * 为单个传输任务打开独立的 SFTP 通道（ChannelSftp 不支持多线程并发使用）
+     */
+    private ChannelSftp openTransferChannel() throws JSchException {
+        if (session == null || !session.isConnected()) {
+            throw new JSchException("SSH 会话未连接");
+        }
+        ChannelSftp transferChannel = (ChannelSftp) session.openChannel("sftp");
+        transferChannel.connect();
+        return transferChannel;
     }
 
     @FXML
@@ -230,17 +564,18 @@ public class TerminalController implements FileProcessInterface {
                 Files.createDirectories(localDownloadDir);
             }
 
-            // 2. 扫描本地目录，将已存在的文件（且不在当前列表中的）加入列表
-            File[] existingFiles = localDownloadDir.toFile().listFiles();
-            if (existingFiles != null) {
-                for (File file : existingFiles) {
-                    boolean alreadyInList = downloadList.stream()
-                            .anyMatch(t -> t.getFileName().equals(file.getName()));
-
-                    if (!alreadyInList) {
-                        // 添加历史文件，状态设为已完成
-                        downloadList.add(new DownloadTask(file.getName(), file.length(), true));
-                    }
+            // 2. 将缓存索引中的文件（且不在当前列表中的）加入列表，用 HashSet 去重避免逐个遍历任务列表
+            Set<Path> listed = downloadList.stream()
+                    .map(DownloadTask::getLocalPath)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toCollection(HashSet::new));
+            DownloadCache cache = DownloadCache.getInstance();
+            for (CacheEntry entry : cache.getEntries()) {
+                Path localFile = cache.resolve(entry);
+                if (listed.add(localFile)) {
+                    // 添加历史文件，状态设为已完成
+                    downloadList.add(new DownloadTask(localFile.getFileName().toString(), entry.getSize(),
+                            entry.getRemotePath(), localFile));
                 }
             }
 
@@ -315,20 +650,22 @@ public class TerminalController implements FileProcessInterface {
         if (selectedFile != null) {
             final File finalFile = selectedFile;
 
+            // 上传目标为提交时所在的远程目录
+            final String remoteDir = currentPath;
+
             ThreadUtil.submitTask(() -> {
                 try {
                     printErrorToTerminal("开始上传: " + finalFile.getName() + "...\n");
+                    java.util.List<DownloadTask> uploadTasks = new ArrayList<>();
 
                     // 1. 单个文件上传
                     if (finalFile.isFile()) {
-                        try (FileInputStream fis = new FileInputStream(finalFile)) {
-                            sftpChannel.put(fis, finalFile.getName());
-                        }
+                        uploadTasks.add(submitUpload(finalFile, remoteDir + "/" + finalFile.getName()));
                     }
-                    // 2. 目录递归上传
+                    // 2. 目录递归上传：先建好目录结构，再把每个文件加入传输队列
                     else {
                         Path rootPath = finalFile.toPath();
-                        String remoteBaseDir = finalFile.getName();
+                        String remoteBaseDir = remoteDir + "/" + finalFile.getName();
 
                         FileUtil.safeSftpMkdir(sftpChannel, remoteBaseDir); // 确保远程根目录存在
 
@@ -356,20 +693,26 @@ public class TerminalController implements FileProcessInterface {
                                 Path relative = rootPath.relativize(file);
                                 String remoteFilePath = remoteBaseDir + "/" + relative.toString().replace("\\", "/");
 
-                                try (FileInputStream fis = new FileInputStream(file.toFile())) {
-                                    sftpChannel.put(fis, remoteFilePath);
-                                    Platform.runLater(() -> printErrorToTerminal("已上传: " + remoteFilePath + "\n"));
-                                } catch (SftpException e) {
-                                    throw new IOException("上传文件失败: " + file, e);
-                                }
+                                DownloadTask task = submitUpload(file.toFile(), remoteFilePath);
+                                task.getCompletion().thenRun(() -> printErrorToTerminal("已上传: " + remoteFilePath + "\n"));
+                                uploadTasks.add(task);
                                 return java.nio.file.FileVisitResult.CONTINUE;
                             }
                         });
                     }
-                    printErrorToTerminal("上传成功: " + finalFile.getName() + "\n");
-                    Platform.runLater(() -> {
-                        handleRefreshFiles();
-                    });
+
+                    // 所有文件传输结束后刷新列表
+                    java.util.concurrent.CompletableFuture
+                            .allOf(uploadTasks.stream().map(DownloadTask::getCompletion)
+                                    .toArray(java.util.concurrent.CompletableFuture[]::new))
+                            .whenComplete((v, ex) -> {
+                                if (ex == null) {
+                                    printErrorToTerminal("上传成功: " + finalFile.getName() + "\n");
+                                } else {
+                                    printErrorToTerminal("上传未全部完成: " + ex.getMessage() + "\n");
+                                }
+                                Platform.runLater(this::handleRefreshFiles);
+                            });
 
                 } catch (Exception e) {
                     log.error("上传失败", e);
@@ -390,9 +733,45 @@ public class TerminalController implements FileProcessInterface {
     /**
      * 连接 SSH 并初始化 SFTP
      */
+    public void setTabName(String tabName) {
+        this.tabName = tabName;
+    }
+
+    public void setGroup(String group) {
+        this.group = group;
+    }
+
+    /**
+     * 连接前调用，指定文件面板打开的远程目录
+     */
+    public void setInitialPath(String initialPath) {
+        this.initialPath = initialPath;
+    }
+
+    /**
+     * 连接前调用，终端组件推迟到 shown 第一次为 true 时再创建
+     */
+    public void deferTerminalUntil(ObservableBooleanValue shown) {
+        this.terminalShown = shown;
+    }
+
+    public String getCurrentPath() {
+        return currentPath;
+    }
+
+    public ReadOnlyIntegerProperty alertCountProperty() {
+        return alertCount.getReadOnlyProperty();
+    }
+
     public void connectSSH(String host, int port, String user, String password) {
         ThreadUtil.submitTask(() -> {
             try {
+                // 最近探测为不可达的主机先快速复查，仍不通就直接报错，不再等 SSH 的连接超时
+                ProbeResult down = ReachabilityProber.getInstance().recheckIfDown(host, port);
+                if (down != null) {
+                    throw new IOException("主机不可达（" + down.getDetail() + "）");
+                }
+
                 // 1. 创建 Session
                 JSch jsch = new JSch();
                 session = jsch.getSession(user, host, port);
@@ -406,11 +785,14 @@ public class TerminalController implements FileProcessInterface {
                 // 设置保活心跳，防止长时间未操作断开
                 session.setServerAliveInterval(30000);
                 session.connect(10000);
+                sessionKey = user + "@" + host + ":" + port;
 
                 // 2. 初始化 Shell 通道 (必须开启 PTY)
                 channel = (ChannelShell) session.openChannel("shell");
                 channel.setPty(true);
                 channel.setPtyType("xterm"); // 必须设置，否则 vim 报错
+                // 连接前取得输入流，终端组件延后创建时远程输出先留在 JSch 的缓冲区里
+                ttyConnector = new SshTtyConnector(channel);
                 channel.connect();
 
 
@@ -418,82 +800,29 @@ public class TerminalController implements FileProcessInterface {
                 sftpChannel = (ChannelSftp) session.openChannel("sftp");
                 sftpChannel.connect();
 
-                // 4. 初始化 JediTerm 终端组件
-                // 注意：JediTerm 是 Swing 组件，必须在 Swing 线程 (EDT) 初始化
-                // JavaFX 操作必须在 Platform 线程
-                SwingUtilities.invokeLater(() -> {
-                    try {
-                        // 创建连接器
-                        ttyConnector = new SshTtyConnector(channel);
-
-                        // 创建终端 Widget
-                        terminalWidget = new JediTermWidget(new DefaultTerminalSettings());
-                        terminalWidget.setTtyConnector(ttyConnector);
-                        terminalWidget.start();
-
-                        // 获取 TerminalPanel (实际处理键盘事件的组件)
-                        var terminalPanel = terminalWidget.getTerminalPanel();
-
-                        // 全局事件拦截
-                        // 获取当前 Swing 线程的焦点管理器
-                        // 处理 ctrl+c 事件，发送 ASCII 3 到远程
-                        java.awt.KeyboardFocusManager.getCurrentKeyboardFocusManager()
-                                .addKeyEventDispatcher(new java.awt.KeyEventDispatcher() {
-                                    @Override
-                                    public boolean dispatchKeyEvent(java.awt.event.KeyEvent e) {
-                                        // 1. 确保事件是针对当前终端面板的 (防止影响其他 Swing 组件)
-                                        if (terminalWidget == null || e.getComponent() != terminalWidget.getTerminalPanel()) {
-                                            return false; // 不处理，放行
-                                        }
-
-                                        // 2. 只处理 "按下" 事件 (KEY_PRESSED)
-                                        if (e.getID() == java.awt.event.KeyEvent.KEY_PRESSED) {
-
-                                            // 3. 检测 Ctrl + C
-                                            if (e.getKeyCode() == java.awt.event.KeyEvent.VK_C
-                                                    && e.isControlDown()
-                                                    && !e.isShiftDown()
-                                                    && !e.isAltDown()) {
+                // 登记到会话列表，供其他 Tab 作为跨会话传输的目标
+                endpoint = new SessionEndpoint(tabName != null ? tabName : sessionKey, sessionKey, session,
+                        this::openTransferChannel, () -> currentPath);
+                SessionRegistry.getInstance().register(endpoint);
 
-                                                log.info(">>> 全局拦截器捕获到 Ctrl+C !");
-
-                                                try {
-                                                    // 发送 ASCII 3 (SIGINT)
-                                                    ttyConnector.write(new byte[]{3});
-                                                } catch (java.io.IOException ex) {
-                                                    log.error("发送 Ctrl+C 失败: {}", ex.getMessage());
-                                                }
-
-                                                // 4. 【核心】返回 true 表示 "事件已被我处理，不要再分发给组件"
-                                                // 这样 JediTerm 内部的 InputMap 就永远收不到这个事件了
-                                                return true;
-                                            }
-                                        }
-
-                                        // 返回 false 表示 "我没处理，继续按正常流程分发"
-                                        return false;
-                                    }
-                                });
-
-                        // 嵌入到 JavaFX
-                        Platform.runLater(() -> {
-                            SwingNode swingNode = new SwingNode();
-                            swingNode.setContent(terminalWidget);
-                            terminalContainer.getChildren().add(swingNode);
-
-                            // 更新状态 UI
-                            initConnectionInfo(host, port, user);
-                        });
-
-                    } catch (Exception e) {
-                        log.error("初始化终端失败: {}", e.getMessage());
-                    }
+                Platform.runLater(() -> {
+                    // 更新状态 UI
+                    initConnectionInfo(host, port, user);
+                    // 4. 终端组件在 Tab 第一次显示时才创建，恢复工作区时后台的 Tab 不占用界面线程
+                    runWhenShown(() -> SwingUtilities.invokeLater(this::createTerminalView));
                 });
 
-                // 5. 加载初始目录文件
-                // 注意：如果 loadRemoteFiles 内部也是异步的，这里直接调用没问题
-                // 如果内部是同步 IO，建议包裹在 submitTask 中，或者确认 loadRemoteFiles 实现方式
-                loadRemoteFiles(".");
+                // 5. 加载初始目录文件，上次的目录已不存在时回到家目录
+                String startPath = initialPath;
+                if (!".".equals(startPath)) {
+                    try {
+                        sftpChannel.stat(startPath);
+                    } catch (SftpException e) {
+                        log.warn("目录 {} 已不可用，打开家目录", startPath);
+                        startPath = ".";
+                    }
+                }
+                loadRemoteFiles(startPath);
 
                 // 6. 启动系统监控 (CPU/内存等)
                 startSystemMonitoring();
@@ -511,6 +840,115 @@ public class TerminalController implements FileProcessInterface {
         });
     }
 
+    /**
+     * 创建 JediTerm 终端组件并嵌入界面，在 Swing 线程 (EDT) 上调用
+     */
+    private void createTerminalView() {
+        try {
+            // 创建终端 Widget
+            DefaultTerminalSettings settings = new DefaultTerminalSettings();
+            terminalWidget = new JediTermWidget(settings);
+            terminalWidget.setTtyConnector(ttyConnector);
+            terminalWidget.start();
+
+            // 输入时的历史补全提示
+            ghostSuggestion = new GhostSuggestion(terminalWidget, settings.getTerminalFont(), settings.getLineSpacing());
+            ttyConnector.setInputObserver(ghostSuggestion::onInput);
+            JComponent terminalView = ghostSuggestion.wrap();
+
+            // 获取 TerminalPanel (实际处理键盘事件的组件)
+            var terminalPanel = terminalWidget.getTerminalPanel();
+
+            // 全局事件拦截
+            // 获取当前 Swing 线程的焦点管理器
+            // 处理 ctrl+c 事件，发送 ASCII 3 到远程
+            java.awt.KeyboardFocusManager.getCurrentKeyboardFocusManager()
+                    .addKeyEventDispatcher(new java.awt.KeyEventDispatcher() {
+                        @Override
+                        public boolean dispatchKeyEvent(java.awt.event.KeyEvent e) {
+                            // 1. 确保事件是针对当前终端面板的 (防止影响其他 Swing 组件)
+                            if (terminalWidget == null || e.getComponent() != terminalWidget.getTerminalPanel()) {
+                                return false; // 不处理，放行
+                            }
+
+                            // 2. 只处理 "按下" 事件 (KEY_PRESSED)
+                            if (e.getID() == java.awt.event.KeyEvent.KEY_PRESSED) {
+
+                                // → 或 End 接受显示中的补全提示
+                                if ((e.getKeyCode() == java.awt.event.KeyEvent.VK_RIGHT
+                                        || e.getKeyCode() == java.awt.event.KeyEvent.VK_END)
+                                        && e.getModifiersEx() == 0) {
+                                    String suffix = ghostSuggestion.acceptableSuffix();
+                                    if (suffix != null) {
+                                        try {
+                                            ttyConnector.write(suffix);
+                                        } catch (java.io.IOException ex) {
+                                            log.error("写入补全失败: {}", ex.getMessage());
+                                        }
+                                        return true;
+                                    }
+                                }
+
+                                // 3. 检测 Ctrl + C
+                                if (e.getKeyCode() == java.awt.event.KeyEvent.VK_C
+                                        && e.isControlDown()
+                                        && !e.isShiftDown()
+                                        && !e.isAltDown()) {
+
+                                    log.info(">>> 全局拦截器捕获到 Ctrl+C !");
+
+                                    try {
+                                        // 发送 ASCII 3 (SIGINT)
+                                        ttyConnector.write(new byte[]{3});
+                                    } catch (java.io.IOException ex) {
+                                        log.error("发送 Ctrl+C 失败: {}", ex.getMessage());
+                                    }
+
+                                    // 4. 【核心】返回 true 表示 "事件已被我处理，不要再分发给组件"
+                                    // 这样 JediTerm 内部的 InputMap 就永远收不到这个事件了
+                                    return true;
+                                }
+                            }
+
+                            // 返回 false 表示 "我没处理，继续按正常流程分发"
+                            return false;
+                        }
+                    });
+
+            loadSuggestionIndex();
+
+            // 嵌入到 JavaFX
+            Platform.runLater(() -> {
+                SwingNode swingNode = new SwingNode();
+                swingNode.setContent(terminalView);
+                terminalContainer.getChildren().add(swingNode);
+            });
+
+        } catch (Exception e) {
+            log.error("初始化终端失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 在界面线程上调用：terminalShown 已为 true（或未设置）时立即执行，否则等它第一次变为 true
+     */
+    private void runWhenShown(Runnable action) {
+        ObservableBooleanValue shown = terminalShown;
+        if (shown == null || shown.get()) {
+            action.run();
+            return;
+        }
+        shown.addListener(new ChangeListener<>() {
+            @Override
+            public void changed(ObservableValue<? extends Boolean> obs, Boolean oldVal, Boolean newVal) {
+                if (newVal) {
+                    shown.removeListener(this);
+                    action.run();
+                }
+            }
+        });
+    }
+
     /**
      * 加载指定路径的远程文件
      */
@@ -529,48 +967,23 @@ public class TerminalController implements FileProcessInterface {
                 Vector<ChannelSftp.LsEntry> entries = sftpChannel.ls(".");
                 ObservableList<RemoteFile> fileList = FXCollections.observableArrayList();
 
-                SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
                 for (ChannelSftp.LsEntry entry : entries) {
                     String filename = entry.getFilename();
-                    SftpATTRS attrs = entry.getAttrs();
-
                     // 排除当前目录 "."
                     if (filename.equals(".")) {
                         continue;
                     }
-
-                    String sizeStr = FileUtil.humanReadableByteCountBin(attrs.getSize());
-                    String dateStr = sdf.format(new Date(attrs.getMTime() * 1000L));
-                    boolean isDir = attrs.isDir();
-
-                    // 对目录添加特殊标记或颜色 (这里简单处理文件名)
-                    String displayName = isDir ? filename + "/" : filename;
-
-                    fileList.add(new RemoteFile(
-                            displayName,
-                            isDir ? "" : sizeStr, // 目录不显示大小
-                            attrs.getPermissionsString(),
-                            dateStr,
-                            filename, // 原始文件名，用于操作
-                            isDir
-                    ));
+                    fileList.add(toRemoteFile(filename, entry.getAttrs()));
                 }
 
                 // 排序：目录在前，文件在后
-                fileList.sort((f1, f2) -> {
-                    if (f1.isDirectory() && !f2.isDirectory()) {
-                        return -1;
-                    }
-                    if (!f1.isDirectory() && f2.isDirectory()) {
-                        return 1;
-                    }
-                    return f1.getFileName().compareToIgnoreCase(f2.getFileName());
-                });
+                fileList.sort(FILE_ORDER);
 
                 Platform.runLater(() -> {
                     currentPathLabel.setText(pwd);
                     fileTableView.setItems(fileList);
+                    selectPendingFile();
+                    restartDirectoryWatcher();
                 });
 
             } catch (SftpException e) {
@@ -580,177 +993,425 @@ public class TerminalController implements FileProcessInterface {
         });
     }
 
-    private void startSystemMonitoring() {
-        isMonitoring = true;
-        ThreadUtil.submitTask(() -> {
-            try {
-                while (isMonitoring && session != null && session.isConnected()) {
-                    long startTime = System.currentTimeMillis();
-                    log.info("执行系统监控命令...");
-
-                    // 构造组合命令：使用 "echo '#####';" 作为分隔符
-                    // 1. 内存 (Total Used)
-                    // 2. 磁盘 (Use%)
-                    // 3. CPU (从 /proc/stat 读取第一行)
-                    // 4. 网络 (从 /proc/net/dev 读取所有非 lo 接口)
-                    String batchCommand =
-                            "free -b | awk 'NR==2{print $2,$3}'; echo '#####'; " +
-                                    "df -h / | awk 'NR==2{print $5}'; echo '#####'; " +
-                                    "head -n 1 /proc/stat; echo '#####'; " +
-                                    "cat /proc/net/dev | grep -v 'lo:' | awk '{rx+=$2; tx+=$10} END {print rx, tx}'";
-
-                    String rawOutput = runSingleCommand(batchCommand);
-
-                    if (!rawOutput.isEmpty()) {
-                        parseAndUpdateMonitor(rawOutput);
-                    }
+    /**
+     * 打开当前目录的磁盘占用分析窗口
+     */
+    @FXML
+    public void handleDiskUsage() {
+        if (session == null || !session.isConnected()) {
+            return;
+        }
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("disk-usage.fxml"));
+            BorderPane content = loader.load();
+            DiskUsageController controller = loader.getController();
+
+            Stage stage = new Stage();
+            stage.setTitle("磁盘占用 - " + sessionKey);
+            stage.setScene(new Scene(content));
+            controller.init(session, this::openTransferChannel, sessionKey, currentPath, stage);
+            stage.show();
+        } catch (IOException e) {
+            log.error("无法打开磁盘占用分析: {}", e.getMessage());
+            printErrorToTerminal("无法打开磁盘占用分析: " + e.getMessage() + "\n");
+        }
+    }
 
-                    // 计算休眠时间，保持间隔稳定 (例如 3秒刷新一次)
-                    long elapsed = System.currentTimeMillis() - startTime;
-                    long sleepTime = 3000 - elapsed;
-                    if (sleepTime > 0) {
-                        Thread.sleep(sleepTime);
-                    }
-                    log.info("系统监控命令执行完毕。");
+    @FXML
+    public void handleProcessExplorer() {
+        if (processStage != null) {
+            processStage.toFront();
+            return;
+        }
+        if (sessionKey == null || metricsAgent == null) {
+            return;
+        }
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("process-explorer.fxml"));
+            BorderPane content = loader.load();
+            ProcessExplorerController controller = loader.getController();
+
+            Stage stage = new Stage();
+            stage.setTitle("进程 - " + sessionKey);
+            stage.setScene(new Scene(content));
+            controller.init(session, latestMetrics.getReadOnlyProperty(), stage);
+            // 窗口打开期间代理每帧附带完整进程表，关闭后恢复只取前几名
+            stage.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> {
+                processStage = null;
+                if (metricsAgent != null) {
+                    metricsAgent.setProcessListEnabled(false);
                 }
-            } catch (Exception e) {
-                log.error("系统监控线程异常: {}", e.getMessage());
-            }
-        });
+            });
+            metricsAgent.setProcessListEnabled(true);
+            metricsAgent.sampleNow();
+            processStage = stage;
+            stage.show();
+        } catch (IOException e) {
+            log.error("无法打开进程浏览器: {}", e.getMessage());
+        }
     }
 
-    /**
-     * 解析组合命令的返回结果并更新 UI
-     */
-    private void parseAndUpdateMonitor(String rawOutput) {
+    @FXML
+    public void handleLogViewer() {
+        if (endpoint == null) {
+            return;
+        }
         try {
-            log.info("监控命令输出:\n{}", rawOutput);
-            String[] sections = rawOutput.split("#####");
-            if (sections.length < 4) {
-                return;
-            }
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("log-viewer.fxml"));
+            BorderPane content = loader.load();
+            LogViewerController controller = loader.getController();
+
+            Stage stage = new Stage();
+            stage.setTitle("日志跟踪 - " + sessionKey);
+            stage.setScene(new Scene(content));
+            controller.init(endpoint, stage);
+            stage.show();
+        } catch (IOException e) {
+            log.error("无法打开日志跟踪: {}", e.getMessage());
+        }
+    }
 
-            // --- 1. 解析内存 ---
-            // 格式: "totalBytes usedBytes"
-            String memStr = sections[0].trim();
-            String[] memParts = memStr.split("\\s+");
-            if (memParts.length >= 2) {
-                log.info("内存数据: total={} used={}", memParts[0], memParts[1]);
-                long totalMem = Long.parseLong(memParts[0]);
-                long usedMem = Long.parseLong(memParts[1]);
-                double usedGb = usedMem / 1024.0 / 1024.0 / 1024.0;
-                double totalGb = totalMem / 1024.0 / 1024.0 / 1024.0;
-                Platform.runLater(() -> {
-                    ramLabel.setText(String.format("%.1f/%.1f GB", usedGb, totalGb));
-                    ramProgress.setProgress((double) usedMem / totalMem);
-                });
-            }
+    @FXML
+    public void handleHostDetails() {
+        if (sessionKey == null) {
+            return;
+        }
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("host-metrics.fxml"));
+            BorderPane content = loader.load();
+            HostMetricsController controller = loader.getController();
+
+            Stage stage = new Stage();
+            stage.setTitle("主机详情 - " + sessionKey);
+            stage.setScene(new Scene(content));
+            controller.init(sessionKey, latestMetrics.getReadOnlyProperty(), stage);
+            stage.show();
+        } catch (IOException e) {
+            log.error("无法打开主机详情: {}", e.getMessage());
+        }
+    }
 
-            // --- 2. 解析磁盘 ---
-            String diskStr = sections[1].trim().replace("%", ""); // 格式: "45"
-            if (!diskStr.isEmpty()) {
-                log.info("磁盘使用率: {}%", diskStr);
-                double diskUsage = Double.parseDouble(diskStr) / 100.0;
-                Platform.runLater(() -> {
-                    diskLabel.setText(diskStr + "%");
-                    diskProgress.setProgress(diskUsage);
-                });
+    @FXML
+    public void handleToggleSearchPanel() {
+        boolean show = !searchPanel.isVisible();
+        searchPanel.setVisible(show);
+        searchPanel.setManaged(show);
+        if (show) {
+            if (searchRootField.getText() == null || searchRootField.getText().isBlank()) {
+                searchRootField.setText(currentPath);
             }
+            searchQueryField.requestFocus();
+        }
+    }
 
-            // --- 3. 解析 CPU ---
-            // 格式: cpu  2255 34 2290 22625563 6290 127 456 0 0 0
-            String cpuStr = sections[2].trim();
-            String[] cpuParts = cpuStr.split("\\s+");
-            if (cpuParts.length >= 5) {
-                log.info("CPU 数据: {}", cpuStr);
-                // user + nice + system + idle + iowait + irq + softirq ...
-                long idle = Long.parseLong(cpuParts[4]); // 第5列通常是 idle
-                long total = 0;
-                for (int i = 1; i < cpuParts.length; i++) {
-                    total += Long.parseLong(cpuParts[i]);
-                }
+    @FXML
+    public void handleSearchFiles() {
+        String query = searchQueryField.getText() == null ? "" : searchQueryField.getText().trim();
+        String root = searchRootField.getText() == null || searchRootField.getText().isBlank()
+                ? currentPath : searchRootField.getText().trim();
+        if (query.isEmpty() || session == null || !session.isConnected()) {
+            return;
+        }
+        handleCancelSearch();
+        searchResultList.getItems().clear();
+        searchStatusLabel.setText("正在搜索...");
+        long generation = ++searchGeneration;
+        activeSearch = new RemoteFileSearch(session, this::openTransferChannel, sessionKey, root, query,
+                new RemoteSearchListener() {
+                    @Override
+                    public void onMatches(List<String> paths) {
+                        Platform.runLater(() -> {
+                            if (generation != searchGeneration) {
+                                return;
+                            }
+                            ObservableList<String> items = searchResultList.getItems();
+                            int room = MAX_SEARCH_RESULTS - items.size();
+                            if (room > 0) {
+                                items.addAll(paths.size() > room ? paths.subList(0, room) : paths);
+                            }
+                        });
+                    }
 
-                if (prevTotalTime != 0) {
-                    long deltaTotal = total - prevTotalTime;
-                    long deltaIdle = idle - prevIdleTime;
-                    // 防止除零错误
-                    if (deltaTotal > 0) {
-                        double cpuUsage = 1.0 - ((double) deltaIdle / deltaTotal);
+                    @Override
+                    public void onRemoved(List<String> paths) {
                         Platform.runLater(() -> {
-                            cpuLabel.setText(String.format("%.0f%%", cpuUsage * 100));
-                            cpuProgress.setProgress(cpuUsage);
+                            if (generation == searchGeneration) {
+                                searchResultList.getItems().removeAll(new HashSet<>(paths));
+                            }
                         });
                     }
-                }
-                prevIdleTime = idle;
-                prevTotalTime = total;
-            }
 
-            // --- 4. 解析网络 ---
-            // 格式: "totalRx totalTx" (字节)
-            String netStr = sections[3].trim();
-            String[] netParts = netStr.split("\\s+");
-            if (netParts.length >= 2) {
-                log.info("网络数据: rx={} tx={}", netParts[0], netParts[1]);
-                long currentRx = Long.parseLong(netParts[0]);
-                long currentTx = Long.parseLong(netParts[1]);
-                long now = System.currentTimeMillis();
-
-                if (lastCheckTime != 0) {
-                    long timeDelta = (now - lastCheckTime) / 1000; // 秒
-                    if (timeDelta > 0) {
-                        long rxSpeed = (currentRx - prevRxBytes) / timeDelta;
-                        long txSpeed = (currentTx - prevTxBytes) / timeDelta;
-
-                        String rxStr = FileUtil.humanReadableByteCountBin(rxSpeed) + "/s";
-                        String txStr = FileUtil.humanReadableByteCountBin(txSpeed) + "/s";
+                    @Override
+                    public void onStatus(String message) {
+                        Platform.runLater(() -> {
+                            if (generation == searchGeneration) {
+                                searchStatusLabel.setText(message);
+                            }
+                        });
+                    }
 
+                    @Override
+                    public void onFinished(boolean cancelled) {
                         Platform.runLater(() -> {
-                            netDownLabel.setText(rxStr);
-                            netUpLabel.setText(txStr);
+                            if (generation != searchGeneration) {
+                                return;
+                            }
+                            activeSearch = null;
+                            if (cancelled) {
+                                searchStatusLabel.setText("已取消，已找到 " + searchResultList.getItems().size() + " 个结果");
+                            } else if (searchResultList.getItems().size() >= MAX_SEARCH_RESULTS) {
+                                searchStatusLabel.setText(searchStatusLabel.getText() + "（仅显示前 " + MAX_SEARCH_RESULTS + " 个）");
+                            }
                         });
                     }
-                }
-                prevRxBytes = currentRx;
-                prevTxBytes = currentTx;
-                lastCheckTime = now;
+                });
+        activeSearch.start();
+    }
+
+    @FXML
+    public void handleCancelSearch() {
+        if (activeSearch != null) {
+            activeSearch.cancel();
+            activeSearch = null;
+        }
+    }
+
+    /**
+     * 丢弃当前搜索目录对应的索引缓存并重新搜索
+     */
+    @FXML
+    public void handleRebuildSearchIndex() {
+        String root = searchRootField.getText() == null || searchRootField.getText().isBlank()
+                ? currentPath : searchRootField.getText().trim();
+        handleCancelSearch();
+        ThreadUtil.submitTask(() -> {
+            PathIndexStore store = PathIndexStore.getInstance();
+            PathIndex index = store.findCovering(sessionKey, root);
+            if (index != null) {
+                store.remove(index.getHost(), index.getRoot());
             }
+            Platform.runLater(this::handleSearchFiles);
+        });
+    }
 
-        } catch (Exception e) {
-            // 解析错误忽略，避免单次格式异常中断监控
-            log.warn("监控数据解析异常: {}", e.getMessage());
+    /**
+     * 双击搜索结果：目录直接进入，文件进入所在目录并选中
+     */
+    private void openSearchResult(String path) {
+        if (path == null) {
+            return;
+        }
+        if (path.endsWith("/")) {
+            loadRemoteFiles(path);
+            return;
         }
+        int slash = path.lastIndexOf('/');
+        pendingSelection = path.substring(slash + 1);
+        loadRemoteFiles(slash > 0 ? path.substring(0, slash) : "/");
     }
 
-    // 辅助方法：执行单条命令并返回结果
-    private String runSingleCommand(String command) {
-        StringBuilder result = new StringBuilder();
-        ChannelExec exec = null;
-        try {
-            log.info("执行监控命令：{}", command);
-            exec = (ChannelExec) session.openChannel("exec");
-            exec.setCommand(command);
-
-            // 获取输入流
-            InputStream in = exec.getInputStream();
-            // 必须在 connect 之前获取流，channel open 后再读取
-            exec.connect();
-
-            // 使用 BufferedReader 读取，效率更高
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    result.append(line).append("\n");
-                }
+    private void selectPendingFile() {
+        if (pendingSelection == null) {
+            return;
+        }
+        for (RemoteFile file : fileTableView.getItems()) {
+            if (file.getRawName().equals(pendingSelection)) {
+                fileTableView.getSelectionModel().select(file);
+                fileTableView.scrollTo(file);
+                break;
             }
-        } catch (Exception e) {
-            log.error("执行监控命令失败: {}", e.getMessage());
-        } finally {
-            if (exec != null && exec.isConnected()) {
-                exec.disconnect();
+        }
+        pendingSelection = null;
+    }
+
+    private RemoteFile toRemoteFile(String filename, SftpATTRS attrs) {
+        String sizeStr = FileUtil.humanReadableByteCountBin(attrs.getSize());
+        String dateStr = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date(attrs.getMTime() * 1000L));
+        boolean isDir = attrs.isDir();
+
+        // 对目录添加特殊标记或颜色 (这里简单处理文件名)
+        String displayName = isDir ? filename + "/" : filename;
+
+        return new RemoteFile(
+                displayName,
+                isDir ? "" : sizeStr, // 目录不显示大小
+                attrs.getPermissionsString(),
+                dateStr,
+                filename, // 原始文件名，用于操作
+                isDir,
+                attrs.getSize(),
+                attrs.getMTime()
+        );
+    }
+
+    @FXML
+    public void handleToggleWatch() {
+        restartDirectoryWatcher();
+    }
+
+    /**
+     * 勾选“自动刷新”时监听当前目录，切换目录后跟着切换
+     */
+    private void restartDirectoryWatcher() {
+        boolean enabled = watchDirCheck.isSelected() && session != null && session.isConnected();
+        if (directoryWatcher != null) {
+            if (enabled && directoryWatcher.getDir().equals(currentPath)) {
+                return;
+            }
+            directoryWatcher.close();
+            directoryWatcher = null;
+        }
+        if (enabled) {
+            directoryWatcher = new RemoteDirectoryWatcher(session, this::openTransferChannel, currentPath,
+                    new DirectoryChangeListener() {
+                        @Override
+                        public void onChanges(String dir, Map<String, SftpATTRS> changes) {
+                            Map<String, RemoteFile> updated = new HashMap<>();
+                            changes.forEach((name, attrs) -> updated.put(name, attrs == null ? null : toRemoteFile(name, attrs)));
+                            Platform.runLater(() -> applyDirectoryChanges(dir, updated));
+                        }
+
+                        @Override
+                        public void onRescanNeeded(String dir) {
+                            Platform.runLater(() -> {
+                                if (dir.equals(currentPath)) {
+                                    handleRefreshFiles();
+                                }
+                            });
+                        }
+                    });
+            directoryWatcher.start();
+        }
+    }
+
+    /**
+     * 只替换变化的行，按表格当前的排序（点过列头时为列排序，否则为默认顺序）插入，其余行和选中状态不动
+     */
+    private void applyDirectoryChanges(String dir, Map<String, RemoteFile> changes) {
+        if (!dir.equals(currentPath)) {
+            return; // 已切换到其他目录
+        }
+        ObservableList<RemoteFile> items = fileTableView.getItems();
+        items.removeIf(f -> changes.containsKey(f.getRawName()));
+        // 点击列头会就地重排 items，插入位置要按同一个比较器二分
+        Comparator<RemoteFile> order = fileTableView.getComparator() != null ? fileTableView.getComparator() : FILE_ORDER;
+        for (RemoteFile file : changes.values()) {
+            if (file == null) {
+                continue;
+            }
+            int index = Collections.binarySearch(items, file, order);
+            items.add(index < 0 ? -index - 1 : index, file);
+        }
+    }
+
+    /**
+     * 启动常驻监控代理，整个会话期间只占用一个 exec 通道
+     */
+    private void startSystemMonitoring() {
+        if (metricsAgent != null) {
+            metricsAgent.close();
+        }
+        MetricsAgent agent = new MetricsAgent(session, monitorCadence.intervalSeconds(), new MetricsListener() {
+            @Override
+            public void onSample(HostMetrics metrics) {
+                MetricsStore.getInstance().record(sessionKey, metrics);
+                monitorCadence.recordCollectMillis(metrics.getCollectMillis());
+                adjustMonitorInterval();
+                int alerts = AlertManager.getInstance().evaluate(alertSource, sessionKey, group, metrics);
+                Platform.runLater(() -> {
+                    latestMetrics.set(metrics);
+                    alertCount.set(alerts);
+                    // 后台标签页只记录数据，切回来时会立即采样并重绘
+                    if (monitorCadence.isVisible()) {
+                        updateMonitor(metrics);
+                        refreshTrends();
+                    }
+                });
+            }
+
+            @Override
+            public void onStopped(String reason) {
+                log.warn("系统监控已停止: {}", reason);
+            }
+        });
+        metricsAgent = agent;
+        agent.start();
+    }
+
+    /**
+     * 绑定标签页可见性（选中且窗口未最小化），由 MainController 在创建标签页时调用
+     */
+    public void bindMonitorVisibility(ObservableBooleanValue visible) {
+        monitorVisibility = visible;
+        monitorCadence.setVisible(visible.get());
+        visible.addListener((obs, oldVal, newVal) -> {
+            monitorCadence.setVisible(newVal);
+            MetricsAgent agent = metricsAgent;
+            if (agent == null) {
+                return;
             }
+            if (newVal) {
+                // 切回前台立即采样，不必等后台的长周期结束
+                agent.setInterval(monitorCadence.intervalSeconds());
+            } else {
+                adjustMonitorInterval();
+            }
+        });
+    }
+
+    private void adjustMonitorInterval() {
+        MetricsAgent agent = metricsAgent;
+        int interval = monitorCadence.intervalSeconds();
+        if (agent != null && agent.getIntervalSeconds() != interval) {
+            log.debug("监控周期调整为 {} 秒: {}", interval, sessionKey);
+            agent.setInterval(interval);
+        }
+    }
+
+    /**
+     * 按所选时间范围重绘趋势图，必须在 FX 线程调用
+     */
+    private void refreshTrends() {
+        if (sessionKey == null) {
+            return;
+        }
+        int index = Math.max(trendRangeBox.getSelectionModel().getSelectedIndex(), 0);
+        long span = TREND_SPANS[index];
+        long now = System.currentTimeMillis();
+        HostTimeSeries series = MetricsStore.getInstance().get(sessionKey);
+        cpuTrend.setData(series.read(MetricType.CPU, now, span, TREND_POINTS));
+        ramTrend.setData(series.read(MetricType.MEM, now, span, TREND_POINTS));
+        diskTrend.setData(series.read(MetricType.DISK, now, span, TREND_POINTS));
+        netTrend.setData(series.read(MetricType.NET_RX, now, span, TREND_POINTS),
+                series.read(MetricType.NET_TX, now, span, TREND_POINTS));
+    }
+
+    /**
+     * 把一次采样写入监控面板，必须在 FX 线程调用
+     */
+    private void updateMonitor(HostMetrics metrics) {
+        if (!Double.isNaN(metrics.getCpuUsage())) {
+            cpuLabel.setText(String.format("%.0f%%", metrics.getCpuUsage() * 100));
+            cpuProgress.setProgress(metrics.getCpuUsage());
+        }
+        if (!Double.isNaN(metrics.getLoad1())) {
+            loadLabel.setText(String.format("负载 %.2f %.2f %.2f · %d 核", metrics.getLoad1(), metrics.getLoad5(),
+                    metrics.getLoad15(), metrics.getCoreUsage().length));
+        }
+        if (metrics.getMemTotal() > 0) {
+            double usedGb = metrics.getMemUsed() / 1024.0 / 1024.0 / 1024.0;
+            double totalGb = metrics.getMemTotal() / 1024.0 / 1024.0 / 1024.0;
+            ramLabel.setText(String.format("%.1f/%.1f GB", usedGb, totalGb));
+            ramProgress.setProgress(metrics.getMemUsage());
+        }
+        if (metrics.getDiskTotal() > 0) {
+            diskLabel.setText(String.format("%.0f%%", metrics.getDiskUsage() * 100));
+            diskProgress.setProgress(metrics.getDiskUsage());
+        }
+        if (metrics.getRxRate() >= 0) {
+            netDownLabel.setText(FileUtil.humanReadableByteCountBin(metrics.getRxRate()) + "/s");
+            netUpLabel.setText(FileUtil.humanReadableByteCountBin(metrics.getTxRate()) + "/s");
         }
-        return result.toString();
     }
 
     /**
@@ -777,132 +1438,200 @@ public class TerminalController implements FileProcessInterface {
         });
     }
 
-    @FXML
-    public void handleShowHistory() {
-        loadRemoteHistory();
-    }
-
     /**
-     * 获取远程历史命令列表
+     * 增量同步本主机历史后建立补全用的前缀索引，只取在本主机出现过的命令
      */
-    private void loadRemoteHistory() {
-        if (sftpChannel == null || !sftpChannel.isConnected()) {
-            printErrorToTerminal("SFTP 未连接，无法获取历史记录");
-            return;
-        }
-
+    private void loadSuggestionIndex() {
         ThreadUtil.submitTask(() -> {
-            java.util.List<String> historyLines = new ArrayList<>();
+            HistoryStore store = HistoryStore.getInstance();
             try {
-                // 1. 尝试读取 .bash_history
+                ChannelSftp historyChannel = openTransferChannel();
                 try {
-                    // 获取当前用户主目录 (SFTP 默认登录就在主目录，直接读文件名即可)
-                    // 或者更稳健的做法是 sftpChannel.getHome() + "/.bash_history"
-                    InputStream is = sftpChannel.get(sftpChannel.getHome() + "/.bash_history");
-                    historyLines.addAll(readHistoryStream(is, false)); // false 表示不需要特殊解析
-                } catch (Exception ignored) {
-                    // 如果没有 bash_history，可能用的是 zsh
+                    store.sync(sessionKey, historyChannel);
+                } finally {
+                    historyChannel.disconnect();
                 }
-
-                // 2. 尝试读取 .zsh_history (如果 bash 没读到或者想都读)
-                if (historyLines.isEmpty()) {
-                    try {
-                        InputStream is = sftpChannel.get(sftpChannel.getHome() + "/.zsh_history");
-                        historyLines.addAll(readHistoryStream(is, true)); // true 表示需要解析 zsh 格式
-                    } catch (Exception ignored) {
-                    }
-                }
-
-                // 3. 去重并反转 (最近的在最上面)
-                // 使用 LinkedHashSet 保持顺序并去重
-                java.util.List<String> uniqueHistory = new ArrayList<>(new LinkedHashSet<>(historyLines));
-                Collections.reverse(uniqueHistory);
-
-                // 4. 弹出 UI 展示
-                Platform.runLater(() -> showHistoryDialog(uniqueHistory));
-
             } catch (Exception e) {
-                log.error("读取历史命令失败", e);
-                printErrorToTerminal("读取历史命令失败: " + e.getMessage());
+                log.warn("同步历史命令失败，补全只使用本地记录: {}", e.getMessage());
+            }
+            java.util.List<String> commands = new ArrayList<>();
+            for (HistoryEntry entry : store.snapshot()) {
+                if (entry.getHosts().contains(sessionKey)) {
+                    commands.add(entry.getCommand());
+                }
+            }
+            if (ghostSuggestion != null) {
+                ghostSuggestion.setIndex(new PrefixIndex(commands));
             }
         });
     }
 
+    @FXML
+    public void handleShowHistory() {
+        loadRemoteHistory();
+    }
+
     /**
-     * 解析流工具方法
-     * @param is 输入流
-     * @param isZsh 是否是 zsh (zsh 历史文件带有时间戳元数据，需要清洗)
+     * 先用本地历史库立即打开对话框，再在后台增量同步当前主机，有新命令时刷新列表
      */
-    private java.util.List<String> readHistoryStream(InputStream is, boolean isZsh) {
-        java.util.List<String> list = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) {
-                    continue;
-                }
-
-                String cmd = line;
-                // Zsh 历史格式通常是: ": 1678888888:0;command"
-                if (isZsh) {
-                    int semiIndex = line.indexOf(';');
-                    if (semiIndex > 0) {
-                        cmd = line.substring(semiIndex + 1);
-                    }
-                }
-                list.add(cmd);
-            }
-        } catch (Exception e) {
-            log.error("解析历史命令流失败: {}", e.getMessage());
+    private void loadRemoteHistory() {
+        if (sessionKey == null) {
+            printErrorToTerminal("SSH 未连接，无法获取历史记录");
+            return;
         }
-        return list;
+        ThreadUtil.submitTask(() -> {
+            // 首次使用时从磁盘加载历史库，并为模糊搜索准备小写文本，都放在后台线程
+            HistorySearch search = new HistorySearch();
+            search.setEntries(HistoryStore.getInstance().snapshot());
+            Platform.runLater(() -> showHistoryDialog(search));
+        });
     }
 
-    private void showHistoryDialog(java.util.List<String> commands) {
+    private void showHistoryDialog(HistorySearch search) {
         Dialog<String> dialog = new Dialog<>();
         dialog.setTitle("历史命令");
         dialog.initOwner(terminalContainer.getScene().getWindow());
 
         BorderPane pane = new BorderPane();
+        pane.setPrefSize(720, 480);
 
-        // 1. 搜索框
+        // 1. 搜索框 + 范围
         TextField searchField = new TextField();
-        searchField.setPromptText("搜索命令...");
-        pane.setTop(searchField);
-        BorderPane.setMargin(searchField, new Insets(0, 0, 10, 0));
-
-        // 2. 列表
-        ListView<String> listView = new ListView<>();
-        listView.getItems().addAll(commands);
-        pane.setCenter(listView);
-
-        // 3. 搜索逻辑
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            if (newVal == null || newVal.isEmpty()) {
-                listView.getItems().setAll(commands);
-            } else {
-                // 过滤列表
-                java.util.List<String> filtered = commands.stream()
-                        .filter(c -> c.toLowerCase().contains(newVal.toLowerCase()))
-                        .collect(Collectors.toList());
-                listView.getItems().setAll(filtered);
+        searchField.setPromptText("模糊搜索命令...");
+        HBox.setHgrow(searchField, Priority.ALWAYS);
+        CheckBox currentHostOnly = new CheckBox("仅当前主机");
+        Label syncLabel = new Label("正在同步 " + sessionKey + " ...");
+        syncLabel.setTextFill(Color.GRAY);
+        HBox top = new HBox(10, searchField, currentHostOnly, syncLabel);
+        top.setAlignment(Pos.CENTER_LEFT);
+        pane.setTop(top);
+        BorderPane.setMargin(top, new Insets(0, 0, 10, 0));
+
+        Label matchLabel = new Label();
+        matchLabel.setTextFill(Color.GRAY);
+        matchLabel.setStyle("-fx-font-size: 11px;");
+        pane.setBottom(matchLabel);
+        BorderPane.setMargin(matchLabel, new Insets(6, 0, 0, 0));
+
+        // 2. 列表：命令（命中字符高亮）+ 次数、主机、最近使用时间
+        ListView<HistoryEntry> listView = new ListView<>();
+        SimpleDateFormat timeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+        listView.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(HistoryEntry item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(null);
+                if (empty || item == null) {
+                    setGraphic(null);
+                    return;
+                }
+                TextFlow command = highlightMatches(item.getCommand(), searchField.getText());
+                HBox.setHgrow(command, Priority.ALWAYS);
+                String hosts = item.getHosts().size() == 1
+                        ? item.getHosts().iterator().next() : item.getHosts().size() + " 台主机";
+                String meta = "×" + item.getCount() + "  " + hosts
+                        + (item.getLastUsed() > 0 ? "  " + timeFormat.format(new Date(item.getLastUsed())) : "");
+                Label metaLabel = new Label(meta);
+                metaLabel.setTextFill(Color.GRAY);
+                metaLabel.setStyle("-fx-font-size: 11px;");
+                metaLabel.setMinWidth(Region.USE_PREF_SIZE);
+                HBox row = new HBox(10, command, metaLabel);
+                row.setAlignment(Pos.CENTER_LEFT);
+                setGraphic(row);
             }
         });
+        pane.setCenter(listView);
+
+        // 3. 搜索在后台执行，每次输入都会取代上一次未完成的查询
+        Runnable refilter = () -> {
+            String query = searchField.getText() == null ? "" : searchField.getText();
+            search.search(query, currentHostOnly.isSelected() ? sessionKey : null, (q, result, total) ->
+                    Platform.runLater(() -> {
+                        if (!q.equals(searchField.getText() == null ? "" : searchField.getText())) {
+                            return;
+                        }
+                        listView.getItems().setAll(result);
+                        if (!result.isEmpty()) {
+                            listView.scrollTo(0);
+                        }
+                        matchLabel.setText(total > result.size()
+                                ? total + " 条匹配，显示前 " + result.size() + " 条" : total + " 条匹配");
+                    }));
+        };
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> refilter.run());
+        currentHostOnly.selectedProperty().addListener((obs, oldVal, newVal) -> refilter.run());
+        refilter.run();
 
         // 双击执行
         listView.setOnMouseClicked(event -> {
             if (event.getClickCount() == 2) {
-                String cmd = listView.getSelectionModel().getSelectedItem();
-                if (cmd != null) {
-                    executeCommandFromHistory(cmd);
+                HistoryEntry entry = listView.getSelectionModel().getSelectedItem();
+                if (entry != null) {
+                    executeCommandFromHistory(entry.getCommand());
                     dialog.close();
                 }
             }
         });
 
+        dialog.setOnHidden(e -> search.cancel());
         dialog.getDialogPane().setContent(pane);
         dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
         dialog.show();
+
+        // 4. 后台增量同步当前主机，独占一个 SFTP 通道，不和文件面板抢
+        ThreadUtil.submitTask(() -> {
+            try {
+                ChannelSftp historyChannel = openTransferChannel();
+                boolean changed;
+                try {
+                    changed = HistoryStore.getInstance().sync(sessionKey, historyChannel);
+                } finally {
+                    historyChannel.disconnect();
+                }
+                if (changed) {
+                    search.setEntries(HistoryStore.getInstance().snapshot());
+                }
+                Platform.runLater(() -> {
+                    if (changed) {
+                        refilter.run();
+                    }
+                    syncLabel.setText(search.size() + " 条命令");
+                });
+            } catch (Exception e) {
+                log.error("同步历史命令失败: {}", e.getMessage());
+                Platform.runLater(() -> syncLabel.setText("同步失败: " + e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * 命令文本，模糊匹配命中的字符加粗高亮
+     */
+    private static TextFlow highlightMatches(String command, String query) {
+        String pattern = query == null ? "" : FuzzyMatcher.lowerCase(query.strip());
+        int[] positions = new int[pattern.length()];
+        boolean matched = !pattern.isEmpty()
+                && FuzzyMatcher.score(pattern, FuzzyMatcher.lowerCase(command), command, positions) != FuzzyMatcher.NO_MATCH;
+        TextFlow flow = new TextFlow();
+        if (!matched) {
+            flow.getChildren().add(new Text(command));
+            return flow;
+        }
+        int pos = 0;
+        for (int p : positions) {
+            if (p > pos) {
+                flow.getChildren().add(new Text(command.substring(pos, p)));
+            }
+            Text hit = new Text(String.valueOf(command.charAt(p)));
+            hit.setFill(Color.web("#4a90e2"));
+            hit.setStyle("-fx-font-weight: bold;");
+            flow.getChildren().add(hit);
+            pos = p + 1;
+        }
+        if (pos < command.length()) {
+            flow.getChildren().add(new Text(command.substring(pos)));
+        }
+        return flow;
     }
 
     /**
@@ -936,8 +1665,22 @@ public class TerminalController implements FileProcessInterface {
 
     public void disconnect() {
         log.info("终端连接断开...");
-        // 停止监控循环
-        isMonitoring = false;
+        // 停止监控代理
+        if (metricsAgent != null) {
+            metricsAgent.close();
+        }
+        if (sessionKey != null) {
+            AlertManager.getInstance().forget(alertSource, sessionKey);
+        }
+        if (endpoint != null) {
+            SessionRegistry.getInstance().unregister(endpoint);
+        }
+        handleCancelSearch();
+        if (directoryWatcher != null) {
+            directoryWatcher.close();
+        }
+        editSessions.values().forEach(RemoteEditSession::close);
+        editSessions.clear();
         if (sftpChannel != null && sftpChannel.isConnected()) {
             sftpChannel.disconnect();
         }
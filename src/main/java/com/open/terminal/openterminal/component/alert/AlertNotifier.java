@@ -0,0 +1,98 @@
+package com.open.terminal.openterminal.component.alert;
+
+import com.open.terminal.openterminal.fun.AlertListener;
+import com.open.terminal.openterminal.model.AlertEvent;
+import com.open.terminal.openterminal.util.ThreadUtil;
+import javafx.application.Platform;
+import javafx.util.Duration;
+import org.controlsfx.control.Notifications;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 把告警状态变化显示为桌面通知。事件先入队，每秒合并一次：
+ * 大盘上几十台主机同时越限时只弹一条汇总，而不是刷屏
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class AlertNotifier implements AlertListener {
+    private static final Logger log = LoggerFactory.getLogger(AlertNotifier.class);
+
+    /**
+     * 一次合并周期内超过这个数量就只显示汇总
+     */
+    private static final int MAX_SINGLE = 3;
+    private static final int SUMMARY_LINES = 5;
+
+    private final ConcurrentLinkedQueue<AlertEvent> queue = new ConcurrentLinkedQueue<>();
+
+    public AlertNotifier() {
+        ThreadUtil.scheduleAtFixedRate(this::flush, 1, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void onAlert(AlertEvent event) {
+        queue.add(event);
+    }
+
+    private void flush() {
+        if (queue.isEmpty()) {
+            return;
+        }
+        List<AlertEvent> events = new ArrayList<>();
+        AlertEvent event;
+        while ((event = queue.poll()) != null) {
+            events.add(event);
+        }
+        Platform.runLater(() -> show(events));
+    }
+
+    private void show(List<AlertEvent> events) {
+        try {
+            if (events.size() <= MAX_SINGLE) {
+                for (AlertEvent e : events) {
+                    Notifications notification = Notifications.create()
+                            .title((e.isFired() ? "告警: " : "恢复: ") + e.getHostKey())
+                            .text(describe(e))
+                            .hideAfter(Duration.seconds(e.isFired() ? 10 : 5))
+                            .darkStyle();
+                    if (e.isFired()) {
+                        notification.showWarning();
+                    } else {
+                        notification.showInformation();
+                    }
+                }
+                return;
+            }
+            long fired = events.stream().filter(AlertEvent::isFired).count();
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < Math.min(events.size(), SUMMARY_LINES); i++) {
+                AlertEvent e = events.get(i);
+                text.append(e.isFired() ? "⚠ " : "✓ ").append(e.getHostKey()).append("  ").append(e.getRule().describe()).append('\n');
+            }
+            if (events.size() > SUMMARY_LINES) {
+                text.append("... 另有 ").append(events.size() - SUMMARY_LINES).append(" 项");
+            }
+            Notifications.create()
+                    .title(String.format("%d 项告警触发，%d 项恢复", fired, events.size() - fired))
+                    .text(text.toString())
+                    .hideAfter(Duration.seconds(10))
+                    .darkStyle()
+                    .showWarning();
+        } catch (Exception e) {
+            // 没有可用的窗口（例如全部最小化到托盘）时 ControlsFX 会抛异常，告警已写入日志
+            log.debug("显示告警通知失败: {}", e.getMessage());
+        }
+    }
+
+    private static String describe(AlertEvent e) {
+        String name = e.getRule().getName();
+        return (name == null || name.isBlank() ? "" : name + "\n") + e.getRule().describe() + "\n当前: " + e.formatValue();
+    }
+}
@@ -0,0 +1,303 @@
+package com.open.terminal.openterminal.component.diskusage;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpATTRS;
+import com.jcraft.jsch.SftpException;
+import com.open.terminal.openterminal.fun.DiskUsageListener;
+import com.open.terminal.openterminal.manage.DiskUsageCache;
+import com.open.terminal.openterminal.model.DiskUsageEntry;
+import com.open.terminal.openterminal.model.DiskUsageEntry.Status;
+import com.open.terminal.openterminal.util.FileUtil;
+import com.open.terminal.openterminal.util.SshExecUtil;
+import com.open.terminal.openterminal.util.ThreadUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+
+/**
+ * @description: 远程磁盘占用扫描。SFTP 列出当前目录后，每个子目录在独立的 exec 通道上并行执行 du，
+ * 结果边算边推给界面；du -d 1 顺带得到的下一级目录大小也放入缓存，下钻时可以直接显示。
+ * 远程没有 du 时退化为每个子目录一个 SFTP 通道递归累加文件大小。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class DiskUsageScanner {
+    private static final Logger log = LoggerFactory.getLogger(DiskUsageScanner.class);
+
+    /**
+     * 同时进行的 du / 遍历数量。OpenSSH 默认每个连接最多 10 个通道，终端、SFTP、监控还要占用几个
+     */
+    private static final int PARALLELISM = 4;
+    /**
+     * SFTP 遍历时部分结果的推送间隔
+     */
+    private static final long PARTIAL_INTERVAL_MS = 500;
+
+    private final Session session;
+    private final Callable<ChannelSftp> channelFactory;
+    private final String host;
+    private final String dir;
+    private final boolean force;
+    private final DiskUsageListener listener;
+
+    private volatile boolean cancelled = false;
+    private final Set<ChannelExec> activeExecs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param force 忽略缓存重新计算
+     */
+    public DiskUsageScanner(Session session, Callable<ChannelSftp> channelFactory, String host,
+                            String dir, boolean force, DiskUsageListener listener) {
+        this.session = session;
+        this.channelFactory = channelFactory;
+        this.host = host;
+        this.dir = dir;
+        this.force = force;
+        this.listener = listener;
+    }
+
+    public void start() {
+        ThreadUtil.submitTask(() -> {
+            try {
+                run();
+            } catch (Exception e) {
+                if (!cancelled) {
+                    log.error("磁盘占用分析失败: {}", dir, e);
+                    listener.onStatus("分析失败: " + e.getMessage());
+                }
+            }
+            listener.onFinished(cancelled);
+        });
+    }
+
+    public void cancel() {
+        cancelled = true;
+        activeExecs.forEach(ChannelExec::disconnect);
+    }
+
+    private void run() throws Exception {
+        List<DiskUsageEntry> entries = listChildren();
+        listener.onListed(entries);
+
+        // 所在分区的使用情况，和监控面板里 df 的数据对应
+        ThreadUtil.submitTask(this::reportFilesystem);
+
+        DiskUsageCache cache = DiskUsageCache.getInstance();
+        List<DiskUsageEntry> pending = new ArrayList<>();
+        for (DiskUsageEntry entry : entries) {
+            if (!entry.isDirectory()) {
+                continue;
+            }
+            OptionalLong cached = force ? OptionalLong.empty() : cache.get(host, entry.getPath(), entry.getMtime());
+            if (cached.isPresent()) {
+                listener.onSize(entry, cached.getAsLong(), Status.CACHED);
+            } else {
+                pending.add(entry);
+            }
+        }
+        if (pending.isEmpty()) {
+            listener.onStatus("全部来自缓存，点击“刷新”重新计算");
+            return;
+        }
+
+        DuMode mode = probeDu();
+        listener.onStatus("正在计算 " + pending.size() + " 个子目录（" + (mode == DuMode.NONE ? "SFTP 遍历" : "du") + "，并行 " + PARALLELISM + "）...");
+        Semaphore permits = new Semaphore(PARALLELISM);
+        CountDownLatch latch = new CountDownLatch(pending.size());
+        for (DiskUsageEntry entry : pending) {
+            ThreadUtil.submitTask(() -> {
+                try {
+                    permits.acquire();
+                    try {
+                        if (!cancelled) {
+                            listener.onSize(entry, 0, Status.RUNNING);
+                            long bytes = mode == DuMode.NONE ? walkWithSftp(entry) : runDu(entry, mode);
+                            if (!cancelled) {
+                                cache.put(host, entry.getPath(), entry.getMtime(), bytes);
+                                listener.onSize(entry, bytes, Status.DONE);
+                            }
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                } catch (Exception e) {
+                    if (!cancelled) {
+                        log.warn("计算目录大小失败: {}, {}", entry.getPath(), e.getMessage());
+                        listener.onSize(entry, 0, Status.FAILED);
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        if (!cancelled) {
+            listener.onStatus("计算完成");
+        }
+    }
+
+    private List<DiskUsageEntry> listChildren() throws Exception {
+        ChannelSftp sftp = channelFactory.call();
+        try {
+            List<DiskUsageEntry> entries = new ArrayList<>();
+            Vector<ChannelSftp.LsEntry> list = sftp.ls(dir);
+            String prefix = dir.endsWith("/") ? dir : dir + "/";
+            for (ChannelSftp.LsEntry ls : list) {
+                String name = ls.getFilename();
+                if (".".equals(name) || "..".equals(name)) {
+                    continue;
+                }
+                SftpATTRS attrs = ls.getAttrs();
+                // 符号链接按链接本身计算，不跟随
+                boolean isDir = attrs.isDir() && !attrs.isLink();
+                entries.add(new DiskUsageEntry(name, prefix + name, isDir, isDir ? 0 : attrs.getSize(), attrs.getMTime()));
+            }
+            return entries;
+        } finally {
+            sftp.disconnect();
+        }
+    }
+
+    private enum DuMode {
+        // 支持 -d（GNU / BSD / BusyBox）
+        DEPTH,
+        // 只支持 POSIX 的 -s
+        SUMMARY,
+        NONE
+    }
+
+    private DuMode probeDu() {
+        try {
+            String out = SshExecUtil.exec(session,
+                    "du -k -x -d 0 -- /dev/null >/dev/null 2>&1 && echo depth || { command -v du >/dev/null 2>&1 && echo summary; }")
+                    .getStdout().trim();
+            return switch (out) {
+                case "depth" -> DuMode.DEPTH;
+                case "summary" -> DuMode.SUMMARY;
+                default -> DuMode.NONE;
+            };
+        } catch (Exception e) {
+            return DuMode.NONE;
+        }
+    }
+
+    /**
+     * du 按 KiB 输出占用空间；-x 不跨文件系统。-d 1 模式下先输出各子目录，子目录大小累加作为部分结果
+     */
+    private long runDu(DiskUsageEntry entry, DuMode mode) throws Exception {
+        String path = entry.getPath();
+        String command = "du -k -x " + (mode == DuMode.DEPTH ? "-d 1" : "-s") + " -- " + SshExecUtil.quote(path) + " 2>/dev/null";
+        ChannelExec exec = (ChannelExec) session.openChannel("exec");
+        exec.setCommand(command);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(exec.getInputStream(), StandardCharsets.UTF_8));
+        activeExecs.add(exec);
+        long total = -1;
+        long partial = 0;
+        long lastReport = 0;
+        try (reader) {
+            exec.connect();
+            String line;
+            while (!cancelled && (line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab <= 0) {
+                    continue;
+                }
+                long bytes = Long.parseLong(line.substring(0, tab).trim()) * 1024;
+                String itemPath = line.substring(tab + 1);
+                if (itemPath.equals(path)) {
+                    total = bytes;
+                } else {
+                    // 下一级目录的大小，下钻时直接使用（修改时间未知）
+                    DiskUsageCache.getInstance().put(host, itemPath, -1, bytes);
+                    partial += bytes;
+                    long now = System.currentTimeMillis();
+                    if (now - lastReport >= PARTIAL_INTERVAL_MS) {
+                        lastReport = now;
+                        listener.onSize(entry, partial, Status.RUNNING);
+                    }
+                }
+            }
+        } finally {
+            activeExecs.remove(exec);
+            exec.disconnect();
+        }
+        if (total < 0 && !cancelled) {
+            throw new IllegalStateException("du 没有输出结果");
+        }
+        return total;
+    }
+
+    /**
+     * 没有 du 时在独立 SFTP 通道上深度优先累加文件大小，不跟随符号链接
+     */
+    private long walkWithSftp(DiskUsageEntry entry) throws Exception {
+        ChannelSftp sftp = channelFactory.call();
+        long total = 0;
+        long lastReport = System.currentTimeMillis();
+        try {
+            ArrayDeque<String> stack = new ArrayDeque<>();
+            stack.push(entry.getPath());
+            while (!stack.isEmpty() && !cancelled) {
+                String current = stack.pop();
+                Vector<ChannelSftp.LsEntry> list;
+                try {
+                    list = sftp.ls(current);
+                } catch (SftpException e) {
+                    continue; // 没有权限的目录跳过
+                }
+                for (ChannelSftp.LsEntry ls : list) {
+                    String name = ls.getFilename();
+                    if (".".equals(name) || "..".equals(name)) {
+                        continue;
+                    }
+                    SftpATTRS attrs = ls.getAttrs();
+                    if (attrs.isDir() && !attrs.isLink()) {
+                        stack.push(current + "/" + name);
+                    } else {
+                        total += attrs.getSize();
+                    }
+                }
+                long now = System.currentTimeMillis();
+                if (now - lastReport >= PARTIAL_INTERVAL_MS) {
+                    lastReport = now;
+                    listener.onSize(entry, total, Status.RUNNING);
+                }
+            }
+        } finally {
+            sftp.disconnect();
+        }
+        return total;
+    }
+
+    private void reportFilesystem() {
+        try {
+            String out = SshExecUtil.exec(session, "df -kP -- " + SshExecUtil.quote(dir) + " | tail -n 1").getStdout().trim();
+            // Filesystem 1024-blocks Used Available Capacity Mounted-on
+            String[] parts = out.split("\\s+");
+            if (parts.length >= 6) {
+                long total = Long.parseLong(parts[1]) * 1024;
+                long used = Long.parseLong(parts[2]) * 1024;
+                listener.onFilesystem(String.format("分区 %s（挂载于 %s）：已用 %s / %s (%s)", parts[0], parts[5],
+                        FileUtil.humanReadableByteCountBin(used), FileUtil.humanReadableByteCountBin(total), parts[4]));
+            }
+        } catch (Exception e) {
+            log.debug("获取分区信息失败: {}", e.getMessage());
+        }
+    }
+}
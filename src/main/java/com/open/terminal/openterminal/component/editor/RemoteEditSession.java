@@ -0,0 +1,464 @@
+package com.open.terminal.openterminal.component.editor;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpATTRS;
+import com.jcraft.jsch.SftpException;
+import com.jcraft.jsch.SftpProgressMonitor;
+import com.open.terminal.openterminal.fun.RemoteEditCallback;
+import com.open.terminal.openterminal.manage.TransferManager;
+import com.open.terminal.openterminal.model.DownloadTask;
+import com.open.terminal.openterminal.util.FileUtil;
+import com.open.terminal.openterminal.util.SshExecUtil;
+import com.open.terminal.openterminal.util.ThreadUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * @description: 远程文件编辑会话。监听本地工作副本，保存后防抖回写到远程：
+ * 与上次同步的内容比较出公共前缀和后缀，只上传中间变化的部分，由远程 shell 拼接成临时文件后 mv 原子替换；
+ * 回写前检查远程修改时间和大小，远程被他人改过时先询问是否覆盖。远程不支持拼接时退化为整文件上传 + 原子替换。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class RemoteEditSession implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(RemoteEditSession.class);
+
+    /**
+     * 保存后等待的时间，编辑器一次保存往往触发多个事件（截断、写入、改属性）
+     */
+    private static final long DEBOUNCE_MS = 800;
+    /**
+     * 公共前后缀太短时增量拼接不划算，直接整文件上传
+     */
+    private static final long MIN_REUSED_BYTES = 16 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Session session;
+    private final Callable<ChannelSftp> channelFactory;
+    private final String sessionKey;
+    // 已解析符号链接后的绝对路径，保证 mv 替换的是真实文件而不是链接本身
+    private final String remotePath;
+    private final Path localFile;
+    // 上一次与远程一致时的内容
+    private final Path baseFile;
+    // 回写时对工作副本的快照，避免上传过程中编辑器再次写入
+    private final Path snapshotFile;
+    private final Path patchFile;
+    private final RemoteEditCallback callback;
+
+    // 上一次同步时远程文件的状态，用于冲突检测
+    private volatile long baseMtime;
+    private volatile long baseSize;
+    private final int permissions;
+    // 远程是否具备 head/tail 等拼接所需命令，第一次回写时探测
+    private Boolean incrementalSupported;
+
+    private WatchService watchService;
+    private ScheduledFuture<?> pendingSave;
+    private final Object saveLock = new Object();
+    private volatile boolean closed = false;
+
+    public RemoteEditSession(Session session, Callable<ChannelSftp> channelFactory, String sessionKey,
+                             String remotePath, Path localFile, SftpATTRS attrs, RemoteEditCallback callback) {
+        this.session = session;
+        this.channelFactory = channelFactory;
+        this.sessionKey = sessionKey;
+        this.remotePath = remotePath;
+        this.localFile = localFile;
+        Path stateDir = localFile.getParent().getParent();
+        this.baseFile = stateDir.resolve(".base");
+        this.snapshotFile = stateDir.resolve(".snapshot");
+        this.patchFile = stateDir.resolve(".patch");
+        this.callback = callback;
+        this.baseMtime = attrs.getMTime();
+        this.baseSize = attrs.getSize();
+        this.permissions = attrs.getPermissions() & 07777;
+    }
+
+    /**
+     * 工作副本路径：editDir/<会话+路径摘要>/work/<文件名>，单独的 work 目录只包含这一个文件，方便监听
+     */
+    public static Path workFileFor(String sessionKey, String remotePath) {
+        String fileName = remotePath.substring(remotePath.lastIndexOf('/') + 1);
+        return FileUtil.localEditDir.resolve(digest(sessionKey + "|" + remotePath)).resolve("work").resolve(fileName);
+    }
+
+    /**
+     * 工作副本下载完成后调用：记录基线并开始监听
+     */
+    public void start() throws IOException {
+        Files.copy(localFile, baseFile, StandardCopyOption.REPLACE_EXISTING);
+        watchService = FileSystems.getDefault().newWatchService();
+        localFile.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        ThreadUtil.submitTask(this::watchLoop);
+        log.info("进入编辑模式: {} -> {}", remotePath, localFile);
+    }
+
+    public String getRemotePath() {
+        return remotePath;
+    }
+
+    public Path getLocalFile() {
+        return localFile;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void watchLoop() {
+        try {
+            while (!closed) {
+                WatchKey key = watchService.take();
+                boolean touched = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    // 编辑器常用“写临时文件再改名”的方式保存，表现为 CREATE 事件
+                    if (event.kind() == OVERFLOW || localFile.getFileName().equals(event.context())) {
+                        touched = true;
+                    }
+                }
+                if (touched) {
+                    scheduleSave();
+                }
+                if (!key.reset()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // 会话关闭
+        }
+    }
+
+    private synchronized void scheduleSave() {
+        if (pendingSave != null) {
+            pendingSave.cancel(false);
+        }
+        pendingSave = ThreadUtil.schedule(() -> ThreadUtil.submitTask(this::saveBack), DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 把工作副本的变化回写到远程，同一时间只有一次回写
+     */
+    private void saveBack() {
+        synchronized (saveLock) {
+            if (closed || !Files.exists(localFile)) {
+                return;
+            }
+            try {
+                Files.copy(localFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+                long baseLength;
+                long newLength;
+                long prefix;
+                long suffix;
+                try (FileChannel base = FileChannel.open(baseFile, StandardOpenOption.READ);
+                     FileChannel next = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+                    baseLength = base.size();
+                    newLength = next.size();
+                    prefix = commonPrefix(base, next);
+                    if (prefix == baseLength && prefix == newLength) {
+                        return; // 内容没变，例如编辑器只更新了修改时间
+                    }
+                    suffix = commonSuffix(base, next, Math.min(baseLength, newLength) - prefix);
+                }
+
+                boolean full = prefix + suffix < MIN_REUSED_BYTES || !isIncrementalSupported();
+                Boolean remoteUnchanged = checkRemoteUnchanged();
+                if (remoteUnchanged == null) {
+                    return; // 用户放弃本次保存
+                }
+                // 远程已被他人修改，其内容不再等于基线，无法按前后缀拼接
+                full = full || !remoteUnchanged;
+
+                long sendLength = full ? newLength : newLength - prefix - suffix;
+                if (!full) {
+                    try (FileChannel in = FileChannel.open(snapshotFile, StandardOpenOption.READ);
+                         FileChannel out = FileChannel.open(patchFile, StandardOpenOption.CREATE,
+                                 StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                        long copied = 0;
+                        while (copied < sendLength) {
+                            copied += in.transferTo(prefix + copied, sendLength - copied, out);
+                        }
+                    }
+                }
+                final boolean fullUpload = full;
+                DownloadTask task = new DownloadTask(localFile.getFileName().toString(), sendLength,
+                        DownloadTask.TransferType.UPLOAD, sessionKey, remotePath, snapshotFile,
+                        (t, monitor, resume) -> writeBack(t, monitor, fullUpload, prefix, suffix, baseLength, newLength));
+                // 暂停的回写会一直等待并占着 saveLock，只允许取消
+                task.setPausable(false);
+                TransferManager.getInstance().submit(task).getCompletion().get();
+
+                Files.copy(snapshotFile, baseFile, StandardCopyOption.REPLACE_EXISTING);
+                log.info("已回写 {}，上传 {} / {}", remotePath, FileUtil.humanReadableByteCountBin(sendLength),
+                        FileUtil.humanReadableByteCountBin(newLength));
+                callback.onSaved(remotePath, sendLength, newLength);
+            } catch (CancellationException e) {
+                log.info("回写已取消: {}", remotePath);
+            } catch (Exception e) {
+                log.error("回写远程文件失败: {}", remotePath, e);
+                callback.onError(remotePath, e);
+            } finally {
+                try {
+                    Files.deleteIfExists(patchFile);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true 远程未变化；false 远程已变化但用户选择覆盖；null 用户放弃保存
+     */
+    private Boolean checkRemoteUnchanged() throws Exception {
+        ChannelSftp sftp = channelFactory.call();
+        try {
+            SftpATTRS attrs = sftp.stat(remotePath);
+            if (attrs.getMTime() == baseMtime && attrs.getSize() == baseSize) {
+                return true;
+            }
+        } catch (SftpException e) {
+            if (e.id != ChannelSftp.SSH_FX_NO_SUCH_FILE) {
+                throw e;
+            }
+            // 远程文件已被删除，同样视为冲突
+        } finally {
+            sftp.disconnect();
+        }
+        return callback.confirmOverwrite(remotePath) ? Boolean.FALSE : null;
+    }
+
+    private boolean isIncrementalSupported() {
+        if (incrementalSupported == null) {
+            try {
+                incrementalSupported = SshExecUtil.exec(session, "command -v head && command -v tail && command -v mv").isSuccess();
+            } catch (JSchException | IOException e) {
+                incrementalSupported = false;
+            }
+            if (!incrementalSupported) {
+                log.info("远程不支持增量拼接，回写将整文件上传: {}", remotePath);
+            }
+        }
+        return incrementalSupported;
+    }
+
+    /**
+     * 在传输线程中执行：上传补丁或整文件到同目录临时文件，再原子替换。
+     * 上传被取消时 JSch 的 put 正常返回，所以每次上传后都要确认临时文件完整，否则删除临时文件、不做替换
+     */
+    private void writeBack(DownloadTask task, SftpProgressMonitor monitor, boolean full, long prefix, long suffix,
+                           long baseLength, long newLength) throws Exception {
+        String dir = remotePath.substring(0, remotePath.lastIndexOf('/') + 1);
+        String name = remotePath.substring(remotePath.lastIndexOf('/') + 1);
+        // 临时文件与目标在同一目录，保证 mv 是同一文件系统内的原子 rename
+        String tmp = dir + "." + name + ".ot-" + Long.toHexString(System.nanoTime());
+        String patch = tmp + ".patch";
+        ChannelSftp sftp = channelFactory.call();
+        try {
+            if (!full) {
+                sftp.put(patchFile.toString(), patch, monitor, ChannelSftp.OVERWRITE);
+                if (!uploaded(task, sftp, patch, newLength - prefix - suffix)) {
+                    removeQuietly(sftp, patch);
+                    return;
+                }
+                SshExecUtil.ExecResult result = SshExecUtil.exec(session,
+                        buildAssembleCommand(tmp, patch, prefix, suffix, baseLength, newLength));
+                if (result.isSuccess()) {
+                    refreshBase(sftp);
+                    return;
+                }
+                // 常见原因：拼接前远程大小又变了，或者 head 不支持 -c
+                log.warn("增量拼接失败，改为整文件上传: {}", result.getStderr().trim());
+            }
+            sftp.put(snapshotFile.toString(), tmp, monitor, ChannelSftp.OVERWRITE);
+            if (!uploaded(task, sftp, tmp, newLength)) {
+                removeQuietly(sftp, tmp);
+                return;
+            }
+            sftp.chmod(permissions, tmp);
+            SshExecUtil.ExecResult result = SshExecUtil.exec(session,
+                    "mv -f " + SshExecUtil.quote(tmp) + " " + SshExecUtil.quote(remotePath));
+            if (!result.isSuccess()) {
+                // 没有 shell 的纯 SFTP 服务器：先删后改名，不是原子操作，但不会留下半截文件
+                try {
+                    sftp.rm(remotePath);
+                } catch (SftpException ignored) {
+                }
+                sftp.rename(tmp, remotePath);
+            }
+            refreshBase(sftp);
+        } catch (Exception e) {
+            removeQuietly(sftp, tmp);
+            removeQuietly(sftp, patch);
+            throw e;
+        } finally {
+            sftp.disconnect();
+        }
+    }
+
+    /**
+     * @return 上传被取消时返回 false；远程文件大小与预期不符时抛出异常
+     */
+    private static boolean uploaded(DownloadTask task, ChannelSftp sftp, String path, long expected)
+            throws SftpException, IOException {
+        if (task.isCancelRequested() || task.isPauseRequested()) {
+            return false;
+        }
+        long size = sftp.stat(path).getSize();
+        if (size != expected) {
+            throw new IOException("上传不完整: " + path + " 大小 " + size + "，应为 " + expected);
+        }
+        return true;
+    }
+
+    private static void removeQuietly(ChannelSftp sftp, String path) {
+        try {
+            sftp.rm(path);
+        } catch (SftpException ignored) {
+        }
+    }
+
+    /**
+     * 远程拼接脚本：原文件前 prefix 字节 + 补丁 + 原文件最后 suffix 字节，校验大小后原子替换
+     */
+    private String buildAssembleCommand(String tmp, String patch, long prefix, long suffix,
+                                        long baseLength, long newLength) {
+        StringBuilder cmd = new StringBuilder();
+        cmd.append("set -e; ")
+                .append("src=").append(SshExecUtil.quote(remotePath)).append("; ")
+                .append("tmp=").append(SshExecUtil.quote(tmp)).append("; ")
+                .append("patch=").append(SshExecUtil.quote(patch)).append("; ")
+                .append("trap 'rm -f \"$tmp\" \"$patch\"' EXIT; ")
+                // 远程内容必须仍等于基线，否则前后缀不可信
+                .append("[ $(($(wc -c < \"$src\"))) -eq ").append(baseLength).append(" ]; ")
+                .append("{ ");
+        if (prefix > 0) {
+            cmd.append("head -c ").append(prefix).append(" \"$src\"; ");
+        }
+        cmd.append("cat \"$patch\"; ");
+        if (suffix > 0) {
+            cmd.append("tail -c +").append(baseLength - suffix + 1).append(" \"$src\"; ");
+        }
+        cmd.append("} > \"$tmp\"; ")
+                .append("[ $(($(wc -c < \"$tmp\"))) -eq ").append(newLength).append(" ]; ")
+                .append("chmod ").append(Integer.toOctalString(permissions)).append(" \"$tmp\"; ")
+                .append("mv -f \"$tmp\" \"$src\"");
+        return cmd.toString();
+    }
+
+    private void refreshBase(ChannelSftp sftp) throws SftpException {
+        SftpATTRS attrs = sftp.stat(remotePath);
+        baseMtime = attrs.getMTime();
+        baseSize = attrs.getSize();
+    }
+
+    private static long commonPrefix(FileChannel a, FileChannel b) throws IOException {
+        ByteBuffer bufA = ByteBuffer.allocate(BUFFER_SIZE);
+        ByteBuffer bufB = ByteBuffer.allocate(BUFFER_SIZE);
+        long limit = Math.min(a.size(), b.size());
+        long pos = 0;
+        while (pos < limit) {
+            int len = (int) Math.min(BUFFER_SIZE, limit - pos);
+            readFully(a, bufA, pos, len);
+            readFully(b, bufB, pos, len);
+            int mismatch = Arrays.mismatch(bufA.array(), 0, len, bufB.array(), 0, len);
+            if (mismatch >= 0) {
+                return pos + mismatch;
+            }
+            pos += len;
+        }
+        return limit;
+    }
+
+    /**
+     * 从尾部向前比较，最多比较 limit 字节（不与公共前缀重叠）
+     */
+    private static long commonSuffix(FileChannel a, FileChannel b, long limit) throws IOException {
+        ByteBuffer bufA = ByteBuffer.allocate(BUFFER_SIZE);
+        ByteBuffer bufB = ByteBuffer.allocate(BUFFER_SIZE);
+        long sizeA = a.size();
+        long sizeB = b.size();
+        long matched = 0;
+        while (matched < limit) {
+            int len = (int) Math.min(BUFFER_SIZE, limit - matched);
+            readFully(a, bufA, sizeA - matched - len, len);
+            readFully(b, bufB, sizeB - matched - len, len);
+            byte[] x = bufA.array();
+            byte[] y = bufB.array();
+            for (int i = len - 1; i >= 0; i--) {
+                if (x[i] != y[i]) {
+                    return matched + (len - 1 - i);
+                }
+            }
+            matched += len;
+        }
+        return limit;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position, int length) throws IOException {
+        buffer.clear().limit(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("文件在比较过程中被截断");
+            }
+        }
+    }
+
+    private static String digest(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 停止监听，未触发的回写一并取消；本地工作副本保留，用户可能仍在编辑器中打开
+     */
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (this) {
+            if (pendingSave != null) {
+                pendingSave.cancel(false);
+            }
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.warn("关闭文件监听失败: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.open.terminal.openterminal.component.history;
+
+/**
+ * @description: fzf 风格的模糊匹配。查询中的字符按顺序出现在命令中即视为匹配，
+ * 先正向找到最早的完整匹配终点，再反向收缩到最短的匹配窗口，在窗口内计分：
+ * 每个命中字符得分，连续命中和落在单词开头（空格、/、-、_ 之后或驼峰）额外加分，中间的间隔扣分。
+ * 只比较小写形式，调用方预先准备好小写文本，避免每次匹配重复转换
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public final class FuzzyMatcher {
+    public static final int NO_MATCH = Integer.MIN_VALUE;
+
+    private static final int SCORE_MATCH = 16;
+    private static final int BONUS_BOUNDARY = 8;
+    private static final int BONUS_CAMEL = 7;
+    private static final int BONUS_CONSECUTIVE = 4;
+    private static final int BONUS_FIRST_CHAR = 8;
+    private static final int PENALTY_GAP_START = 3;
+    private static final int PENALTY_GAP_EXTENSION = 1;
+
+    private FuzzyMatcher() {
+    }
+
+    /**
+     * @param pattern   小写查询，不能为空
+     * @param lower     text 的小写形式
+     * @param text      原文，用于识别驼峰边界
+     * @param positions 不为空时写入各查询字符命中的位置，长度至少为 pattern.length()
+     * @return 匹配得分，不匹配时返回 NO_MATCH
+     */
+    public static int score(String pattern, String lower, String text, int[] positions) {
+        int m = pattern.length();
+        int n = lower.length();
+        if (m > n) {
+            return NO_MATCH;
+        }
+        // 1. 正向：找到按顺序命中全部字符的最早终点
+        int pi = 0;
+        int end = -1;
+        for (int i = 0; i < n; i++) {
+            if (lower.charAt(i) == pattern.charAt(pi)) {
+                if (++pi == m) {
+                    end = i;
+                    break;
+                }
+            }
+        }
+        if (end < 0) {
+            return NO_MATCH;
+        }
+        // 2. 反向：从终点往回找，得到最短窗口的起点
+        int start = end;
+        pi = m - 1;
+        for (int i = end; i >= 0; i--) {
+            if (lower.charAt(i) == pattern.charAt(pi)) {
+                start = i;
+                if (--pi < 0) {
+                    break;
+                }
+            }
+        }
+        // 3. 在窗口内贪心匹配并计分
+        int score = 0;
+        int consecutive = 0;
+        boolean inGap = false;
+        pi = 0;
+        for (int i = start; i <= end && pi < m; i++) {
+            if (lower.charAt(i) == pattern.charAt(pi)) {
+                int bonus = boundaryBonus(text, i);
+                if (consecutive > 0) {
+                    bonus = Math.max(bonus, BONUS_CONSECUTIVE);
+                }
+                if (pi == 0) {
+                    bonus *= 2;
+                }
+                score += SCORE_MATCH + bonus;
+                if (positions != null) {
+                    positions[pi] = i;
+                }
+                consecutive++;
+                inGap = false;
+                pi++;
+            } else {
+                score -= inGap ? PENALTY_GAP_EXTENSION : PENALTY_GAP_START;
+                inGap = true;
+                consecutive = 0;
+            }
+        }
+        // 越靠近开头越好
+        if (start == 0) {
+            score += BONUS_FIRST_CHAR;
+        }
+        return score - Math.min(start, 20) / 4;
+    }
+
+    /**
+     * 逐字符转小写，保证和原文长度一致，命中位置可以直接对应到原文
+     */
+    public static String lowerCase(String s) {
+        int i = 0;
+        int n = s.length();
+        // 大部分命令本来就是小写，不复制
+        while (i < n && s.charAt(i) == Character.toLowerCase(s.charAt(i))) {
+            i++;
+        }
+        if (i == n) {
+            return s;
+        }
+        char[] chars = s.toCharArray();
+        for (; i < n; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static int boundaryBonus(String text, int i) {
+        if (i == 0) {
+            return BONUS_BOUNDARY;
+        }
+        char prev = text.charAt(i - 1);
+        char c = text.charAt(i);
+        if (prev == ' ' || prev == '/' || prev == '-' || prev == '_' || prev == '.' || prev == '=' || prev == '|' || prev == ';') {
+            return BONUS_BOUNDARY;
+        }
+        if (Character.isLowerCase(prev) && Character.isUpperCase(c)) {
+            return BONUS_CAMEL;
+        }
+        return 0;
+    }
+}
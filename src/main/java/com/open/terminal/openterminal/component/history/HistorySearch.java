@@ -0,0 +1,185 @@
+package com.open.terminal.openterminal.component.history;
+
+import com.open.terminal.openterminal.fun.HistorySearchListener;
+import com.open.terminal.openterminal.model.HistoryEntry;
+import com.open.terminal.openterminal.util.ThreadUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 历史命令的模糊搜索。每次查询在虚拟线程上执行，新查询发出后旧查询在下一个检查点退出；
+ * 每个查询的全部匹配下标会缓存下来，查询在末尾追加字符时只需在上一次的匹配中继续筛选，退格时也能直接命中缓存。
+ * 排序综合模糊得分、最近使用（列表越靠前越新）和使用次数，只保留前 MAX_RESULTS 条交给界面
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class HistorySearch {
+    public static final int MAX_RESULTS = 1000;
+    // 每处理这么多条检查一次是否已被新查询取代
+    private static final int CHECK_EVERY = 4096;
+    // 缓存的匹配下标总数上限（约 16MB）
+    private static final long MAX_CACHED_INDICES = 4_000_000;
+    private static final int RECENCY_BONUS = 12;
+    private static final int MAX_FREQUENCY_BONUS = 15;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Corpus corpus = new Corpus(List.of());
+
+    // 查询 -> 全部匹配下标，访问顺序淘汰；key 带上范围，范围变化后自然不会命中
+    private final LinkedHashMap<String, int[]> narrowCache = new LinkedHashMap<>(32, 0.75f, true);
+    private long cachedIndices = 0;
+
+    /**
+     * 替换搜索的命令列表（最近使用的在前）。会为每条命令准备小写形式，数据量大时在后台线程调用
+     */
+    public void setEntries(List<HistoryEntry> entries) {
+        Corpus next = new Corpus(entries);
+        synchronized (narrowCache) {
+            corpus = next;
+            narrowCache.clear();
+            cachedIndices = 0;
+        }
+    }
+
+    public int size() {
+        return corpus.entries.size();
+    }
+
+    /**
+     * 发起查询，结果在后台线程回调给 listener
+     *
+     * @param host 只搜索出现在该主机上的命令，为空时搜索全部
+     */
+    public void search(String query, String host, HistorySearchListener listener) {
+        long gen = generation.incrementAndGet();
+        Corpus snapshot = corpus;
+        ThreadUtil.submitTask(() -> run(gen, snapshot, query == null ? "" : query, host, listener));
+    }
+
+    /**
+     * 放弃正在进行的查询
+     */
+    public void cancel() {
+        generation.incrementAndGet();
+    }
+
+    private void run(long gen, Corpus c, String query, String host, HistorySearchListener listener) {
+        String pattern = FuzzyMatcher.lowerCase(query.strip());
+        String scope = host == null ? "" : host;
+        int n = c.entries.size();
+
+        // 找最长的已缓存前缀，在它的匹配结果里继续筛选
+        int[] candidates = null;
+        synchronized (narrowCache) {
+            if (c == corpus) {
+                for (int len = pattern.length(); len >= 0 && candidates == null; len--) {
+                    candidates = narrowCache.get(scope + '\u0000' + pattern.substring(0, len));
+                }
+            }
+        }
+        int candidateCount = candidates != null ? candidates.length : n;
+
+        int[] matched = new int[Math.min(candidateCount, 1024)];
+        int matchCount = 0;
+        // 最小堆，保存当前最好的 MAX_RESULTS 条，元素为 (得分 << 32 | 新旧顺序)
+        PriorityQueue<Long> top = new PriorityQueue<>();
+        for (int k = 0; k < candidateCount; k++) {
+            if ((k & (CHECK_EVERY - 1)) == 0 && generation.get() != gen) {
+                return;
+            }
+            int i = candidates != null ? candidates[k] : k;
+            HistoryEntry entry = c.entries.get(i);
+            if (host != null && !entry.getHosts().contains(host)) {
+                continue;
+            }
+            int score;
+            if (pattern.isEmpty()) {
+                score = 0;
+            } else {
+                score = FuzzyMatcher.score(pattern, c.lower[i], entry.getCommand(), null);
+                if (score == FuzzyMatcher.NO_MATCH) {
+                    continue;
+                }
+                score += rankBonus(entry, i, n);
+            }
+            if (matchCount == matched.length) {
+                matched = Arrays.copyOf(matched, matched.length * 2);
+            }
+            matched[matchCount++] = i;
+
+            long key = ((long) score << 32) | (0xFFFFFFFFL & ~i);
+            if (top.size() < MAX_RESULTS) {
+                top.add(key);
+            } else if (key > top.peek()) {
+                top.poll();
+                top.add(key);
+            }
+        }
+        if (generation.get() != gen) {
+            return;
+        }
+        // 全部命令不必缓存，没有缓存时本来就遍历全部
+        if (!pattern.isEmpty() || host != null) {
+            cache(c, scope + '\u0000' + pattern, Arrays.copyOf(matched, matchCount));
+        }
+
+        List<HistoryEntry> result = new ArrayList<>(top.size());
+        Long[] keys = top.toArray(new Long[0]);
+        Arrays.sort(keys);
+        for (int k = keys.length - 1; k >= 0; k--) {
+            result.add(c.entries.get(~(int) (long) keys[k]));
+        }
+        listener.onResult(query, result, matchCount);
+    }
+
+    /**
+     * 越新、用得越多的命令加分，但不超过一两个字符的匹配质量差异
+     */
+    private static int rankBonus(HistoryEntry entry, int index, int total) {
+        int recency = total <= 1 ? RECENCY_BONUS : (int) (RECENCY_BONUS * (1 - (double) index / total));
+        int frequency = Math.min(MAX_FREQUENCY_BONUS, 3 * (31 - Integer.numberOfLeadingZeros(Math.max(entry.getCount(), 1))));
+        return recency + frequency;
+    }
+
+    private void cache(Corpus c, String key, int[] matched) {
+        synchronized (narrowCache) {
+            if (c != corpus) {
+                return;
+            }
+            int[] old = narrowCache.put(key, matched);
+            cachedIndices += matched.length - (old != null ? old.length : 0);
+            var it = narrowCache.entrySet().iterator();
+            while (cachedIndices > MAX_CACHED_INDICES && narrowCache.size() > 1 && it.hasNext()) {
+                Map.Entry<String, int[]> eldest = it.next();
+                if (eldest.getValue() == matched) {
+                    continue;
+                }
+                cachedIndices -= eldest.getValue().length;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * 命令列表及其小写形式
+     */
+    private static class Corpus {
+        private final List<HistoryEntry> entries;
+        private final String[] lower;
+
+        private Corpus(List<HistoryEntry> entries) {
+            this.entries = List.copyOf(entries);
+            this.lower = new String[this.entries.size()];
+            for (int i = 0; i < lower.length; i++) {
+                lower[i] = FuzzyMatcher.lowerCase(this.entries.get(i).getCommand());
+            }
+        }
+    }
+}
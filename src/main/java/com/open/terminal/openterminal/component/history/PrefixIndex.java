@@ -0,0 +1,101 @@
+package com.open.terminal.openterminal.component.history;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * @description: 命令前缀索引，用于输入时的补全提示。命令按字典序排成数组，以某个前缀开头的命令是其中连续的一段；
+ * 另建一张区间最小值稀疏表（按排名，越小越好），二分找到区间后 O(1) 取出最佳命令。
+ * 一次查询只有两次二分，十万条命令也在微秒级。建好后不可变，可以在任意线程查询
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class PrefixIndex {
+    public static final PrefixIndex EMPTY = new PrefixIndex(List.of());
+
+    private final String[] sorted;
+    // sorted 中每条命令的排名（在输入列表中的位置）
+    private final int[] rank;
+    // table[k][i] 为 [i, i + 2^k) 区间内排名最小的下标
+    private final int[][] table;
+
+    /**
+     * @param commands 按优先级排列的命令（最近使用的在前），不含重复项
+     */
+    public PrefixIndex(List<String> commands) {
+        int n = commands.size();
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(commands::get));
+        sorted = new String[n];
+        rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = commands.get(order[i]);
+            rank[i] = order[i];
+        }
+
+        int levels = 1;
+        while ((1 << levels) <= n) {
+            levels++;
+        }
+        table = new int[levels][];
+        table[0] = new int[n];
+        for (int i = 0; i < n; i++) {
+            table[0][i] = i;
+        }
+        for (int k = 1; k < levels; k++) {
+            int span = 1 << k;
+            int half = span >> 1;
+            table[k] = new int[n - span + 1];
+            for (int i = 0; i + span <= n; i++) {
+                int a = table[k - 1][i];
+                int b = table[k - 1][i + half];
+                table[k][i] = rank[a] <= rank[b] ? a : b;
+            }
+        }
+    }
+
+    public int size() {
+        return sorted.length;
+    }
+
+    /**
+     * @return 以 prefix 开头且比它长的最佳命令，没有时返回 null
+     */
+    public String complete(String prefix) {
+        if (prefix.isEmpty() || sorted.length == 0) {
+            return null;
+        }
+        // [from, to) 为以 prefix 开头的区间；prefix 本身排在区间最前，跳过它
+        int from = lowerBound(prefix);
+        int to = lowerBound(prefix + Character.MAX_VALUE);
+        if (from < to && sorted[from].equals(prefix)) {
+            from++;
+        }
+        if (from >= to) {
+            return null;
+        }
+        int k = 31 - Integer.numberOfLeadingZeros(to - from);
+        int a = table[k][from];
+        int b = table[k][to - (1 << k)];
+        return sorted[rank[a] <= rank[b] ? a : b];
+    }
+
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,153 @@
+package com.open.terminal.openterminal.component.inventory;
+
+import com.open.terminal.openterminal.model.SavedConnection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * @description: 连接列表的内存搜索索引，覆盖名称、主机、用户、分组和标签。
+ * 每个字段按非字母数字字符切分，从字段开头和每个切分点开始的后缀都作为一个键（小写），
+ * 因此 "web" 能命中 "prod-web-01"，"10.0.3" 能命中 "10.0.3.15"。键排序后存成数组，
+ * 查询词做前缀匹配即二分出一段连续区间，合并其中的倒排表；多个查询词（空白分隔）取交集。
+ * 建好后不可变，可以在后台线程构建、界面线程查询
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class ConnectionSearchIndex {
+    public static final ConnectionSearchIndex EMPTY = new ConnectionSearchIndex(List.of());
+
+    private final List<SavedConnection> connections;
+    private final String[] keys;
+    // postings[i] 为包含 keys[i] 的连接下标，递增
+    private final int[][] postings;
+
+    public ConnectionSearchIndex(List<SavedConnection> connections) {
+        this.connections = List.copyOf(connections);
+        Map<String, Postings> map = new HashMap<>();
+        for (int i = 0; i < this.connections.size(); i++) {
+            for (String key : keysOf(this.connections.get(i))) {
+                map.computeIfAbsent(key, k -> new Postings()).add(i);
+            }
+        }
+        keys = map.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        postings = new int[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            Postings p = map.get(keys[i]);
+            postings[i] = Arrays.copyOf(p.ids, p.size);
+        }
+    }
+
+    private static class Postings {
+        int[] ids = new int[1];
+        int size;
+
+        void add(int id) {
+            // 同一连接的多个字段可能产生相同的键
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    public int size() {
+        return connections.size();
+    }
+
+    /**
+     * @return 所有查询词都能前缀命中的连接，保持建索引时的顺序；查询为空时返回全部
+     */
+    public List<SavedConnection> search(String query) {
+        String[] terms = query == null ? new String[0] : query.strip().toLowerCase(Locale.ROOT).split("\\s+");
+        BitSet result = null;
+        for (String term : terms) {
+            if (term.isEmpty()) {
+                continue;
+            }
+            BitSet matched = match(term);
+            if (result == null) {
+                result = matched;
+            } else {
+                result.and(matched);
+            }
+            if (result.isEmpty()) {
+                return List.of();
+            }
+        }
+        if (result == null) {
+            return connections;
+        }
+        List<SavedConnection> list = new ArrayList<>(result.cardinality());
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            list.add(connections.get(i));
+        }
+        return list;
+    }
+
+    private BitSet match(String prefix) {
+        BitSet set = new BitSet(connections.size());
+        int from = lowerBound(prefix);
+        int to = lowerBound(prefix + Character.MAX_VALUE);
+        for (int i = from; i < to; i++) {
+            for (int id : postings[i]) {
+                set.set(id);
+            }
+        }
+        return set;
+    }
+
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static List<String> keysOf(SavedConnection conn) {
+        List<String> keys = new ArrayList<>();
+        addKeys(conn.getName(), keys);
+        addKeys(conn.getHost(), keys);
+        addKeys(conn.getUser(), keys);
+        addKeys(conn.getGroup(), keys);
+        if (conn.getTags() != null) {
+            for (String tag : conn.getTags()) {
+                addKeys(tag, keys);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 字段本身加上从每个单词开头起的后缀
+     */
+    private static void addKeys(String field, List<String> keys) {
+        if (field == null || field.isBlank()) {
+            return;
+        }
+        String value = field.strip().toLowerCase(Locale.ROOT);
+        keys.add(value);
+        for (int i = 1; i < value.length(); i++) {
+            if (!Character.isLetterOrDigit(value.charAt(i - 1)) && Character.isLetterOrDigit(value.charAt(i))) {
+                keys.add(value.substring(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.open.terminal.openterminal.component.inventory;
+
+import com.open.terminal.openterminal.model.SavedConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * @description: 流式解析主机清单 CSV，每读完一行就回调一条连接，不把整个文件读进内存。
+ * 第一行含可识别的列名（host、主机、hostname 等）时按列名取值，否则按 name,host,port,user,group,tags 的顺序。
+ * 支持双引号包围（含换行和 "" 转义）；首行没有逗号但有制表符或分号时改用对应分隔符。
+ * 标签列中的多个标签以 ; | 或空白分隔；缺少主机或端口无效的行计入跳过数
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class CsvInventoryParser {
+    private static final Logger log = LoggerFactory.getLogger(CsvInventoryParser.class);
+    private static final int NAME = 0, HOST = 1, PORT = 2, USER = 3, GROUP = 4, TAGS = 5, PASSWORD = 6;
+    private static final String[][] HEADER_ALIASES = {
+            {"name", "名称", "alias"},
+            {"host", "hostname", "address", "ip", "主机"},
+            {"port", "端口"},
+            {"user", "username", "login", "用户"},
+            {"group", "分组", "env"},
+            {"tags", "tag", "labels", "标签"},
+            {"password", "密码"},
+    };
+
+    private int skipped = 0;
+
+    /**
+     * @return 生成的连接数
+     */
+    public int parse(Path file, Consumer<SavedConnection> sink) throws IOException {
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            reader.mark(1 << 20);
+            String firstLine = reader.readLine();
+            if (firstLine == null) {
+                return 0;
+            }
+            reader.reset();
+            char delimiter = detectDelimiter(firstLine);
+            int[] columns = {0, 1, 2, 3, 4, 5, -1};
+            List<String> row = new ArrayList<>();
+            boolean first = true;
+            long rowNumber = 0;
+            while (readRow(reader, delimiter, row)) {
+                rowNumber++;
+                if (first) {
+                    first = false;
+                    // 去掉 UTF-8 BOM
+                    if (!row.get(0).isEmpty() && row.get(0).charAt(0) == 0xFEFF) {
+                        row.set(0, row.get(0).substring(1));
+                    }
+                    int[] header = parseHeader(row);
+                    if (header != null) {
+                        columns = header;
+                        continue;
+                    }
+                }
+                if (row.size() == 1 && row.get(0).isBlank() || row.get(0).startsWith("#")) {
+                    continue;
+                }
+                SavedConnection conn = toConnection(row, columns);
+                if (conn == null) {
+                    log.warn("跳过清单第 {} 行: {}", rowNumber, row);
+                    skipped++;
+                    continue;
+                }
+                sink.accept(conn);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return 因内容无效被跳过的行数
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    private static char detectDelimiter(String line) {
+        if (line.indexOf(',') >= 0) {
+            return ',';
+        }
+        if (line.indexOf('\t') >= 0) {
+            return '\t';
+        }
+        return line.indexOf(';') >= 0 ? ';' : ',';
+    }
+
+    /**
+     * @return 各字段所在列，首行不是表头时返回 null
+     */
+    private static int[] parseHeader(List<String> row) {
+        int[] columns = new int[HEADER_ALIASES.length];
+        Arrays.fill(columns, -1);
+        for (int i = 0; i < row.size(); i++) {
+            String cell = row.get(i).strip().toLowerCase(Locale.ROOT);
+            for (int field = 0; field < HEADER_ALIASES.length; field++) {
+                if (columns[field] < 0 && Arrays.asList(HEADER_ALIASES[field]).contains(cell)) {
+                    columns[field] = i;
+                    break;
+                }
+            }
+        }
+        return columns[HOST] < 0 ? null : columns;
+    }
+
+    private static SavedConnection toConnection(List<String> row, int[] columns) {
+        String host = cell(row, columns[HOST]);
+        if (host.isEmpty()) {
+            return null;
+        }
+        int port = 22;
+        String portValue = cell(row, columns[PORT]);
+        if (!portValue.isEmpty()) {
+            try {
+                port = Integer.parseInt(portValue);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (port <= 0 || port > 65535) {
+                return null;
+            }
+        }
+        String name = cell(row, columns[NAME]);
+        String user = cell(row, columns[USER]);
+        String password = cell(row, columns[PASSWORD]);
+        SavedConnection conn = new SavedConnection(name.isEmpty() ? host : name, host, port,
+                user.isEmpty() ? System.getProperty("user.name") : user, password.isEmpty() ? null : password);
+        String group = cell(row, columns[GROUP]);
+        conn.setGroup(group.isEmpty() ? null : group);
+        String tags = cell(row, columns[TAGS]);
+        if (!tags.isEmpty()) {
+            List<String> list = new ArrayList<>();
+            for (String tag : tags.split("[;|\\s]+")) {
+                if (!tag.isEmpty() && !list.contains(tag)) {
+                    list.add(tag);
+                }
+            }
+            conn.setTags(list);
+        }
+        return conn;
+    }
+
+    private static String cell(List<String> row, int column) {
+        return column < 0 || column >= row.size() ? "" : row.get(column).strip();
+    }
+
+    /**
+     * 读一条记录到 row，引号内的换行属于字段内容
+     *
+     * @return 已到文件末尾时返回 false
+     */
+    private static boolean readRow(BufferedReader reader, char delimiter, List<String> row) throws IOException {
+        row.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == delimiter) {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!any) {
+            return false;
+        }
+        row.add(field.toString());
+        return true;
+    }
+}
@@ -0,0 +1,334 @@
+package com.open.terminal.openterminal.component.inventory;
+
+import com.open.terminal.openterminal.model.SavedConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * @description: 解析 OpenSSH 客户端配置（~/.ssh/config），为每个具体的 Host 别名生成一条连接。
+ * 逐行读取，只保留 HostName / User / Port 三个选项；支持 Include（相对路径以 ~/.ssh 为基准，文件名可含通配符），
+ * 含 * ? ! 的 Host 模式不生成连接，但和 ssh 一样按出现顺序作用于匹配的别名，同一选项取第一次出现的值。
+ * 具体别名只查列出它的块和通配块，几万行的配置也只需线性时间。Match 块无法静态判断，直接跳过
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class SshConfigParser {
+    private static final Logger log = LoggerFactory.getLogger(SshConfigParser.class);
+    private static final Path SSH_DIR = Paths.get(System.getProperty("user.home"), ".ssh");
+    /**
+     * 与 OpenSSH 一致的 Include 最大嵌套深度
+     */
+    private static final int MAX_DEPTH = 16;
+
+    /**
+     * 一个 Host（或 Match）块
+     */
+    private static class Block {
+        final String[] patterns;
+        final boolean wildcard;
+        // Match 块：条件依赖运行时信息，不参与匹配
+        final boolean never;
+        // 选项名（小写） -> 值，块内同名选项也只取第一个
+        final Map<String, String> options = new HashMap<>(4);
+
+        Block(String[] patterns, boolean never) {
+            this.patterns = patterns;
+            this.never = never;
+            boolean w = false;
+            for (String p : patterns) {
+                if (p.startsWith("!") || p.indexOf('*') >= 0 || p.indexOf('?') >= 0) {
+                    w = true;
+                    break;
+                }
+            }
+            this.wildcard = w;
+        }
+
+        boolean matches(String alias) {
+            if (never) {
+                return false;
+            }
+            boolean matched = false;
+            for (String p : patterns) {
+                if (p.startsWith("!")) {
+                    if (glob(p, 1, alias, 0)) {
+                        return false;
+                    }
+                } else if (!matched && glob(p, 0, alias, 0)) {
+                    matched = true;
+                }
+            }
+            return matched;
+        }
+    }
+
+    private final List<Block> blocks = new ArrayList<>();
+    // 具体别名（原始大小写，按首次出现排列）
+    private final Map<String, String> aliases = new LinkedHashMap<>();
+    // 小写别名 -> 列出它的块下标（递增）
+    private final Map<String, List<Integer>> aliasBlocks = new HashMap<>();
+    private final List<Integer> wildcardBlocks = new ArrayList<>();
+    private final Set<Path> visiting = new HashSet<>();
+    private int skipped = 0;
+
+    /**
+     * 解析配置文件并逐条回调生成的连接
+     *
+     * @return 生成的连接数
+     */
+    public int parse(Path file, Consumer<SavedConnection> sink) throws IOException {
+        // 第一个 Host 之前的选项对所有主机生效
+        Block global = new Block(new String[]{"*"}, false);
+        addBlock(global);
+        read(file, global, 0);
+        String defaultUser = System.getProperty("user.name");
+        int count = 0;
+        for (String alias : aliases.values()) {
+            Map<String, String> resolved = resolve(alias);
+            String host = resolved.getOrDefault("hostname", alias).replace("%h", alias);
+            int port = 22;
+            String portValue = resolved.get("port");
+            if (portValue != null) {
+                try {
+                    port = Integer.parseInt(portValue);
+                } catch (NumberFormatException e) {
+                    log.warn("ssh_config 中 {} 的端口无效: {}", alias, portValue);
+                    skipped++;
+                    continue;
+                }
+            }
+            SavedConnection conn = new SavedConnection(alias, host, port, resolved.getOrDefault("user", defaultUser), null);
+            sink.accept(conn);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return 因内容无效被跳过的条目数
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    private void read(Path file, Block current, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            log.warn("Include 嵌套过深，忽略 {}", file);
+            return;
+        }
+        Path real = file.toRealPath();
+        if (!visiting.add(real)) {
+            log.warn("Include 循环引用，忽略 {}", file);
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(real, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                List<String> words = split(line);
+                if (words.isEmpty()) {
+                    continue;
+                }
+                String keyword = words.get(0).toLowerCase(Locale.ROOT);
+                List<String> args = words.subList(1, words.size());
+                switch (keyword) {
+                    case "host" -> {
+                        current = new Block(args.toArray(new String[0]), false);
+                        addBlock(current);
+                    }
+                    case "match" -> {
+                        current = new Block(new String[0], true);
+                        addBlock(current);
+                    }
+                    case "include" -> {
+                        for (String pattern : args) {
+                            for (Path included : expand(pattern)) {
+                                // 被包含文件里第一个 Host 之前的选项属于当前块
+                                read(included, current, depth + 1);
+                            }
+                        }
+                    }
+                    case "hostname", "user", "port" -> {
+                        if (!args.isEmpty()) {
+                            current.options.putIfAbsent(keyword, args.get(0));
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        } finally {
+            visiting.remove(real);
+        }
+    }
+
+    private void addBlock(Block block) {
+        int index = blocks.size();
+        blocks.add(block);
+        if (block.wildcard) {
+            wildcardBlocks.add(index);
+        }
+        for (String p : block.patterns) {
+            if (p.startsWith("!") || p.indexOf('*') >= 0 || p.indexOf('?') >= 0) {
+                continue;
+            }
+            String key = p.toLowerCase(Locale.ROOT);
+            aliases.putIfAbsent(key, p);
+            // 通配块通过 matches 参与合并，这里只记录纯具体名字的块
+            if (!block.wildcard) {
+                List<Integer> list = aliasBlocks.computeIfAbsent(key, k -> new ArrayList<>());
+                if (list.isEmpty() || list.get(list.size() - 1) != index) {
+                    list.add(index);
+                }
+            }
+        }
+    }
+
+    /**
+     * 按文件顺序合并列出该别名的块和匹配它的通配块，每个选项取第一次出现的值
+     */
+    private Map<String, String> resolve(String alias) {
+        String key = alias.toLowerCase(Locale.ROOT);
+        List<Integer> own = aliasBlocks.getOrDefault(key, List.of());
+        Map<String, String> result = new HashMap<>(4);
+        int i = 0;
+        int j = 0;
+        while (i < own.size() || j < wildcardBlocks.size()) {
+            Block block;
+            if (j >= wildcardBlocks.size() || i < own.size() && own.get(i) < wildcardBlocks.get(j)) {
+                block = blocks.get(own.get(i++));
+            } else {
+                block = blocks.get(wildcardBlocks.get(j++));
+                if (!block.matches(key)) {
+                    continue;
+                }
+            }
+            for (Map.Entry<String, String> option : block.options.entrySet()) {
+                result.putIfAbsent(option.getKey(), option.getValue());
+            }
+            if (result.size() == 3) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 展开 Include 参数：~ 开头相对用户目录，其他相对路径相对 ~/.ssh；文件名部分可含通配符，结果按名称排序
+     */
+    private static List<Path> expand(String pattern) throws IOException {
+        Path path;
+        if (pattern.startsWith("~/")) {
+            path = Paths.get(System.getProperty("user.home"), pattern.substring(2));
+        } else {
+            path = Paths.get(pattern);
+            if (!path.isAbsolute()) {
+                path = SSH_DIR.resolve(path);
+            }
+        }
+        String name = path.getFileName() == null ? "" : path.getFileName().toString();
+        if (name.indexOf('*') < 0 && name.indexOf('?') < 0) {
+            return Files.isRegularFile(path) ? List.of(path) : List.of();
+        }
+        Path dir = path.getParent();
+        if (dir == null || !Files.isDirectory(dir)) {
+            return List.of();
+        }
+        List<Path> result = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path p : stream) {
+                if (Files.isRegularFile(p) && glob(name, 0, p.getFileName().toString(), 0)) {
+                    result.add(p);
+                }
+            }
+        }
+        result.sort(null);
+        return result;
+    }
+
+    /**
+     * 拆分一行为关键字和参数：空白或 = 分隔，支持双引号，# 开头为注释
+     */
+    private static List<String> split(String line) {
+        List<String> words = new ArrayList<>();
+        int n = line.length();
+        int i = 0;
+        while (i < n) {
+            char c = line.charAt(i);
+            if (Character.isWhitespace(c) || c == '=' && words.size() <= 1) {
+                i++;
+                continue;
+            }
+            if (c == '#') {
+                break;
+            }
+            int start;
+            int end;
+            if (c == '"') {
+                start = i + 1;
+                end = line.indexOf('"', start);
+                if (end < 0) {
+                    end = n;
+                }
+                i = end + 1;
+            } else {
+                start = i;
+                while (i < n && !Character.isWhitespace(line.charAt(i)) && !(line.charAt(i) == '=' && words.isEmpty())) {
+                    i++;
+                }
+                end = i;
+            }
+            words.add(line.substring(start, end));
+        }
+        return words;
+    }
+
+    /**
+     * 大小写不敏感的 * / ? 匹配，回溯只发生在最后一个 * 上，线性时间
+     */
+    private static boolean glob(String pattern, int p, String text, int t) {
+        int starP = -1;
+        int starT = 0;
+        while (t < text.length()) {
+            if (p < pattern.length()) {
+                char pc = pattern.charAt(p);
+                if (pc == '*') {
+                    starP = p++;
+                    starT = t;
+                    continue;
+                }
+                if (pc == '?' || Character.toLowerCase(pc) == Character.toLowerCase(text.charAt(t))) {
+                    p++;
+                    t++;
+                    continue;
+                }
+            }
+            if (starP < 0) {
+                return false;
+            }
+            p = starP + 1;
+            t = ++starT;
+        }
+        while (p < pattern.length() && pattern.charAt(p) == '*') {
+            p++;
+        }
+        return p == pattern.length();
+    }
+}
@@ -0,0 +1,169 @@
+package com.open.terminal.openterminal.component.logtail;
+
+import com.open.terminal.openterminal.fun.LogLineVisitor;
+import com.open.terminal.openterminal.model.LogLine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * @description: 日志跟踪的历史缓存。最新的行以对象形式保存在当前块，每满 BLOCK_LINES 行压缩成一个字节块；
+ * 压缩后总大小超过上限时丢弃最旧的块。修改过滤条件时从这里重新扫描，界面列表只保留最近的一部分。
+ * 每一行按写入顺序有一个全局下标，用于和实时追加的数据去重
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class LogBacklog {
+    private static final int BLOCK_LINES = 2048;
+
+    private final long maxCompressedBytes;
+    private final ArrayDeque<Block> blocks = new ArrayDeque<>();
+    private List<LogLine> current = new ArrayList<>(BLOCK_LINES);
+    private long currentFirstIndex = 0;
+    private long nextIndex = 0;
+    private long compressedBytes = 0;
+
+    public LogBacklog(long maxCompressedBytes) {
+        this.maxCompressedBytes = maxCompressedBytes;
+    }
+
+    /**
+     * @return 该行的全局下标
+     */
+    public synchronized long add(LogLine line) {
+        current.add(line);
+        long index = nextIndex++;
+        if (current.size() >= BLOCK_LINES) {
+            seal();
+        }
+        return index;
+    }
+
+    /**
+     * 批量写入，只加锁一次
+     *
+     * @return 第一行的全局下标，后续各行依次加一
+     */
+    public synchronized long addAll(List<LogLine> lines) {
+        long first = nextIndex;
+        for (LogLine line : lines) {
+            add(line);
+        }
+        return first;
+    }
+
+    private void seal() {
+        Block block = new Block(currentFirstIndex, current.size(), compress(current));
+        blocks.addLast(block);
+        compressedBytes += block.data.length;
+        while (compressedBytes > maxCompressedBytes && blocks.size() > 1) {
+            compressedBytes -= blocks.removeFirst().data.length;
+        }
+        currentFirstIndex = nextIndex;
+        current = new ArrayList<>(BLOCK_LINES);
+    }
+
+    public synchronized void clear() {
+        blocks.clear();
+        current = new ArrayList<>(BLOCK_LINES);
+        currentFirstIndex = nextIndex;
+        compressedBytes = 0;
+    }
+
+    /**
+     * 按写入顺序遍历缓存中的所有行。只在加锁时复制块列表，解压在调用线程上进行，不阻塞写入
+     */
+    public void scan(LogLineVisitor visitor) {
+        List<Block> snapshot;
+        List<LogLine> tail;
+        long tailFirstIndex;
+        synchronized (this) {
+            snapshot = new ArrayList<>(blocks);
+            tail = new ArrayList<>(current);
+            tailFirstIndex = currentFirstIndex;
+        }
+        for (Block block : snapshot) {
+            List<LogLine> lines = decompress(block);
+            for (int i = 0; i < lines.size(); i++) {
+                if (!visitor.visit(block.firstIndex + i, lines.get(i))) {
+                    return;
+                }
+            }
+        }
+        for (int i = 0; i < tail.size(); i++) {
+            if (!visitor.visit(tailFirstIndex + i, tail.get(i))) {
+                return;
+            }
+        }
+    }
+
+    public synchronized long getLineCount() {
+        return nextIndex - (blocks.isEmpty() ? currentFirstIndex : blocks.peekFirst().firstIndex);
+    }
+
+    public synchronized long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    private static byte[] compress(List<LogLine> lines) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        // 日志写入速度优先，用最快的压缩级别
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            for (LogLine line : lines) {
+                out.writeLong(line.getSequence());
+                out.writeInt(line.getSource());
+                out.writeLong(line.getTimestamp());
+                byte[] text = line.getText().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(text.length);
+                out.write(text);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<LogLine> decompress(Block block) {
+        List<LogLine> lines = new ArrayList<>(block.count);
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(block.data)))) {
+            for (int i = 0; i < block.count; i++) {
+                long sequence = in.readLong();
+                int source = in.readInt();
+                long timestamp = in.readLong();
+                byte[] text = new byte[in.readInt()];
+                in.readFully(text);
+                lines.add(new LogLine(sequence, source, timestamp, new String(text, StandardCharsets.UTF_8)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lines;
+    }
+
+    private static class Block {
+        private final long firstIndex;
+        private final int count;
+        private final byte[] data;
+
+        private Block(long firstIndex, int count, byte[] data) {
+            this.firstIndex = firstIndex;
+            this.count = count;
+            this.data = data;
+        }
+    }
+}
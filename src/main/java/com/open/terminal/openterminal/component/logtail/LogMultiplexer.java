@@ -0,0 +1,207 @@
+package com.open.terminal.openterminal.component.logtail;
+
+import com.open.terminal.openterminal.fun.LogTailListener;
+import com.open.terminal.openterminal.model.LogLine;
+import com.open.terminal.openterminal.model.SessionEndpoint;
+import com.open.terminal.openterminal.util.ThreadUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 多来源日志合并。各来源的读取线程只往无锁队列里放行，合并线程每 100ms 取走一批：
+ * 按到达顺序时直接输出；按时间戳时先在本地保留 1 秒，等各来源的迟到行到齐后再按 (时间戳, 到达顺序) 排序输出。
+ * 输出的每一批先写入压缩缓存，再交给监听者。队列有上限，界面处理不过来时丢弃新行并计数，不会无限占用内存
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class LogMultiplexer implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(LogMultiplexer.class);
+
+    private static final long DRAIN_INTERVAL_MS = 100;
+    /**
+     * 按时间戳排序时的等待窗口，比它更晚到达的乱序行无法再排到前面
+     */
+    private static final long REORDER_WINDOW_MS = 1000;
+    private static final int MAX_PENDING = 200_000;
+    private static final long BACKLOG_BYTES = 32L * 1024 * 1024;
+    private static final int INITIAL_LINES = 100;
+
+    private static final Comparator<LogLine> BY_TIMESTAMP =
+            Comparator.comparingLong(LogLine::getTimestamp).thenComparingLong(LogLine::getSequence);
+
+    private final LogTailListener listener;
+    private final LogBacklog backlog = new LogBacklog(BACKLOG_BYTES);
+    private final Map<Integer, LogTailSource> sources = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSource = new AtomicInteger();
+
+    private final ConcurrentLinkedQueue<LogLine> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final ScheduledFuture<?> drainTask;
+
+    private volatile boolean orderByTimestamp = false;
+    private volatile boolean closed = false;
+
+    // 以下只被合并线程访问：按时间戳排序时暂存的批次（按到达时间先后）
+    private final ArrayDeque<HeldBatch> held = new ArrayDeque<>();
+    private long statWindowStart = System.currentTimeMillis();
+    private long statWindowLines = 0;
+    private volatile double linesPerSecond = 0;
+
+    public LogMultiplexer(LogTailListener listener) {
+        this.listener = listener;
+        this.drainTask = ThreadUtil.scheduleAtFixedRate(this::requestDrain, DRAIN_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 开始跟踪一个文件
+     */
+    public LogTailSource addSource(SessionEndpoint endpoint, String path) {
+        LogTailSource source = new LogTailSource(nextSource.getAndIncrement(), endpoint, path, INITIAL_LINES);
+        sources.put(source.getIndex(), source);
+        source.start(this);
+        return source;
+    }
+
+    public void removeSource(int index) {
+        LogTailSource source = sources.remove(index);
+        if (source != null) {
+            source.close();
+        }
+    }
+
+    public void setOrderByTimestamp(boolean orderByTimestamp) {
+        this.orderByTimestamp = orderByTimestamp;
+    }
+
+    public LogBacklog getBacklog() {
+        return backlog;
+    }
+
+    public long getDroppedLines() {
+        return dropped.get();
+    }
+
+    public double getLinesPerSecond() {
+        return linesPerSecond;
+    }
+
+    /**
+     * 读取线程调用
+     */
+    void accept(int source, long timestamp, String text) {
+        if (pending.incrementAndGet() > MAX_PENDING) {
+            pending.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        incoming.add(new LogLine(sequence.getAndIncrement(), source, timestamp, text));
+    }
+
+    void sourceStatus(int source, String status) {
+        if (!closed && sources.containsKey(source)) {
+            listener.onSourceStatus(source, status);
+        }
+    }
+
+    private void requestDrain() {
+        if (!closed && draining.compareAndSet(false, true)) {
+            ThreadUtil.submitTask(() -> {
+                try {
+                    drain();
+                } catch (RuntimeException e) {
+                    log.warn("日志合并失败: {}", e.getMessage());
+                } finally {
+                    draining.set(false);
+                }
+            });
+        }
+    }
+
+    private void drain() {
+        List<LogLine> batch = new ArrayList<>();
+        LogLine line;
+        while ((line = incoming.poll()) != null) {
+            batch.add(line);
+        }
+        pending.addAndGet(-batch.size());
+
+        long now = System.currentTimeMillis();
+        if (orderByTimestamp) {
+            if (!batch.isEmpty()) {
+                held.addLast(new HeldBatch(now, batch));
+            }
+            List<LogLine> ripe = new ArrayList<>();
+            while (!held.isEmpty() && now - held.peekFirst().arrivedAt >= REORDER_WINDOW_MS) {
+                ripe.addAll(held.removeFirst().lines);
+            }
+            ripe.sort(BY_TIMESTAMP);
+            emit(ripe);
+        } else {
+            // 刚从时间戳模式切回来时，先把暂存的行按时间排好输出，避免和新到的行交错
+            if (!held.isEmpty()) {
+                List<LogLine> rest = new ArrayList<>();
+                while (!held.isEmpty()) {
+                    rest.addAll(held.removeFirst().lines);
+                }
+                rest.sort(BY_TIMESTAMP);
+                emit(rest);
+            }
+            emit(batch);
+        }
+
+        statWindowLines += batch.size();
+        if (now - statWindowStart >= 1000) {
+            linesPerSecond = statWindowLines * 1000.0 / (now - statWindowStart);
+            statWindowStart = now;
+            statWindowLines = 0;
+        }
+    }
+
+    private void emit(List<LogLine> lines) {
+        if (lines.isEmpty() || closed) {
+            return;
+        }
+        long firstIndex = backlog.addAll(lines);
+        listener.onLines(lines, firstIndex);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        drainTask.cancel(false);
+        for (LogTailSource source : sources.values()) {
+            source.close();
+        }
+        sources.clear();
+        incoming.clear();
+        backlog.clear();
+    }
+
+    private static class HeldBatch {
+        private final long arrivedAt;
+        private final List<LogLine> lines;
+
+        private HeldBatch(long arrivedAt, List<LogLine> lines) {
+            this.arrivedAt = arrivedAt;
+            this.lines = lines;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.open.terminal.openterminal.component.logtail;
+
+import com.jcraft.jsch.ChannelExec;
+import com.open.terminal.openterminal.model.SessionEndpoint;
+import com.open.terminal.openterminal.util.LogTimestampParser;
+import com.open.terminal.openterminal.util.SshExecUtil;
+import com.open.terminal.openterminal.util.ThreadUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @description: 跟踪一个远程文件：在所属会话上开一个 exec 通道执行 tail -F，逐行交给 LogMultiplexer。
+ * 时间戳在读取线程上解析，多个来源并行分担解析开销；stderr（文件不存在、被轮转等提示）作为来源状态显示
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class LogTailSource {
+    private static final Logger log = LoggerFactory.getLogger(LogTailSource.class);
+
+    private final int index;
+    private final SessionEndpoint endpoint;
+    private final String path;
+    private final int initialLines;
+
+    private volatile ChannelExec channel;
+    private volatile boolean closed = false;
+
+    /**
+     * @param initialLines 开始跟踪前先输出的末尾行数
+     */
+    public LogTailSource(int index, SessionEndpoint endpoint, String path, int initialLines) {
+        this.index = index;
+        this.endpoint = endpoint;
+        this.path = path;
+        this.initialLines = initialLines;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * 列表和每行前缀显示的名称：Tab 名 + 文件名
+     */
+    public String getLabel() {
+        int slash = path.lastIndexOf('/');
+        return endpoint.getDisplayName() + ":" + (slash >= 0 ? path.substring(slash + 1) : path);
+    }
+
+    public String getDescription() {
+        return endpoint.getSessionKey() + " " + path;
+    }
+
+    void start(LogMultiplexer multiplexer) {
+        ThreadUtil.submitTask(() -> {
+            try {
+                ChannelExec exec = (ChannelExec) endpoint.getSession().openChannel("exec");
+                // 日志长时间没有新行时 tail 不会输出，需要在通道关闭时主动结束它
+                exec.setCommand(SshExecUtil.untilChannelClosed("tail -n " + initialLines + " -F -- " + SshExecUtil.quote(path)));
+                BufferedReader reader = new BufferedReader(new InputStreamReader(exec.getInputStream(), StandardCharsets.UTF_8));
+                BufferedReader errReader = new BufferedReader(new InputStreamReader(exec.getErrStream(), StandardCharsets.UTF_8));
+                channel = exec;
+                if (closed) {
+                    return;
+                }
+                exec.connect();
+                multiplexer.sourceStatus(index, "跟踪中");
+                ThreadUtil.submitTask(() -> readErrors(errReader, multiplexer));
+
+                // 没有时间戳的行沿用上一行的时间，保证同一来源内部按时间排序时顺序不变
+                long lastTimestamp = -1;
+                try (reader) {
+                    String line;
+                    while (!closed && (line = reader.readLine()) != null) {
+                        long timestamp = LogTimestampParser.parse(line);
+                        if (timestamp < 0) {
+                            timestamp = lastTimestamp >= 0 ? lastTimestamp : System.currentTimeMillis();
+                        }
+                        lastTimestamp = timestamp;
+                        multiplexer.accept(index, timestamp, line);
+                    }
+                }
+                if (!closed) {
+                    multiplexer.sourceStatus(index, "已结束");
+                }
+            } catch (Exception e) {
+                if (!closed) {
+                    log.warn("日志跟踪失败: {}, {}", getDescription(), e.getMessage());
+                    multiplexer.sourceStatus(index, "失败: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void readErrors(BufferedReader errReader, LogMultiplexer multiplexer) {
+        try (errReader) {
+            String line;
+            while (!closed && (line = errReader.readLine()) != null) {
+                multiplexer.sourceStatus(index, line);
+            }
+        } catch (Exception ignored) {
+            // 通道关闭时读取中断
+        }
+    }
+
+    void close() {
+        closed = true;
+        ChannelExec exec = channel;
+        if (exec != null) {
+            // 远程包装脚本读到标准输入结束后杀掉 tail
+            exec.disconnect();
+        }
+    }
+}
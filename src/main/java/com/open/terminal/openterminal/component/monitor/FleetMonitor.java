@@ -0,0 +1,201 @@
+package com.open.terminal.openterminal.component.monitor;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.Session;
+import com.open.terminal.openterminal.fun.FleetListener;
+import com.open.terminal.openterminal.model.HostMetrics;
+import com.open.terminal.openterminal.model.SavedConnection;
+import com.open.terminal.openterminal.util.ThreadUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 批量巡检：不打开终端，按固定周期对一组已保存的连接做一次性采样。
+ * 所有主机共用 ThreadUtil 的调度线程触发，采样在虚拟线程上执行；首轮在一个周期内随机错开，
+ * 之后每轮加 ±20% 抖动，避免几百台主机同时建连。同时进行的采样数由信号量限制，
+ * 因为 JSch 每个会话都会占用一个平台线程（Connect thread）。连续失败的主机按指数退避，最长 10 分钟。
+ * 每台主机只保留解析器状态和最近一次结果，内存随主机数线性增长且很小。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class FleetMonitor implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(FleetMonitor.class);
+
+    /**
+     * 同时进行的采样数（即同时存在的 SSH 会话数）
+     */
+    private static final int MAX_CONCURRENT = 32;
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+    private static final long MAX_BACKOFF_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final double JITTER = 0.2;
+    /**
+     * 首次采样没有上一轮的计数器，先取一帧、间隔 1 秒再取一帧，让 CPU 和网速在首轮就有值
+     */
+    private static final String FIRST_PROBE_SCRIPT = MetricsParser.PAGESIZE_SCRIPT
+            + MetricsParser.frameScript(false, "false") + "sleep 1\n" + MetricsParser.frameScript(false, "true");
+    private static final String PROBE_SCRIPT = MetricsParser.PAGESIZE_SCRIPT + MetricsParser.frameScript(false, "true");
+
+    private final JSch jsch = new JSch();
+    private final List<HostState> hosts = new ArrayList<>();
+    private final long intervalMs;
+    private final FleetListener listener;
+    private final Semaphore permits = new Semaphore(MAX_CONCURRENT);
+    private final Set<Session> activeSessions = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed = false;
+
+    public FleetMonitor(List<SavedConnection> connections, long intervalSeconds, FleetListener listener) {
+        for (SavedConnection connection : connections) {
+            hosts.add(new HostState(connection));
+        }
+        this.intervalMs = TimeUnit.SECONDS.toMillis(intervalSeconds);
+        this.listener = listener;
+    }
+
+    public void start() {
+        log.info("开始批量巡检 {} 台主机，周期 {} 秒", hosts.size(), intervalMs / 1000);
+        for (HostState host : hosts) {
+            schedule(host, ThreadLocalRandom.current().nextLong(Math.max(intervalMs, 1)));
+        }
+    }
+
+    /**
+     * 停止巡检并断开进行中的会话
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (HostState host : hosts) {
+            ScheduledFuture<?> future = host.next;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+        activeSessions.forEach(Session::disconnect);
+        log.info("批量巡检已停止");
+    }
+
+    private void schedule(HostState host, long delayMs) {
+        if (closed) {
+            return;
+        }
+        // 调度线程只负责触发，建连和读取都在虚拟线程上
+        host.next = ThreadUtil.schedule(() -> ThreadUtil.submitTask(() -> probe(host)), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void probe(HostState host) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long delay;
+        try {
+            if (closed) {
+                return;
+            }
+            HostMetrics metrics = sample(host);
+            host.failures = 0;
+            delay = jitter(intervalMs);
+            listener.onSample(host.connection, metrics);
+        } catch (Exception e) {
+            if (closed) {
+                return;
+            }
+            host.failures++;
+            // 失败后不保留旧计数器，恢复后重新走首轮两帧采样
+            host.parser = null;
+            delay = jitter(Math.min(intervalMs << Math.min(host.failures, 16), MAX_BACKOFF_MS));
+            log.debug("巡检采样失败: {}, 第 {} 次, {}", host.connection.getHost(), host.failures, e.getMessage());
+            listener.onFailure(host.connection, e.getMessage(), host.failures, delay);
+        } finally {
+            permits.release();
+        }
+        schedule(host, delay);
+    }
+
+    private HostMetrics sample(HostState host) throws Exception {
+        SavedConnection conn = host.connection;
+        boolean first = host.parser == null;
+        if (first) {
+            host.parser = new MetricsParser();
+        }
+        Session session = jsch.getSession(conn.getUser(), conn.getHost(), conn.getPort());
+        session.setPassword(conn.getPassword());
+        Properties config = new Properties();
+        config.put("StrictHostKeyChecking", "no");
+        config.put("PreferredAuthentications", "publickey,keyboard-interactive,password");
+        session.setConfig(config);
+        activeSessions.add(session);
+        try {
+            session.connect(CONNECT_TIMEOUT_MS);
+            ChannelExec exec = (ChannelExec) session.openChannel("exec");
+            exec.setCommand(first ? FIRST_PROBE_SCRIPT : PROBE_SCRIPT);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(exec.getInputStream(), StandardCharsets.UTF_8));
+            HostMetrics metrics = null;
+            try (reader) {
+                exec.connect(CONNECT_TIMEOUT_MS);
+                List<String> frame = null;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (MetricsParser.FRAME_START.equals(line)) {
+                        frame = new ArrayList<>();
+                    } else if (MetricsParser.FRAME_END.equals(line)) {
+                        if (frame != null) {
+                            metrics = host.parser.parse(frame);
+                        }
+                        frame = null;
+                    } else if (frame != null) {
+                        frame.add(line);
+                    } else {
+                        host.parser.acceptPreamble(line);
+                    }
+                }
+            } finally {
+                exec.disconnect();
+            }
+            if (metrics == null) {
+                throw new IllegalStateException("没有收到采样数据");
+            }
+            return metrics;
+        } finally {
+            activeSessions.remove(session);
+            session.disconnect();
+        }
+    }
+
+    private static long jitter(long delayMs) {
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+        return (long) (delayMs * factor);
+    }
+
+    /**
+     * 单台主机的巡检状态，同一时刻只会有一个采样在进行
+     */
+    private static class HostState {
+        private final SavedConnection connection;
+        private MetricsParser parser;
+        private int failures;
+        private volatile ScheduledFuture<?> next;
+
+        private HostState(SavedConnection connection) {
+            this.connection = connection;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.open.terminal.openterminal.component.monitor;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.Session;
+import com.open.terminal.openterminal.fun.MetricsListener;
+import com.open.terminal.openterminal.model.HostMetrics;
+import com.open.terminal.openterminal.util.SshExecUtil;
+import com.open.terminal.openterminal.util.ThreadUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @description: 常驻监控代理。在一个 exec 通道上启动远程循环，每个周期用 shell 内建命令直接读取 /proc，
+ * 以 @@S / @@E 包围的一帧文本输出；本地逐行读取，收到帧尾就解析成一次采样。
+ * 一帧包含各核心 CPU、负载、内存明细、网卡、块设备读写和全部进程的 CPU 时间，文件系统每隔若干帧附带一次。
+ * 远程有 bash 时用 read -t 等待下一周期，整个循环除了偶尔的 df 之外不再创建进程；
+ * 往标准输入写一行秒数即可修改周期并立即采样，关闭标准输入则让远程循环自行退出。
+ * 其他 shell 用 sleep 等待，修改周期时只能重建通道（解析器状态保留，速率不会中断），
+ * 通道关闭后远程在下一次输出时因管道断开退出。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class MetricsAgent implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(MetricsAgent.class);
+
+    /**
+     * 磁盘占用变化缓慢，每隔若干帧才执行一次 df
+     */
+    private static final int DISK_EVERY = 10;
+    /**
+     * 远程为 bash 时在页大小之后输出，表示可以通过标准输入控制
+     */
+    private static final String CONTROL_READY = "control";
+
+    private final Session session;
+    private final MetricsListener listener;
+    private volatile int intervalSeconds;
+
+    private volatile ChannelExec channel;
+    private volatile OutputStream stdin;
+    // 远程循环是否在监听标准输入
+    private volatile boolean controllable = false;
+    private volatile boolean restarting = false;
+    private volatile boolean closed = false;
+
+    // 只被读取线程访问
+    private final MetricsParser parser = new MetricsParser();
+
+    public MetricsAgent(Session session, int intervalSeconds, MetricsListener listener) {
+        this.session = session;
+        this.intervalSeconds = intervalSeconds;
+        this.listener = listener;
+    }
+
+    /**
+     * 远程循环脚本，兼容 bash 与 POSIX sh（dash / ash）
+     */
+    private String buildScript() {
+        return "I=" + intervalSeconds + "; n=0\n"
+                + MetricsParser.PAGESIZE_SCRIPT
+                // bash 的 read -t 超时返回值大于 128；读到一行时按新周期立即进入下一帧；标准输入被关闭时返回 1，借此结束循环
+                + "if [ -n \"$BASH_VERSION\" ]; then echo " + CONTROL_READY + "; pause() { read -t $I c; r=$?; [ $r -gt 128 ] && return 0; [ $r -eq 0 ] || return 1; "
+                + "case $c in ''|0|*[!0-9]*) ;; *) I=$c;; esac; }; else pause() { sleep $I; }; fi\n"
+                + "while :; do\n"
+                + MetricsParser.frameScript(true, "[ $((n % " + DISK_EVERY + ")) -eq 0 ]")
+                + "n=$((n+1))\n"
+                + "pause || exit 0\n"
+                + "done";
+    }
+
+    public void start() {
+        ThreadUtil.submitTask(() -> {
+            try {
+                do {
+                    restarting = false;
+                    run();
+                } while (restarting && !closed);
+            } catch (Exception e) {
+                if (!closed) {
+                    log.warn("监控代理异常退出: {}", e.getMessage());
+                    listener.onStopped(e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * 是否在每次采样中附带完整进程表（进程浏览器使用）
+     */
+    public void setProcessListEnabled(boolean enabled) {
+        parser.setKeepAllProcesses(enabled);
+    }
+
+    public int getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    /**
+     * 修改采样周期，立即采样一次并按新周期继续
+     */
+    public void setInterval(int seconds) {
+        if (seconds < 1 || closed) {
+            return;
+        }
+        intervalSeconds = seconds;
+        ThreadUtil.submitTask(this::applyInterval);
+    }
+
+    /**
+     * 立即采样一次，周期不变
+     */
+    public void sampleNow() {
+        setInterval(intervalSeconds);
+    }
+
+    private synchronized void applyInterval() {
+        if (closed) {
+            return;
+        }
+        if (controllable) {
+            try {
+                stdin.write((intervalSeconds + "\n").getBytes(StandardCharsets.US_ASCII));
+                stdin.flush();
+                return;
+            } catch (IOException e) {
+                log.debug("写入监控代理失败，改为重建通道: {}", e.getMessage());
+            }
+        }
+        // sleep 等待的循环无法中途唤醒，断开通道后由 start 中的循环按新周期重建
+        ChannelExec current = channel;
+        if (current != null) {
+            restarting = true;
+            current.disconnect();
+        }
+    }
+
+    private void run() throws Exception {
+        String script = SshExecUtil.quote(buildScript());
+        ChannelExec exec = (ChannelExec) session.openChannel("exec");
+        exec.setCommand("if command -v bash >/dev/null 2>&1; then exec bash -c " + script + "; else exec sh -c " + script + "; fi");
+        // 没有控制命令时从不写入，bash 的 read -t 靠它计时
+        stdin = exec.getOutputStream();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(exec.getInputStream(), StandardCharsets.UTF_8));
+        controllable = false;
+        channel = exec;
+        if (closed) {
+            return;
+        }
+        exec.connect();
+        log.debug("监控代理已启动，采样间隔 {} 秒", intervalSeconds);
+
+        List<String> frame = new ArrayList<>();
+        boolean inFrame = false;
+        long frameStart = 0;
+        try (reader) {
+            String line;
+            while (!closed && (line = reader.readLine()) != null) {
+                if (MetricsParser.FRAME_START.equals(line)) {
+                    frame.clear();
+                    inFrame = true;
+                    frameStart = System.nanoTime();
+                } else if (MetricsParser.FRAME_END.equals(line)) {
+                    if (inFrame) {
+                        HostMetrics metrics = parser.parse(frame);
+                        metrics.setCollectMillis((System.nanoTime() - frameStart) / 1_000_000);
+                        listener.onSample(metrics);
+                    }
+                    inFrame = false;
+                } else if (inFrame) {
+                    frame.add(line);
+                } else if (CONTROL_READY.equals(line)) {
+                    controllable = true;
+                } else {
+                    parser.acceptPreamble(line);
+                }
+            }
+        } catch (IOException e) {
+            // 重建通道时读取端被关闭属于预期
+            if (!restarting) {
+                throw e;
+            }
+        } finally {
+            exec.disconnect();
+        }
+        if (!closed && !restarting) {
+            listener.onStopped("监控通道已关闭");
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            if (stdin != null) {
+                stdin.close();
+            }
+        } catch (Exception ignored) {
+        }
+        if (channel != null) {
+            channel.disconnect();
+        }
+    }
+}
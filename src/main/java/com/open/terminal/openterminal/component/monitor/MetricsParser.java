@@ -0,0 +1,314 @@
+package com.open.terminal.openterminal.component.monitor;
+
+import com.open.terminal.openterminal.model.HostMetrics;
+import com.open.terminal.openterminal.util.FieldScanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * @description: 监控采样帧的远程脚本与本地解析。脚本只用 shell 内建命令读取 /proc，以 @@S / @@E 包围输出一帧；
+ * 解析器保存上一帧的累计计数器，把相邻两帧换算成使用率和速率，因此每台主机需要独立的实例。
+ * 常驻代理（MetricsAgent）和批量巡检（FleetMonitor）共用。非线程安全。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class MetricsParser {
+    private static final Logger log = LoggerFactory.getLogger(MetricsParser.class);
+
+    public static final String FRAME_START = "@@S";
+    public static final String FRAME_END = "@@E";
+    /**
+     * 帧之前输出一次的内存页大小，用于换算进程 RSS
+     */
+    public static final String PAGESIZE_SCRIPT = "echo \"pagesize $(getconf PAGESIZE 2>/dev/null || echo 4096)\"\n";
+    private static final int TOP_PROCESSES = 10;
+    private static final Set<String> PSEUDO_FILESYSTEMS = Set.of("tmpfs", "devtmpfs", "udev", "none", "shm", "run", "efivarfs");
+
+    private final FieldScanner scanner = new FieldScanner();
+    // 进程浏览器打开时才保留完整进程表，平时只取前几名
+    private volatile boolean keepAllProcesses = false;
+    private long pageSize = 4096;
+    private long prevCpuIdle = -1;
+    private long prevCpuTotal = -1;
+    private long[][] prevCoreTicks;
+    private long prevRx = -1;
+    private long prevTx = -1;
+    private Map<String, long[]> prevNet = new HashMap<>();
+    private Map<String, long[]> prevDisk = new HashMap<>();
+    private Map<Integer, Long> prevProc = new HashMap<>();
+    private long prevNanos;
+    // df 不是每帧都有，沿用最近一次的结果
+    private List<HostMetrics.Mount> lastMounts = Collections.emptyList();
+
+    /**
+     * 输出一帧的脚本，兼容 bash 与 POSIX sh（dash / ash）
+     *
+     * @param processes       是否包含进程列表（每个进程一行，主机很多时可以省掉）
+     * @param mountsCondition 执行 df 的 shell 条件，例如 "true" 或 "[ $((n % 10)) -eq 0 ]"
+     */
+    public static String frameScript(boolean processes, String mountsCondition) {
+        return "echo " + FRAME_START + "\n"
+                // /proc/stat 开头是汇总行和各核心行，遇到第一行非 cpu 即停止
+                + "while read -r l; do case $l in cpu*) echo \"$l\";; *) break;; esac; done < /proc/stat\n"
+                + "read -r l < /proc/loadavg; echo \"load $l\"\n"
+                + "while read -r k v u; do case $k in MemTotal:|MemAvailable:|MemFree:|Buffers:|Cached:|SwapTotal:|SwapFree:) echo \"$k $v\";; esac; done < /proc/meminfo\n"
+                + "while read -r l; do case $l in *:*) echo \"net $l\";; esac; done < /proc/net/dev\n"
+                // 只保留 /sys/block 下存在的整盘设备，分区和 loop/ram 设备跳过；第 6、10 列是读写扇区数
+                + "while read -r a b d r1 r2 rs r4 w1 w2 ws x; do case $d in loop*|ram*|zram*) ;; *) [ -e /sys/block/$d ] && echo \"io $d $rs $ws\";; esac; done < /proc/diskstats\n"
+                // 进程名可能含空格和括号，取最后一个 \") \" 之后的字段；第 3、4 列是状态和父进程，
+                // 第 14、15 列是 utime/stime，第 20 列是线程数，第 24 列是 rss 页数
+                + (processes
+                ? "for p in /proc/[0-9]*; do read -r l 2>/dev/null < $p/stat || continue; c=${l#*(}; c=${c%)*}; "
+                + "set -f; set -- ${l##*) }; set +f; echo \"p ${p#/proc/} $((${12}+${13})) ${22} $1 $2 ${18} $c\"; done\n"
+                : "")
+                + "if " + mountsCondition + "; then df -kP 2>/dev/null | { read -r h; while read -r f t u a c m; do echo \"df $t $u $f $m\"; done; }; fi\n"
+                + "echo " + FRAME_END + "\n";
+    }
+
+    public void setKeepAllProcesses(boolean keepAllProcesses) {
+        this.keepAllProcesses = keepAllProcesses;
+    }
+
+    /**
+     * 处理帧外的行（目前只有页大小）
+     */
+    public void acceptPreamble(String line) {
+        if (line.startsWith("pagesize ")) {
+            try {
+                pageSize = scanner.reset(line).skip(1).nextLong();
+            } catch (RuntimeException e) {
+                log.debug("页大小解析异常: {}", line);
+            }
+        }
+    }
+
+    /**
+     * 解析一帧（不含首尾标记），返回换算后的采样
+     */
+    public HostMetrics parse(List<String> lines) {
+        long now = System.nanoTime();
+        double seconds = prevNanos > 0 ? (now - prevNanos) / 1_000_000_000.0 : 0;
+        HostMetrics metrics = new HostMetrics(System.currentTimeMillis());
+        long memTotal = -1, memAvailable = -1, memFree = 0, buffers = 0, cached = 0, swapTotal = -1, swapFree = 0;
+        long rx = 0, tx = 0;
+        boolean hasNet = false;
+        long cpuDelta = 0;
+        List<long[]> cores = new ArrayList<>();
+        List<HostMetrics.NetInterface> interfaces = new ArrayList<>();
+        List<HostMetrics.DiskIo> disks = new ArrayList<>();
+        List<HostMetrics.Mount> mounts = null;
+        Map<String, long[]> netCounters = new HashMap<>();
+        Map<String, long[]> diskCounters = new HashMap<>();
+        Map<Integer, Long> procTicks = new HashMap<>();
+        List<String> procLines = new ArrayList<>();
+        for (String line : lines) {
+            try {
+                FieldScanner f = scanner.reset(line);
+                if (line.startsWith("cpu")) {
+                    // cpu[N] user nice system idle iowait irq softirq steal ...，idle + iowait 都算空闲
+                    String name = f.nextToken();
+                    long user = f.nextLong(), nice = f.nextLong(), system = f.nextLong();
+                    long idle = f.nextLong() + (f.hasNext() ? f.nextLong() : 0);
+                    long total = user + nice + system + idle;
+                    while (f.hasNext()) {
+                        total += f.nextLong();
+                    }
+                    if ("cpu".equals(name)) {
+                        if (prevCpuTotal >= 0 && total > prevCpuTotal) {
+                            cpuDelta = total - prevCpuTotal;
+                            metrics.setCpuUsage(1.0 - (double) (idle - prevCpuIdle) / cpuDelta);
+                        }
+                        prevCpuIdle = idle;
+                        prevCpuTotal = total;
+                    } else {
+                        cores.add(new long[]{idle, total});
+                    }
+                } else if (line.startsWith("load ")) {
+                    f.skip(1);
+                    metrics.setLoad(f.nextDecimal(), f.nextDecimal(), f.nextDecimal());
+                } else if (line.startsWith("net ")) {
+                    int colon = line.indexOf(':');
+                    String iface = line.substring(4, colon).trim();
+                    if ("lo".equals(iface)) {
+                        continue;
+                    }
+                    // 接收字节是第 1 列，发送字节是第 9 列
+                    f.position(colon + 1);
+                    long ifRx = f.nextLong();
+                    long ifTx = f.skip(7).nextLong();
+                    rx += ifRx;
+                    tx += ifTx;
+                    hasNet = true;
+                    netCounters.put(iface, new long[]{ifRx, ifTx});
+                    long[] prev = prevNet.get(iface);
+                    if (prev != null && seconds > 0 && ifRx >= prev[0] && ifTx >= prev[1]) {
+                        interfaces.add(new HostMetrics.NetInterface(iface,
+                                (long) ((ifRx - prev[0]) / seconds), (long) ((ifTx - prev[1]) / seconds)));
+                    }
+                } else if (line.startsWith("io ")) {
+                    String device = f.skip(1).nextToken();
+                    // diskstats 的扇区固定为 512 字节
+                    long read = f.nextLong() * 512;
+                    long written = f.nextLong() * 512;
+                    diskCounters.put(device, new long[]{read, written});
+                    long[] prev = prevDisk.get(device);
+                    if (prev != null && seconds > 0 && read >= prev[0] && written >= prev[1]) {
+                        disks.add(new HostMetrics.DiskIo(device,
+                                (long) ((read - prev[0]) / seconds), (long) ((written - prev[1]) / seconds)));
+                    }
+                } else if (line.startsWith("p ")) {
+                    procLines.add(line);
+                } else if (line.startsWith("df ")) {
+                    if (mounts == null) {
+                        mounts = new ArrayList<>();
+                    }
+                    long total = f.skip(1).nextLong() * 1024;
+                    long used = f.nextLong() * 1024;
+                    String device = f.nextToken();
+                    String mountPoint = f.rest();
+                    // 跳过内存文件系统和容量为 0 的伪文件系统
+                    if (total > 0 && !PSEUDO_FILESYSTEMS.contains(device)) {
+                        mounts.add(new HostMetrics.Mount(device, mountPoint, total, used));
+                    }
+                } else {
+                    // meminfo 的单位是 kB
+                    String key = f.nextToken();
+                    long bytes = f.nextLong() * 1024;
+                    switch (key) {
+                        case "MemTotal:" -> memTotal = bytes;
+                        case "MemAvailable:" -> memAvailable = bytes;
+                        case "MemFree:" -> memFree = bytes;
+                        case "Buffers:" -> buffers = bytes;
+                        case "Cached:" -> cached = bytes;
+                        case "SwapTotal:" -> swapTotal = bytes;
+                        case "SwapFree:" -> swapFree = bytes;
+                        default -> { }
+                    }
+                }
+            } catch (RuntimeException e) {
+                // 单行格式异常不影响其他指标
+                log.debug("监控数据解析异常: {}, {}", line, e.getMessage());
+            }
+        }
+
+        // 各核心使用率
+        double[] coreUsage = new double[cores.size()];
+        long[][] coreTicks = cores.toArray(new long[0][]);
+        for (int i = 0; i < coreTicks.length; i++) {
+            long idle = coreTicks[i][0];
+            long total = coreTicks[i][1];
+            coreUsage[i] = Double.NaN;
+            if (prevCoreTicks != null && i < prevCoreTicks.length && total > prevCoreTicks[i][1]) {
+                coreUsage[i] = 1.0 - (double) (idle - prevCoreTicks[i][0]) / (total - prevCoreTicks[i][1]);
+            }
+        }
+        prevCoreTicks = coreTicks;
+        metrics.setCoreUsage(coreUsage);
+
+        if (memTotal > 0) {
+            metrics.setMemTotal(memTotal);
+            // 与 free 的 used 一致；老内核没有 MemAvailable 时按 free + buffers + cached 估算
+            metrics.setMemUsed(memTotal - (memAvailable >= 0 ? memAvailable : memFree + buffers + cached));
+            metrics.setMemBuffers(buffers);
+            metrics.setMemCached(cached);
+        }
+        if (swapTotal >= 0) {
+            metrics.setSwapTotal(swapTotal);
+            metrics.setSwapUsed(swapTotal - swapFree);
+        }
+
+        // df 不是每帧都有，沿用最近一次的结果
+        if (mounts != null) {
+            lastMounts = mounts;
+        }
+        metrics.setMounts(lastMounts);
+        for (HostMetrics.Mount mount : lastMounts) {
+            if ("/".equals(mount.getMountPoint())) {
+                metrics.setDiskTotal(mount.getTotal());
+                metrics.setDiskUsed(mount.getUsed());
+            }
+        }
+
+        if (hasNet) {
+            // 计数器回绕或网卡重置时跳过这一帧
+            if (prevRx >= 0 && seconds > 0 && rx >= prevRx && tx >= prevTx) {
+                metrics.setRxRate((long) ((rx - prevRx) / seconds));
+                metrics.setTxRate((long) ((tx - prevTx) / seconds));
+            }
+            prevRx = rx;
+            prevTx = tx;
+        }
+        prevNet = netCounters;
+        metrics.setInterfaces(interfaces);
+        prevDisk = diskCounters;
+        metrics.setDiskIo(disks);
+
+        parseProcesses(metrics, procLines, procTicks, cpuDelta, cores.size());
+        prevProc = procTicks;
+        prevNanos = now;
+        return metrics;
+    }
+
+    /**
+     * 按两帧之间的 CPU 时间增量排序取前 TOP_PROCESSES 个，需要时同时保留完整进程表。
+     * 进程 CPU% 相对单个核心：增量 / (总增量 / 核心数)；新出现的进程没有上一帧，CPU 记为 NaN
+     */
+    private void parseProcesses(HostMetrics metrics, List<String> lines, Map<Integer, Long> ticks,
+                                long cpuDelta, int coreCount) {
+        double perCore = coreCount > 0 && cpuDelta > 0 ? (double) cpuDelta / coreCount : 0;
+        boolean keepAll = keepAllProcesses;
+        List<HostMetrics.ProcessInfo> all = keepAll ? new ArrayList<>(lines.size()) : null;
+        PriorityQueue<HostMetrics.ProcessInfo> top = new PriorityQueue<>(
+                Comparator.comparingDouble(HostMetrics.ProcessInfo::getCpu));
+        for (String line : lines) {
+            try {
+                // p pid ticks rssPages state ppid threads name
+                FieldScanner f = scanner.reset(line).skip(1);
+                int pid = (int) f.nextLong();
+                long t = f.nextLong();
+                long rss = f.nextLong() * pageSize;
+                String state = f.nextToken();
+                int ppid = (int) f.nextLong();
+                int threads = (int) f.nextLong();
+                ticks.put(pid, t);
+                Long prev = prevProc.get(pid);
+                double cpu = prev == null || perCore == 0 ? Double.NaN : Math.max(0, t - prev) / perCore;
+                if (!keepAll && Double.isNaN(cpu)) {
+                    continue;
+                }
+                HostMetrics.ProcessInfo info = null;
+                if (keepAll) {
+                    info = new HostMetrics.ProcessInfo(pid, ppid, f.rest(), state, threads, cpu, rss);
+                    all.add(info);
+                }
+                if (Double.isNaN(cpu)) {
+                    continue;
+                }
+                if (top.size() < TOP_PROCESSES) {
+                    top.add(info != null ? info : new HostMetrics.ProcessInfo(pid, ppid, f.rest(), state, threads, cpu, rss));
+                } else if (cpu > top.peek().getCpu()) {
+                    top.poll();
+                    top.add(info != null ? info : new HostMetrics.ProcessInfo(pid, ppid, f.rest(), state, threads, cpu, rss));
+                }
+            } catch (RuntimeException e) {
+                log.debug("进程数据解析异常: {}, {}", line, e.getMessage());
+            }
+        }
+        List<HostMetrics.ProcessInfo> result = new ArrayList<>(top);
+        result.sort(Comparator.comparingDouble(HostMetrics.ProcessInfo::getCpu).reversed());
+        metrics.setTopProcesses(result);
+        if (all != null) {
+            metrics.setProcesses(all);
+        }
+    }
+}
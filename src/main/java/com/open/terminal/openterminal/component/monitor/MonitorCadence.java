@@ -0,0 +1,49 @@
+package com.open.terminal.openterminal.component.monitor;
+
+/**
+ * @description: 终端标签页的监控节奏。可见的标签页高频采样，切到后台或窗口最小化时降频；
+ * 同时根据实测的单帧采样耗时放宽周期，保证监控在远程只占很小一部分时间，慢主机不会被持续压着采样。
+ * 可见性在 FX 线程修改，采样耗时在代理读取线程记录，方法均为同步方法
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class MonitorCadence {
+    public static final int FOREGROUND_SECONDS = 3;
+    public static final int BACKGROUND_SECONDS = 30;
+    private static final int MAX_SECONDS = 60;
+    /**
+     * 单帧耗时占周期的上限，耗时 300ms 时前台周期放宽到 6 秒
+     */
+    private static final double COLLECT_BUDGET = 0.05;
+
+    private boolean visible = true;
+    private double smoothedCollectMillis = 0;
+
+    public synchronized boolean isVisible() {
+        return visible;
+    }
+
+    public synchronized void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    /**
+     * 记录一次采样耗时（指数平滑，避免偶发的慢帧让周期来回跳动）
+     */
+    public synchronized void recordCollectMillis(long millis) {
+        if (millis < 0) {
+            return;
+        }
+        smoothedCollectMillis = smoothedCollectMillis == 0 ? millis : smoothedCollectMillis * 0.8 + millis * 0.2;
+    }
+
+    /**
+     * 当前应使用的采样周期，秒
+     */
+    public synchronized int intervalSeconds() {
+        int base = visible ? FOREGROUND_SECONDS : BACKGROUND_SECONDS;
+        int byCost = (int) Math.ceil(smoothedCollectMillis / 1000 / COLLECT_BUDGET);
+        return Math.min(Math.max(base, byCost), MAX_SECONDS);
+    }
+}
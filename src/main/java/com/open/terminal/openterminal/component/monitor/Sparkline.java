@@ -0,0 +1,120 @@
+package com.open.terminal.openterminal.component.monitor;
+
+import com.open.terminal.openterminal.model.MetricSeries;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+
+/**
+ * @description: 侧边栏用的迷你趋势图。直接在 Canvas 上绘制，每条序列画出平均值折线和最小/最大值阴影带，
+ * 空缺的桶处断开。比 XYChart 轻得多，适合每次采样都重绘。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class Sparkline extends Region {
+    private final Canvas canvas = new Canvas();
+    private final Color[] colors;
+    // 大于 0 时使用固定上限（如百分比为 1），否则按数据自动缩放
+    private final double fixedMax;
+    private MetricSeries.Snapshot[] data = new MetricSeries.Snapshot[0];
+
+    public Sparkline(double fixedMax, Color... colors) {
+        this.fixedMax = fixedMax;
+        this.colors = colors;
+        getChildren().add(canvas);
+        setPrefHeight(28);
+        setMinHeight(28);
+        setStyle("-fx-background-color: #2b2b2b; -fx-background-radius: 3;");
+    }
+
+    /**
+     * 每个参数对应构造时的一种颜色，必须在 FX 线程调用
+     */
+    public void setData(MetricSeries.Snapshot... data) {
+        this.data = data;
+        draw();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        canvas.setWidth(getWidth());
+        canvas.setHeight(getHeight());
+        draw();
+    }
+
+    private void draw() {
+        double w = canvas.getWidth();
+        double h = canvas.getHeight();
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        g.clearRect(0, 0, w, h);
+        if (w <= 0 || h <= 0 || data.length == 0) {
+            return;
+        }
+        double top = fixedMax;
+        if (top <= 0) {
+            for (MetricSeries.Snapshot s : data) {
+                for (double v : s.max) {
+                    if (!Double.isNaN(v)) {
+                        top = Math.max(top, v);
+                    }
+                }
+            }
+            if (top <= 0) {
+                top = 1;
+            }
+        }
+        double pad = 2;
+        double plotH = h - pad * 2;
+        for (int k = 0; k < data.length; k++) {
+            MetricSeries.Snapshot s = data[k];
+            int n = s.size();
+            if (n == 0) {
+                continue;
+            }
+            Color color = colors[Math.min(k, colors.length - 1)];
+            double step = n > 1 ? w / (n - 1) : w;
+            // 阴影带：每个有数据的桶画一条从 min 到 max 的竖线
+            g.setStroke(color.deriveColor(0, 1, 1, 0.25));
+            g.setLineWidth(Math.max(1, step));
+            for (int i = 0; i < n; i++) {
+                if (!Double.isNaN(s.min[i])) {
+                    double x = i * step;
+                    g.strokeLine(x, y(s.max[i], top, plotH, pad), x, y(s.min[i], top, plotH, pad));
+                }
+            }
+            // 平均值折线，遇到空缺断开
+            g.setStroke(color);
+            g.setLineWidth(1.2);
+            boolean drawing = false;
+            for (int i = 0; i < n; i++) {
+                double v = s.avg[i];
+                if (Double.isNaN(v)) {
+                    if (drawing) {
+                        g.stroke();
+                        drawing = false;
+                    }
+                    continue;
+                }
+                double x = i * step;
+                double y = y(v, top, plotH, pad);
+                if (!drawing) {
+                    g.beginPath();
+                    g.moveTo(x, y);
+                    drawing = true;
+                } else {
+                    g.lineTo(x, y);
+                }
+            }
+            if (drawing) {
+                g.stroke();
+            }
+        }
+    }
+
+    private static double y(double value, double top, double plotH, double pad) {
+        double ratio = Math.max(0, Math.min(value / top, 1));
+        return pad + plotH * (1 - ratio);
+    }
+}
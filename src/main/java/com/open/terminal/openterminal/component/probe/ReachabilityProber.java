@@ -0,0 +1,222 @@
+package com.open.terminal.openterminal.component.probe;
+
+import com.open.terminal.openterminal.fun.ProbeListener;
+import com.open.terminal.openterminal.model.ProbeResult;
+import com.open.terminal.openterminal.model.ProbeStatus;
+import com.open.terminal.openterminal.model.SavedConnection;
+import com.open.terminal.openterminal.util.ThreadUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 已保存连接的连通性探测。只做 TCP 建连并读取服务端的 SSH 标识行，不登录，
+ * 每台主机一个虚拟线程，同时进行的探测数由信号量限制；上千台主机时大部分在一个超时周期内完成。
+ * 结果按 主机:端口 缓存：可达的一分钟内不再探测，不可达的按连续失败次数指数退避，最长 10 分钟；
+ * 同一目标同时只有一个探测在进行。打开终端前用缓存判断，最近不可达的主机先快速复查，仍不通就立即报错，
+ * 不必等 SSH 的 10 秒超时
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class ReachabilityProber {
+    private static final Logger log = LoggerFactory.getLogger(ReachabilityProber.class);
+
+    private static final int MAX_CONCURRENT = 256;
+    private static final int CONNECT_TIMEOUT_MS = 3000;
+    private static final int BANNER_TIMEOUT_MS = 3000;
+    /**
+     * 打开终端前复查用的超时，比正常探测短
+     */
+    private static final int RECHECK_TIMEOUT_MS = 1500;
+    private static final long FRESH_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final long BASE_BACKOFF_MS = TimeUnit.SECONDS.toMillis(10);
+    private static final long MAX_BACKOFF_MS = TimeUnit.MINUTES.toMillis(10);
+    /**
+     * SSH 标识行之前服务端可以先发其他文字（RFC 4253 4.2），最多读这么多字节
+     */
+    private static final int MAX_BANNER_BYTES = 4096;
+    private static ReachabilityProber instance;
+
+    private final Map<String, ProbeResult> results = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<ProbeResult>> inFlight = new ConcurrentHashMap<>();
+    private final List<ProbeListener> listeners = new CopyOnWriteArrayList<>();
+    private final Semaphore permits = new Semaphore(MAX_CONCURRENT);
+
+    private ReachabilityProber() {
+    }
+
+    public static synchronized ReachabilityProber getInstance() {
+        if (instance == null) instance = new ReachabilityProber();
+        return instance;
+    }
+
+    public void addListener(ProbeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ProbeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return 最近一次探测结果，没探测过时返回 null
+     */
+    public ProbeResult get(String host, int port) {
+        return results.get(key(host, port));
+    }
+
+    /**
+     * 在后台探测一组连接，相同的 主机:端口 只探测一次
+     *
+     * @param force 为 true 时忽略缓存和退避
+     */
+    public void probeAll(Collection<SavedConnection> connections, boolean force) {
+        long now = System.currentTimeMillis();
+        for (SavedConnection conn : connections) {
+            String host = conn.getHost();
+            int port = conn.getPort();
+            if (host == null || host.isBlank() || !force && !isDue(results.get(key(host, port)), now)) {
+                continue;
+            }
+            probeAsync(host, port, CONNECT_TIMEOUT_MS);
+        }
+    }
+
+    /**
+     * 打开连接前调用：最近一次探测不可达时，用较短的超时同步复查一次
+     *
+     * @return 复查后仍不可达时返回该结果，否则返回 null（可以正常连接）
+     */
+    public ProbeResult recheckIfDown(String host, int port) {
+        ProbeResult last = results.get(key(host, port));
+        if (last == null || last.getStatus() != ProbeStatus.UNREACHABLE) {
+            return null;
+        }
+        ProbeResult result = probeAsync(host, port, RECHECK_TIMEOUT_MS).join();
+        return result.getStatus() == ProbeStatus.UNREACHABLE ? result : null;
+    }
+
+    private static boolean isDue(ProbeResult last, long now) {
+        if (last == null) {
+            return true;
+        }
+        long wait = last.getStatus() == ProbeStatus.UNREACHABLE
+                ? Math.min(BASE_BACKOFF_MS << Math.min(last.getFailures() - 1, 16), MAX_BACKOFF_MS)
+                : FRESH_MS;
+        return now - last.getCheckedAt() >= wait;
+    }
+
+    private CompletableFuture<ProbeResult> probeAsync(String host, int port, int timeoutMs) {
+        String key = key(host, port);
+        CompletableFuture<ProbeResult> future = new CompletableFuture<>();
+        CompletableFuture<ProbeResult> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            return running;
+        }
+        ThreadUtil.submitTask(() -> {
+            ProbeResult result;
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                inFlight.remove(key);
+                future.cancel(false);
+                return;
+            }
+            try {
+                ProbeResult last = results.get(key);
+                int failures = last == null || last.getStatus() != ProbeStatus.UNREACHABLE ? 0 : last.getFailures();
+                result = probe(host, port, timeoutMs, failures);
+                results.put(key, result);
+            } finally {
+                permits.release();
+                inFlight.remove(key);
+            }
+            future.complete(result);
+            for (ProbeListener listener : listeners) {
+                listener.onResult(host, port, result);
+            }
+        });
+        return future;
+    }
+
+    private static ProbeResult probe(String host, int port, int timeoutMs, int failures) {
+        long rtt = -1;
+        try (Socket socket = new Socket()) {
+            // 先解析域名，建连耗时里不含 DNS
+            InetAddress address = InetAddress.getByName(host);
+            long start = System.nanoTime();
+            socket.connect(new InetSocketAddress(address, port), timeoutMs);
+            rtt = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            socket.setSoTimeout(BANNER_TIMEOUT_MS);
+            String banner = readBanner(socket.getInputStream());
+            long now = System.currentTimeMillis();
+            if (banner == null) {
+                return new ProbeResult(ProbeStatus.NO_SSH, rtt, "未收到 SSH 标识", now, 0);
+            }
+            return new ProbeResult(ProbeStatus.REACHABLE, rtt, banner, now, 0);
+        } catch (SocketTimeoutException e) {
+            long now = System.currentTimeMillis();
+            if (rtt >= 0) {
+                return new ProbeResult(ProbeStatus.NO_SSH, rtt, "等待 SSH 标识超时", now, 0);
+            }
+            return new ProbeResult(ProbeStatus.UNREACHABLE, -1, "连接超时", now, failures + 1);
+        } catch (UnknownHostException e) {
+            return new ProbeResult(ProbeStatus.UNREACHABLE, -1, "无法解析主机名", System.currentTimeMillis(), failures + 1);
+        } catch (IllegalArgumentException e) {
+            // 端口超出范围
+            return new ProbeResult(ProbeStatus.UNREACHABLE, -1, e.getMessage(), System.currentTimeMillis(), failures + 1);
+        } catch (IOException e) {
+            if (rtt >= 0) {
+                // 建连后被对端关闭
+                return new ProbeResult(ProbeStatus.NO_SSH, rtt, e.getMessage(), System.currentTimeMillis(), 0);
+            }
+            log.debug("探测 {}:{} 失败: {}", host, port, e.getMessage());
+            return new ProbeResult(ProbeStatus.UNREACHABLE, -1, e.getMessage(), System.currentTimeMillis(), failures + 1);
+        }
+    }
+
+    /**
+     * 逐行读取，返回第一条以 "SSH-" 开头的行；连接关闭或超出长度时返回 null
+     */
+    private static String readBanner(InputStream in) throws IOException {
+        byte[] line = new byte[256];
+        int length = 0;
+        int total = 0;
+        int b;
+        while (total++ < MAX_BANNER_BYTES && (b = in.read()) != -1) {
+            if (b == '\n') {
+                String text = new String(line, 0, length, StandardCharsets.UTF_8).strip();
+                if (text.startsWith("SSH-")) {
+                    return text;
+                }
+                length = 0;
+            } else if (length < line.length) {
+                line[length++] = (byte) b;
+            }
+        }
+        return null;
+    }
+
+    private static String key(String host, int port) {
+        return host.toLowerCase(Locale.ROOT) + ":" + port;
+    }
+}
@@ -0,0 +1,474 @@
+package com.open.terminal.openterminal.component.search;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpException;
+import com.open.terminal.openterminal.fun.RemoteSearchListener;
+import com.open.terminal.openterminal.manage.PathIndexStore;
+import com.open.terminal.openterminal.model.PathIndex;
+import com.open.terminal.openterminal.util.SshExecUtil;
+import com.open.terminal.openterminal.util.ThreadUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * @description: 一次远程文件名搜索。有可用的路径索引时先在本地给出结果再增量刷新索引；
+ * 没有索引时用 find 遍历（可用 locate 时先给出快速结果），边遍历边把匹配项分批推给界面，同时建立索引；
+ * 远程没有 shell 时退化为 SFTP 逐目录遍历。可随时取消，取消的遍历不会保存为索引。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class RemoteFileSearch {
+    private static final Logger log = LoggerFactory.getLogger(RemoteFileSearch.class);
+
+    /**
+     * 匹配结果攒够数量或时间后再推给界面，避免每行一次 runLater
+     */
+    private static final int BATCH_SIZE = 200;
+    private static final long BATCH_INTERVAL_MS = 150;
+    private static final int LOCATE_LIMIT = 2000;
+
+    private final Session session;
+    private final Callable<ChannelSftp> channelFactory;
+    private final String host;
+    private final String root;
+    private final String rootPrefix;
+    private final String query;
+    private final Predicate<String> nameMatcher;
+    private final RemoteSearchListener listener;
+
+    private volatile boolean cancelled = false;
+    private volatile ChannelExec activeExec;
+
+    // 已推给界面的结果（绝对路径），用于去重以及找出过期结果
+    private final Set<String> shown = new HashSet<>();
+    private final List<String> batch = new ArrayList<>();
+    private long lastFlush = 0;
+
+    public RemoteFileSearch(Session session, Callable<ChannelSftp> channelFactory, String host,
+                            String root, String query, RemoteSearchListener listener) {
+        this.session = session;
+        this.channelFactory = channelFactory;
+        this.host = host;
+        this.root = normalize(root);
+        this.rootPrefix = "/".equals(this.root) ? "/" : this.root + "/";
+        this.query = query;
+        this.nameMatcher = buildMatcher(query);
+        this.listener = listener;
+    }
+
+    public void start() {
+        ThreadUtil.submitTask(() -> {
+            try {
+                run();
+                listener.onFinished(cancelled);
+            } catch (Exception e) {
+                if (!cancelled) {
+                    log.error("远程搜索失败: {}", root, e);
+                    listener.onStatus("搜索失败: " + e.getMessage());
+                }
+                listener.onFinished(cancelled);
+            }
+        });
+    }
+
+    public void cancel() {
+        cancelled = true;
+        ChannelExec exec = activeExec;
+        if (exec != null) {
+            // 断开通道，远程 find 收到 SIGPIPE 结束，本地读取随之返回
+            exec.disconnect();
+        }
+    }
+
+    private void run() throws Exception {
+        Capabilities caps = probe();
+        PathIndexStore store = PathIndexStore.getInstance();
+        PathIndex index = store.findCovering(host, root);
+
+        if (index != null) {
+            // 1. 先用本地索引回答
+            String dir = relativize(index, root);
+            for (Map.Entry<String, Boolean> e : index.collect(dir, this::matchesName)) {
+                emit(toAbsolute(index, e.getKey(), e.getValue()));
+            }
+            flush();
+            listener.onStatus("来自索引缓存（" + formatTime(index.getBuiltAt()) + " 建立，共 " + index.size() + " 项），正在刷新...");
+            if (index.isIncremental() && caps.gnuFind) {
+                refresh(index, caps.serverTime);
+                if (!cancelled) {
+                    store.save(index);
+                    listener.onStatus("共 " + shown.size() + " 个结果（索引已增量刷新）");
+                }
+                return;
+            }
+        } else if (caps.locate && !isGlob(query)) {
+            quickLocate();
+        }
+
+        // 2. 完整遍历，同时建立新索引
+        PathIndex fresh = new PathIndex(host, root, caps.serverTime, caps.gnuFind);
+        Set<String> seen = new HashSet<>();
+        if (caps.shell) {
+            walkWithFind(fresh, seen, caps.gnuFind);
+        } else {
+            walkWithSftp(fresh, seen);
+        }
+        if (cancelled) {
+            return;
+        }
+        flush();
+        List<String> stale = new ArrayList<>();
+        for (String path : shown) {
+            if (!seen.contains(path)) {
+                stale.add(path);
+            }
+        }
+        if (!stale.isEmpty()) {
+            shown.removeAll(stale);
+            listener.onRemoved(stale);
+        }
+        store.put(fresh);
+        listener.onStatus("共 " + shown.size() + " 个结果，已索引 " + fresh.size() + " 项");
+    }
+
+    /**
+     * 一次 exec 探测：GNU find（支持 -printf / -newerct）、locate 是否可用，以及服务器当前时间
+     */
+    private Capabilities probe() {
+        Capabilities caps = new Capabilities();
+        try {
+            SshExecUtil.ExecResult result = SshExecUtil.exec(session,
+                    "find / -maxdepth 0 -newerct @0 -printf '' >/dev/null 2>&1 && echo gnu; "
+                            + "command -v locate >/dev/null 2>&1 && echo locate; date +%s");
+            for (String line : result.getStdout().split("\n")) {
+                line = line.trim();
+                if ("gnu".equals(line)) {
+                    caps.gnuFind = true;
+                } else if ("locate".equals(line)) {
+                    caps.locate = true;
+                } else if (line.matches("\\d+")) {
+                    caps.serverTime = Long.parseLong(line);
+                    caps.shell = true;
+                }
+            }
+        } catch (Exception e) {
+            log.info("远程不支持 exec，使用 SFTP 遍历: {}", e.getMessage());
+        }
+        if (!caps.shell) {
+            caps.serverTime = System.currentTimeMillis() / 1000;
+        }
+        return caps;
+    }
+
+    /**
+     * locate 数据库可能过期，只作为遍历完成前的快速结果，遍历结束后未出现的会被移除
+     */
+    private void quickLocate() throws Exception {
+        listener.onStatus("locate 快速结果，正在遍历确认...");
+        streamLines("locate -i -l " + LOCATE_LIMIT + " -- " + SshExecUtil.quote(query), line -> {
+            if ((line.startsWith(rootPrefix) || line.equals(root)) && matchesName(line)) {
+                emit(line);
+            }
+        });
+        flush();
+    }
+
+    private void walkWithFind(PathIndex fresh, Set<String> seen, boolean gnuFind) throws Exception {
+        listener.onStatus("正在用 find 遍历 " + root + " ...");
+        String quotedRoot = SshExecUtil.quote(root);
+        String command = gnuFind
+                ? "find " + quotedRoot + " -mindepth 1 -printf '%y\\t%P\\n' 2>/dev/null"
+                // 非 GNU find 没有 -printf，用批量 exec printf 代替
+                : "find " + quotedRoot + " \\( -type d -exec printf 'd\\t%s\\n' {} + \\) -o -exec printf 'f\\t%s\\n' {} + 2>/dev/null";
+        streamLines(command, line -> {
+            int tab = line.indexOf('\t');
+            if (tab != 1) {
+                return;
+            }
+            boolean isDir = line.charAt(0) == 'd';
+            String relative = gnuFind ? line.substring(2) : relativize(fresh, line.substring(2));
+            if (relative == null || relative.isEmpty()) {
+                return;
+            }
+            fresh.put(relative, isDir);
+            if (matchesName(relative)) {
+                String absolute = toAbsolute(fresh, relative, isDir);
+                seen.add(absolute);
+                emit(absolute);
+            }
+        });
+    }
+
+    /**
+     * 没有 shell 的服务器：SFTP 广度优先遍历，不跟随符号链接以免成环
+     */
+    private void walkWithSftp(PathIndex fresh, Set<String> seen) throws Exception {
+        listener.onStatus("正在通过 SFTP 遍历 " + root + " ...");
+        ChannelSftp sftp = channelFactory.call();
+        try {
+            ArrayDeque<String> queue = new ArrayDeque<>();
+            queue.add("");
+            while (!queue.isEmpty() && !cancelled) {
+                String dir = queue.poll();
+                Vector<ChannelSftp.LsEntry> entries;
+                try {
+                    entries = sftp.ls(dir.isEmpty() ? root : rootPrefix + dir);
+                } catch (SftpException e) {
+                    continue; // 没有权限的目录跳过
+                }
+                for (ChannelSftp.LsEntry entry : entries) {
+                    String name = entry.getFilename();
+                    if (".".equals(name) || "..".equals(name)) {
+                        continue;
+                    }
+                    String relative = dir.isEmpty() ? name : dir + "/" + name;
+                    boolean isDir = entry.getAttrs().isDir() && !entry.getAttrs().isLink();
+                    fresh.put(relative, isDir);
+                    if (isDir) {
+                        queue.add(relative);
+                    }
+                    if (matchesName(relative)) {
+                        String absolute = toAbsolute(fresh, relative, isDir);
+                        seen.add(absolute);
+                        emit(absolute);
+                    }
+                }
+            }
+        } finally {
+            sftp.disconnect();
+        }
+    }
+
+    /**
+     * 增量刷新：只重新列出索引建立后 ctime 变化过的目录（增删改名都会更新目录的 ctime），
+     * 新出现的子目录再整体遍历一次
+     */
+    private void refresh(PathIndex index, long serverTime) throws Exception {
+        String quotedRoot = SshExecUtil.quote(index.getRoot());
+        String command = "find " + quotedRoot + " -type d -newerct @" + index.getBuiltAt()
+                + " -printf 'R\\t%p\\n' -exec find {} -mindepth 1 -maxdepth 1 -printf '%y\\t%p\\n' \\; 2>/dev/null";
+        // 目录 -> 它当前的直接子项
+        Map<String, Map<String, Boolean>> rescanned = new LinkedHashMap<>();
+        String[] current = new String[1];
+        streamLines(command, line -> {
+            int tab = line.indexOf('\t');
+            if (tab != 1) {
+                return;
+            }
+            String relative = relativize(index, line.substring(2));
+            if (relative == null) {
+                return;
+            }
+            if (line.charAt(0) == 'R') {
+                current[0] = relative;
+                rescanned.put(relative, new LinkedHashMap<>());
+            } else if (current[0] != null) {
+                rescanned.get(current[0]).put(relative, line.charAt(0) == 'd');
+            }
+        });
+        if (cancelled) {
+            return;
+        }
+
+        List<String> removedMatches = new ArrayList<>();
+        List<String> newDirs = new ArrayList<>();
+        String searchDir = relativize(index, root);
+        rescanned.forEach((dir, children) -> {
+            Map<String, Boolean> known = index.childrenOf(dir);
+            known.keySet().forEach(path -> {
+                if (!children.containsKey(path)) {
+                    for (String removed : index.removeTree(path)) {
+                        // 子树中各项是否为目录已不可知，两种形式都尝试
+                        String absolute = toAbsolute(index, removed, false);
+                        if (shown.remove(absolute)) {
+                            removedMatches.add(absolute);
+                        } else if (shown.remove(absolute + "/")) {
+                            removedMatches.add(absolute + "/");
+                        }
+                    }
+                }
+            });
+            children.forEach((path, isDir) -> {
+                if (!index.contains(path)) {
+                    index.put(path, isDir);
+                    if (isDir && !rescanned.containsKey(path)) {
+                        newDirs.add(path); // 例如从别处移进来的目录，其子目录 ctime 不会变
+                    }
+                    if (isUnder(path, searchDir) && matchesName(path)) {
+                        emit(toAbsolute(index, path, isDir));
+                    }
+                }
+            });
+        });
+        if (!newDirs.isEmpty() && !cancelled) {
+            StringBuilder cmd = new StringBuilder("find");
+            for (String dir : newDirs) {
+                cmd.append(' ').append(SshExecUtil.quote(toAbsolute(index, dir, false)));
+            }
+            cmd.append(" -mindepth 1 -printf '%y\\t%p\\n' 2>/dev/null");
+            streamLines(cmd.toString(), line -> {
+                if (line.indexOf('\t') != 1) {
+                    return;
+                }
+                String relative = relativize(index, line.substring(2));
+                boolean isDir = line.charAt(0) == 'd';
+                if (relative != null && !index.contains(relative)) {
+                    index.put(relative, isDir);
+                    if (isUnder(relative, searchDir) && matchesName(relative)) {
+                        emit(toAbsolute(index, relative, isDir));
+                    }
+                }
+            });
+        }
+        if (cancelled) {
+            return;
+        }
+        flush();
+        if (!removedMatches.isEmpty()) {
+            listener.onRemoved(removedMatches);
+        }
+        index.setBuiltAt(serverTime);
+    }
+
+    private interface LineHandler {
+        void handle(String line);
+    }
+
+    /**
+     * 在 exec 通道上执行命令，逐行处理输出；取消时断开通道
+     */
+    private void streamLines(String command, LineHandler handler) throws Exception {
+        if (cancelled) {
+            return;
+        }
+        ChannelExec exec = (ChannelExec) session.openChannel("exec");
+        exec.setCommand(command);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(exec.getInputStream(), StandardCharsets.UTF_8));
+        activeExec = exec;
+        try (reader) {
+            exec.connect();
+            String line;
+            while (!cancelled && (line = reader.readLine()) != null) {
+                handler.handle(line);
+            }
+        } catch (Exception e) {
+            if (!cancelled) {
+                throw e;
+            }
+        } finally {
+            activeExec = null;
+            exec.disconnect();
+        }
+    }
+
+    private void emit(String absolutePath) {
+        if (!shown.add(absolutePath)) {
+            return;
+        }
+        batch.add(absolutePath);
+        long now = System.currentTimeMillis();
+        if (batch.size() >= BATCH_SIZE || now - lastFlush >= BATCH_INTERVAL_MS) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        lastFlush = System.currentTimeMillis();
+        if (batch.isEmpty() || cancelled) {
+            return;
+        }
+        listener.onMatches(new ArrayList<>(batch));
+        batch.clear();
+    }
+
+    private boolean matchesName(String path) {
+        String trimmed = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        return nameMatcher.test(trimmed.substring(trimmed.lastIndexOf('/') + 1));
+    }
+
+    /**
+     * 含 * 或 ? 时按通配符匹配整个文件名，否则按不区分大小写的子串匹配
+     */
+    private static Predicate<String> buildMatcher(String query) {
+        if (isGlob(query)) {
+            StringBuilder regex = new StringBuilder();
+            for (char c : query.toCharArray()) {
+                switch (c) {
+                    case '*' -> regex.append(".*");
+                    case '?' -> regex.append('.');
+                    default -> regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            Pattern pattern = Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+            return name -> pattern.matcher(name).matches();
+        }
+        String lower = query.toLowerCase(Locale.ROOT);
+        return name -> name.toLowerCase(Locale.ROOT).contains(lower);
+    }
+
+    private static boolean isGlob(String query) {
+        return query.indexOf('*') >= 0 || query.indexOf('?') >= 0;
+    }
+
+    private static boolean isUnder(String relative, String dir) {
+        return dir.isEmpty() || relative.startsWith(dir + "/");
+    }
+
+    private static String normalize(String path) {
+        String p = path.trim();
+        while (p.length() > 1 && p.endsWith("/")) {
+            p = p.substring(0, p.length() - 1);
+        }
+        return p.isEmpty() ? "/" : p;
+    }
+
+    /**
+     * 绝对路径转为相对索引根目录的路径，不在根目录下时返回 null
+     */
+    private static String relativize(PathIndex index, String absolute) {
+        String indexRoot = index.getRoot();
+        if (absolute.equals(indexRoot)) {
+            return "";
+        }
+        String prefix = "/".equals(indexRoot) ? "/" : indexRoot + "/";
+        return absolute.startsWith(prefix) ? absolute.substring(prefix.length()) : null;
+    }
+
+    private static String toAbsolute(PathIndex index, String relative, boolean isDir) {
+        String indexRoot = index.getRoot();
+        String absolute = ("/".equals(indexRoot) ? "/" : indexRoot + "/") + relative;
+        return isDir ? absolute + "/" : absolute;
+    }
+
+    private static String formatTime(long epochSeconds) {
+        return new SimpleDateFormat("MM-dd HH:mm").format(new Date(epochSeconds * 1000L));
+    }
+
+    private static class Capabilities {
+        boolean shell;
+        boolean gnuFind;
+        boolean locate;
+        long serverTime;
+    }
+}
@@ -0,0 +1,165 @@
+package com.open.terminal.openterminal.component.terminal;
+
+import com.jediterm.terminal.Terminal;
+import com.jediterm.terminal.model.TerminalLine;
+import com.jediterm.terminal.model.TerminalTextBuffer;
+import com.jediterm.terminal.ui.JediTermWidget;
+import com.open.terminal.openterminal.component.history.PrefixIndex;
+
+import javax.swing.*;
+import javax.swing.plaf.LayerUI;
+import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * @description: 终端内联补全提示（类似 fish 的 autosuggestion）。根据 InputLineTracker 推算的输入行，
+ * 先在本次会话刚执行过的命令里找，再查该主机历史的前缀索引，把补全的剩余部分以灰色画在光标后面。
+ * 绘制前核对屏幕上光标前的文字确实以输入行结尾，密码提示（不回显）、全屏程序（备用屏幕）和推算失准时都不显示；
+ * 回车时同样核对，屏幕上没有显示出来的行（例如 sudo、ssh 的密码）不会记入本次会话的命令。
+ * 以 JLayer 包住终端组件，终端自身重绘（回显、光标闪烁）时提示随之重绘
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class GhostSuggestion extends LayerUI<JComponent> {
+    private static final int MAX_RECENT = 200;
+    private static final Color GHOST_COLOR = new Color(128, 128, 128);
+
+    private final JediTermWidget widget;
+    private final Font font;
+    private final float lineSpacing;
+    private final InputLineTracker tracker = new InputLineTracker(this::remember);
+    // 本次会话执行过的命令，最新的在前；历史文件要等 shell 退出才写入，这里补上
+    private final Deque<String> recent = new ArrayDeque<>();
+    private volatile PrefixIndex index = PrefixIndex.EMPTY;
+
+    // 根据输入行算出的补全剩余部分
+    private volatile String suffix;
+    // 最近一次真正画出来的补全，只有它可以被接受
+    private volatile String shownSuffix;
+    private JLayer<JComponent> layer;
+
+    public GhostSuggestion(JediTermWidget widget, Font font, float lineSpacing) {
+        this.widget = widget;
+        this.font = font;
+        this.lineSpacing = lineSpacing;
+    }
+
+    /**
+     * 包住终端组件，返回的 JLayer 代替它放入界面
+     */
+    public JLayer<JComponent> wrap() {
+        layer = new JLayer<>(widget, this);
+        return layer;
+    }
+
+    public void setIndex(PrefixIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * 发往远程的字节，由 SshTtyConnector 在写入线程上调用
+     */
+    public void onInput(byte[] bytes) {
+        tracker.feed(bytes);
+        String line = tracker.currentLine();
+        String best = line == null || line.isBlank() ? null : lookup(line);
+        suffix = best == null ? null : best.substring(line.length());
+        if (suffix == null) {
+            shownSuffix = null;
+        }
+        if (layer != null) {
+            layer.repaint();
+        }
+    }
+
+    /**
+     * @return 当前显示的补全剩余部分，没有显示时为 null；调用方把它写入终端即完成接受
+     */
+    public String acceptableSuffix() {
+        return shownSuffix;
+    }
+
+    private String lookup(String line) {
+        synchronized (recent) {
+            for (String command : recent) {
+                if (command.length() > line.length() && command.startsWith(line)) {
+                    return command;
+                }
+            }
+        }
+        return index.complete(line);
+    }
+
+    /**
+     * 回车时调用，此时屏幕上应当还是回显出的输入行；不回显的输入（密码）不记录，否则之后会被当作补全显示出来
+     */
+    private void remember(String line) {
+        if (!echoed(line)) {
+            return;
+        }
+        String command = line.strip();
+        synchronized (recent) {
+            recent.remove(command);
+            recent.addFirst(command);
+            if (recent.size() > MAX_RECENT) {
+                recent.removeLast();
+            }
+        }
+    }
+
+    @Override
+    public void paint(Graphics g, JComponent c) {
+        super.paint(g, c);
+        String text = suffix;
+        String input = tracker.currentLine();
+        if (text == null || input == null || !echoed(input)) {
+            shownSuffix = null;
+            return;
+        }
+        Terminal terminal = widget.getTerminal();
+        Component panel = widget.getTerminalPanel();
+        Point origin = SwingUtilities.convertPoint(panel, 0, 0, c);
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setFont(font);
+            FontMetrics fm = g2.getFontMetrics();
+            int charWidth = fm.charWidth('W');
+            int lineHeight = (int) Math.ceil(fm.getHeight() * lineSpacing);
+            int x = origin.x + (terminal.getCursorX() - 1) * charWidth;
+            int y = origin.y + (terminal.getCursorY() - 1) * lineHeight
+                    + (lineHeight - fm.getHeight()) / 2 + fm.getAscent();
+            g2.setColor(GHOST_COLOR);
+            g2.drawString(text, x, y);
+        } finally {
+            g2.dispose();
+        }
+        shownSuffix = text;
+    }
+
+    /**
+     * 屏幕上光标前的文字是否以推算出的输入行结尾
+     */
+    private boolean echoed(String input) {
+        TerminalTextBuffer buffer = widget.getTerminalTextBuffer();
+        Terminal terminal = widget.getTerminal();
+        if (buffer == null || terminal == null) {
+            return false;
+        }
+        buffer.lock();
+        try {
+            if (buffer.isUsingAlternateBuffer()) {
+                return false;
+            }
+            TerminalLine line = buffer.getLine(terminal.getCursorY() - 1);
+            String screen = line == null ? "" : line.getText();
+            int cursor = Math.min(terminal.getCursorX() - 1, screen.length());
+            return cursor >= input.length() && screen.startsWith(input, cursor - input.length())
+                    && (cursor == screen.length() || screen.substring(cursor).isBlank());
+        } finally {
+            buffer.unlock();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.open.terminal.openterminal.component.terminal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * @description: 根据发往远程的按键字节推算当前输入行。只处理追加字符、退格、Ctrl+U / Ctrl+W 和回车；
+ * 遇到方向键、Tab 补全、Ctrl+R 等会让 shell 自行改写输入行的按键时，标记为未知，直到下一次回车或清空整行
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class InputLineTracker {
+    private static final char ESC = 0x1b;
+
+    private final StringBuilder line = new StringBuilder();
+    private final Consumer<String> onCommand;
+    // 输入行已无法推算
+    private boolean unknown = false;
+    // 正在跳过一个转义序列
+    private boolean inEscape = false;
+
+    /**
+     * @param onCommand 回车提交一行时调用（仅限完整推算出的行，未去除首尾空白），在写入线程上执行
+     */
+    public InputLineTracker(Consumer<String> onCommand) {
+        this.onCommand = onCommand;
+    }
+
+    public synchronized void feed(byte[] bytes) {
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (inEscape) {
+                // CSI / SS3 序列以字母或 ~ 结束
+                if (Character.isLetter(c) && c != 'O' || c == '~') {
+                    inEscape = false;
+                }
+                continue;
+            }
+            switch (c) {
+                case '\r', '\n' -> {
+                    String command = line.toString();
+                    boolean complete = !unknown;
+                    reset();
+                    if (complete && !command.isBlank()) {
+                        onCommand.accept(command);
+                    }
+                }
+                case 0x7f, 0x08 -> {
+                    if (!line.isEmpty()) {
+                        line.deleteCharAt(line.length() - 1);
+                    }
+                }
+                // Ctrl+C、Ctrl+U 清空整行
+                case 0x03, 0x15 -> reset();
+                // Ctrl+W 删除前一个单词
+                case 0x17 -> {
+                    int end = line.length();
+                    while (end > 0 && line.charAt(end - 1) == ' ') {
+                        end--;
+                    }
+                    while (end > 0 && line.charAt(end - 1) != ' ') {
+                        end--;
+                    }
+                    line.setLength(end);
+                }
+                case ESC -> {
+                    // 方向键等：光标离开行尾或切换了历史，之后的输入无法对应
+                    unknown = true;
+                    inEscape = true;
+                }
+                default -> {
+                    if (c < 0x20) {
+                        // Tab、Ctrl+R、Ctrl+A 等由 shell 处理的控制字符
+                        unknown = true;
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return 当前输入行，无法推算时返回 null
+     */
+    public synchronized String currentLine() {
+        return unknown ? null : line.toString();
+    }
+
+    private void reset() {
+        line.setLength(0);
+        unknown = false;
+        inEscape = false;
+    }
+}
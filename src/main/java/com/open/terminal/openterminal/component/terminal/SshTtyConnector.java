@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
 
 public class SshTtyConnector implements TtyConnector {
     private static final Logger log = LoggerFactory.getLogger(SshTtyConnector.class);
@@ -18,6 +19,8 @@ public class SshTtyConnector implements TtyConnector {
     private final ChannelShell channel;
     private final InputStreamReader reader;
     private final OutputStream outputStream;
+    // 观察发往远程的按键，用于推算当前输入行
+    private volatile Consumer<byte[]> inputObserver;
 
     public SshTtyConnector(ChannelShell channel) throws IOException {
         this.channel = channel;
@@ -26,6 +29,10 @@ public class SshTtyConnector implements TtyConnector {
         this.outputStream = channel.getOutputStream();
     }
 
+    public void setInputObserver(Consumer<byte[]> inputObserver) {
+        this.inputObserver = inputObserver;
+    }
+
     @Override
     public void close() {
         if (channel != null && channel.isConnected()) {
@@ -48,6 +55,10 @@ public class SshTtyConnector implements TtyConnector {
         log.info("写入字符：{}", bytes);
         outputStream.write(bytes);
         outputStream.flush();
+        Consumer<byte[]> observer = inputObserver;
+        if (observer != null) {
+            observer.accept(bytes);
+        }
     }
 
     @Override
@@ -0,0 +1,133 @@
+package com.open.terminal.openterminal.component.transfer;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.SftpException;
+import com.jcraft.jsch.SftpProgressMonitor;
+import com.open.terminal.openterminal.manage.TransferManager;
+import com.open.terminal.openterminal.model.DownloadTask;
+import com.open.terminal.openterminal.model.SessionEndpoint;
+import com.open.terminal.openterminal.util.ThreadUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @description: 两个远程会话之间直接中转文件：源会话的 SFTP 读流经有界内存缓冲写入目标会话的 SFTP 写流，不落本地磁盘。
+ * 读写分别在两个线程上进行，JSch 的读流自带预读、写流不逐包等待确认，两端的网络延迟可以互相重叠。
+ * 暂停后继续时按目标文件已有长度续传。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class RemoteRelay {
+    private static final int CHUNK_SIZE = 32 * 1024;
+    /**
+     * 缓冲区最多容纳的块数（64 × 32KB = 2MB），写端慢时读端在此阻塞，内存占用有上限
+     */
+    private static final int BUFFER_CHUNKS = 64;
+    private static final byte[] EOF = new byte[0];
+
+    /**
+     * 提交一个中转任务到全局传输队列
+     */
+    public static DownloadTask submit(SessionEndpoint source, String sourcePath, long size,
+                                      SessionEndpoint target, String targetPath) {
+        String fileName = sourcePath.substring(sourcePath.lastIndexOf('/') + 1);
+        DownloadTask task = new DownloadTask(fileName + " → " + target.getDisplayName(), size,
+                DownloadTask.TransferType.RELAY, source.getSessionKey(), targetPath, null,
+                (t, monitor, resume) -> relay(source, sourcePath, size, target, targetPath, monitor, resume));
+        return TransferManager.getInstance().submit(task);
+    }
+
+    private static void relay(SessionEndpoint source, String sourcePath, long size, SessionEndpoint target,
+                              String targetPath, SftpProgressMonitor monitor, boolean resume) throws Exception {
+        ChannelSftp in = source.openChannel();
+        ChannelSftp out = null;
+        AtomicBoolean stop = new AtomicBoolean(false);
+        try {
+            out = target.openChannel();
+            long offset = 0;
+            if (resume) {
+                try {
+                    offset = out.stat(targetPath).getSize();
+                } catch (SftpException e) {
+                    if (e.id != ChannelSftp.SSH_FX_NO_SUCH_FILE) {
+                        throw e;
+                    }
+                }
+                if (offset > size) {
+                    offset = 0; // 目标比源还大，说明不是同一个文件，重新传
+                }
+            }
+            monitor.init(SftpProgressMonitor.PUT, sourcePath, targetPath, size);
+            if (resume) {
+                // 续传时第一次 count 汇报已存在的字节，与 JSch RESUME 模式的行为一致
+                monitor.count(offset);
+            }
+
+            BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(BUFFER_CHUNKS);
+            AtomicReference<Exception> readError = new AtomicReference<>();
+            InputStream src = in.get(sourcePath, null, offset);
+            ThreadUtil.submitTask(() -> {
+                try (src) {
+                    while (!stop.get()) {
+                        byte[] buf = new byte[CHUNK_SIZE];
+                        int n = src.readNBytes(buf, 0, CHUNK_SIZE);
+                        if (n <= 0) {
+                            break;
+                        }
+                        offerUntilStopped(queue, n == CHUNK_SIZE ? buf : Arrays.copyOf(buf, n), stop);
+                    }
+                } catch (Exception e) {
+                    readError.set(e);
+                } finally {
+                    offerUntilStopped(queue, EOF, stop);
+                }
+            });
+
+            try (OutputStream dst = out.put(targetPath, (SftpProgressMonitor) null, offset > 0 ? ChannelSftp.APPEND : ChannelSftp.OVERWRITE)) {
+                while (true) {
+                    byte[] chunk = queue.take();
+                    if (chunk == EOF) {
+                        break;
+                    }
+                    dst.write(chunk);
+                    if (!monitor.count(chunk.length)) {
+                        throw new IOException("中转已中断");
+                    }
+                }
+            }
+            if (readError.get() != null) {
+                throw readError.get();
+            }
+            monitor.end();
+        } finally {
+            // 写端结束后通知读端退出，并断开两端通道
+            stop.set(true);
+            in.disconnect();
+            if (out != null) {
+                out.disconnect();
+            }
+        }
+    }
+
+    /**
+     * 写端异常退出后不再有人取数据，读端不能一直阻塞在满的缓冲区上
+     */
+    private static void offerUntilStopped(BlockingQueue<byte[]> queue, byte[] chunk, AtomicBoolean stop) {
+        try {
+            while (!stop.get() && !queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                // 等待写端腾出空间
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.open.terminal.openterminal.component.verify;
+
+import com.jcraft.jsch.Session;
+import com.open.terminal.openterminal.model.VerifyResult;
+import com.open.terminal.openterminal.util.SshExecUtil;
+import com.open.terminal.openterminal.util.ThreadUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+/**
+ * @description: 端到端完整性校验。把文件按 64MiB 分块，远程用 dd | sha256sum 经 xargs -P 并行计算各块摘要，
+ * 本地同时用内存映射在多核上并行计算，最后比较两边的摘要列表。
+ * 只有一块时结果就是整个文件的 sha256sum，可以和命令行直接对照；多块时显示各块摘要再做一次摘要的值。
+ * 远程没有 sha256sum 时使用 md5sum。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class IntegrityVerifier {
+    private static final long CHUNK_SIZE = 64L * 1024 * 1024;
+    // dd 的块大小，CHUNK_SIZE 必须是它的整数倍
+    private static final int DD_BLOCK = 1024 * 1024;
+    private static final int REMOTE_PARALLELISM = 4;
+
+    /**
+     * 远程和本地并发计算后比较
+     */
+    public static VerifyResult verify(Session session, String remotePath, Path localFile) throws Exception {
+        long size = Files.size(localFile);
+        String algorithm = probeAlgorithm(session);
+        int chunks = chunkCount(size);
+
+        CompletableFuture<String[]> remote = new CompletableFuture<>();
+        ThreadUtil.submitTask(() -> {
+            try {
+                remote.complete(remoteChunkDigests(session, remotePath, chunks, algorithm));
+            } catch (Exception e) {
+                remote.completeExceptionally(e);
+            }
+        });
+        String[] local = localChunkDigests(localFile, size, chunks, algorithm);
+        String[] remoteDigests = remote.get();
+
+        String label = chunks == 1 ? algorithm : algorithm + " 分块(64MiB)×" + chunks;
+        return new VerifyResult(label, combine(local, algorithm), combine(remoteDigests, algorithm));
+    }
+
+    private static String probeAlgorithm(Session session) throws Exception {
+        SshExecUtil.ExecResult result = SshExecUtil.exec(session,
+                "command -v sha256sum >/dev/null 2>&1 && echo sha256 || { command -v md5sum >/dev/null 2>&1 && echo md5; }");
+        String algorithm = result.getStdout().trim();
+        if (algorithm.isEmpty()) {
+            throw new IllegalStateException("远程没有 sha256sum 或 md5sum，无法校验");
+        }
+        return algorithm;
+    }
+
+    private static int chunkCount(long size) {
+        return (int) Math.max(1, (size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    /**
+     * 一次 exec 输出所有块的摘要，每行 "序号 摘要  -"
+     */
+    private static String[] remoteChunkDigests(Session session, String remotePath, int chunks, String algorithm)
+            throws Exception {
+        String tool = algorithm + "sum";
+        SshExecUtil.ExecResult result;
+        if (chunks == 1) {
+            result = SshExecUtil.exec(session, "printf '0 '; " + tool + " < " + SshExecUtil.quote(remotePath));
+        } else {
+            long blocksPerChunk = CHUNK_SIZE / DD_BLOCK;
+            // 先算完再一次性输出整行，避免并行进程的输出交错
+            String chunkScript = SshExecUtil.quote("h=$(dd if=\"$1\" bs=" + DD_BLOCK + " skip=$(($2*" + blocksPerChunk
+                    + ")) count=" + blocksPerChunk + " 2>/dev/null | " + tool + ") && echo \"$2 $h\"");
+            String seq = "i=0; while [ $i -lt " + chunks + " ]; do echo $i; i=$((i+1)); done";
+            String path = SshExecUtil.quote(remotePath);
+            result = SshExecUtil.exec(session, seq + " | xargs -P " + REMOTE_PARALLELISM
+                    + " -n 1 sh -c " + chunkScript + " _ " + path);
+            if (!result.isSuccess()) {
+                // 老版本 BusyBox 的 xargs 不支持 -P，逐块顺序计算
+                result = SshExecUtil.exec(session, seq + " | while read n; do sh -c " + chunkScript
+                        + " _ " + path + " $n; done");
+            }
+        }
+        if (!result.isSuccess()) {
+            throw new IOException("远程计算摘要失败: " + result.getStderr().trim());
+        }
+        String[] digests = new String[chunks];
+        for (String line : result.getStdout().split("\n")) {
+            String[] parts = line.trim().split("\\s+");
+            if (parts.length >= 2) {
+                int index = Integer.parseInt(parts[0]);
+                if (index >= 0 && index < chunks) {
+                    digests[index] = parts[1].toLowerCase();
+                }
+            }
+        }
+        for (int i = 0; i < chunks; i++) {
+            if (digests[i] == null) {
+                throw new IOException("远程缺少第 " + i + " 块的摘要");
+            }
+        }
+        return digests;
+    }
+
+    /**
+     * 每块单独映射、单独计算，块之间在公共 ForkJoin 池上并行
+     */
+    private static String[] localChunkDigests(Path file, long size, int chunks, String algorithm) throws IOException {
+        String jdkAlgorithm = "sha256".equals(algorithm) ? "SHA-256" : "MD5";
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return IntStream.range(0, chunks).parallel().mapToObj(i -> {
+                long offset = i * CHUNK_SIZE;
+                long length = Math.min(CHUNK_SIZE, size - offset);
+                try {
+                    MessageDigest digest = MessageDigest.getInstance(jdkAlgorithm);
+                    if (length > 0) {
+                        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                        digest.update(buffer);
+                    }
+                    return HexFormat.of().formatHex(digest.digest());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).toArray(String[]::new);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 单块直接返回，多块时对 "摘要\n" 的拼接再做一次摘要，便于展示
+     */
+    private static String combine(String[] digests, String algorithm) {
+        if (digests.length == 1) {
+            return digests[0];
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("sha256".equals(algorithm) ? "SHA-256" : "MD5");
+            for (String d : digests) {
+                digest.update((d + "\n").getBytes(StandardCharsets.US_ASCII));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
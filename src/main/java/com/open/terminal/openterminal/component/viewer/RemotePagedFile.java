@@ -0,0 +1,605 @@
+package com.open.terminal.openterminal.component.viewer;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpATTRS;
+import com.jcraft.jsch.SftpException;
+import com.open.terminal.openterminal.util.SshExecUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleConsumer;
+
+/**
+ * @description: 按需分页读取的远程文件。
+ * 翻页只通过 SFTP 读取显示用到的页，读到的页写入本地稀疏文件（按 64MB 区域做内存映射）作为缓存；
+ * 建立行索引和搜索需要扫描整个文件，但只在独立通道上流式读取、不写入缓存，
+ * 搜索优先在远程用 grep 完成，只有远程没有 grep 时才把内容流过来比较。
+ * 同时统计每页的换行数作为行索引，支持跳转行号、搜索以及跟随文件尾部增长（tail -f）。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class RemotePagedFile implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(RemotePagedFile.class);
+
+    public static final int PAGE_SIZE = 64 * 1024;
+    private static final long REGION_SIZE = 64L * 1024 * 1024;
+    private static final int PAGES_PER_REGION = (int) (REGION_SIZE / PAGE_SIZE);
+    /**
+     * 缺页时一次最多连续读取的页数（预读），减少 SFTP 往返
+     */
+    private static final int MAX_FETCH_PAGES = 16;
+
+    private final Callable<ChannelSftp> channelFactory;
+    // 用于在远程执行 grep 搜索，为 null 时只能流式扫描
+    private final Session session;
+    private final ChannelSftp sftp;
+    private final String remotePath;
+    private final Path localFile;
+    private final FileChannel fileChannel;
+
+    // 以下状态由 this 锁保护
+    private final Map<Integer, MappedByteBuffer> regions = new HashMap<>();
+    private final BitSet loadedPages = new BitSet();
+    // 每页换行数，-1 表示尚未统计
+    private int[] pageLineCounts = new int[0];
+    private long size;
+
+    // SFTP 通道不支持并发使用，所有读取串行化
+    private final Object sftpLock = new Object();
+
+    /**
+     * @param channelFactory 用于打开额外 SFTP 通道（后台建立行索引、搜索时使用，避免阻塞翻页）
+     * @param session        用于远程 grep 搜索，可为 null
+     */
+    public RemotePagedFile(Callable<ChannelSftp> channelFactory, Session session, String remotePath) throws Exception {
+        this.channelFactory = channelFactory;
+        this.session = session;
+        this.sftp = channelFactory.call();
+        this.remotePath = remotePath;
+        // SPARSE 只在新建文件时生效，所以放在临时目录下新建
+        this.localFile = Files.createTempDirectory("remote-view-").resolve("pages.cache");
+        this.fileChannel = FileChannel.open(localFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.SPARSE);
+        SftpATTRS attrs;
+        synchronized (sftpLock) {
+            attrs = sftp.stat(remotePath);
+        }
+        resize(attrs.getSize());
+    }
+
+    public String getRemotePath() {
+        return remotePath;
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public synchronized int pageCount() {
+        return (int) ((size + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    /**
+     * 读取 [offset, offset + length) 的内容，缺失的页会先从远程拉取
+     */
+    public byte[] read(long offset, int length) throws IOException, SftpException {
+        long end;
+        synchronized (this) {
+            end = Math.min(size, offset + length);
+        }
+        if (offset >= end) {
+            return new byte[0];
+        }
+        ensureLoaded((int) (offset / PAGE_SIZE), (int) ((end - 1) / PAGE_SIZE));
+        byte[] result = new byte[(int) (end - offset)];
+        synchronized (this) {
+            long pos = offset;
+            int written = 0;
+            while (written < result.length) {
+                int page = (int) (pos / PAGE_SIZE);
+                int inPage = (int) (pos % PAGE_SIZE);
+                int n = Math.min(PAGE_SIZE - inPage, result.length - written);
+                region(page).get(regionOffset(page) + inPage, result, written, n);
+                written += n;
+                pos += n;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 确保 [firstPage, lastPage] 都已加载，连续的缺页合并为一次远程读取
+     */
+    public void ensureLoaded(int firstPage, int lastPage) throws IOException, SftpException {
+        int page = firstPage;
+        while (page <= lastPage) {
+            int missingStart;
+            int missingEnd;
+            synchronized (this) {
+                missingStart = loadedPages.nextClearBit(page);
+                if (missingStart > lastPage || missingStart >= pageCount()) {
+                    return;
+                }
+                // 不足一次预读量时顺带多读几页，方便连续翻页；遇到已加载的页就停下
+                missingEnd = Math.max(lastPage + 1, missingStart + MAX_FETCH_PAGES);
+                int nextLoaded = loadedPages.nextSetBit(missingStart);
+                if (nextLoaded >= 0) {
+                    missingEnd = Math.min(missingEnd, nextLoaded);
+                }
+                missingEnd = Math.min(missingEnd, pageCount());
+            }
+            fetch(missingStart, missingEnd);
+            page = missingEnd;
+        }
+    }
+
+    private void fetch(int fromPage, int toPage) throws IOException, SftpException {
+        long start = (long) fromPage * PAGE_SIZE;
+        byte[] buf = new byte[PAGE_SIZE];
+        synchronized (sftpLock) {
+            long fileSize = size();
+            try (InputStream in = sftp.get(remotePath, null, start)) {
+                for (int page = fromPage; page < toPage; page++) {
+                    long pageStart = (long) page * PAGE_SIZE;
+                    int want = (int) Math.min(PAGE_SIZE, fileSize - pageStart);
+                    if (want <= 0) {
+                        break;
+                    }
+                    int got = readFully(in, buf, want);
+                    storePage(page, buf, got, got == PAGE_SIZE || pageStart + got >= fileSize);
+                    if (got < want) {
+                        break; // 远程文件在读取过程中被截断
+                    }
+                }
+            }
+        }
+    }
+
+    private synchronized void storePage(int page, byte[] data, int length, boolean complete) {
+        region(page).put(regionOffset(page), data, 0, length);
+        if (complete) {
+            loadedPages.set(page);
+            pageLineCounts[page] = countNewlines(data, 0, length);
+        }
+    }
+
+    /**
+     * 重新获取远程文件大小（跟随模式轮询使用）
+     *
+     * @return 新增的字节数；小于 0 表示文件被截断或轮转，缓存已全部失效
+     */
+    public long refreshSize() throws SftpException, IOException {
+        SftpATTRS attrs;
+        synchronized (sftpLock) {
+            attrs = sftp.stat(remotePath);
+        }
+        long newSize = attrs.getSize();
+        synchronized (this) {
+            long oldSize = size;
+            if (newSize == oldSize) {
+                return 0;
+            }
+            if (newSize < oldSize) {
+                loadedPages.clear();
+                Arrays.fill(pageLineCounts, -1);
+                resize(newSize);
+                return -1;
+            }
+            // 原来的最后一页可能只读了一部分，需要重新拉取
+            if (oldSize % PAGE_SIZE != 0) {
+                int lastPage = (int) (oldSize / PAGE_SIZE);
+                loadedPages.clear(lastPage);
+                pageLineCounts[lastPage] = -1;
+            }
+            resize(newSize);
+            return newSize - oldSize;
+        }
+    }
+
+    private synchronized void resize(long newSize) {
+        size = newSize;
+        int pages = pageCount();
+        if (pages > pageLineCounts.length) {
+            int old = pageLineCounts.length;
+            pageLineCounts = Arrays.copyOf(pageLineCounts, Math.max(pages, old * 2));
+            Arrays.fill(pageLineCounts, old, pageLineCounts.length, -1);
+        }
+    }
+
+    /**
+     * 在后台顺序扫描尚未统计的页，只统计换行数不缓存内容，使用独立 SFTP 通道不阻塞翻页
+     */
+    public void buildLineIndex(BooleanSupplier cancelled, DoubleConsumer progress) throws Exception {
+        int firstUnknown = firstUncountedPage();
+        if (firstUnknown < 0) {
+            progress.accept(1.0);
+            return;
+        }
+        ChannelSftp indexChannel = channelFactory.call();
+        try (InputStream in = indexChannel.get(remotePath, null, (long) firstUnknown * PAGE_SIZE)) {
+            byte[] buf = new byte[PAGE_SIZE];
+            int pages = pageCount();
+            for (int page = firstUnknown; page < pages && !cancelled.getAsBoolean(); page++) {
+                int got = readFully(in, buf, PAGE_SIZE);
+                if (got <= 0) {
+                    break;
+                }
+                synchronized (this) {
+                    if (pageLineCounts[page] < 0 && (got == PAGE_SIZE || (long) page * PAGE_SIZE + got >= size)) {
+                        pageLineCounts[page] = countNewlines(buf, 0, got);
+                    }
+                }
+                if (page % 64 == 0) {
+                    progress.accept((double) page / pages);
+                }
+            }
+            if (!cancelled.getAsBoolean()) {
+                progress.accept(1.0);
+            }
+        } finally {
+            indexChannel.disconnect();
+        }
+    }
+
+    private synchronized int firstUncountedPage() {
+        int pages = pageCount();
+        for (int i = 0; i < pages; i++) {
+            if (pageLineCounts[i] < 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 已知行数（行索引完整时等于总行数），未统计的页不计入
+     */
+    public synchronized boolean isLineIndexComplete() {
+        int pages = pageCount();
+        for (int i = 0; i < pages; i++) {
+            if (pageLineCounts[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 行号（从 1 开始）所在行的起始偏移；行索引未覆盖到该行时返回 -1
+     */
+    public long lineToOffset(long line) throws IOException, SftpException {
+        if (line <= 1) {
+            return 0;
+        }
+        long remaining = line - 1; // 需要跨过的换行数
+        int page = 0;
+        synchronized (this) {
+            int pages = pageCount();
+            while (page < pages) {
+                int count = pageLineCounts[page];
+                if (count < 0) {
+                    return -1;
+                }
+                if (remaining <= count) {
+                    break;
+                }
+                remaining -= count;
+                page++;
+            }
+            if (page >= pages) {
+                return size;
+            }
+        }
+        byte[] data = read((long) page * PAGE_SIZE, PAGE_SIZE);
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] == '\n' && --remaining == 0) {
+                return (long) page * PAGE_SIZE + i + 1;
+            }
+        }
+        return (long) page * PAGE_SIZE + data.length;
+    }
+
+    /**
+     * 偏移所在的行号（从 1 开始）；之前有未统计的页时返回 -1
+     */
+    public long offsetToLine(long offset) throws IOException, SftpException {
+        int page = (int) (offset / PAGE_SIZE);
+        long line = 1;
+        synchronized (this) {
+            for (int i = 0; i < page; i++) {
+                if (pageLineCounts[i] < 0) {
+                    return -1;
+                }
+                line += pageLineCounts[i];
+            }
+        }
+        int inPage = (int) (offset % PAGE_SIZE);
+        if (inPage > 0) {
+            byte[] data = read((long) page * PAGE_SIZE, inPage);
+            line += countNewlines(data, 0, data.length);
+        }
+        return line;
+    }
+
+    /**
+     * 从 from 开始向后查找。先在远程用 grep 查找，只回传匹配位置；远程没有可用的 grep 时改为流式扫描
+     *
+     * @return 匹配位置，找不到或被取消时返回 -1
+     */
+    public long search(byte[] pattern, boolean ignoreCase, long from, BooleanSupplier cancelled,
+                       DoubleConsumer progress) throws Exception {
+        if (pattern.length == 0 || from >= size()) {
+            return -1;
+        }
+        Long match = remoteGrep(pattern, ignoreCase, from, cancelled);
+        if (match != null) {
+            progress.accept(1.0);
+            return match;
+        }
+        return scan(pattern, ignoreCase, from, cancelled, progress);
+    }
+
+    /**
+     * 远程执行 tail | grep -b -o -m1，LC_ALL=C 保证按字节计算偏移、忽略大小写时只折叠 ASCII（与 scan 一致）
+     *
+     * @return 匹配位置，未找到或被取消时为 -1；远程无法执行 grep 时返回 null
+     */
+    private Long remoteGrep(byte[] pattern, boolean ignoreCase, long from, BooleanSupplier cancelled) {
+        String text = new String(pattern, StandardCharsets.UTF_8);
+        // 含换行时 grep -F 会拆成多个模式，且编码不可逆时字节对不上
+        if (session == null || !session.isConnected() || text.indexOf('\n') >= 0
+                || !Arrays.equals(text.getBytes(StandardCharsets.UTF_8), pattern)) {
+            return null;
+        }
+        String command = "command -v grep >/dev/null && command -v tail >/dev/null || exit 127; "
+                + "LC_ALL=C tail -c +" + (from + 1) + " -- " + SshExecUtil.quote(remotePath)
+                + " | LC_ALL=C grep -a -b -o -m1 -F " + (ignoreCase ? "-i " : "") + "-e " + SshExecUtil.quote(text);
+        ChannelExec exec = null;
+        try {
+            exec = (ChannelExec) session.openChannel("exec");
+            exec.setCommand(command);
+            InputStream in = exec.getInputStream();
+            exec.connect();
+            StringBuilder out = new StringBuilder();
+            byte[] buf = new byte[256];
+            // 输出只有一行 "偏移:匹配内容"，轮询读取以便响应取消
+            while (true) {
+                if (cancelled.getAsBoolean()) {
+                    return -1L;
+                }
+                while (in.available() > 0) {
+                    int n = in.read(buf);
+                    if (n < 0) {
+                        break;
+                    }
+                    // 只需要冒号前的偏移
+                    if (out.length() < 32) {
+                        out.append(new String(buf, 0, n, StandardCharsets.ISO_8859_1));
+                    }
+                }
+                if (exec.isClosed() && in.available() == 0) {
+                    break;
+                }
+                Thread.sleep(50);
+            }
+            int status = exec.getExitStatus();
+            if (status == 1) {
+                return -1L;
+            }
+            int colon = out.indexOf(":");
+            if (status != 0 || colon <= 0) {
+                log.debug("远程 grep 不可用（退出码 {}），改为流式扫描", status);
+                return null;
+            }
+            return from + Long.parseLong(out.substring(0, colon).trim());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1L;
+        } catch (Exception e) {
+            log.debug("远程 grep 搜索失败，改为流式扫描: {}", e.getMessage());
+            return null;
+        } finally {
+            if (exec != null) {
+                exec.disconnect();
+            }
+        }
+    }
+
+    /**
+     * 流式扫描：在独立通道上按 1MB 分块顺序读取，块间保留 needle.length - 1 字节重叠，跨块的匹配也能找到。
+     * 读到的内容不写入缓存；恰好已缓存的块直接从缓存取，不再经过网络
+     */
+    private long scan(byte[] pattern, boolean ignoreCase, long from, BooleanSupplier cancelled,
+                      DoubleConsumer progress) throws Exception {
+        byte[] needle = ignoreCase ? toLowerAscii(pattern.clone()) : pattern;
+        final int chunk = MAX_FETCH_PAGES * PAGE_SIZE;
+        final int overlap = needle.length - 1;
+        byte[] buf = new byte[chunk + overlap];
+        // buf[0, carried) 为上一块末尾留下的重叠部分，对应文件中 [pos - carried, pos)
+        int carried = 0;
+        long pos = from;
+        long total = size();
+        ChannelSftp scanChannel = null;
+        InputStream in = null;
+        try {
+            while (pos < total && !cancelled.getAsBoolean()) {
+                int want = (int) Math.min(chunk, total - pos);
+                int got;
+                if (readCached(pos, buf, carried, want)) {
+                    got = want;
+                    // 流的位置已经对不上，下次需要时从新位置重新打开
+                    if (in != null) {
+                        in.close();
+                        in = null;
+                    }
+                } else {
+                    if (in == null) {
+                        if (scanChannel == null) {
+                            scanChannel = channelFactory.call();
+                        }
+                        in = scanChannel.get(remotePath, null, pos);
+                    }
+                    got = readFully(in, buf, carried, want);
+                    if (got <= 0) {
+                        break;
+                    }
+                }
+                int length = carried + got;
+                if (ignoreCase) {
+                    toLowerAscii(buf, carried, length);
+                }
+                int idx = indexOf(buf, length, needle);
+                if (idx >= 0) {
+                    return pos - carried + idx;
+                }
+                carried = Math.min(overlap, length);
+                System.arraycopy(buf, length - carried, buf, 0, carried);
+                pos += got;
+                progress.accept((double) pos / total);
+            }
+            return -1;
+        } finally {
+            if (in != null) {
+                in.close();
+            }
+            if (scanChannel != null) {
+                scanChannel.disconnect();
+            }
+        }
+    }
+
+    /**
+     * [offset, offset + length) 所在的页都已缓存时复制到 dst 并返回 true，否则不做任何事
+     */
+    private synchronized boolean readCached(long offset, byte[] dst, int dstOffset, int length) {
+        int firstPage = (int) (offset / PAGE_SIZE);
+        int lastPage = (int) ((offset + length - 1) / PAGE_SIZE);
+        if (loadedPages.nextClearBit(firstPage) <= lastPage) {
+            return false;
+        }
+        long pos = offset;
+        int written = 0;
+        while (written < length) {
+            int page = (int) (pos / PAGE_SIZE);
+            int inPage = (int) (pos % PAGE_SIZE);
+            int n = Math.min(PAGE_SIZE - inPage, length - written);
+            region(page).get(regionOffset(page) + inPage, dst, dstOffset + written, n);
+            written += n;
+            pos += n;
+        }
+        return true;
+    }
+
+    private MappedByteBuffer region(int page) {
+        int region = page / PAGES_PER_REGION;
+        return regions.computeIfAbsent(region, r -> {
+            try {
+                // 映射超出文件长度时文件会被自动扩展，稀疏文件不会真正占用磁盘
+                return fileChannel.map(FileChannel.MapMode.READ_WRITE, (long) r * REGION_SIZE, REGION_SIZE);
+            } catch (IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static int regionOffset(int page) {
+        return (page % PAGES_PER_REGION) * PAGE_SIZE;
+    }
+
+    private static int readFully(InputStream in, byte[] buf, int want) throws IOException {
+        return readFully(in, buf, 0, want);
+    }
+
+    private static int readFully(InputStream in, byte[] buf, int offset, int want) throws IOException {
+        int got = 0;
+        while (got < want) {
+            int n = in.read(buf, offset + got, want - got);
+            if (n < 0) {
+                break;
+            }
+            got += n;
+        }
+        return got;
+    }
+
+    static int countNewlines(byte[] data, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (data[i] == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int indexOf(byte[] data, int length, byte[] needle) {
+        outer:
+        for (int i = 0; i <= length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (data[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static byte[] toLowerAscii(byte[] data) {
+        return toLowerAscii(data, 0, data.length);
+    }
+
+    private static byte[] toLowerAscii(byte[] data, int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = data[i];
+            if (b >= 'A' && b <= 'Z') {
+                data[i] = (byte) (b + 32);
+            }
+        }
+        return data;
+    }
+
+    @Override
+    public void close() {
+        synchronized (sftpLock) {
+            if (sftp.isConnected()) {
+                sftp.disconnect();
+            }
+        }
+        try {
+            fileChannel.close();
+            synchronized (this) {
+                regions.clear();
+            }
+            // 映射在 GC 前无法释放（Windows 下会删除失败），失败时留给退出时删除
+            File dir = localFile.getParent().toFile();
+            if (!localFile.toFile().delete()) {
+                dir.deleteOnExit();
+                localFile.toFile().deleteOnExit();
+            } else {
+                dir.delete();
+            }
+        } catch (IOException e) {
+            log.warn("关闭查看器缓存文件失败: {}", e.getMessage());
+        }
+    }
+}
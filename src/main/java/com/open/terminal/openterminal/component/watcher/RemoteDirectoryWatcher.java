@@ -0,0 +1,271 @@
+package com.open.terminal.openterminal.component.watcher;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpATTRS;
+import com.jcraft.jsch.SftpException;
+import com.open.terminal.openterminal.fun.DirectoryChangeListener;
+import com.open.terminal.openterminal.util.SshExecUtil;
+import com.open.terminal.openterminal.util.ThreadUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 远程目录变化监听。远程有 inotifywait 时在一个常驻 exec 通道上接收事件，
+ * 否则退化为定时 stat 目录修改时间，变化时才重新列目录并与上一次快照比较。
+ * 两种模式都只把发生变化的文件名（合并后）连同最新属性交给回调，由界面增量更新。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class RemoteDirectoryWatcher implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(RemoteDirectoryWatcher.class);
+
+    /**
+     * 事件合并窗口：窗口内同一文件的多次事件只处理一次，持续写入的文件最多每个窗口刷新一次
+     */
+    private static final long BATCH_WINDOW_MS = 500;
+    private static final long POLL_INTERVAL_SECONDS = 2;
+    /**
+     * 目录修改时间只反映增删改名，文件原地写入不会改变它，每隔若干次轮询做一次完整比较兜底
+     */
+    private static final int FULL_SCAN_EVERY = 15;
+
+    private final Session session;
+    private final Callable<ChannelSftp> channelFactory;
+    private final String dir;
+    private final DirectoryChangeListener listener;
+
+    // 监听期间复用的 SFTP 通道，只在 flush/poll 中使用（二者不会并发）
+    private ChannelSftp sftp;
+    private ChannelExec inotifyChannel;
+    private ScheduledFuture<?> pollTask;
+    private volatile boolean closed = false;
+
+    // inotify 模式下等待合并的文件名，由 this 锁保护
+    private final Set<String> pendingNames = new LinkedHashSet<>();
+    private boolean flushScheduled = false;
+
+    // 轮询模式的状态，只被轮询线程访问
+    private long lastDirMtime = -1;
+    private int pollCount = 0;
+    private Map<String, String> snapshot = new HashMap<>();
+    private volatile boolean polling = false;
+
+    public RemoteDirectoryWatcher(Session session, Callable<ChannelSftp> channelFactory, String dir,
+                                  DirectoryChangeListener listener) {
+        this.session = session;
+        this.channelFactory = channelFactory;
+        this.dir = dir;
+        this.listener = listener;
+    }
+
+    public String getDir() {
+        return dir;
+    }
+
+    /**
+     * 在后台启动，优先使用 inotifywait
+     */
+    public void start() {
+        ThreadUtil.submitTask(() -> {
+            try {
+                sftp = channelFactory.call();
+                if (closed) {
+                    sftp.disconnect();
+                    return;
+                }
+                if (SshExecUtil.exec(session, "command -v inotifywait").isSuccess()) {
+                    startInotify();
+                } else {
+                    startPolling();
+                }
+            } catch (Exception e) {
+                log.warn("启动目录监听失败: {}, {}", dir, e.getMessage());
+            }
+        });
+    }
+
+    private void startInotify() throws Exception {
+        log.info("使用 inotifywait 监听目录: {}", dir);
+        inotifyChannel = (ChannelExec) session.openChannel("exec");
+        // 事件名不含 '/'，文件名也不可能含 '/'，用它分隔最稳妥
+        // 目录长时间没有变化时 inotifywait 不会输出，需要在通道关闭时主动结束它
+        inotifyChannel.setCommand(SshExecUtil.untilChannelClosed(
+                "inotifywait -m -q -e create,delete,modify,attrib,moved_to,moved_from,delete_self,move_self "
+                        + "--format '%e/%f' " + SshExecUtil.quote(dir)));
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(inotifyChannel.getInputStream(), StandardCharsets.UTF_8));
+        inotifyChannel.connect();
+        ThreadUtil.submitTask(() -> {
+            try (reader) {
+                String line;
+                while (!closed && (line = reader.readLine()) != null) {
+                    int slash = line.indexOf('/');
+                    String events = slash >= 0 ? line.substring(0, slash) : line;
+                    String name = slash >= 0 ? line.substring(slash + 1) : "";
+                    if (events.contains("Q_OVERFLOW") || events.contains("DELETE_SELF") || events.contains("MOVE_SELF")) {
+                        listener.onRescanNeeded(dir);
+                    } else if (!name.isEmpty()) {
+                        enqueue(name);
+                    }
+                }
+            } catch (Exception e) {
+                if (!closed) {
+                    log.warn("inotifywait 读取中断: {}", e.getMessage());
+                }
+            }
+            // inotifywait 意外退出（例如 inotify watch 数量达到上限）时改用轮询
+            if (!closed) {
+                log.info("inotifywait 已退出，改用轮询: {}", dir);
+                startPolling();
+            }
+        });
+    }
+
+    private synchronized void enqueue(String name) {
+        pendingNames.add(name);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            ThreadUtil.schedule(() -> ThreadUtil.submitTask(this::flush), BATCH_WINDOW_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 对合并后的文件名逐个 lstat，得到最新属性
+     */
+    private void flush() {
+        Set<String> names;
+        synchronized (this) {
+            names = new LinkedHashSet<>(pendingNames);
+            pendingNames.clear();
+            flushScheduled = false;
+        }
+        if (closed || names.isEmpty()) {
+            return;
+        }
+        Map<String, SftpATTRS> changes = new LinkedHashMap<>();
+        synchronized (sftp) {
+            for (String name : names) {
+                try {
+                    changes.put(name, sftp.lstat(dir + "/" + name));
+                } catch (SftpException e) {
+                    if (e.id != ChannelSftp.SSH_FX_NO_SUCH_FILE) {
+                        log.warn("获取文件属性失败: {}/{}, {}", dir, name, e.getMessage());
+                        continue;
+                    }
+                    changes.put(name, null);
+                }
+            }
+        }
+        listener.onChanges(dir, changes);
+    }
+
+    private synchronized void startPolling() {
+        if (closed || pollTask != null) {
+            return;
+        }
+        log.info("使用目录修改时间轮询: {}", dir);
+        pollTask = ThreadUtil.scheduleAtFixedRate(() -> {
+            if (polling) {
+                return; // 上一次还没结束，慢连接上不堆积请求
+            }
+            polling = true;
+            ThreadUtil.submitTask(() -> {
+                try {
+                    poll();
+                } catch (Exception e) {
+                    log.warn("轮询目录失败: {}, {}", dir, e.getMessage());
+                } finally {
+                    polling = false;
+                }
+            });
+        }, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void poll() throws SftpException {
+        if (closed) {
+            return;
+        }
+        synchronized (sftp) {
+            long mtime;
+            try {
+                mtime = sftp.stat(dir).getMTime();
+            } catch (SftpException e) {
+                if (e.id == ChannelSftp.SSH_FX_NO_SUCH_FILE) {
+                    listener.onRescanNeeded(dir);
+                    return;
+                }
+                throw e;
+            }
+            boolean firstPoll = lastDirMtime < 0;
+            boolean fullScan = ++pollCount % FULL_SCAN_EVERY == 0;
+            if (mtime == lastDirMtime && !fullScan) {
+                return; // 绝大多数轮询只有这一次 stat
+            }
+            lastDirMtime = mtime;
+
+            Map<String, SftpATTRS> current = new HashMap<>();
+            Vector<ChannelSftp.LsEntry> entries = sftp.ls(dir);
+            for (ChannelSftp.LsEntry entry : entries) {
+                String name = entry.getFilename();
+                if (!".".equals(name) && !"..".equals(name)) {
+                    current.put(name, entry.getAttrs());
+                }
+            }
+            Map<String, String> nextSnapshot = new HashMap<>();
+            Map<String, SftpATTRS> changes = new LinkedHashMap<>();
+            current.forEach((name, attrs) -> {
+                String signature = attrs.getSize() + ":" + attrs.getMTime() + ":" + attrs.getPermissions();
+                nextSnapshot.put(name, signature);
+                if (!signature.equals(snapshot.get(name))) {
+                    changes.put(name, attrs);
+                }
+            });
+            for (String name : snapshot.keySet()) {
+                if (!current.containsKey(name)) {
+                    changes.put(name, null);
+                }
+            }
+            snapshot = nextSnapshot;
+            // 第一次只建立基线，界面此时已是最新列表
+            if (!firstPoll && !changes.isEmpty()) {
+                listener.onChanges(dir, changes);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (this) {
+            if (pollTask != null) {
+                pollTask.cancel(false);
+            }
+        }
+        ThreadUtil.submitTask(() -> {
+            if (inotifyChannel != null) {
+                // 断开 exec 通道，远程包装脚本读到标准输入结束后杀掉 inotifywait
+                inotifyChannel.disconnect();
+            }
+            if (sftp != null) {
+                sftp.disconnect();
+            }
+        });
+    }
+}
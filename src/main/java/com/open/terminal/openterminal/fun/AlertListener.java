@@ -0,0 +1,13 @@
+package com.open.terminal.openterminal.fun;
+
+import com.open.terminal.openterminal.model.AlertEvent;
+
+/**
+ * @description: 告警状态变化回调，在提交采样的线程上调用，更新界面需自行切换到 FX 线程
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public interface AlertListener {
+    void onAlert(AlertEvent event);
+}
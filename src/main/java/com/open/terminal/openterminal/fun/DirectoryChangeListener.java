@@ -0,0 +1,26 @@
+package com.open.terminal.openterminal.fun;
+
+import com.jcraft.jsch.SftpATTRS;
+
+import java.util.Map;
+
+/**
+ * @description: 远程目录变化回调，在后台线程调用
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public interface DirectoryChangeListener {
+    /**
+     * 一批合并后的变化
+     *
+     * @param dir     被监听的目录（绝对路径）
+     * @param changes 文件名 -> 最新属性，属性为 null 表示已删除
+     */
+    void onChanges(String dir, Map<String, SftpATTRS> changes);
+
+    /**
+     * 事件丢失或目录本身被删除/移动，需要整体重新加载
+     */
+    void onRescanNeeded(String dir);
+}
@@ -0,0 +1,32 @@
+package com.open.terminal.openterminal.fun;
+
+import com.open.terminal.openterminal.model.DiskUsageEntry;
+
+import java.util.List;
+
+/**
+ * @description: 磁盘占用扫描回调，在后台线程调用
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public interface DiskUsageListener {
+    /**
+     * 目录列出后先给出全部子项（文件大小已知，目录待计算）
+     */
+    void onListed(List<DiskUsageEntry> entries);
+
+    /**
+     * 某个子目录有了新的（部分或最终）大小
+     */
+    void onSize(DiskUsageEntry entry, long bytes, String status);
+
+    void onStatus(String message);
+
+    /**
+     * 当前目录所在分区的使用情况
+     */
+    void onFilesystem(String summary);
+
+    void onFinished(boolean cancelled);
+}
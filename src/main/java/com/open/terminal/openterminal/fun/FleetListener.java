@@ -0,0 +1,25 @@
+package com.open.terminal.openterminal.fun;
+
+import com.open.terminal.openterminal.model.HostMetrics;
+import com.open.terminal.openterminal.model.SavedConnection;
+
+/**
+ * @description: 批量巡检回调，在巡检的虚拟线程上调用，更新界面需自行切换到 FX 线程
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public interface FleetListener {
+    /**
+     * 一台主机采样成功
+     */
+    void onSample(SavedConnection connection, HostMetrics metrics);
+
+    /**
+     * 一台主机采样失败
+     *
+     * @param failures     连续失败次数
+     * @param retryDelayMs 退避后距离下一次尝试的毫秒数
+     */
+    void onFailure(SavedConnection connection, String reason, int failures, long retryDelayMs);
+}
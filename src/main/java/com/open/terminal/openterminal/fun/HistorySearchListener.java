@@ -0,0 +1,19 @@
+package com.open.terminal.openterminal.fun;
+
+import com.open.terminal.openterminal.model.HistoryEntry;
+
+import java.util.List;
+
+/**
+ * @description: 历史命令搜索结果回调，在后台线程调用；已被新查询取代的搜索不会回调
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public interface HistorySearchListener {
+    /**
+     * @param top   排名最前的结果，按得分从高到低
+     * @param total 匹配的总数
+     */
+    void onResult(String query, List<HistoryEntry> top, int total);
+}
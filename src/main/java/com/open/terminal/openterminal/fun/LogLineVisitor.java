@@ -0,0 +1,18 @@
+package com.open.terminal.openterminal.fun;
+
+import com.open.terminal.openterminal.model.LogLine;
+
+/**
+ * @description: 遍历日志缓存时的回调
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+@FunctionalInterface
+public interface LogLineVisitor {
+    /**
+     * @param index 该行在缓存中的全局下标
+     * @return false 停止遍历
+     */
+    boolean visit(long index, LogLine line);
+}
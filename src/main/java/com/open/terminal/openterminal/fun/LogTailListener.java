@@ -0,0 +1,25 @@
+package com.open.terminal.openterminal.fun;
+
+import com.open.terminal.openterminal.model.LogLine;
+
+import java.util.List;
+
+/**
+ * @description: 日志跟踪回调，在合并线程上调用，更新界面需自行切换到 FX 线程
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public interface LogTailListener {
+    /**
+     * 一批已排好序的新行
+     *
+     * @param firstIndex 第一行在缓存中的全局下标，后续各行依次加一
+     */
+    void onLines(List<LogLine> lines, long firstIndex);
+
+    /**
+     * 某个来源的状态变化（已连接、出错、已结束）
+     */
+    void onSourceStatus(int source, String status);
+}
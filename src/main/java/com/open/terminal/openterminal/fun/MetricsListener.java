@@ -0,0 +1,22 @@
+package com.open.terminal.openterminal.fun;
+
+import com.open.terminal.openterminal.model.HostMetrics;
+
+/**
+ * @description: 监控代理回调，在代理的读取线程上调用，更新界面需自行切换到 FX 线程
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public interface MetricsListener {
+    /**
+     * 每收到一帧完整采样调用一次
+     */
+    void onSample(HostMetrics metrics);
+
+    /**
+     * 代理意外退出（不包括主动 stop）
+     */
+    default void onStopped(String reason) {
+    }
+}
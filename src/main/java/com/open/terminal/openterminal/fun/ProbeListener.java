@@ -0,0 +1,14 @@
+package com.open.terminal.openterminal.fun;
+
+import com.open.terminal.openterminal.model.ProbeResult;
+
+/**
+ * @description: 连通性探测回调，在探测的虚拟线程上调用，更新界面需自行切换到 FX 线程
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+@FunctionalInterface
+public interface ProbeListener {
+    void onResult(String host, int port, ProbeResult result);
+}
@@ -0,0 +1,24 @@
+package com.open.terminal.openterminal.fun;
+
+/**
+ * @description: 编辑模式回写远程文件时与界面交互的回调，均在后台线程调用
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public interface RemoteEditCallback {
+    /**
+     * 远程文件在上次同步后被其他人修改，询问是否仍然覆盖（阻塞直到用户选择）
+     */
+    boolean confirmOverwrite(String remotePath);
+
+    /**
+     * 回写成功
+     *
+     * @param sentBytes  实际上传的字节数
+     * @param totalBytes 文件总大小
+     */
+    void onSaved(String remotePath, long sentBytes, long totalBytes);
+
+    void onError(String remotePath, Exception e);
+}
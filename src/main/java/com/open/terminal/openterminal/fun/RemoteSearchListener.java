@@ -0,0 +1,22 @@
+package com.open.terminal.openterminal.fun;
+
+import java.util.List;
+
+/**
+ * @description: 远程文件搜索结果回调，在后台线程分批调用。路径均为绝对路径，目录以 '/' 结尾
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public interface RemoteSearchListener {
+    void onMatches(List<String> paths);
+
+    /**
+     * 之前给出的结果已不存在（来自过期的索引或 locate 数据库）
+     */
+    void onRemoved(List<String> paths);
+
+    void onStatus(String message);
+
+    void onFinished(boolean cancelled);
+}
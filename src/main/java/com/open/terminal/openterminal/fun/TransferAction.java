@@ -0,0 +1,20 @@
+package com.open.terminal.openterminal.fun;
+
+import com.jcraft.jsch.SftpProgressMonitor;
+import com.open.terminal.openterminal.model.DownloadTask;
+
+/**
+ * @description: 传输任务的具体执行逻辑，由发起传输的 Tab 提供（负责打开自己会话上的 SFTP 通道）
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+@FunctionalInterface
+public interface TransferAction {
+    /**
+     * @param task    当前任务
+     * @param monitor 调度器提供的进度监听器，count 返回 false 表示暂停或取消
+     * @param resume  是否为断点续传（暂停后继续、失败后重试）
+     */
+    void transfer(DownloadTask task, SftpProgressMonitor monitor, boolean resume) throws Exception;
+}
@@ -0,0 +1,15 @@
+package com.open.terminal.openterminal.fun;
+
+import com.open.terminal.openterminal.model.DownloadTask;
+import com.open.terminal.openterminal.model.VerifyResult;
+
+/**
+ * @description: 传输完成后校验两端内容是否一致，由发起传输的 Tab 提供（需要在自己的会话上执行远程命令）
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+@FunctionalInterface
+public interface TransferVerifier {
+    VerifyResult verify(DownloadTask task) throws Exception;
+}
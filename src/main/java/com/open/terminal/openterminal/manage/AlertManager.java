@@ -0,0 +1,305 @@
+package com.open.terminal.openterminal.manage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.open.terminal.openterminal.fun.AlertListener;
+import com.open.terminal.openterminal.model.AlertEvent;
+import com.open.terminal.openterminal.model.AlertRule;
+import com.open.terminal.openterminal.model.HostMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @description: 告警规则的保存与评估。每台主机每条规则只保存连续越限次数、越限开始时间和是否已触发三个值，
+ * 每次采样对每条规则做一次 O(1) 更新，几百台主机同时监控也只是几次比较。
+ * 规则列表修改后整体替换（写时复制），各主机的状态在下一次采样时按规则 id 迁移到新列表：
+ * 条件没变的规则保留原状态，条件变了的从头计数；被删除、停用或改变了条件时仍在触发的规则先发出恢复通知。
+ * 状态按 来源 + 主机 分开保存：终端标签页和巡检大盘可能同时采样同一台主机，采样节奏不同，互不混用
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class AlertManager {
+    private static final Logger log = LoggerFactory.getLogger(AlertManager.class);
+    private static final File STORAGE_FILE = Paths.get(System.getProperty("user.home"), ".openterminal", "alert-rules.json").toFile();
+    private static AlertManager instance;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private volatile List<AlertRule> rules = Collections.emptyList();
+    private final Map<String, HostState> states = new ConcurrentHashMap<>();
+    private final List<AlertListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicInteger sourceSequence = new AtomicInteger();
+
+    private AlertManager() {
+        load();
+    }
+
+    public static synchronized AlertManager getInstance() {
+        if (instance == null) instance = new AlertManager();
+        return instance;
+    }
+
+    private void load() {
+        if (!STORAGE_FILE.exists()) return;
+        try {
+            rules = Collections.unmodifiableList(mapper.readValue(STORAGE_FILE, new TypeReference<List<AlertRule>>() {}));
+        } catch (IOException e) {
+            log.error("加载告警规则失败", e);
+        }
+    }
+
+    private void save() {
+        try {
+            if (!STORAGE_FILE.getParentFile().exists()) {
+                STORAGE_FILE.getParentFile().mkdirs();
+            }
+            mapper.writeValue(STORAGE_FILE, rules);
+        } catch (IOException e) {
+            log.error("保存告警规则失败", e);
+        }
+    }
+
+    public List<AlertRule> getRules() {
+        return new ArrayList<>(rules);
+    }
+
+    public synchronized void addOrUpdate(AlertRule rule) {
+        List<AlertRule> copy = new ArrayList<>(rules);
+        copy.removeIf(r -> r.getId().equals(rule.getId()));
+        copy.add(rule);
+        rules = Collections.unmodifiableList(copy);
+        save();
+    }
+
+    public synchronized void remove(String id) {
+        List<AlertRule> copy = new ArrayList<>(rules);
+        copy.removeIf(r -> r.getId().equals(id));
+        rules = Collections.unmodifiableList(copy);
+        save();
+    }
+
+    public void addListener(AlertListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(AlertListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 为一个采样来源（终端标签页、巡检大盘）分配唯一标识
+     */
+    public String newSource(String kind) {
+        return kind + "-" + sourceSequence.incrementAndGet();
+    }
+
+    /**
+     * 用一次采样更新该主机的所有规则状态，状态切换时通知监听器
+     *
+     * @param source  采样来源（某个终端标签页、巡检大盘），各来源的状态分开保存
+     * @param hostKey user@host:port
+     * @param group   主机所属分组，可为空
+     * @return 该来源下该主机当前处于触发状态的规则数
+     */
+    public int evaluate(String source, String hostKey, String group, HostMetrics metrics) {
+        List<AlertRule> current = rules;
+        String key = stateKey(source, hostKey);
+        // 规则全部删除后仍要为触发中的告警发出恢复通知
+        HostState state = current.isEmpty() ? states.get(key) : states.computeIfAbsent(key, k -> new HostState(hostKey));
+        if (state == null) {
+            return 0;
+        }
+        List<AlertEvent> events = new ArrayList<>(0);
+        int active;
+        synchronized (state) {
+            state.lastMetrics = metrics;
+            long now = metrics.getTimestamp();
+            if (state.rules != current) {
+                state.migrate(current, hostKey, metrics, events);
+            }
+            for (int i = 0; i < current.size(); i++) {
+                AlertRule rule = current.get(i);
+                if (!rule.isEnabled() || !rule.appliesTo(hostKey, group)) {
+                    // 停用或不再作用于该主机
+                    state.consecutive[i] = 0;
+                    if (state.firing[i]) {
+                        state.firing[i] = false;
+                        events.add(new AlertEvent(rule, hostKey, rule.getMetric().extract(metrics), false, now));
+                    }
+                    continue;
+                }
+                double value = rule.getMetric().extract(metrics);
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                double threshold = rule.getMetric().fromDisplay(rule.getThreshold());
+                boolean breach = rule.isAbove() ? value > threshold : value < threshold;
+                if (breach) {
+                    if (state.consecutive[i]++ == 0) {
+                        state.breachSince[i] = now;
+                    }
+                    if (!state.firing[i] && state.consecutive[i] >= rule.getSamples()
+                            && now - state.breachSince[i] >= rule.getDurationSeconds() * 1000L) {
+                        state.firing[i] = true;
+                        events.add(new AlertEvent(rule, hostKey, value, true, now));
+                    }
+                } else {
+                    state.consecutive[i] = 0;
+                    if (state.firing[i]) {
+                        state.firing[i] = false;
+                        events.add(new AlertEvent(rule, hostKey, value, false, now));
+                    }
+                }
+            }
+            active = state.activeCount();
+        }
+        if (current.isEmpty()) {
+            states.remove(key, state);
+        }
+        publish(events);
+        return active;
+    }
+
+    /**
+     * 来源停止采样该主机后（会话关闭）清除状态，仍在触发的告警发出恢复通知
+     */
+    public void forget(String source, String hostKey) {
+        HostState state = states.remove(stateKey(source, hostKey));
+        if (state != null) {
+            publish(state.resolveAll());
+        }
+    }
+
+    /**
+     * 清除某个来源下所有主机的状态（巡检停止）
+     */
+    public void forgetSource(String source) {
+        String prefix = source + "|";
+        for (String key : new ArrayList<>(states.keySet())) {
+            if (key.startsWith(prefix)) {
+                HostState state = states.remove(key);
+                if (state != null) {
+                    publish(state.resolveAll());
+                }
+            }
+        }
+    }
+
+    private void publish(List<AlertEvent> events) {
+        for (AlertEvent event : events) {
+            log.info("告警{}: {} {} 当前 {}", event.isFired() ? "触发" : "恢复", event.getHostKey(),
+                    event.getRule().describe(), event.formatValue());
+            listeners.forEach(l -> l.onAlert(event));
+        }
+    }
+
+    private static String stateKey(String source, String hostKey) {
+        return source + "|" + hostKey;
+    }
+
+    /**
+     * 单台主机的告警状态，数组下标与规则列表一一对应
+     */
+    private static class HostState {
+        private final String hostKey;
+        // 最近一次采样，清除状态时作为恢复事件的数值
+        private HostMetrics lastMetrics;
+        private List<AlertRule> rules;
+        private int[] consecutive;
+        private long[] breachSince;
+        private boolean[] firing;
+
+        private HostState(String hostKey) {
+            this.hostKey = hostKey;
+        }
+
+        /**
+         * 结束所有触发中的规则，返回对应的恢复事件
+         */
+        private synchronized List<AlertEvent> resolveAll() {
+            List<AlertEvent> events = new ArrayList<>(0);
+            if (rules == null) {
+                return events;
+            }
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < rules.size(); i++) {
+                if (firing[i]) {
+                    firing[i] = false;
+                    AlertRule rule = rules.get(i);
+                    double value = lastMetrics == null ? Double.NaN : rule.getMetric().extract(lastMetrics);
+                    events.add(new AlertEvent(rule, hostKey, value, false, now));
+                }
+            }
+            return events;
+        }
+
+        /**
+         * 换成新的规则列表，按 id 保留条件未变的规则的状态；
+         * 被删除或条件变化的规则如果正在触发，向 events 加入恢复事件
+         */
+        private void migrate(List<AlertRule> rules, String hostKey, HostMetrics metrics, List<AlertEvent> events) {
+            Map<String, Integer> previous = new HashMap<>();
+            if (this.rules != null) {
+                for (int i = 0; i < this.rules.size(); i++) {
+                    previous.put(this.rules.get(i).getId(), i);
+                }
+            }
+            int[] newConsecutive = new int[rules.size()];
+            long[] newBreachSince = new long[rules.size()];
+            boolean[] newFiring = new boolean[rules.size()];
+            for (int i = 0; i < rules.size(); i++) {
+                AlertRule rule = rules.get(i);
+                Integer old = previous.remove(rule.getId());
+                if (old == null) {
+                    continue;
+                }
+                if (sameCondition(this.rules.get(old), rule)) {
+                    newConsecutive[i] = consecutive[old];
+                    newBreachSince[i] = breachSince[old];
+                    newFiring[i] = firing[old];
+                } else {
+                    previous.put(rule.getId(), old);
+                }
+            }
+            // 剩下的是被删除或条件变化的规则
+            for (int old : previous.values()) {
+                if (firing[old]) {
+                    AlertRule rule = this.rules.get(old);
+                    events.add(new AlertEvent(rule, hostKey, rule.getMetric().extract(metrics), false, metrics.getTimestamp()));
+                }
+            }
+            this.rules = rules;
+            consecutive = newConsecutive;
+            breachSince = newBreachSince;
+            firing = newFiring;
+        }
+
+        private static boolean sameCondition(AlertRule a, AlertRule b) {
+            return a.getMetric() == b.getMetric()
+                    && a.isAbove() == b.isAbove()
+                    && Double.compare(a.getThreshold(), b.getThreshold()) == 0
+                    && a.getSamples() == b.getSamples()
+                    && a.getDurationSeconds() == b.getDurationSeconds();
+        }
+
+        private int activeCount() {
+            int count = 0;
+            for (boolean f : firing) {
+                if (f) count++;
+            }
+            return count;
+        }
+    }
+}
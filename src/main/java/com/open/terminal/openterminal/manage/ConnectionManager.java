@@ -1,26 +1,70 @@
 package com.open.terminal.openterminal.manage;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.open.terminal.openterminal.model.SavedConnection;
+import com.open.terminal.openterminal.util.ThreadUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+/**
+ * @description: 保存的连接。内存中按 id 索引；修改只追加一行到变更日志 connections.log，
+ * 由后台线程在短暂合并后批量写入并刷盘，界面线程不再序列化整个文件。
+ * 日志累计到一定行数后压缩：完整快照写入临时文件再原子替换 connections.json，然后清空日志。
+ * 启动时先读快照再按顺序重放日志，末尾写了一半的行直接忽略
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
 public class ConnectionManager {
     private static final Logger log = LoggerFactory.getLogger(ConnectionManager.class);
-    private static final String FILE_NAME = "connections.json";
-    private static final File STORAGE_FILE = Paths.get(System.getProperty("user.home"), ".openterminal", FILE_NAME).toFile();
+    private static final Path STORAGE_DIR = Paths.get(System.getProperty("user.home"), ".openterminal");
+    private static final Path SNAPSHOT_FILE = STORAGE_DIR.resolve("connections.json");
+    private static final Path LOG_FILE = STORAGE_DIR.resolve("connections.log");
+    /**
+     * 合并写入的等待时间，连续修改只刷一次盘
+     */
+    private static final long WRITE_DELAY_MS = 300;
+    /**
+     * 日志超过该行数时压缩成快照
+     */
+    private static final int COMPACT_THRESHOLD = 1000;
+    private static final String OP_PUT = "put";
+    private static final String OP_DELETE = "del";
     private static ConnectionManager instance;
+
     private final ObjectMapper mapper = new ObjectMapper();
-    private List<SavedConnection> connections = new ArrayList<>();
+    // 按添加（或最近一次修改）的先后排列
+    private final LinkedHashMap<String, SavedConnection> connections = new LinkedHashMap<>();
+    // 尚未写入日志的变更，每项为一行 JSON
+    private List<String> pending = new ArrayList<>();
+    private boolean snapshotRequested = false;
+    private ScheduledFuture<?> writeTask;
+    private int logLines = 0;
+    // 串行化磁盘写入
+    private final Object writeLock = new Object();
 
     private ConnectionManager() {
         load();
@@ -32,37 +76,227 @@ public class ConnectionManager {
     }
 
     private void load() {
-        if (!STORAGE_FILE.exists()) return;
         try {
-            connections = mapper.readValue(STORAGE_FILE, new TypeReference<List<SavedConnection>>() {});
+            if (Files.exists(SNAPSHOT_FILE)) {
+                List<SavedConnection> list = mapper.readValue(SNAPSHOT_FILE.toFile(), new TypeReference<List<SavedConnection>>() {});
+                for (SavedConnection conn : list) {
+                    connections.put(conn.getId(), conn);
+                }
+            }
         } catch (IOException e) {
             log.error("加载连接配置失败", e);
         }
+        if (!Files.exists(LOG_FILE)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(LOG_FILE, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    apply(mapper.readTree(line));
+                    logLines++;
+                } catch (IOException e) {
+                    // 崩溃时最后一行可能只写了一半
+                    log.warn("忽略无法解析的连接变更: {}", e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.error("读取连接变更日志失败", e);
+        }
+        if (logLines > 0) {
+            // 重放过的日志合并进快照
+            synchronized (this) {
+                requestWrite(true);
+            }
+        }
     }
 
-    public void save() {
-        try {
-            if (!STORAGE_FILE.getParentFile().exists()) {
-                STORAGE_FILE.getParentFile().mkdirs();
+    private void apply(JsonNode change) throws IOException {
+        String op = change.path("op").asText();
+        if (OP_PUT.equals(op)) {
+            SavedConnection conn = mapper.treeToValue(change.get("conn"), SavedConnection.class);
+            connections.remove(conn.getId());
+            connections.put(conn.getId(), conn);
+        } else if (OP_DELETE.equals(op)) {
+            connections.remove(change.path("id").asText());
+        }
+    }
+
+    /**
+     * 直接修改了连接对象后调用，下一次写入时保存完整快照
+     */
+    public synchronized void save() {
+        requestWrite(true);
+    }
+
+    public synchronized List<SavedConnection> getAll() {
+        return new ArrayList<>(connections.values());
+    }
+
+    public synchronized SavedConnection get(String id) {
+        return connections.get(id);
+    }
+
+    /**
+     * 所有非空分组名，按名称排序
+     */
+    public synchronized List<String> getGroups() {
+        return connections.values().stream()
+                .map(SavedConnection::getGroup)
+                .filter(g -> g != null && !g.isBlank())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    public synchronized void addOrUpdate(SavedConnection conn) {
+        connections.remove(conn.getId());
+        connections.put(conn.getId(), conn);
+        ObjectNode change = mapper.createObjectNode();
+        change.put("op", OP_PUT);
+        change.set("conn", mapper.valueToTree(conn));
+        append(change);
+    }
+
+    /**
+     * 批量导入，按 用户@主机:端口 去重（已有的和本批内重复的都跳过）。
+     * 导入量大时逐条记日志没有意义，直接安排一次完整快照
+     *
+     * @return 实际新增的数量
+     */
+    public synchronized int importAll(List<SavedConnection> list) {
+        Set<String> known = new HashSet<>();
+        for (SavedConnection conn : connections.values()) {
+            known.add(identity(conn));
+        }
+        int added = 0;
+        for (SavedConnection conn : list) {
+            if (known.add(identity(conn))) {
+                connections.put(conn.getId(), conn);
+                added++;
             }
-            mapper.writeValue(STORAGE_FILE, connections);
+        }
+        if (added > 0) {
+            requestWrite(true);
+        }
+        return added;
+    }
+
+    private static String identity(SavedConnection conn) {
+        String user = conn.getUser() == null ? "" : conn.getUser();
+        return user + "@" + conn.getHost().toLowerCase(Locale.ROOT) + ":" + conn.getPort();
+    }
+
+    /**
+     * 记录一次连接，只更新最后连接时间
+     */
+    public synchronized void markConnected(String id) {
+        SavedConnection conn = connections.get(id);
+        if (conn == null) {
+            return;
+        }
+        conn.setLastConnected(System.currentTimeMillis());
+        ObjectNode change = mapper.createObjectNode();
+        change.put("op", OP_PUT);
+        change.set("conn", mapper.valueToTree(conn));
+        append(change);
+    }
+
+    public synchronized void remove(String id) {
+        if (connections.remove(id) == null) {
+            return;
+        }
+        ObjectNode change = mapper.createObjectNode();
+        change.put("op", OP_DELETE);
+        change.put("id", id);
+        append(change);
+    }
+
+    /**
+     * 变更在调用线程上序列化（对象之后可能被修改），写盘留给后台
+     */
+    private void append(ObjectNode change) {
+        try {
+            pending.add(mapper.writeValueAsString(change));
         } catch (IOException e) {
-            log.error("保存连接配置失败", e);
+            log.error("序列化连接变更失败", e);
+            snapshotRequested = true;
+        }
+        requestWrite(false);
+    }
+
+    private void requestWrite(boolean snapshot) {
+        snapshotRequested |= snapshot;
+        if (writeTask == null || writeTask.isDone()) {
+            writeTask = ThreadUtil.schedule(() -> ThreadUtil.submitTask(this::flush), WRITE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 立即写入所有未保存的变更，应用退出时调用
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            List<String> lines;
+            boolean snapshot;
+            List<SavedConnection> all = null;
+            synchronized (this) {
+                lines = pending;
+                pending = new ArrayList<>();
+                snapshot = snapshotRequested || logLines + lines.size() >= COMPACT_THRESHOLD;
+                snapshotRequested = false;
+                if (snapshot) {
+                    all = new ArrayList<>(connections.values());
+                }
+            }
+            try {
+                Files.createDirectories(STORAGE_DIR);
+                if (snapshot) {
+                    writeSnapshot(all);
+                } else if (!lines.isEmpty()) {
+                    appendLog(lines);
+                }
+            } catch (IOException e) {
+                log.error("保存连接配置失败", e);
+                // 下次重试时写完整快照，不丢变更
+                synchronized (this) {
+                    requestWrite(true);
+                }
+            }
         }
     }
 
-    public List<SavedConnection> getAll() {
-        return new ArrayList<>(connections);
+    private void appendLog(List<String> lines) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines) {
+            sb.append(line).append('\n');
+        }
+        writeAndForce(LOG_FILE, sb.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        synchronized (this) {
+            logLines += lines.size();
+        }
     }
 
-    public void addOrUpdate(SavedConnection conn) {
-        connections.removeIf(c -> c.getId().equals(conn.getId()));
-        connections.add(conn);
-        save();
+    /**
+     * 快照写入临时文件并刷盘后原子替换，再清空日志；替换后、清空前崩溃时重放日志也不会改变结果
+     */
+    private void writeSnapshot(List<SavedConnection> all) throws IOException {
+        Path tmp = SNAPSHOT_FILE.resolveSibling(SNAPSHOT_FILE.getFileName() + ".tmp");
+        writeAndForce(tmp, mapper.writeValueAsBytes(all), StandardOpenOption.TRUNCATE_EXISTING);
+        Files.move(tmp, SNAPSHOT_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(LOG_FILE);
+        synchronized (this) {
+            logLines = 0;
+        }
     }
 
-    public void remove(String id) {
-        connections.removeIf(c -> c.getId().equals(id));
-        save();
+    private static void writeAndForce(Path file, byte[] data, StandardOpenOption mode) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
     }
 }
@@ -0,0 +1,72 @@
+package com.open.terminal.openterminal.manage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 目录大小缓存（内存）。目录修改时间不变且未超过有效期时直接复用，避免重复在远程跑 du；
+ * 目录的修改时间只反映直接子项的增删，深层变化靠有效期兜底。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class DiskUsageCache {
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final int MAX_ENTRIES = 20000;
+    private static DiskUsageCache instance;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private DiskUsageCache() {
+    }
+
+    public static synchronized DiskUsageCache getInstance() {
+        if (instance == null) instance = new DiskUsageCache();
+        return instance;
+    }
+
+    /**
+     * @param mtime 目录当前的修改时间
+     */
+    public synchronized OptionalLong get(String host, String path, long mtime) {
+        Entry entry = entries.get(host + "|" + path);
+        if (entry == null || System.currentTimeMillis() - entry.computedAt > TTL_MILLIS) {
+            return OptionalLong.empty();
+        }
+        // mtime 未知（来自上一级 du -d 1 的顺带结果）时只看有效期
+        if (entry.mtime >= 0 && entry.mtime != mtime) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(entry.bytes);
+    }
+
+    /**
+     * @param mtime 计算时目录的修改时间，未知时传 -1
+     */
+    public synchronized void put(String host, String path, long mtime, long bytes) {
+        entries.put(host + "|" + path, new Entry(bytes, mtime, System.currentTimeMillis()));
+    }
+
+    public synchronized void invalidate(String host, String path) {
+        entries.remove(host + "|" + path);
+    }
+
+    private static class Entry {
+        final long bytes;
+        final long mtime;
+        final long computedAt;
+
+        Entry(long bytes, long mtime, long computedAt) {
+            this.bytes = bytes;
+            this.mtime = mtime;
+            this.computedAt = computedAt;
+        }
+    }
+}
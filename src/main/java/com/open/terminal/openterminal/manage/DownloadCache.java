@@ -0,0 +1,236 @@
+package com.open.terminal.openterminal.manage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.open.terminal.openterminal.model.CacheEntry;
+import com.open.terminal.openterminal.util.FileUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * @description: 本地下载缓存。以 主机 + 远程路径 + 大小 + 修改时间 作为 key，远程文件未变化时直接复用本地副本；
+ * 索引保存在缓存目录下的 cache-index.json，超过容量上限时按最近最少使用 (LRU) 淘汰。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class DownloadCache {
+    private static final Logger log = LoggerFactory.getLogger(DownloadCache.class);
+    private static final String INDEX_FILE_NAME = "cache-index.json";
+    private static final long DEFAULT_MAX_SIZE = 2L * 1024 * 1024 * 1024; // 2 GiB
+    private static DownloadCache instance;
+
+    private final Path cacheDir = FileUtil.localDownloadDir;
+    private final Path indexFile = cacheDir.resolve(INDEX_FILE_NAME);
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    // accessOrder = true：迭代顺序即 LRU 顺序，最久未访问的在最前面
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalSize = 0;
+    private long maxSizeBytes = DEFAULT_MAX_SIZE;
+
+    private DownloadCache() {
+        load();
+    }
+
+    public static synchronized DownloadCache getInstance() {
+        if (instance == null) instance = new DownloadCache();
+        return instance;
+    }
+
+    public static String buildKey(String host, String remotePath, long size, long mtime) {
+        return host + "|" + remotePath + "|" + size + "|" + mtime;
+    }
+
+    public Path getIndexFile() {
+        return indexFile;
+    }
+
+    /**
+     * 查找缓存，命中时刷新访问时间
+     */
+    public synchronized Optional<Path> lookup(String key) {
+        CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        Path local = cacheDir.resolve(entry.getLocalPath());
+        try {
+            // 本地文件被外部删除或改动，视为失效
+            if (!Files.exists(local) || Files.size(local) != entry.getSize()) {
+                removeEntry(key);
+                save();
+                return Optional.empty();
+            }
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+        entry.setLastAccess(System.currentTimeMillis());
+        save();
+        return Optional.of(local);
+    }
+
+    /**
+     * 为一个文件版本分配本地路径：cacheDir/<key 摘要>/<原文件名>，保留原文件名方便系统程序识别类型
+     */
+    public Path pathFor(String key, String fileName) {
+        return cacheDir.resolve(digest(key)).resolve(fileName);
+    }
+
+    /**
+     * 下载完成后登记到缓存，并按容量上限淘汰
+     */
+    public synchronized void put(String key, String host, String remotePath, long size, long mtime, Path localFile) {
+        removeEntry(key);
+        entries.put(key, new CacheEntry(key, host, remotePath, size, mtime,
+                cacheDir.relativize(localFile).toString()));
+        totalSize += size;
+        evict(key);
+        save();
+    }
+
+    /**
+     * 所有缓存条目，按最近访问时间从新到旧
+     */
+    public synchronized List<CacheEntry> getEntries() {
+        List<CacheEntry> list = new ArrayList<>(entries.values());
+        java.util.Collections.reverse(list);
+        return list;
+    }
+
+    public Path resolve(CacheEntry entry) {
+        return cacheDir.resolve(entry.getLocalPath());
+    }
+
+    public synchronized long getTotalSize() {
+        return totalSize;
+    }
+
+    public synchronized long getMaxSizeBytes() {
+        return maxSizeBytes;
+    }
+
+    public synchronized void setMaxSizeBytes(long maxSizeBytes) {
+        this.maxSizeBytes = Math.max(0, maxSizeBytes);
+        evict(null);
+        save();
+    }
+
+    /**
+     * 清空索引（文件由调用方删除）
+     */
+    public synchronized void clear() {
+        entries.clear();
+        totalSize = 0;
+        save();
+    }
+
+    /**
+     * 淘汰最久未使用的条目直到总大小不超过上限，刚加入的条目不淘汰
+     */
+    private void evict(String protectedKey) {
+        Iterator<Map.Entry<String, CacheEntry>> it = entries.entrySet().iterator();
+        while (totalSize > maxSizeBytes && it.hasNext()) {
+            Map.Entry<String, CacheEntry> e = it.next();
+            if (e.getKey().equals(protectedKey)) {
+                continue;
+            }
+            CacheEntry entry = e.getValue();
+            it.remove();
+            totalSize -= entry.getSize();
+            deleteLocal(entry);
+            log.info("缓存淘汰: {}", entry.getRemotePath());
+        }
+    }
+
+    private void removeEntry(String key) {
+        CacheEntry old = entries.remove(key);
+        if (old != null) {
+            totalSize -= old.getSize();
+        }
+    }
+
+    private void deleteLocal(CacheEntry entry) {
+        Path local = cacheDir.resolve(entry.getLocalPath());
+        try {
+            Files.deleteIfExists(local);
+            Path parent = local.getParent();
+            if (parent != null && !parent.equals(cacheDir)) {
+                try (var children = Files.list(parent)) {
+                    if (children.findAny().isEmpty()) {
+                        Files.delete(parent);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // 文件可能正被系统程序占用，下次清理时再删
+            log.warn("删除缓存文件失败: {}, {}", local, e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(indexFile)) return;
+        try {
+            CacheIndex index = mapper.readValue(indexFile.toFile(), CacheIndex.class);
+            maxSizeBytes = index.maxSizeBytes > 0 ? index.maxSizeBytes : DEFAULT_MAX_SIZE;
+            // 索引按 LRU 顺序保存，依次放入即可还原访问顺序
+            for (CacheEntry entry : index.entries) {
+                if (Files.exists(cacheDir.resolve(entry.getLocalPath()))) {
+                    entries.put(entry.getKey(), entry);
+                    totalSize += entry.getSize();
+                }
+            }
+        } catch (IOException e) {
+            log.error("加载下载缓存索引失败", e);
+        }
+    }
+
+    private void save() {
+        try {
+            Files.createDirectories(cacheDir);
+            CacheIndex index = new CacheIndex();
+            index.maxSizeBytes = maxSizeBytes;
+            index.entries = new ArrayList<>(entries.values());
+            // 先写临时文件再原子替换，避免写到一半崩溃导致索引损坏
+            Path tmp = cacheDir.resolve(INDEX_FILE_NAME + ".tmp");
+            mapper.writeValue(tmp.toFile(), index);
+            Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("保存下载缓存索引失败", e);
+        }
+    }
+
+    private static String digest(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                sb.append(String.format("%02x", hash[i]));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 索引文件结构
+     */
+    public static class CacheIndex {
+        public long maxSizeBytes;
+        public List<CacheEntry> entries = new ArrayList<>();
+    }
+}
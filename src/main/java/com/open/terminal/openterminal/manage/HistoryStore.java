@@ -0,0 +1,325 @@
+package com.open.terminal.openterminal.manage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.SftpATTRS;
+import com.jcraft.jsch.SftpException;
+import com.open.terminal.openterminal.model.HistoryEntry;
+import com.open.terminal.openterminal.model.HistorySyncState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @description: 本地命令历史库，合并所有主机的 bash / zsh 历史，按命令去重并记录次数、主机和最近使用时间。
+ * 命令按最近出现的先后保存在 ~/.openterminal/history.gz；每个远程历史文件记录已读到的偏移，
+ * 同步时先 stat，大小和修改时间都没变就不读取，否则只从偏移处读取追加的部分
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class HistoryStore {
+    private static final Logger log = LoggerFactory.getLogger(HistoryStore.class);
+    private static final Path STORAGE_DIR = Paths.get(System.getProperty("user.home"), ".openterminal");
+    private static final Path HISTORY_FILE = STORAGE_DIR.resolve("history.gz");
+    private static final Path SYNC_FILE = STORAGE_DIR.resolve("history-sync.json");
+    private static final String HEADER = "#OTHIST";
+    private static final String[] HISTORY_FILES = {".bash_history", ".zsh_history"};
+    private static final int MAX_ENTRIES = 200_000;
+    // 保存在同步进度中的偏移前字节数，用于判断文件是否被重写
+    private static final int TAIL_BYTES = 64;
+    private static HistoryStore instance;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    // 按最近出现的先后排列，最新的在末尾
+    private final LinkedHashMap<String, HistoryEntry> entries = new LinkedHashMap<>();
+    private final Map<String, HistorySyncState> syncStates = new HashMap<>();
+    // 多个 Tab 同时同步时串行写盘
+    private final Object saveLock = new Object();
+
+    private HistoryStore() {
+        load();
+    }
+
+    /**
+     * 首次调用会从磁盘加载，不要在 FX 线程上首次调用
+     */
+    public static synchronized HistoryStore getInstance() {
+        if (instance == null) instance = new HistoryStore();
+        return instance;
+    }
+
+    /**
+     * 当前所有命令，最近使用的在前
+     */
+    public synchronized List<HistoryEntry> snapshot() {
+        List<HistoryEntry> list = new ArrayList<>(entries.values());
+        Collections.reverse(list);
+        return list;
+    }
+
+    /**
+     * 增量同步某台主机的历史文件
+     *
+     * @param sftp 调用方独占的通道
+     * @return 是否有新命令
+     */
+    public boolean sync(String host, ChannelSftp sftp) throws SftpException {
+        String home = sftp.getHome();
+        boolean changed = false;
+        for (String name : HISTORY_FILES) {
+            String path = home + "/" + name;
+            SftpATTRS attrs;
+            try {
+                attrs = sftp.stat(path);
+            } catch (SftpException e) {
+                continue; // 该 shell 的历史文件不存在
+            }
+            try {
+                changed |= syncFile(host, path, name.startsWith(".zsh"), attrs, sftp);
+            } catch (IOException | SftpException e) {
+                log.warn("同步历史文件失败: {} {}, {}", host, path, e.getMessage());
+            }
+        }
+        if (changed) {
+            save();
+        }
+        return changed;
+    }
+
+    private boolean syncFile(String host, String path, boolean zsh, SftpATTRS attrs, ChannelSftp sftp)
+            throws IOException, SftpException {
+        String key = host + "|" + path;
+        HistorySyncState state;
+        synchronized (this) {
+            state = syncStates.get(key);
+        }
+        long size = attrs.getSize();
+        long mtime = attrs.getMTime();
+        if (state != null && state.getOffset() == size && state.getMtime() == mtime) {
+            return false;
+        }
+
+        long start = 0;
+        byte[] data = null;
+        boolean rewritten = state != null && size < state.getOffset();
+        if (state != null && !rewritten && state.getOffset() > 0) {
+            // 连同偏移前的一小段一起读，对不上说明文件被重写过
+            byte[] tail = state.getTail();
+            long from = state.getOffset() - tail.length;
+            byte[] read = readFrom(sftp, path, from);
+            if (read.length >= tail.length && Arrays.equals(read, 0, tail.length, tail, 0, tail.length)) {
+                start = state.getOffset();
+                data = Arrays.copyOfRange(read, tail.length, read.length);
+            } else {
+                rewritten = true;
+            }
+        }
+        if (data == null) {
+            data = readFrom(sftp, path, 0);
+        }
+
+        // 只处理到最后一个换行，写了一半的行留到下次
+        int end = data.length;
+        while (end > 0 && data[end - 1] != '\n') {
+            end--;
+        }
+        List<String[]> commands = parse(new String(data, 0, end, StandardCharsets.UTF_8), zsh);
+
+        HistorySyncState next = new HistorySyncState();
+        next.setHost(host);
+        next.setPath(path);
+        next.setOffset(start + end);
+        next.setMtime(mtime);
+        byte[] consumed = Arrays.copyOfRange(data, 0, end);
+        byte[] previousTail = state != null && start > 0 ? state.getTail() : new byte[0];
+        next.setTail(lastBytes(previousTail, consumed));
+
+        synchronized (this) {
+            for (String[] command : commands) {
+                record(command[1], host, Long.parseLong(command[0]), rewritten);
+            }
+            syncStates.put(key, next);
+        }
+        return !commands.isEmpty() || state == null || state.getOffset() != next.getOffset();
+    }
+
+    private static byte[] readFrom(ChannelSftp sftp, String path, long skip) throws SftpException, IOException {
+        try (InputStream in = sftp.get(path, null, skip)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] lastBytes(byte[] previous, byte[] consumed) {
+        if (consumed.length >= TAIL_BYTES) {
+            return Arrays.copyOfRange(consumed, consumed.length - TAIL_BYTES, consumed.length);
+        }
+        int fromPrevious = Math.min(previous.length, TAIL_BYTES - consumed.length);
+        byte[] tail = new byte[fromPrevious + consumed.length];
+        System.arraycopy(previous, previous.length - fromPrevious, tail, 0, fromPrevious);
+        System.arraycopy(consumed, 0, tail, fromPrevious, consumed.length);
+        return tail;
+    }
+
+    /**
+     * 解析历史文本，返回 [时间戳毫秒, 命令]。
+     * bash 设置了 HISTTIMEFORMAT 时命令前有 "#1678888888" 一行；zsh 扩展格式为 ": 1678888888:0;command"
+     */
+    private static List<String[]> parse(String text, boolean zsh) {
+        List<String[]> result = new ArrayList<>();
+        long timestamp = 0;
+        for (String line : text.split("\n")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String cmd = line;
+            if (zsh && line.startsWith(": ")) {
+                int colon = line.indexOf(':', 2);
+                int semi = line.indexOf(';');
+                if (colon > 0 && semi > colon) {
+                    timestamp = parseSeconds(line.substring(2, colon));
+                    cmd = line.substring(semi + 1);
+                }
+            } else if (!zsh && line.length() > 1 && line.charAt(0) == '#' && line.chars().skip(1).allMatch(Character::isDigit)) {
+                timestamp = parseSeconds(line.substring(1));
+                continue;
+            }
+            cmd = cmd.strip();
+            if (!cmd.isEmpty()) {
+                result.add(new String[]{String.valueOf(timestamp), cmd});
+            }
+            timestamp = 0;
+        }
+        return result;
+    }
+
+    private static long parseSeconds(String s) {
+        try {
+            return Long.parseLong(s.trim()) * 1000;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 记录一次出现并移到最近。文件被重写时无法区分新旧行，该主机已有的命令不再累加次数
+     */
+    private void record(String command, String host, long timestamp, boolean rewritten) {
+        HistoryEntry old = entries.remove(command);
+        if (old == null) {
+            entries.put(command, new HistoryEntry(command, 1, timestamp, Set.of(host)));
+            if (entries.size() > MAX_ENTRIES) {
+                Iterator<String> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+            return;
+        }
+        boolean known = old.getHosts().contains(host);
+        Set<String> hosts = old.getHosts();
+        if (!known) {
+            hosts = new HashSet<>(hosts);
+            hosts.add(host);
+        }
+        int count = rewritten && known ? old.getCount() : old.getCount() + 1;
+        entries.put(command, new HistoryEntry(command, count, Math.max(old.getLastUsed(), timestamp), hosts));
+    }
+
+    private void load() {
+        try {
+            if (Files.exists(SYNC_FILE)) {
+                List<HistorySyncState> states = mapper.readValue(SYNC_FILE.toFile(), new TypeReference<List<HistorySyncState>>() {});
+                for (HistorySyncState state : states) {
+                    syncStates.put(state.getHost() + "|" + state.getPath(), state);
+                }
+            }
+        } catch (IOException e) {
+            log.error("加载历史同步进度失败", e);
+        }
+        if (!Files.exists(HISTORY_FILE)) {
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(HISTORY_FILE)), StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(HEADER)) {
+                return;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // count \t lastUsed \t hosts \t command，命令放最后，本身可以包含制表符
+                String[] parts = line.split("\t", 4);
+                if (parts.length < 4) {
+                    continue;
+                }
+                Set<String> hosts = parts[2].isEmpty() ? Set.of() : Set.of(parts[2].split(","));
+                entries.put(parts[3], new HistoryEntry(parts[3], Integer.parseInt(parts[0]), Long.parseLong(parts[1]), hosts));
+            }
+        } catch (IOException | RuntimeException e) {
+            // 历史库损坏时清空同步进度，下次全部重新读取
+            log.warn("读取本地历史库失败，将重新同步: {}", e.getMessage());
+            entries.clear();
+            syncStates.clear();
+        }
+    }
+
+    /**
+     * 写入临时文件后原子替换
+     */
+    private void save() {
+        List<HistoryEntry> list;
+        List<HistorySyncState> states;
+        synchronized (this) {
+            list = new ArrayList<>(entries.values());
+            states = new ArrayList<>(syncStates.values());
+        }
+        Path tmp = HISTORY_FILE.resolveSibling(HISTORY_FILE.getFileName() + ".tmp");
+        synchronized (saveLock) {
+            write(list, states, tmp);
+        }
+    }
+
+    private void write(List<HistoryEntry> list, List<HistorySyncState> states, Path tmp) {
+        try {
+            Files.createDirectories(STORAGE_DIR);
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(tmp)), StandardCharsets.UTF_8))) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (HistoryEntry entry : list) {
+                    writer.write(entry.getCount() + "\t" + entry.getLastUsed() + "\t"
+                            + String.join(",", entry.getHosts()) + "\t" + entry.getCommand());
+                    writer.newLine();
+                }
+            }
+            Files.move(tmp, HISTORY_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            mapper.writeValue(SYNC_FILE.toFile(), states);
+        } catch (IOException e) {
+            log.error("保存本地历史库失败", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.open.terminal.openterminal.manage;
+
+import com.open.terminal.openterminal.model.HostMetrics;
+import com.open.terminal.openterminal.model.HostTimeSeries;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @description: 按主机保存监控时间序列（内存），同一主机重新连接后继续沿用之前的历史
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class MetricsStore {
+    private static MetricsStore instance;
+
+    private final Map<String, HostTimeSeries> hosts = new ConcurrentHashMap<>();
+
+    private MetricsStore() {
+    }
+
+    public static synchronized MetricsStore getInstance() {
+        if (instance == null) instance = new MetricsStore();
+        return instance;
+    }
+
+    /**
+     * @param hostKey 主机标识，使用会话的 user@host:port
+     */
+    public void record(String hostKey, HostMetrics metrics) {
+        get(hostKey).record(metrics);
+    }
+
+    public HostTimeSeries get(String hostKey) {
+        return hosts.computeIfAbsent(hostKey, k -> new HostTimeSeries());
+    }
+}
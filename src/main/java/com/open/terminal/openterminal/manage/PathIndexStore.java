@@ -0,0 +1,172 @@
+package com.open.terminal.openterminal.manage;
+
+import com.open.terminal.openterminal.model.PathIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @description: 远程路径索引的存储。每个 主机 + 根目录 一个 gzip 文件，保存在 ~/.openterminal/path-index 下；
+ * 内存中只保留最近使用的少量索引，搜索某目录时可复用其任意祖先目录的索引。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class PathIndexStore {
+    private static final Logger log = LoggerFactory.getLogger(PathIndexStore.class);
+    private static final Path STORAGE_DIR = Paths.get(System.getProperty("user.home"), ".openterminal", "path-index");
+    private static final String HEADER = "#OTIDX";
+    private static final int MAX_LOADED = 4;
+    private static PathIndexStore instance;
+
+    // 已加载到内存的索引，按访问顺序淘汰（只从内存移除，磁盘文件保留）
+    private final Map<String, PathIndex> loaded = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PathIndex> eldest) {
+            return size() > MAX_LOADED;
+        }
+    };
+
+    private PathIndexStore() {
+    }
+
+    public static synchronized PathIndexStore getInstance() {
+        if (instance == null) instance = new PathIndexStore();
+        return instance;
+    }
+
+    /**
+     * 查找覆盖 root 的索引：先找 root 自身，再依次找父目录
+     */
+    public synchronized PathIndex findCovering(String host, String root) {
+        String dir = root;
+        while (dir != null) {
+            PathIndex index = get(host, dir);
+            if (index != null) {
+                return index;
+            }
+            dir = parentOf(dir);
+        }
+        return null;
+    }
+
+    /**
+     * 登记新建立的索引并写盘
+     */
+    public void put(PathIndex index) {
+        synchronized (this) {
+            loaded.put(key(index.getHost(), index.getRoot()), index);
+        }
+        save(index);
+    }
+
+    public synchronized void remove(String host, String root) {
+        loaded.remove(key(host, root));
+        try {
+            Files.deleteIfExists(fileFor(host, root));
+        } catch (IOException e) {
+            log.warn("删除路径索引失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 写入临时文件后原子替换，避免写到一半的索引被读取
+     */
+    public void save(PathIndex index) {
+        Path file = fileFor(index.getHost(), index.getRoot());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(STORAGE_DIR);
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(tmp)), StandardCharsets.UTF_8))) {
+                writer.write(String.join("\t", HEADER, index.getHost(), index.getRoot(),
+                        String.valueOf(index.getBuiltAt()), String.valueOf(index.isIncremental())));
+                writer.newLine();
+                for (Map.Entry<String, Boolean> e : index.snapshot()) {
+                    writer.write(e.getValue() ? 'd' : 'f');
+                    writer.write('\t');
+                    writer.write(e.getKey());
+                    writer.newLine();
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("保存路径索引失败: {}", index.getRoot(), e);
+        }
+    }
+
+    private PathIndex get(String host, String root) {
+        String key = key(host, root);
+        PathIndex index = loaded.get(key);
+        if (index == null) {
+            index = load(host, root);
+            if (index != null) {
+                loaded.put(key, index);
+            }
+        }
+        return index;
+    }
+
+    private PathIndex load(String host, String root) {
+        Path file = fileFor(host, root);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String[] header = reader.readLine().split("\t");
+            if (header.length < 5 || !HEADER.equals(header[0]) || !host.equals(header[1]) || !root.equals(header[2])) {
+                return null;
+            }
+            PathIndex index = new PathIndex(host, root, Long.parseLong(header[3]), Boolean.parseBoolean(header[4]));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() > 2) {
+                    index.put(line.substring(2), line.charAt(0) == 'd');
+                }
+            }
+            return index;
+        } catch (IOException | RuntimeException e) {
+            log.warn("读取路径索引失败，将重新建立: {}, {}", root, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String parentOf(String dir) {
+        if ("/".equals(dir)) {
+            return null;
+        }
+        int slash = dir.lastIndexOf('/');
+        return slash > 0 ? dir.substring(0, slash) : slash == 0 ? "/" : null;
+    }
+
+    private static String key(String host, String root) {
+        return host + "|" + root;
+    }
+
+    private static Path fileFor(String host, String root) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key(host, root).getBytes(StandardCharsets.UTF_8));
+            return STORAGE_DIR.resolve(HexFormat.of().formatHex(hash, 0, 12) + ".idx.gz");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.open.terminal.openterminal.manage;
+
+import com.open.terminal.openterminal.model.SessionEndpoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @description: 当前所有已连接的终端 Tab，连接成功时登记，断开时移除
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class SessionRegistry {
+    private static SessionRegistry instance;
+
+    private final List<SessionEndpoint> endpoints = new ArrayList<>();
+
+    private SessionRegistry() {
+    }
+
+    public static synchronized SessionRegistry getInstance() {
+        if (instance == null) instance = new SessionRegistry();
+        return instance;
+    }
+
+    public synchronized void register(SessionEndpoint endpoint) {
+        endpoints.add(endpoint);
+    }
+
+    public synchronized void unregister(SessionEndpoint endpoint) {
+        endpoints.remove(endpoint);
+    }
+
+    public synchronized List<SessionEndpoint> getAll() {
+        return new ArrayList<>(endpoints);
+    }
+
+    /**
+     * 除自己以外的会话
+     */
+    public synchronized List<SessionEndpoint> getOthers(SessionEndpoint self) {
+        List<SessionEndpoint> others = new ArrayList<>(endpoints);
+        others.remove(self);
+        return others;
+    }
+}
@@ -0,0 +1,379 @@
+package com.open.terminal.openterminal.manage;
+
+import com.jcraft.jsch.SftpProgressMonitor;
+import com.open.terminal.openterminal.model.DownloadTask;
+import com.open.terminal.openterminal.model.DownloadTask.TaskStatus;
+import com.open.terminal.openterminal.model.DownloadTask.VerifyStatus;
+import com.open.terminal.openterminal.model.TransferPriority;
+import com.open.terminal.openterminal.model.VerifyResult;
+import com.open.terminal.openterminal.util.ThreadUtil;
+import com.open.terminal.openterminal.util.TokenBucket;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 全局传输调度器，所有 Tab 的上传/下载统一排队。
+ * 支持优先级、全局与单会话并发上限、暂停/继续/取消以及令牌桶限速。
+ * 传输线程只做无锁计数，进度、速度和剩余时间按固定节奏统一发布到 FX 线程。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class TransferManager {
+    private static final Logger log = LoggerFactory.getLogger(TransferManager.class);
+    private static TransferManager instance;
+
+    /**
+     * 优先级高的在前，同优先级按提交顺序
+     */
+    private static final Comparator<DownloadTask> QUEUE_ORDER = Comparator
+            .comparingInt((DownloadTask t) -> t.getPriority().getWeight()).reversed()
+            .thenComparingLong(DownloadTask::getSequence);
+
+    /**
+     * 进度发布间隔，每个间隔最多向 FX 线程投递一次 runLater
+     */
+    private static final long PUBLISH_INTERVAL_MS = 250;
+    /**
+     * 带宽曲线每秒一个点，保留最近 2 分钟
+     */
+    private static final int HISTORY_SECONDS = 120;
+    private static final int TICKS_PER_HISTORY_POINT = (int) (1000 / PUBLISH_INTERVAL_MS);
+
+    // 全局任务列表，供下载列表弹窗展示，只在 FX 线程修改
+    private final ObservableList<DownloadTask> tasks = FXCollections.observableArrayList();
+    // 全局速度及历史曲线（字节/秒），只在 FX 线程修改
+    private final ReadOnlyDoubleWrapper globalSpeed = new ReadOnlyDoubleWrapper(0);
+    private final ObservableList<Double> throughputHistory = FXCollections.observableArrayList();
+    // 以下两个字段只被调度线程访问
+    private double historyAccumulator = 0;
+    private int historyTicks = 0;
+
+    // 以下状态均由 this 锁保护
+    private final List<DownloadTask> waiting = new ArrayList<>();
+    private final Map<String, Integer> runningPerSession = new HashMap<>();
+    private final Set<DownloadTask> running = new LinkedHashSet<>();
+    private int runningTotal = 0;
+    private int maxGlobalConcurrency = 4;
+    private int maxSessionConcurrency = 2;
+
+    // 所有传输共享的带宽上限
+    private final TokenBucket bandwidth = new TokenBucket(0);
+    // 传输完成后是否校验两端摘要
+    private volatile boolean verifyEnabled = false;
+
+    private TransferManager() {
+        ThreadUtil.scheduleAtFixedRate(this::publishProgress, PUBLISH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized TransferManager getInstance() {
+        if (instance == null) instance = new TransferManager();
+        return instance;
+    }
+
+    public ObservableList<DownloadTask> getTasks() {
+        return tasks;
+    }
+
+    public ReadOnlyDoubleProperty globalSpeedProperty() {
+        return globalSpeed.getReadOnlyProperty();
+    }
+
+    /**
+     * 最近 2 分钟的全局传输速度，每秒一个点（字节/秒）
+     */
+    public ObservableList<Double> getThroughputHistory() {
+        return throughputHistory;
+    }
+
+    /**
+     * 提交一个传输任务，进入等待队列
+     */
+    public DownloadTask submit(DownloadTask task) {
+        Platform.runLater(() -> tasks.addFirst(task)); // 加到最前面
+        enqueue(task);
+        return task;
+    }
+
+    public void pause(DownloadTask task) {
+        if (!task.isPausable()) {
+            return;
+        }
+        synchronized (this) {
+            if (waiting.remove(task)) {
+                updateStatus(task, TaskStatus.PAUSED);
+                return;
+            }
+        }
+        // 正在运行的任务：下一次 count 回调返回 false 中断传输
+        task.requestPause();
+    }
+
+    public void resume(DownloadTask task) {
+        String status = task.statusProperty().get();
+        if (TaskStatus.PAUSED.equals(status) || TaskStatus.FAILED.equals(status)) {
+            enqueue(task);
+        }
+    }
+
+    public void cancel(DownloadTask task) {
+        synchronized (this) {
+            if (waiting.remove(task) || TaskStatus.PAUSED.equals(task.statusProperty().get())) {
+                task.requestCancel();
+                finishCancelled(task);
+                return;
+            }
+        }
+        task.requestCancel();
+    }
+
+    public synchronized void setPriority(DownloadTask task, TransferPriority priority) {
+        task.priorityProperty().set(priority);
+        schedule();
+    }
+
+    public synchronized void setConcurrency(int maxGlobal, int maxPerSession) {
+        this.maxGlobalConcurrency = Math.max(1, maxGlobal);
+        this.maxSessionConcurrency = Math.max(1, maxPerSession);
+        schedule();
+    }
+
+    public synchronized int getMaxGlobalConcurrency() {
+        return maxGlobalConcurrency;
+    }
+
+    public synchronized int getMaxSessionConcurrency() {
+        return maxSessionConcurrency;
+    }
+
+    /**
+     * @param bytesPerSecond 小于等于 0 表示不限速
+     */
+    public void setBandwidthLimit(long bytesPerSecond) {
+        bandwidth.setRate(bytesPerSecond);
+    }
+
+    public long getBandwidthLimit() {
+        return bandwidth.getRate();
+    }
+
+    public boolean isVerifyEnabled() {
+        return verifyEnabled;
+    }
+
+    public void setVerifyEnabled(boolean verifyEnabled) {
+        this.verifyEnabled = verifyEnabled;
+    }
+
+    private synchronized void enqueue(DownloadTask task) {
+        task.clearPause();
+        waiting.add(task);
+        updateStatus(task, TaskStatus.PENDING);
+        schedule();
+    }
+
+    /**
+     * 按优先级挑选可以启动的任务，直到全局或会话并发用尽
+     */
+    private synchronized void schedule() {
+        waiting.sort(QUEUE_ORDER);
+        Iterator<DownloadTask> it = waiting.iterator();
+        while (it.hasNext() && runningTotal < maxGlobalConcurrency) {
+            DownloadTask task = it.next();
+            String key = task.getSessionKey();
+            if (runningPerSession.getOrDefault(key, 0) >= maxSessionConcurrency) {
+                continue;
+            }
+            it.remove();
+            runningTotal++;
+            runningPerSession.merge(key, 1, Integer::sum);
+            ThreadUtil.submitTask(() -> execute(task));
+        }
+    }
+
+    private synchronized void release(DownloadTask task) {
+        running.remove(task);
+        runningTotal--;
+        runningPerSession.computeIfPresent(task.getSessionKey(), (k, v) -> v > 1 ? v - 1 : null);
+        schedule();
+    }
+
+    private void execute(DownloadTask task) {
+        boolean resume = task.isStarted();
+        task.markStarted();
+        synchronized (this) {
+            task.startRun(System.nanoTime());
+            running.add(task);
+        }
+        updateStatus(task, TaskStatus.IN_PROGRESS);
+        try {
+            task.getAction().transfer(task, createMonitor(task, resume), resume);
+            if (task.isCancelRequested()) {
+                finishCancelled(task);
+            } else if (task.isPauseRequested()) {
+                updateStatus(task, TaskStatus.PAUSED);
+            } else {
+                task.skipProgress(task.getTotalSize() - task.getCurrentSize());
+                updateStatus(task, TaskStatus.COMPLETED);
+                task.getCompletion().complete(null);
+                if (verifyEnabled && task.getVerifier() != null) {
+                    ThreadUtil.submitTask(() -> verify(task));
+                }
+            }
+        } catch (Exception e) {
+            if (task.isCancelRequested()) {
+                finishCancelled(task);
+            } else if (task.isPauseRequested()) {
+                updateStatus(task, TaskStatus.PAUSED);
+            } else {
+                log.error("传输失败: {}", task.getFileName(), e);
+                updateStatus(task, TaskStatus.FAILED);
+                task.getCompletion().completeExceptionally(e);
+            }
+        } finally {
+            release(task);
+        }
+    }
+
+    /**
+     * 在独立线程上校验，不占用传输并发名额，也不推迟任务的完成通知
+     */
+    private void verify(DownloadTask task) {
+        Platform.runLater(() -> {
+            task.verifyDetailProperty().set(null);
+            task.verifyStatusProperty().set(VerifyStatus.VERIFYING);
+        });
+        long start = System.currentTimeMillis();
+        try {
+            VerifyResult result = task.getVerifier().verify(task);
+            String detail = String.format("%s%n本地: %s%n远程: %s%n耗时 %d ms", result.getAlgorithm(),
+                    result.getLocalDigest(), result.getRemoteDigest(), System.currentTimeMillis() - start);
+            if (!result.isMatch()) {
+                log.warn("校验不一致: {}, {}", task.getFileName(), detail);
+            }
+            Platform.runLater(() -> {
+                // 先写详情，单元格在状态变化时读取它作为提示
+                task.verifyDetailProperty().set(detail);
+                task.verifyStatusProperty().set(result.isMatch() ? VerifyStatus.MATCH : VerifyStatus.MISMATCH);
+            });
+        } catch (Exception e) {
+            log.error("校验失败: {}", task.getFileName(), e);
+            Platform.runLater(() -> {
+                task.verifyDetailProperty().set(e.getMessage());
+                task.verifyStatusProperty().set(VerifyStatus.ERROR);
+            });
+        }
+    }
+
+    private SftpProgressMonitor createMonitor(DownloadTask task, boolean resume) {
+        return new SftpProgressMonitor() {
+            // RESUME 模式下 JSch 会在 init 之后先用一次 count 汇报已存在的字节数，这部分不需要限速
+            private boolean skipReported = !resume;
+
+            @Override
+            public void init(int op, String src, String dest, long max) {
+                task.resetProgress();
+                log.info("开始{}: {}", task.getType(), task.getFileName());
+            }
+
+            @Override
+            public boolean count(long count) {
+                if (task.isCancelRequested() || task.isPauseRequested()) {
+                    return false; // 返回 false 会中断传输
+                }
+                if (skipReported) {
+                    bandwidth.acquire(count);
+                    task.updateProgress(count);
+                } else {
+                    skipReported = true;
+                    task.skipProgress(count);
+                }
+                return !task.isCancelRequested() && !task.isPauseRequested();
+            }
+
+            @Override
+            public void end() {
+                log.info("{}结束: {}", task.getType(), task.getFileName());
+            }
+        };
+    }
+
+    private void finishCancelled(DownloadTask task) {
+        updateStatus(task, TaskStatus.CANCELLED);
+        task.getCompletion().completeExceptionally(new CancellationException("传输已取消"));
+        // 下载被取消时删除本地残留的半截文件
+        if (DownloadTask.TransferType.DOWNLOAD.equals(task.getType()) && task.getLocalPath() != null) {
+            try {
+                Files.deleteIfExists(task.getLocalPath());
+            } catch (IOException e) {
+                log.warn("删除未完成的下载文件失败: {}", task.getLocalPath());
+            }
+        }
+    }
+
+    /**
+     * 定时采样所有运行中的任务，合并成一次 runLater 发布到界面
+     */
+    private void publishProgress() {
+        List<DownloadTask> active;
+        synchronized (this) {
+            active = new ArrayList<>(running);
+        }
+        long now = System.nanoTime();
+        double total = 0;
+        for (DownloadTask task : active) {
+            total += task.sample(now);
+        }
+
+        historyAccumulator += total;
+        boolean historyPoint = ++historyTicks >= TICKS_PER_HISTORY_POINT;
+        double historyValue = historyAccumulator / historyTicks;
+        if (historyPoint) {
+            historyAccumulator = 0;
+            historyTicks = 0;
+        }
+        // 没有活动任务且曲线不需要推进时，不打扰 FX 线程
+        if (active.isEmpty() && !historyPoint) {
+            return;
+        }
+        final double speed = total;
+        Platform.runLater(() -> {
+            active.forEach(DownloadTask::publish);
+            globalSpeed.set(speed);
+            if (historyPoint) {
+                throughputHistory.add(historyValue);
+                if (throughputHistory.size() > HISTORY_SECONDS) {
+                    throughputHistory.remove(0, throughputHistory.size() - HISTORY_SECONDS);
+                }
+            }
+        });
+    }
+
+    /**
+     * 状态变化时同时刷新一次进度，保证结束后界面停在最终值
+     */
+    private void updateStatus(DownloadTask task, String status) {
+        Platform.runLater(() -> {
+            task.statusProperty().set(status);
+            task.publish();
+        });
+    }
+}
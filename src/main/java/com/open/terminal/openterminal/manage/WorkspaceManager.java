@@ -0,0 +1,62 @@
+package com.open.terminal.openterminal.manage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.open.terminal.openterminal.model.Workspace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * @description: 工作区快照（打开的终端标签页及其远程目录），保存在 ~/.openterminal/workspace.json。
+ * 先写临时文件再原子替换，退出过程中被打断也不会留下半个文件
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class WorkspaceManager {
+    private static final Logger log = LoggerFactory.getLogger(WorkspaceManager.class);
+    private static final Path STORAGE_DIR = Paths.get(System.getProperty("user.home"), ".openterminal");
+    private static final Path WORKSPACE_FILE = STORAGE_DIR.resolve("workspace.json");
+    private static WorkspaceManager instance;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private WorkspaceManager() {
+    }
+
+    public static synchronized WorkspaceManager getInstance() {
+        if (instance == null) instance = new WorkspaceManager();
+        return instance;
+    }
+
+    /**
+     * @return 上次保存的工作区，没有或读取失败时返回空工作区
+     */
+    public Workspace load() {
+        if (!Files.exists(WORKSPACE_FILE)) {
+            return new Workspace();
+        }
+        try {
+            return mapper.readValue(WORKSPACE_FILE.toFile(), Workspace.class);
+        } catch (IOException e) {
+            log.error("加载工作区失败", e);
+            return new Workspace();
+        }
+    }
+
+    public synchronized void save(Workspace workspace) {
+        try {
+            Files.createDirectories(STORAGE_DIR);
+            Path tmp = WORKSPACE_FILE.resolveSibling(WORKSPACE_FILE.getFileName() + ".tmp");
+            mapper.writeValue(tmp.toFile(), workspace);
+            Files.move(tmp, WORKSPACE_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("保存工作区失败", e);
+        }
+    }
+}
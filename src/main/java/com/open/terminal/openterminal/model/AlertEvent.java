@@ -0,0 +1,37 @@
+package com.open.terminal.openterminal.model;
+
+/**
+ * @description: 告警状态变化（触发或恢复），只在状态切换时产生，越限期间不会重复
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class AlertEvent {
+    private final AlertRule rule;
+    private final String hostKey;
+    private final double value; // extract 单位的原始值
+    private final boolean fired; // true 触发，false 恢复
+    private final long timestamp;
+
+    public AlertEvent(AlertRule rule, String hostKey, double value, boolean fired, long timestamp) {
+        this.rule = rule;
+        this.hostKey = hostKey;
+        this.value = value;
+        this.fired = fired;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * 按界面单位格式化的当前值
+     */
+    public String formatValue() {
+        double display = value / rule.getMetric().fromDisplay(1);
+        return String.format("%.1f%s", display, rule.getMetric().unit());
+    }
+
+    public AlertRule getRule() { return rule; }
+    public String getHostKey() { return hostKey; }
+    public double getValue() { return value; }
+    public boolean isFired() { return fired; }
+    public long getTimestamp() { return timestamp; }
+}
@@ -0,0 +1,92 @@
+package com.open.terminal.openterminal.model;
+
+import java.util.UUID;
+
+/**
+ * @description: 告警规则，例如“生产分组磁盘 > 90% 连续 2 次”、“CPU > 95% 持续 60 秒”。
+ * 阈值按界面单位保存（百分比或 MB/s），连续次数和持续时间同时满足才触发
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class AlertRule {
+    public static final String SCOPE_ALL = "ALL";
+    public static final String SCOPE_GROUP = "GROUP";
+    public static final String SCOPE_HOST = "HOST";
+
+    private String id;
+    private String name;
+    private String scopeType = SCOPE_ALL;
+    private String scope; // 分组名，或主机（host 或 user@host:port）
+    private MetricType metric = MetricType.CPU;
+    private boolean above = true; // true 表示大于阈值告警，false 表示小于
+    private double threshold;
+    private int samples = 1; // 至少连续多少次采样越限
+    private int durationSeconds; // 越限至少持续多久
+    private boolean enabled = true;
+
+    public AlertRule() {
+        this.id = UUID.randomUUID().toString();
+    }
+
+    /**
+     * 规则是否作用于该主机
+     *
+     * @param hostKey user@host:port
+     */
+    public boolean appliesTo(String hostKey, String group) {
+        return switch (scopeType) {
+            case SCOPE_GROUP -> scope != null && scope.equals(group);
+            case SCOPE_HOST -> scope != null && (scope.equals(hostKey) || hostKey.contains("@" + scope + ":"));
+            default -> true;
+        };
+    }
+
+    /**
+     * 条件描述，用于列表和通知
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(metric).append(above ? " > " : " < ").append(formatNumber(threshold)).append(metric.unit());
+        if (samples > 1) {
+            sb.append("，连续 ").append(samples).append(" 次");
+        }
+        if (durationSeconds > 0) {
+            sb.append("，持续 ").append(durationSeconds).append(" 秒");
+        }
+        return sb.toString();
+    }
+
+    public String describeScope() {
+        return switch (scopeType) {
+            case SCOPE_GROUP -> "分组: " + scope;
+            case SCOPE_HOST -> "主机: " + scope;
+            default -> "全部主机";
+        };
+    }
+
+    private static String formatNumber(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getScopeType() { return scopeType; }
+    public void setScopeType(String scopeType) { this.scopeType = scopeType; }
+    public String getScope() { return scope; }
+    public void setScope(String scope) { this.scope = scope; }
+    public MetricType getMetric() { return metric; }
+    public void setMetric(MetricType metric) { this.metric = metric; }
+    public boolean isAbove() { return above; }
+    public void setAbove(boolean above) { this.above = above; }
+    public double getThreshold() { return threshold; }
+    public void setThreshold(double threshold) { this.threshold = threshold; }
+    public int getSamples() { return samples; }
+    public void setSamples(int samples) { this.samples = samples; }
+    public int getDurationSeconds() { return durationSeconds; }
+    public void setDurationSeconds(int durationSeconds) { this.durationSeconds = durationSeconds; }
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+}
@@ -0,0 +1,46 @@
+package com.open.terminal.openterminal.model;
+
+/**
+ * @description: 本地下载缓存索引中的一条记录，按 主机 + 远程路径 + 大小 + 修改时间 唯一确定一个文件版本
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class CacheEntry {
+    private String key;
+    private String host; // user@host:port
+    private String remotePath;
+    private long size;
+    private long mtime; // 远程修改时间（秒）
+    private String localPath; // 相对缓存目录的路径
+    private long lastAccess;
+
+    public CacheEntry() {
+    }
+
+    public CacheEntry(String key, String host, String remotePath, long size, long mtime, String localPath) {
+        this.key = key;
+        this.host = host;
+        this.remotePath = remotePath;
+        this.size = size;
+        this.mtime = mtime;
+        this.localPath = localPath;
+        this.lastAccess = System.currentTimeMillis();
+    }
+
+    // Getters and Setters (Jackson 序列化)
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+    public String getHost() { return host; }
+    public void setHost(String host) { this.host = host; }
+    public String getRemotePath() { return remotePath; }
+    public void setRemotePath(String remotePath) { this.remotePath = remotePath; }
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+    public long getMtime() { return mtime; }
+    public void setMtime(long mtime) { this.mtime = mtime; }
+    public String getLocalPath() { return localPath; }
+    public void setLocalPath(String localPath) { this.localPath = localPath; }
+    public long getLastAccess() { return lastAccess; }
+    public void setLastAccess(long lastAccess) { this.lastAccess = lastAccess; }
+}
@@ -0,0 +1,58 @@
+package com.open.terminal.openterminal.model;
+
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+/**
+ * @description: 磁盘占用分析中的一行：当前目录的一个直接子项。属性只在 FX 线程修改
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class DiskUsageEntry {
+    private final StringProperty name = new SimpleStringProperty();
+    private final LongProperty size = new SimpleLongProperty(0);
+    private final StringProperty status = new SimpleStringProperty(Status.PENDING);
+
+    private final String path;
+    private final boolean directory;
+    private final long mtime;
+
+    public DiskUsageEntry(String name, String path, boolean directory, long size, long mtime) {
+        this.name.set(directory ? name + "/" : name);
+        this.path = path;
+        this.directory = directory;
+        this.mtime = mtime;
+        this.size.set(size);
+        // 普通文件的大小在列目录时已经知道
+        if (!directory) {
+            this.status.set(Status.DONE);
+        }
+    }
+
+    public StringProperty nameProperty() { return name; }
+    public LongProperty sizeProperty() { return size; }
+    public StringProperty statusProperty() { return status; }
+
+    public String getPath() {
+        return path;
+    }
+
+    public boolean isDirectory() {
+        return directory;
+    }
+
+    public long getMtime() {
+        return mtime;
+    }
+
+    public static class Status {
+        public static final String PENDING = "等待中";
+        public static final String RUNNING = "计算中...";
+        public static final String DONE = "完成";
+        public static final String CACHED = "缓存";
+        public static final String FAILED = "失败";
+    }
+}
@@ -1,12 +1,20 @@
 package com.open.terminal.openterminal.model;
 
 import com.open.terminal.openterminal.DownloadFileListController;
+import com.open.terminal.openterminal.fun.TransferAction;
+import com.open.terminal.openterminal.fun.TransferVerifier;
 import com.open.terminal.openterminal.util.FileUtil;
 import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * @description: TODO
  * @author huangjialong
@@ -14,14 +22,50 @@ import javafx.beans.property.StringProperty;
  * @version 1.0
  */
 public class DownloadTask {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
     private final StringProperty fileName = new SimpleStringProperty();
     private final StringProperty sizeStr = new SimpleStringProperty();
     private final DoubleProperty progress = new SimpleDoubleProperty(0.0);
     private final StringProperty status = new SimpleStringProperty(TaskStatus.PENDING);
+    private final StringProperty type = new SimpleStringProperty(TransferType.DOWNLOAD);
+    private final ObjectProperty<TransferPriority> priority = new SimpleObjectProperty<>(TransferPriority.NORMAL);
+    private final StringProperty speedStr = new SimpleStringProperty("-");
+    private final StringProperty avgSpeedStr = new SimpleStringProperty("-");
+    private final StringProperty etaStr = new SimpleStringProperty("-");
+    // 完整性校验结果，verifyDetail 保存两端摘要供提示框展示
+    private final StringProperty verifyStatus = new SimpleStringProperty("-");
+    private final StringProperty verifyDetail = new SimpleStringProperty();
 
-    // 原始数据
+    // 原始数据：传输线程只做无锁累加，由 TransferManager 按固定节奏采样后发布到 UI
     private final long totalSize;
-    private long currentSize = 0;
+    private final AtomicLong currentSize = new AtomicLong();
+    // 本轮实际传输的字节数（不含断点续传跳过的部分），用于计算速度
+    private final AtomicLong transferredBytes = new AtomicLong();
+
+    // 速度统计，仅由采样线程读写
+    private long runStartNanos;
+    private long lastSampleNanos;
+    private long lastSampleBytes;
+    private double smoothedSpeed;
+    private volatile double instantSpeed;
+    private volatile double averageSpeed;
+
+    // 调度相关：所属会话、远程/本地路径以及具体的传输逻辑
+    private final long sequence = SEQUENCE.incrementAndGet();
+    private String sessionKey;
+    private String remotePath;
+    private Path localPath;
+    private TransferAction action;
+    // 传输完成后的校验逻辑，为空表示该任务不支持校验
+    private TransferVerifier verifier;
+    // 是否已经执行过，再次执行时使用断点续传
+    private volatile boolean started = false;
+    private volatile boolean pauseRequested = false;
+    private volatile boolean cancelRequested = false;
+    // 为 false 时不响应暂停，只能取消（例如编辑回写：暂停会一直占着回写锁，恢复时快照也可能已过时）
+    private volatile boolean pausable = true;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
 
     public DownloadTask(String fileName, long totalSize, boolean isCompleted) {
         this.fileName.set(fileName);
@@ -31,22 +75,112 @@ public class DownloadTask {
         if (isCompleted) {
             this.progress.set(1.0);
             this.status.set("已完成");
-            this.currentSize = totalSize;
+            this.currentSize.set(totalSize);
+            this.completion.complete(null);
         }
     }
 
+    /**
+     * 下载缓存中已有的历史文件
+     */
+    public DownloadTask(String fileName, long totalSize, String remotePath, Path localPath) {
+        this(fileName, totalSize, true);
+        this.remotePath = remotePath;
+        this.localPath = localPath;
+    }
+
+    /**
+     * 创建一个交给 TransferManager 调度的传输任务
+     */
+    public DownloadTask(String fileName, long totalSize, String type, String sessionKey,
+                        String remotePath, Path localPath, TransferAction action) {
+        this(fileName, totalSize, false);
+        this.type.set(type);
+        this.sessionKey = sessionKey;
+        this.remotePath = remotePath;
+        this.localPath = localPath;
+        this.action = action;
+    }
+
+    /**
+     * 传输线程回调：累加已传输字节，不触碰 UI
+     */
     public void updateProgress(long increment) {
-        this.currentSize += increment;
-        double p = (double) currentSize / totalSize;
-        // 确保 UI 更新在主线程，且不超过 1.0
-        javafx.application.Platform.runLater(() -> {
-            this.progress.set(Math.min(p, 1.0));
-            if (p >= 1.0) {
-                this.status.set(TaskStatus.COMPLETED);
-            } else {
-                this.status.set(TaskStatus.IN_PROGRESS);
-            }
-        });
+        currentSize.addAndGet(increment);
+        transferredBytes.addAndGet(increment);
+    }
+
+    /**
+     * 断点续传时 JSch 汇报的已存在字节，只推进进度，不计入速度
+     */
+    public void skipProgress(long increment) {
+        currentSize.addAndGet(increment);
+    }
+
+    /**
+     * 重新开始计数（JSch 每次 get/put 都会从 init 开始重新汇报进度）
+     */
+    public void resetProgress() {
+        currentSize.set(0);
+    }
+
+    /**
+     * 开始新一轮传输时重置速度统计
+     */
+    public void startRun(long nowNanos) {
+        transferredBytes.set(0);
+        runStartNanos = nowNanos;
+        lastSampleNanos = nowNanos;
+        lastSampleBytes = 0;
+        smoothedSpeed = 0;
+        instantSpeed = 0;
+    }
+
+    /**
+     * 由采样线程按固定节奏调用，计算瞬时速度（指数平滑）和平均速度
+     *
+     * @return 本次采样的瞬时速度，字节/秒
+     */
+    public double sample(long nowNanos) {
+        long bytes = transferredBytes.get();
+        long elapsed = nowNanos - lastSampleNanos;
+        if (elapsed > 0) {
+            double speed = (bytes - lastSampleBytes) * 1_000_000_000.0 / elapsed;
+            // 平滑系数 0.3，避免 32KB 一次的回调粒度造成速度跳动
+            smoothedSpeed = smoothedSpeed == 0 ? speed : smoothedSpeed * 0.7 + speed * 0.3;
+            instantSpeed = smoothedSpeed;
+        }
+        long total = nowNanos - runStartNanos;
+        averageSpeed = total > 0 ? bytes * 1_000_000_000.0 / total : 0;
+        lastSampleNanos = nowNanos;
+        lastSampleBytes = bytes;
+        return instantSpeed;
+    }
+
+    /**
+     * 把采样结果写入 UI 属性，必须在 FX 线程调用
+     */
+    public void publish() {
+        long current = currentSize.get();
+        progress.set(totalSize > 0 ? Math.min((double) current / totalSize, 1.0) : 1.0);
+        if (TaskStatus.IN_PROGRESS.equals(status.get())) {
+            speedStr.set(FileUtil.humanReadableByteCountBin((long) instantSpeed) + "/s");
+            long remaining = Math.max(totalSize - current, 0);
+            etaStr.set(instantSpeed > 1 ? formatDuration((long) (remaining / instantSpeed)) : "-");
+        } else {
+            speedStr.set("-");
+            etaStr.set("-");
+        }
+        if (averageSpeed > 0) {
+            avgSpeedStr.set(FileUtil.humanReadableByteCountBin((long) averageSpeed) + "/s");
+        }
+    }
+
+    private static String formatDuration(long seconds) {
+        if (seconds >= 3600) {
+            return String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+        }
+        return String.format("%02d:%02d", seconds / 60, seconds % 60);
     }
 
     // Getters for Property (用于 FXML 绑定)
@@ -54,13 +188,70 @@ public class DownloadTask {
     public StringProperty sizeStrProperty() { return sizeStr; }
     public DoubleProperty progressProperty() { return progress; }
     public StringProperty statusProperty() { return status; }
+    public StringProperty typeProperty() { return type; }
+    public ObjectProperty<TransferPriority> priorityProperty() { return priority; }
+    public StringProperty speedStrProperty() { return speedStr; }
+    public StringProperty avgSpeedStrProperty() { return avgSpeedStr; }
+    public StringProperty etaStrProperty() { return etaStr; }
+    public StringProperty verifyStatusProperty() { return verifyStatus; }
+    public StringProperty verifyDetailProperty() { return verifyDetail; }
 
     public String getFileName() { return fileName.get(); }
+    public long getTotalSize() { return totalSize; }
+    public long getCurrentSize() { return currentSize.get(); }
+    public long getSequence() { return sequence; }
+    public String getType() { return type.get(); }
+    public TransferPriority getPriority() { return priority.get(); }
+    public String getSessionKey() { return sessionKey; }
+    public String getRemotePath() { return remotePath; }
+    public Path getLocalPath() { return localPath; }
+    public TransferAction getAction() { return action; }
+    public TransferVerifier getVerifier() { return verifier; }
+    public void setVerifier(TransferVerifier verifier) { this.verifier = verifier; }
+    public CompletableFuture<Void> getCompletion() { return completion; }
+
+    public boolean isStarted() { return started; }
+    public void markStarted() { this.started = true; }
+    public boolean isPauseRequested() { return pauseRequested; }
+    public void requestPause() { this.pauseRequested = true; }
+    public boolean isCancelRequested() { return cancelRequested; }
+    public void requestCancel() { this.cancelRequested = true; }
+    public boolean isPausable() { return pausable; }
+    public void setPausable(boolean pausable) { this.pausable = pausable; }
+
+    /**
+     * 重新入队前清除上一次的暂停标记
+     */
+    public void clearPause() { this.pauseRequested = false; }
+
+    /**
+     * 是否已经结束（不会再被调度）
+     */
+    public boolean isFinished() {
+        String s = status.get();
+        return TaskStatus.COMPLETED.equals(s) || TaskStatus.FAILED.equals(s) || TaskStatus.CANCELLED.equals(s);
+    }
 
     public static class TaskStatus {
         public static final String PENDING = "等待中";
-        public static final String IN_PROGRESS = "下载中...";
+        public static final String IN_PROGRESS = "传输中...";
+        public static final String PAUSED = "已暂停";
         public static final String COMPLETED = "已完成";
-        public static final String FAILED = "下载失败";
+        public static final String FAILED = "传输失败";
+        public static final String CANCELLED = "已取消";
+    }
+
+    public static class VerifyStatus {
+        public static final String VERIFYING = "校验中...";
+        public static final String MATCH = "一致";
+        public static final String MISMATCH = "不一致";
+        public static final String ERROR = "校验失败";
+    }
+
+    public static class TransferType {
+        public static final String DOWNLOAD = "下载";
+        public static final String UPLOAD = "上传";
+        // 两个远程会话之间直接中转，不落本地磁盘
+        public static final String RELAY = "中转";
     }
 }
@@ -0,0 +1,28 @@
+package com.open.terminal.openterminal.model;
+
+import java.util.Set;
+
+/**
+ * @description: 本地历史库中去重后的一条命令，不可变；更新时由 HistoryStore 换成新对象，界面持有的快照不受影响
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class HistoryEntry {
+    private final String command;
+    private final int count; // 在所有主机历史中出现的次数
+    private final long lastUsed; // 毫秒，历史文件没有时间戳时为 0
+    private final Set<String> hosts; // 出现过的主机 user@host:port
+
+    public HistoryEntry(String command, int count, long lastUsed, Set<String> hosts) {
+        this.command = command;
+        this.count = count;
+        this.lastUsed = lastUsed;
+        this.hosts = Set.copyOf(hosts);
+    }
+
+    public String getCommand() { return command; }
+    public int getCount() { return count; }
+    public long getLastUsed() { return lastUsed; }
+    public Set<String> getHosts() { return hosts; }
+}
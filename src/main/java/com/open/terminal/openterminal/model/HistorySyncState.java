@@ -0,0 +1,27 @@
+package com.open.terminal.openterminal.model;
+
+/**
+ * @description: 某台主机上一个历史文件的同步进度。下次只读取 offset 之后追加的部分；
+ * tail 为 offset 之前的最后若干字节，用于发现文件被整体重写（bash 退出时截断到 HISTFILESIZE）
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class HistorySyncState {
+    private String host; // user@host:port
+    private String path; // 远程历史文件绝对路径
+    private long offset;
+    private long mtime; // 秒
+    private byte[] tail = new byte[0];
+
+    public String getHost() { return host; }
+    public void setHost(String host) { this.host = host; }
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+    public long getOffset() { return offset; }
+    public void setOffset(long offset) { this.offset = offset; }
+    public long getMtime() { return mtime; }
+    public void setMtime(long mtime) { this.mtime = mtime; }
+    public byte[] getTail() { return tail; }
+    public void setTail(byte[] tail) { this.tail = tail; }
+}
@@ -0,0 +1,189 @@
+package com.open.terminal.openterminal.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @description: 监控代理的一次采样结果，速率类指标已由相邻两次采样换算好。未知的值用 -1（比例和负载用 NaN）表示
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class HostMetrics {
+    private long timestamp; // 本地收到采样的时间，毫秒
+    private long collectMillis = -1; // 从收到帧头到帧尾的耗时，反映远程采样开销
+    private double cpuUsage = Double.NaN; // 0~1，第一帧没有上一帧可比较
+    private double[] coreUsage = new double[0]; // 每个核心 0~1
+    private double load1 = Double.NaN;
+    private double load5 = Double.NaN;
+    private double load15 = Double.NaN;
+    private long memTotal = -1;
+    private long memUsed = -1;
+    private long memBuffers = -1;
+    private long memCached = -1;
+    private long swapTotal = -1;
+    private long swapUsed = -1;
+    private long diskTotal = -1; // 根分区
+    private long diskUsed = -1;
+    private long rxRate = -1; // 所有非 lo 网卡合计，字节/秒
+    private long txRate = -1;
+    private List<Mount> mounts = Collections.emptyList();
+    private List<NetInterface> interfaces = Collections.emptyList();
+    private List<DiskIo> diskIo = Collections.emptyList();
+    private List<ProcessInfo> topProcesses = Collections.emptyList();
+    private List<ProcessInfo> processes; // 完整进程表，只在进程浏览器打开时采集，否则为空
+
+    public HostMetrics(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public double getMemUsage() {
+        return memTotal > 0 ? (double) memUsed / memTotal : Double.NaN;
+    }
+
+    public double getDiskUsage() {
+        return diskTotal > 0 ? (double) diskUsed / diskTotal : Double.NaN;
+    }
+
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+    public long getCollectMillis() { return collectMillis; }
+    public void setCollectMillis(long collectMillis) { this.collectMillis = collectMillis; }
+    public double getCpuUsage() { return cpuUsage; }
+    public void setCpuUsage(double cpuUsage) { this.cpuUsage = cpuUsage; }
+    public double[] getCoreUsage() { return coreUsage; }
+    public void setCoreUsage(double[] coreUsage) { this.coreUsage = coreUsage; }
+    public double getLoad1() { return load1; }
+    public double getLoad5() { return load5; }
+    public double getLoad15() { return load15; }
+    public void setLoad(double load1, double load5, double load15) {
+        this.load1 = load1;
+        this.load5 = load5;
+        this.load15 = load15;
+    }
+    public long getMemTotal() { return memTotal; }
+    public void setMemTotal(long memTotal) { this.memTotal = memTotal; }
+    public long getMemUsed() { return memUsed; }
+    public void setMemUsed(long memUsed) { this.memUsed = memUsed; }
+    public long getMemBuffers() { return memBuffers; }
+    public void setMemBuffers(long memBuffers) { this.memBuffers = memBuffers; }
+    public long getMemCached() { return memCached; }
+    public void setMemCached(long memCached) { this.memCached = memCached; }
+    public long getSwapTotal() { return swapTotal; }
+    public void setSwapTotal(long swapTotal) { this.swapTotal = swapTotal; }
+    public long getSwapUsed() { return swapUsed; }
+    public void setSwapUsed(long swapUsed) { this.swapUsed = swapUsed; }
+    public long getDiskTotal() { return diskTotal; }
+    public void setDiskTotal(long diskTotal) { this.diskTotal = diskTotal; }
+    public long getDiskUsed() { return diskUsed; }
+    public void setDiskUsed(long diskUsed) { this.diskUsed = diskUsed; }
+    public long getRxRate() { return rxRate; }
+    public void setRxRate(long rxRate) { this.rxRate = rxRate; }
+    public long getTxRate() { return txRate; }
+    public void setTxRate(long txRate) { this.txRate = txRate; }
+    public List<Mount> getMounts() { return mounts; }
+    public void setMounts(List<Mount> mounts) { this.mounts = mounts; }
+    public List<NetInterface> getInterfaces() { return interfaces; }
+    public void setInterfaces(List<NetInterface> interfaces) { this.interfaces = interfaces; }
+    public List<DiskIo> getDiskIo() { return diskIo; }
+    public void setDiskIo(List<DiskIo> diskIo) { this.diskIo = diskIo; }
+    public List<ProcessInfo> getTopProcesses() { return topProcesses; }
+    public void setTopProcesses(List<ProcessInfo> topProcesses) { this.topProcesses = topProcesses; }
+    public List<ProcessInfo> getProcesses() { return processes; }
+    public void setProcesses(List<ProcessInfo> processes) { this.processes = processes; }
+
+    /**
+     * 已挂载的文件系统（df）
+     */
+    public static class Mount {
+        private final String device;
+        private final String mountPoint;
+        private final long total;
+        private final long used;
+
+        public Mount(String device, String mountPoint, long total, long used) {
+            this.device = device;
+            this.mountPoint = mountPoint;
+            this.total = total;
+            this.used = used;
+        }
+
+        public double getUsage() {
+            return total > 0 ? (double) used / total : 0;
+        }
+
+        public String getDevice() { return device; }
+        public String getMountPoint() { return mountPoint; }
+        public long getTotal() { return total; }
+        public long getUsed() { return used; }
+    }
+
+    /**
+     * 单个网卡的吞吐，字节/秒
+     */
+    public static class NetInterface {
+        private final String name;
+        private final long rxRate;
+        private final long txRate;
+
+        public NetInterface(String name, long rxRate, long txRate) {
+            this.name = name;
+            this.rxRate = rxRate;
+            this.txRate = txRate;
+        }
+
+        public String getName() { return name; }
+        public long getRxRate() { return rxRate; }
+        public long getTxRate() { return txRate; }
+    }
+
+    /**
+     * 单个块设备的读写吞吐，字节/秒（/proc/diskstats）
+     */
+    public static class DiskIo {
+        private final String device;
+        private final long readRate;
+        private final long writeRate;
+
+        public DiskIo(String device, long readRate, long writeRate) {
+            this.device = device;
+            this.readRate = readRate;
+            this.writeRate = writeRate;
+        }
+
+        public String getDevice() { return device; }
+        public long getReadRate() { return readRate; }
+        public long getWriteRate() { return writeRate; }
+    }
+
+    /**
+     * 进程快照，cpu 按单核计算（与 top 一致，多线程进程可以超过 100%），刚出现的进程为 NaN
+     */
+    public static class ProcessInfo {
+        private final int pid;
+        private final int ppid;
+        private final String name;
+        private final String state; // R 运行、S 睡眠、D 不可中断、Z 僵尸、T 停止 ...
+        private final int threads;
+        private final double cpu;
+        private final long rss;
+
+        public ProcessInfo(int pid, int ppid, String name, String state, int threads, double cpu, long rss) {
+            this.pid = pid;
+            this.ppid = ppid;
+            this.name = name;
+            this.state = state;
+            this.threads = threads;
+            this.cpu = cpu;
+            this.rss = rss;
+        }
+
+        public int getPid() { return pid; }
+        public int getPpid() { return ppid; }
+        public String getName() { return name; }
+        public String getState() { return state; }
+        public int getThreads() { return threads; }
+        public double getCpu() { return cpu; }
+        public long getRss() { return rss; }
+    }
+}
@@ -0,0 +1,91 @@
+package com.open.terminal.openterminal.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 一台主机全部指标的时间序列，每个指标三档分辨率：
+ * 1 秒 × 3600（最近 1 小时）、1 分钟 × 1440（最近 1 天）、10 分钟 × 1008（最近 7 天）。
+ * 原始采样只写入 1 秒档，跨过分钟边界时把上一分钟的桶汇总写入低分辨率档，每台主机占用的内存固定。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class HostTimeSeries {
+    private static final long SECOND = TimeUnit.SECONDS.toMillis(1);
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long TEN_MINUTES = TimeUnit.MINUTES.toMillis(10);
+
+    private final Map<MetricType, MetricSeries[]> series = new EnumMap<>(MetricType.class);
+    // 当前这一分钟的汇总，跨分钟时写入低分辨率档
+    private final Map<MetricType, double[]> pendingMinute = new EnumMap<>(MetricType.class);
+    private long pendingMinuteBucket = -1;
+
+    public HostTimeSeries() {
+        for (MetricType type : MetricType.values()) {
+            series.put(type, new MetricSeries[]{
+                    new MetricSeries(SECOND, 3600),
+                    new MetricSeries(MINUTE, 1440),
+                    new MetricSeries(TEN_MINUTES, 1008)
+            });
+            // min, max, sum, count
+            pendingMinute.put(type, new double[4]);
+        }
+    }
+
+    public synchronized void record(HostMetrics metrics) {
+        long ts = metrics.getTimestamp();
+        long minuteBucket = ts / MINUTE;
+        if (pendingMinuteBucket >= 0 && minuteBucket != pendingMinuteBucket) {
+            rollUp(pendingMinuteBucket * MINUTE);
+        }
+        pendingMinuteBucket = minuteBucket;
+        for (MetricType type : MetricType.values()) {
+            double value = type.extract(metrics);
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            series.get(type)[0].add(ts, value);
+            double[] agg = pendingMinute.get(type);
+            if (agg[3] == 0) {
+                agg[0] = value;
+                agg[1] = value;
+            } else {
+                agg[0] = Math.min(agg[0], value);
+                agg[1] = Math.max(agg[1], value);
+            }
+            agg[2] += value;
+            agg[3]++;
+        }
+    }
+
+    private void rollUp(long minuteStart) {
+        for (MetricType type : MetricType.values()) {
+            double[] agg = pendingMinute.get(type);
+            if (agg[3] > 0) {
+                MetricSeries[] tiers = series.get(type);
+                tiers[1].addAggregate(minuteStart, agg[0], agg[1], agg[2], (int) agg[3]);
+                tiers[2].addAggregate(minuteStart, agg[0], agg[1], agg[2], (int) agg[3]);
+            }
+            agg[0] = agg[1] = agg[2] = agg[3] = 0;
+        }
+    }
+
+    /**
+     * 选择能覆盖 spanMillis 的最高分辨率档，点数超过 maxPoints 时把相邻的桶合并成一个点
+     */
+    public synchronized MetricSeries.Snapshot read(MetricType type, long nowMillis, long spanMillis, int maxPoints) {
+        MetricSeries[] tiers = series.get(type);
+        MetricSeries chosen = tiers[tiers.length - 1];
+        for (MetricSeries tier : tiers) {
+            if (tier.getSpanMillis() >= spanMillis) {
+                chosen = tier;
+                break;
+            }
+        }
+        long buckets = Math.max(1, Math.min(spanMillis, chosen.getSpanMillis()) / chosen.getResolutionMillis());
+        int group = (int) ((buckets + maxPoints - 1) / maxPoints);
+        return chosen.read(nowMillis, (int) (buckets / group), group);
+    }
+}
@@ -0,0 +1,27 @@
+package com.open.terminal.openterminal.model;
+
+/**
+ * @description: 日志跟踪中的一行。timestamp 为从行首解析出的时间，解析不出时沿用同一来源上一行的时间，
+ * 来源至今没有可解析的时间时使用本地收到的时间
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class LogLine {
+    private final long sequence; // 到达顺序
+    private final int source; // 来源下标，对应 LogMultiplexer 中的来源列表
+    private final long timestamp; // 毫秒
+    private final String text;
+
+    public LogLine(long sequence, int source, long timestamp, String text) {
+        this.sequence = sequence;
+        this.source = source;
+        this.timestamp = timestamp;
+        this.text = text;
+    }
+
+    public long getSequence() { return sequence; }
+    public int getSource() { return source; }
+    public long getTimestamp() { return timestamp; }
+    public String getText() { return text; }
+}
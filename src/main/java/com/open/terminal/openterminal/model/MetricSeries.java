@@ -0,0 +1,155 @@
+package com.open.terminal.openterminal.model;
+
+import java.util.Arrays;
+
+/**
+ * @description: 单个指标在单一分辨率下的环形缓冲。每个槽位是一个时间桶，保存桶内的最小值、最大值、总和与次数，
+ * 全部使用基本类型数组，内存大小在创建时固定。时间前进时跳过的桶会被清空，读取时表现为空缺。
+ * 非线程安全，由所属的 HostTimeSeries 加锁。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class MetricSeries {
+    private final long resolutionMillis;
+    private final int capacity;
+    private final float[] min;
+    private final float[] max;
+    private final double[] sum;
+    private final int[] count;
+    // 最新写入的桶编号（时间戳 / 分辨率），-1 表示还没有数据
+    private long headBucket = -1;
+
+    public MetricSeries(long resolutionMillis, int capacity) {
+        this.resolutionMillis = resolutionMillis;
+        this.capacity = capacity;
+        this.min = new float[capacity];
+        this.max = new float[capacity];
+        this.sum = new double[capacity];
+        this.count = new int[capacity];
+    }
+
+    public long getResolutionMillis() {
+        return resolutionMillis;
+    }
+
+    /**
+     * 能覆盖的时间跨度
+     */
+    public long getSpanMillis() {
+        return resolutionMillis * capacity;
+    }
+
+    public void add(long timestamp, double value) {
+        addAggregate(timestamp, value, value, value, 1);
+    }
+
+    /**
+     * 写入一段已经汇总过的数据，用于从高分辨率向低分辨率滚动
+     */
+    public void addAggregate(long timestamp, double minValue, double maxValue, double total, int n) {
+        if (n <= 0) {
+            return;
+        }
+        long bucket = timestamp / resolutionMillis;
+        if (headBucket >= 0 && bucket < headBucket - capacity + 1) {
+            return; // 早于保留范围
+        }
+        if (bucket > headBucket) {
+            advanceTo(bucket);
+        }
+        int slot = slot(bucket);
+        if (count[slot] == 0) {
+            min[slot] = (float) minValue;
+            max[slot] = (float) maxValue;
+        } else {
+            min[slot] = Math.min(min[slot], (float) minValue);
+            max[slot] = Math.max(max[slot], (float) maxValue);
+        }
+        sum[slot] += total;
+        count[slot] += n;
+    }
+
+    private void advanceTo(long bucket) {
+        if (headBucket < 0 || bucket - headBucket >= capacity) {
+            Arrays.fill(count, 0);
+            Arrays.fill(sum, 0);
+        } else {
+            for (long b = headBucket + 1; b <= bucket; b++) {
+                int slot = slot(b);
+                count[slot] = 0;
+                sum[slot] = 0;
+            }
+        }
+        headBucket = bucket;
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) capacity);
+    }
+
+    /**
+     * 读取截止到 nowMillis 的最近 points 个点，每个点合并 group 个相邻的桶，按时间从旧到新排列，没有数据的点为 NaN
+     */
+    public Snapshot read(long nowMillis, int points, int group) {
+        group = Math.max(1, group);
+        points = Math.max(1, Math.min(points, capacity / group));
+        Snapshot snapshot = new Snapshot(points, resolutionMillis * group);
+        long last = nowMillis / resolutionMillis;
+        long first = last - (long) points * group + 1;
+        for (int i = 0; i < points; i++) {
+            double total = 0;
+            int n = 0;
+            double lo = Double.NaN;
+            double hi = Double.NaN;
+            for (int j = 0; j < group; j++) {
+                long bucket = first + (long) i * group + j;
+                int slot = slot(bucket);
+                if (headBucket < 0 || bucket > headBucket || bucket <= headBucket - capacity || count[slot] == 0) {
+                    continue;
+                }
+                total += sum[slot];
+                n += count[slot];
+                lo = Double.isNaN(lo) ? min[slot] : Math.min(lo, min[slot]);
+                hi = Double.isNaN(hi) ? max[slot] : Math.max(hi, max[slot]);
+            }
+            snapshot.avg[i] = n > 0 ? total / n : Double.NaN;
+            snapshot.min[i] = lo;
+            snapshot.max[i] = hi;
+        }
+        return snapshot;
+    }
+
+    /**
+     * 读取结果，与缓冲区不共享内存，可以交给 FX 线程绘制
+     */
+    public static class Snapshot {
+        public final double[] avg;
+        public final double[] min;
+        public final double[] max;
+        public final long resolutionMillis;
+
+        Snapshot(int points, long resolutionMillis) {
+            this.avg = new double[points];
+            this.min = new double[points];
+            this.max = new double[points];
+            this.resolutionMillis = resolutionMillis;
+        }
+
+        public int size() {
+            return avg.length;
+        }
+
+        /**
+         * 最近一个有数据的桶的平均值
+         */
+        public double latest() {
+            for (int i = avg.length - 1; i >= 0; i--) {
+                if (!Double.isNaN(avg[i])) {
+                    return avg[i];
+                }
+            }
+            return Double.NaN;
+        }
+    }
+}
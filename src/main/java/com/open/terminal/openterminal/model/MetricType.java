@@ -0,0 +1,55 @@
+package com.open.terminal.openterminal.model;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * @description: 时间序列中记录的指标，百分比类存 0~1，速率类存字节/秒
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public enum MetricType {
+    CPU("CPU", HostMetrics::getCpuUsage),
+    MEM("内存", HostMetrics::getMemUsage),
+    DISK("磁盘", HostMetrics::getDiskUsage),
+    NET_RX("下行", m -> m.getRxRate() >= 0 ? m.getRxRate() : Double.NaN),
+    NET_TX("上行", m -> m.getTxRate() >= 0 ? m.getTxRate() : Double.NaN);
+
+    private final String label;
+    private final ToDoubleFunction<HostMetrics> extractor;
+
+    MetricType(String label, ToDoubleFunction<HostMetrics> extractor) {
+        this.label = label;
+        this.extractor = extractor;
+    }
+
+    /**
+     * 从一次采样中取出该指标，没有值时返回 NaN
+     */
+    public double extract(HostMetrics metrics) {
+        return extractor.applyAsDouble(metrics);
+    }
+
+    /**
+     * 界面上输入阈值使用的单位：百分比类为 %，速率类为 MB/s
+     */
+    public String unit() {
+        return isRate() ? "MB/s" : "%";
+    }
+
+    /**
+     * 把界面单位的数值换算成 extract 返回值的单位
+     */
+    public double fromDisplay(double value) {
+        return isRate() ? value * 1024 * 1024 : value / 100;
+    }
+
+    private boolean isRate() {
+        return this == NET_RX || this == NET_TX;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
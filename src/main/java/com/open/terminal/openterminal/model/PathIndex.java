@@ -0,0 +1,122 @@
+package com.open.terminal.openterminal.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * @description: 某台主机上某个根目录下的路径索引，保存相对根目录的路径及是否为目录，用于在本地直接回答重复搜索
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class PathIndex {
+    private final String host; // user@host:port
+    private final String root; // 绝对路径，不带结尾的 '/'（根目录除外）
+    // 建立（或最近一次增量刷新）时的服务器时间（秒），增量刷新以此为界
+    private volatile long builtAt;
+    // 是否可以用 find -newerct 增量刷新（需要 GNU find），否则每次重新遍历
+    private final boolean incremental;
+    // 有序存储，目录的子树是一段连续的 key，便于整体删除
+    private final TreeMap<String, Boolean> entries = new TreeMap<>();
+
+    public PathIndex(String host, String root, long builtAt, boolean incremental) {
+        this.host = host;
+        this.root = root;
+        this.builtAt = builtAt;
+        this.incremental = incremental;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public String getRoot() {
+        return root;
+    }
+
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    public void setBuiltAt(long builtAt) {
+        this.builtAt = builtAt;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void put(String relativePath, boolean isDir) {
+        entries.put(relativePath, isDir);
+    }
+
+    public synchronized boolean contains(String relativePath) {
+        return entries.containsKey(relativePath);
+    }
+
+    /**
+     * 删除一个路径，如果是目录连同整个子树
+     *
+     * @return 被删除的路径
+     */
+    public synchronized List<String> removeTree(String relativePath) {
+        List<String> removed = new ArrayList<>();
+        Boolean isDir = entries.remove(relativePath);
+        if (isDir == null) {
+            return removed;
+        }
+        removed.add(relativePath);
+        if (isDir) {
+            NavigableMap<String, Boolean> subtree = entries.subMap(relativePath + "/", true, relativePath + "/\uFFFF", true);
+            removed.addAll(subtree.keySet());
+            subtree.clear();
+        }
+        return removed;
+    }
+
+    /**
+     * 某目录的直接子项（相对路径 -> 是否目录）
+     */
+    public synchronized Map<String, Boolean> childrenOf(String dir) {
+        Map<String, Boolean> children = new TreeMap<>();
+        Map<String, Boolean> range = dir.isEmpty() ? entries : entries.subMap(dir + "/", true, dir + "/\uFFFF", true);
+        int prefixLength = dir.isEmpty() ? 0 : dir.length() + 1;
+        range.forEach((path, isDir) -> {
+            if (path.indexOf('/', prefixLength) < 0) {
+                children.put(path, isDir);
+            }
+        });
+        return children;
+    }
+
+    /**
+     * 收集某目录（"" 表示根）子树中满足条件的路径
+     */
+    public synchronized List<Map.Entry<String, Boolean>> collect(String dir, Predicate<String> matcher) {
+        List<Map.Entry<String, Boolean>> result = new ArrayList<>();
+        Map<String, Boolean> range = dir.isEmpty() ? entries : entries.subMap(dir + "/", true, dir + "/\uFFFF", true);
+        for (Map.Entry<String, Boolean> e : range.entrySet()) {
+            if (matcher.test(e.getKey())) {
+                result.add(Map.entry(e.getKey(), e.getValue()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 所有条目的快照，用于持久化
+     */
+    public synchronized List<Map.Entry<String, Boolean>> snapshot() {
+        List<Map.Entry<String, Boolean>> result = new ArrayList<>(entries.size());
+        entries.forEach((k, v) -> result.add(Map.entry(k, v)));
+        return result;
+    }
+}
@@ -0,0 +1,43 @@
+package com.open.terminal.openterminal.model;
+
+/**
+ * @description: 一次连通性探测的结果
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class ProbeResult {
+    private final ProbeStatus status;
+    private final long rttMillis; // TCP 建连耗时，连不上时为 -1
+    private final String detail; // SSH 标识（如 "SSH-2.0-OpenSSH_8.9"）或失败原因
+    private final long checkedAt;
+    private final int failures; // 连续不可达次数，用于退避
+
+    public ProbeResult(ProbeStatus status, long rttMillis, String detail, long checkedAt, int failures) {
+        this.status = status;
+        this.rttMillis = rttMillis;
+        this.detail = detail;
+        this.checkedAt = checkedAt;
+        this.failures = failures;
+    }
+
+    public ProbeStatus getStatus() {
+        return status;
+    }
+
+    public long getRttMillis() {
+        return rttMillis;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public long getCheckedAt() {
+        return checkedAt;
+    }
+
+    public int getFailures() {
+        return failures;
+    }
+}
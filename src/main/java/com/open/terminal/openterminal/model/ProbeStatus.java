@@ -0,0 +1,31 @@
+package com.open.terminal.openterminal.model;
+
+/**
+ * @description: 连通性探测结果的状态
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public enum ProbeStatus {
+    REACHABLE("可达", "#2ecc71"),
+    // 端口能连上，但没有收到 SSH 标识（被其他服务占用或中间有代理）
+    NO_SSH("非 SSH", "#f39c12"),
+    UNREACHABLE("不可达", "#e74c3c");
+
+    private final String label;
+    private final String color;
+
+    ProbeStatus(String label, String color) {
+        this.label = label;
+        this.color = color;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
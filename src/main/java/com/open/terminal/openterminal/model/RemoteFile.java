@@ -16,14 +16,23 @@ public class RemoteFile {
 
     private final String rawName; // 原始文件名(不含装饰)
     private final boolean isDirectory;
+    private final long sizeBytes; // 原始大小（字节）
+    private final long mtime; // 原始修改时间（秒）
 
     public RemoteFile(String fileName, String size, String permissions, String modificationTime, String rawName, boolean isDirectory) {
+        this(fileName, size, permissions, modificationTime, rawName, isDirectory, -1, 0);
+    }
+
+    public RemoteFile(String fileName, String size, String permissions, String modificationTime, String rawName,
+                      boolean isDirectory, long sizeBytes, long mtime) {
         this.fileName = new SimpleStringProperty(fileName);
         this.size = new SimpleStringProperty(size);
         this.permissions = new SimpleStringProperty(permissions);
         this.modificationTime = new SimpleStringProperty(modificationTime);
         this.rawName = rawName;
         this.isDirectory = isDirectory;
+        this.sizeBytes = sizeBytes;
+        this.mtime = mtime;
     }
 
     public String getFileName() {
@@ -49,4 +58,12 @@ public class RemoteFile {
     public boolean isDirectory() {
         return isDirectory;
     }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public long getMtime() {
+        return mtime;
+    }
 }
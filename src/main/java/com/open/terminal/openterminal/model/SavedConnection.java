@@ -1,6 +1,7 @@
 package com.open.terminal.openterminal.model;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.UUID;
 
 public class SavedConnection implements Serializable {
@@ -11,7 +12,9 @@ public class SavedConnection implements Serializable {
     private int port;
     private String user;
     private String password; // 实际生产中建议加密存储
+    private String group; // 分组 (如 "生产")，为空表示未分组
     private long lastConnected; // 最后连接时间
+    private List<String> tags; // 标签 (如 "mysql", "beijing")，批量导入时带入
 
     public SavedConnection() {
         this.id = UUID.randomUUID().toString();
@@ -39,6 +42,10 @@ public class SavedConnection implements Serializable {
     public void setUser(String user) { this.user = user; }
     public String getPassword() { return password; }
     public void setPassword(String password) { this.password = password; }
+    public String getGroup() { return group; }
+    public void setGroup(String group) { this.group = group; }
     public long getLastConnected() { return lastConnected; }
     public void setLastConnected(long lastConnected) { this.lastConnected = lastConnected; }
+    public List<String> getTags() { return tags; }
+    public void setTags(List<String> tags) { this.tags = tags; }
 }
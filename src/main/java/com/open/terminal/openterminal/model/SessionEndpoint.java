@@ -0,0 +1,64 @@
+package com.open.terminal.openterminal.model;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * @description: 一个已连接的终端 Tab 对外暴露的文件访问入口，供跨会话传输等功能使用
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class SessionEndpoint {
+    private final String id = UUID.randomUUID().toString();
+    private final String displayName;
+    private final String sessionKey; // user@host:port
+    // 用于打开 exec 通道（如日志跟踪）
+    private final Session session;
+    // 打开该会话上的新 SFTP 通道
+    private final Callable<ChannelSftp> channelFactory;
+    // 该 Tab 文件面板当前所在目录
+    private final Supplier<String> currentDir;
+
+    public SessionEndpoint(String displayName, String sessionKey, Session session,
+                           Callable<ChannelSftp> channelFactory, Supplier<String> currentDir) {
+        this.displayName = displayName;
+        this.sessionKey = sessionKey;
+        this.session = session;
+        this.channelFactory = channelFactory;
+        this.currentDir = currentDir;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getSessionKey() {
+        return sessionKey;
+    }
+
+    public Session getSession() {
+        return session;
+    }
+
+    public ChannelSftp openChannel() throws Exception {
+        return channelFactory.call();
+    }
+
+    public String getCurrentDir() {
+        return currentDir.get();
+    }
+
+    @Override
+    public String toString() {
+        return displayName + " (" + sessionKey + ")";
+    }
+}
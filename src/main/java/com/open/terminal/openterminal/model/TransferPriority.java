@@ -0,0 +1,31 @@
+package com.open.terminal.openterminal.model;
+
+/**
+ * @description: 传输任务优先级，数值越大越先被调度
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public enum TransferPriority {
+    HIGH("高", 2),
+    NORMAL("普通", 1),
+    LOW("低", 0);
+
+    private final String label;
+    private final int weight;
+
+    TransferPriority(String label, int weight) {
+        this.label = label;
+        this.weight = weight;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        // 表格下拉框直接展示中文名称
+        return label;
+    }
+}
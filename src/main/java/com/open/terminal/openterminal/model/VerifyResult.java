@@ -0,0 +1,35 @@
+package com.open.terminal.openterminal.model;
+
+/**
+ * @description: 传输完成后的完整性校验结果
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class VerifyResult {
+    private final String algorithm; // 如 "sha256" 或 "sha256 分块(64MiB)×12"
+    private final String localDigest;
+    private final String remoteDigest;
+
+    public VerifyResult(String algorithm, String localDigest, String remoteDigest) {
+        this.algorithm = algorithm;
+        this.localDigest = localDigest;
+        this.remoteDigest = remoteDigest;
+    }
+
+    public boolean isMatch() {
+        return localDigest.equals(remoteDigest);
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getLocalDigest() {
+        return localDigest;
+    }
+
+    public String getRemoteDigest() {
+        return remoteDigest;
+    }
+}
@@ -0,0 +1,20 @@
+package com.open.terminal.openterminal.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @description: 打开的终端标签页，按界面上的顺序排列
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class Workspace {
+    private List<WorkspaceTab> tabs = new ArrayList<>();
+    private int selectedIndex = -1; // 选中的终端标签页在 tabs 中的位置，选中的不是终端时为 -1
+
+    public List<WorkspaceTab> getTabs() { return tabs; }
+    public void setTabs(List<WorkspaceTab> tabs) { this.tabs = tabs; }
+    public int getSelectedIndex() { return selectedIndex; }
+    public void setSelectedIndex(int selectedIndex) { this.selectedIndex = selectedIndex; }
+}
@@ -0,0 +1,29 @@
+package com.open.terminal.openterminal.model;
+
+/**
+ * @description: 工作区中的一个终端标签页。只记连接 id，密码等仍从 ConnectionManager 读取
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class WorkspaceTab {
+    private String connectionId;
+    private String title; // 标签页标题
+    private String remotePath; // 文件面板所在的远程目录
+
+    public WorkspaceTab() {
+    }
+
+    public WorkspaceTab(String connectionId, String title, String remotePath) {
+        this.connectionId = connectionId;
+        this.title = title;
+        this.remotePath = remotePath;
+    }
+
+    public String getConnectionId() { return connectionId; }
+    public void setConnectionId(String connectionId) { this.connectionId = connectionId; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getRemotePath() { return remotePath; }
+    public void setRemotePath(String remotePath) { this.remotePath = remotePath; }
+}
@@ -0,0 +1,126 @@
+package com.open.terminal.openterminal.util;
+
+/**
+ * @description: 以空白分隔的文本行扫描器，直接在原字符串上按下标读取数字，避免每行 split 产生的数组和子串。
+ * 同一个实例可以通过 reset 反复使用，非线程安全。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class FieldScanner {
+    private String line = "";
+    private int pos;
+
+    public FieldScanner reset(String line) {
+        this.line = line;
+        this.pos = 0;
+        return this;
+    }
+
+    public int position() {
+        return pos;
+    }
+
+    public void position(int pos) {
+        this.pos = pos;
+    }
+
+    public boolean hasNext() {
+        skipSpaces();
+        return pos < line.length();
+    }
+
+    /**
+     * 跳过 n 个字段
+     */
+    public FieldScanner skip(int n) {
+        for (int i = 0; i < n; i++) {
+            skipSpaces();
+            while (pos < line.length() && !Character.isWhitespace(line.charAt(pos))) {
+                pos++;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 读取一个整数字段，字段不是整数时抛出 NumberFormatException
+     */
+    public long nextLong() {
+        skipSpaces();
+        boolean negative = pos < line.length() && line.charAt(pos) == '-';
+        if (negative) {
+            pos++;
+        }
+        int start = pos;
+        long value = 0;
+        while (pos < line.length()) {
+            char c = line.charAt(pos);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            value = value * 10 + (c - '0');
+            pos++;
+        }
+        if (pos == start || (pos < line.length() && !Character.isWhitespace(line.charAt(pos)))) {
+            throw new NumberFormatException("不是整数: " + line);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * 读取形如 12.34 的非负小数（/proc/loadavg 的格式）
+     */
+    public double nextDecimal() {
+        skipSpaces();
+        int start = pos;
+        double value = 0;
+        double scale = 0;
+        while (pos < line.length()) {
+            char c = line.charAt(pos);
+            if (c == '.' && scale == 0) {
+                scale = 1;
+            } else if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (scale > 0) {
+                    scale *= 10;
+                }
+            } else {
+                break;
+            }
+            pos++;
+        }
+        if (pos == start) {
+            throw new NumberFormatException("不是数字: " + line);
+        }
+        return scale > 0 ? value / scale : value;
+    }
+
+    /**
+     * 读取一个字段（会分配子串，只在需要名称时使用）
+     */
+    public String nextToken() {
+        skipSpaces();
+        int start = pos;
+        while (pos < line.length() && !Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+        return line.substring(start, pos);
+    }
+
+    /**
+     * 剩余部分（去掉开头的空白）
+     */
+    public String rest() {
+        skipSpaces();
+        String rest = line.substring(pos);
+        pos = line.length();
+        return rest;
+    }
+
+    private void skipSpaces() {
+        while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+    }
+}
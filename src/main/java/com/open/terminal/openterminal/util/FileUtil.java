@@ -19,6 +19,8 @@ import java.text.CharacterIterator;
 public class FileUtil {
     // 定义本地下载目录
     public final static Path localDownloadDir = Paths.get(System.getProperty("java.io.tmpdir"), "remote-files");
+    // 编辑模式下的本地工作副本目录，与下载缓存分开，避免清空缓存时删掉正在编辑的文件
+    public final static Path localEditDir = Paths.get(System.getProperty("java.io.tmpdir"), "remote-edits");
 
 
     public static void openWithSystemChooser(File file) throws IOException {
@@ -0,0 +1,107 @@
+package com.open.terminal.openterminal.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * @description: 从日志行首解析时间戳，支持两类最常见的格式：
+ * ISO 风格 "2026-10-19 12:34:56[.,]789"（也允许 T 分隔、前面带 "[" 或 "<"）和 syslog 风格 "Oct 19 12:34:56"。
+ * 逐字符按位置解析，不用正则和 DateTimeFormatter，每秒几万行也不会成为瓶颈。解析失败返回 -1
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class LogTimestampParser {
+    private static final String MONTHS = "JanFebMarAprMayJunJulAugSepOctNovDec";
+
+    private LogTimestampParser() {
+    }
+
+    public static long parse(String line) {
+        int start = 0;
+        // 跳过常见的前缀符号
+        while (start < line.length() && start < 2 && (line.charAt(start) == '[' || line.charAt(start) == '<')) {
+            start++;
+        }
+        if (line.length() - start >= 19 && isDigit(line, start) && line.charAt(start + 4) == '-') {
+            return parseIso(line, start);
+        }
+        if (line.length() - start >= 15 && Character.isUpperCase(line.charAt(start))) {
+            return parseSyslog(line, start);
+        }
+        return -1;
+    }
+
+    private static long parseIso(String s, int i) {
+        int year = digits(s, i, 4);
+        int month = digits(s, i + 5, 2);
+        int day = digits(s, i + 8, 2);
+        char sep = s.charAt(i + 10);
+        if (sep != ' ' && sep != 'T' || s.charAt(i + 13) != ':' || s.charAt(i + 16) != ':') {
+            return -1;
+        }
+        int hour = digits(s, i + 11, 2);
+        int minute = digits(s, i + 14, 2);
+        int second = digits(s, i + 17, 2);
+        int millis = 0;
+        int p = i + 19;
+        if (p < s.length() && (s.charAt(p) == '.' || s.charAt(p) == ',')) {
+            millis = Math.max(digits(s, p + 1, 3), 0);
+        }
+        return toEpoch(year, month, day, hour, minute, second, millis);
+    }
+
+    private static long parseSyslog(String s, int i) {
+        int month = MONTHS.indexOf(s.substring(i, i + 3));
+        if (month < 0 || month % 3 != 0 || s.charAt(i + 3) != ' ') {
+            return -1;
+        }
+        // 日期小于 10 时前面补空格："Oct  9"
+        int day = s.charAt(i + 4) == ' ' ? digits(s, i + 5, 1) : digits(s, i + 4, 2);
+        if (s.charAt(i + 6) != ' ' || s.charAt(i + 9) != ':' || s.charAt(i + 12) != ':') {
+            return -1;
+        }
+        int hour = digits(s, i + 7, 2);
+        int minute = digits(s, i + 10, 2);
+        int second = digits(s, i + 13, 2);
+        // syslog 没有年份，取当前年
+        return toEpoch(LocalDate.now().getYear(), month / 3 + 1, day, hour, minute, second, 0);
+    }
+
+    private static long toEpoch(int year, int month, int day, int hour, int minute, int second, int millis) {
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 60) {
+            return -1;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, Math.min(second, 59))
+                    .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + millis;
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 读取定长数字，不是数字时返回 -1
+     */
+    private static int digits(String s, int from, int count) {
+        if (from + count > s.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(String s, int i) {
+        char c = s.charAt(i);
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,99 @@
+package com.open.terminal.openterminal.util;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @description: 在 SSH 会话上执行一次性命令，收集标准输出、标准错误和退出码
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class SshExecUtil {
+
+    /**
+     * 执行命令并等待结束
+     */
+    public static ExecResult exec(Session session, String command) throws JSchException, IOException {
+        ChannelExec exec = (ChannelExec) session.openChannel("exec");
+        try {
+            exec.setCommand(command);
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+            exec.setErrStream(err);
+            // 必须在 connect 之前获取流
+            InputStream in = exec.getInputStream();
+            exec.connect();
+            byte[] out = in.readAllBytes();
+            // 输出读完后通道可能还没收到退出码，稍等片刻
+            while (!exec.isClosed()) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return new ExecResult(exec.getExitStatus(),
+                    new String(out, StandardCharsets.UTF_8),
+                    err.toString(StandardCharsets.UTF_8));
+        } finally {
+            exec.disconnect();
+        }
+    }
+
+    /**
+     * 包装长期运行的命令（tail -F、inotifywait -m 等），使其在 exec 通道关闭时结束。
+     * 没有 pty 时断开通道不会通知远程进程，它要等下一次写输出收到 SIGPIPE 才退出，输出很少时会一直留在远程；
+     * 这里另起一个后台进程读标准输入，通道关闭后读到 EOF 即杀掉命令。因此调用方不能向通道写入或发送 EOF。
+     * command 须为单个简单命令，命令自行结束时 shell 随之退出，退出码与命令相同
+     */
+    public static String untilChannelClosed(String command) {
+        return "exec 3<&0; " + command + " & p=$!; "
+                + "(cat <&3 >/dev/null 2>&1; kill $p 2>/dev/null) >/dev/null 2>&1 & "
+                + "exec 3<&-; wait $p";
+    }
+
+    /**
+     * 按 POSIX shell 规则用单引号包裹参数，防止路径中的空格和特殊字符被解释
+     */
+    public static String quote(String arg) {
+        return "'" + arg.replace("'", "'\\''") + "'";
+    }
+
+    /**
+     * 命令执行结果
+     */
+    public static class ExecResult {
+        private final int exitStatus;
+        private final String stdout;
+        private final String stderr;
+
+        public ExecResult(int exitStatus, String stdout, String stderr) {
+            this.exitStatus = exitStatus;
+            this.stdout = stdout;
+            this.stderr = stderr;
+        }
+
+        public boolean isSuccess() {
+            return exitStatus == 0;
+        }
+
+        public int getExitStatus() {
+            return exitStatus;
+        }
+
+        public String getStdout() {
+            return stdout;
+        }
+
+        public String getStderr() {
+            return stderr;
+        }
+    }
+}
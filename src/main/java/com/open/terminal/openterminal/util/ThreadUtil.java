@@ -2,6 +2,8 @@ package com.open.terminal.openterminal.util;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
@@ -25,12 +27,46 @@ public class ThreadUtil {
      */
     private static final ExecutorService virtualThreadPerTaskExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
+    /**
+     * 定时任务调度线程（守护线程），只负责按节奏触发，耗时逻辑应再提交到虚拟线程执行
+     */
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "open-terminal-scheduler");
+        t.setDaemon(true);
+        return t;
+    });
+
     public static void submitTask(Runnable task) {
         virtualThreadPerTaskExecutor.submit(task);
     }
 
+    /**
+     * 延迟执行一次，常用于防抖（重复触发时取消上一次返回的 future 再重新调度）
+     */
+    public static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return scheduler.schedule(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("延迟任务执行异常", e);
+            }
+        }, delay, unit);
+    }
+
+    public static ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period, TimeUnit unit) {
+        return scheduler.scheduleAtFixedRate(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                // 异常会导致后续调度被取消，这里吞掉并记录
+                log.error("定时任务执行异常", e);
+            }
+        }, period, period, unit);
+    }
+
 
     public static void stopVirtualExecutorService() {
+        scheduler.shutdownNow();
         if (!virtualThreadPerTaskExecutor.isShutdown()) {
             virtualThreadPerTaskExecutor.shutdown();
             try {
@@ -0,0 +1,60 @@
+package com.open.terminal.openterminal.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 令牌桶限速器，单位为字节/秒，桶容量为 1 秒的流量。
+ * 采用“预支”方式：先扣令牌再按欠账时长休眠，多个线程同时传输时按到达顺序依次排队，总速率不会超过上限。
+ * @author：dukelewis
+ * @date: 2026/10/19
+ * @Copyright： https://github.com/DukeLewis
+ */
+public class TokenBucket {
+    /**
+     * 每秒产生的令牌数，小于等于 0 表示不限速
+     */
+    private volatile long ratePerSecond;
+    private double available;
+    private long lastRefillNanos = System.nanoTime();
+
+    public TokenBucket(long ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+        this.available = Math.max(ratePerSecond, 0);
+    }
+
+    public synchronized void setRate(long ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+        // 调整速率时重置桶，避免旧的欠账导致长时间阻塞
+        this.available = Math.max(ratePerSecond, 0);
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    public long getRate() {
+        return ratePerSecond;
+    }
+
+    /**
+     * 申请 permits 个令牌，令牌不足时阻塞当前线程（传输都跑在虚拟线程上，阻塞代价很低）
+     */
+    public void acquire(long permits) {
+        long rate = ratePerSecond;
+        if (rate <= 0 || permits <= 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            available = Math.min(rate, available + (now - lastRefillNanos) * rate / 1_000_000_000.0);
+            lastRefillNanos = now;
+            available -= permits;
+            waitNanos = available >= 0 ? 0 : (long) (-available * 1_000_000_000.0 / rate);
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}